@@ -38,4 +38,9 @@ public interface CVParams {
   @OptionalParameter(defaultValue = "10")
   Integer getFolds();
 
+  @ParameterDescription(valueName = "num",
+      description = "number of folds which are trained and tested in parallel, default is 1.")
+  @OptionalParameter(defaultValue = "1")
+  Integer getFoldThreads();
+
 }
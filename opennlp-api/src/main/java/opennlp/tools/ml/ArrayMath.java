@@ -118,17 +118,11 @@ public class ArrayMath {
   public static void sumFeatures(Context[] context, float[] values, double[] prior) {
     for (int ci = 0; ci < context.length; ci++) {
       if (context[ci] != null) {
-        Context predParams = context[ci];
-        int[] activeOutcomes = predParams.getOutcomes();
-        double[] activeParameters = predParams.getParameters();
         double value = 1;
         if (values != null) {
           value = values[ci];
         }
-        for (int ai = 0; ai < activeOutcomes.length; ai++) {
-          int oid = activeOutcomes[ai];
-          prior[oid] += activeParameters[ai] * value;
-        }
+        context[ci].addParameters(prior, value);
       }
     }
   }
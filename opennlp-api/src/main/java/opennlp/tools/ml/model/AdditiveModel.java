@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import opennlp.tools.util.featuregen.FeatureSink;
+
+/**
+ * A {@link MaxentModel} whose unnormalized outcome scores are the sums of the parameters of
+ * the features of a context. The scores of a context can thereby be computed in parts, e.g.
+ * the scores of the features which several contexts share are computed only once and copied
+ * before the remaining features of each context are added.
+ * <p>
+ * For a context which is split into two parts, adding the scores of both parts to an array of
+ * zeros and normalizing it yields the same probabilities as
+ * {@link #evalFeatures(FeatureSink, double[])} of the whole context, up to rounding errors.
+ *
+ * @see opennlp.tools.util.BeamSearchContextGenerator#hasStaticContext()
+ */
+public interface AdditiveModel extends MaxentModel {
+
+  /**
+   * @return {@code true} if the scores of this model are additive. Otherwise, e.g. if the
+   *         scores depend on a prior which is computed from the whole context,
+   *         {@link #addScores(FeatureSink, double[])} must not be used.
+   */
+  boolean hasAdditiveScores();
+
+  /**
+   * Adds the unnormalized scores of features to the scores of the outcomes.
+   *
+   * @param features The {@link FeatureSink} with the predicates to score.
+   * @param scores The unnormalized scores of the outcomes, indexed by outcome id.
+   *               Zeros if no features were added yet.
+   */
+  void addScores(FeatureSink features, double[] scores);
+
+  /**
+   * Turns the summed up scores of all features of a context into probabilities.
+   *
+   * @param scores The unnormalized scores, which are replaced by the probabilities.
+   * @return The {@code scores} array, which now contains the probabilities of the outcomes,
+   *         all of which sum to {@code 1}.
+   */
+  double[] normalizeScores(double[] scores);
+}
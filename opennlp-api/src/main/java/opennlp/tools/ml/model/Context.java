@@ -57,6 +57,19 @@ public class Context {
     return parameters;
   }
 
+  /**
+   * Adds the parameters of this context, multiplied by {@code value}, to the sums
+   * of their outcomes.
+   *
+   * @param sums The sums per outcome to add to.
+   * @param value The value of the predicate in the current event.
+   */
+  public void addParameters(double[] sums, double value) {
+    for (int ai = 0; ai < outcomes.length; ai++) {
+      sums[outcomes[ai]] += parameters[ai] * value;
+    }
+  }
+
   @Override
   public int hashCode() {
     return Objects.hash(Arrays.hashCode(parameters), Arrays.hashCode(outcomes));
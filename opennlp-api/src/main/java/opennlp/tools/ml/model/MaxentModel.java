@@ -17,6 +17,8 @@
 
 package opennlp.tools.ml.model;
 
+import opennlp.tools.util.featuregen.FeatureSink;
+
 /**
  * Interface for maximum entropy models.
  **/
@@ -56,6 +58,24 @@ public interface MaxentModel {
    */
   double[] eval(String[] context, float[] values);
 
+  /**
+   * Evaluates the features of a {@link FeatureSink} as context.
+   * <p>
+   * The default implementation converts the features to a {@link String} array and calls
+   * {@link #eval(String[], double[])}. Implementations may instead look up the features in
+   * the {@link FeatureSink} directly.
+   *
+   * @param features The {@link FeatureSink} with the contextual predicates which are to be
+   *                 evaluated together.
+   * @param probs An array which is populated with the probabilities for each of the different
+   *              outcomes, all of which sum to {@code 1}.
+   * @return An array of the probabilities for each of the different
+   *         outcomes, all of which sum to {@code 1}.
+   */
+  default double[] evalFeatures(FeatureSink features, double[] probs) {
+    return eval(features.toArray(), probs);
+  }
+
   /**
    * Retrieves the outcome associated with the index
    * containing the highest probability in the double[].
@@ -17,6 +17,11 @@
 
 package opennlp.tools.ml.model;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 import opennlp.tools.util.BeamSearchContextGenerator;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
@@ -68,6 +73,92 @@ public interface SequenceClassificationModel {
   <T> Sequence[] bestSequences(int numSequences, T[] sequence,
       Object[] additionalContext, BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator);
 
+  /**
+   * Finds the {@link Sequence} with the highest probability for each of several sequences,
+   * e.g. for the sentences of a document.
+   * <p>
+   * The default implementation calls
+   * {@link #bestSequence(Object[], Object[], BeamSearchContextGenerator, SequenceValidator)}
+   * for each sequence. Implementations may reuse their decoding state for all sequences.
+   *
+   * @param sequences The {@link T sequences} used as input.
+   * @param additionalContexts The additional context of each sequence, or {@code null} if
+   *                           there is none.
+   * @param cg The {@link BeamSearchContextGenerator} to use.
+   * @param validator The {@link SequenceValidator} to validate with.
+   *
+   * @return The {@link Sequence} with the highest probability for each of the {@code sequences},
+   *         in the same order. An element is {@code null} if no valid sequence was found.
+   */
+  default <T> Sequence[] bestSequences(T[][] sequences, Object[][] additionalContexts,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    if (additionalContexts != null && additionalContexts.length != sequences.length) {
+      throw new IllegalArgumentException("There must be one additional context per sequence");
+    }
+    final Sequence[] best = new Sequence[sequences.length];
+    for (int i = 0; i < sequences.length; i++) {
+      best[i] = bestSequence(sequences[i], additionalContexts != null ? additionalContexts[i] : null,
+          cg, validator);
+    }
+    return best;
+  }
+
+  /**
+   * Finds the {@link Sequence} with the highest probability for each of several sequences, and
+   * spreads the sequences over the threads of an {@link Executor}. The {@code cg} and the
+   * {@code validator} must therefore be thread safe.
+   * <p>
+   * The sequences are split into contiguous slices, and each slice is decoded by
+   * {@link #bestSequences(Object[][], Object[][], BeamSearchContextGenerator, SequenceValidator)}
+   * in a task of the {@code executor}. This method returns after all tasks completed.
+   *
+   * @param sequences The {@link T sequences} used as input.
+   * @param additionalContexts The additional context of each sequence, or {@code null} if
+   *                           there is none.
+   * @param cg The {@link BeamSearchContextGenerator} to use.
+   * @param validator The {@link SequenceValidator} to validate with.
+   * @param executor The {@link Executor} to decode the slices on, or {@code null} to decode
+   *                 all sequences on the calling thread.
+   *
+   * @return The {@link Sequence} with the highest probability for each of the {@code sequences},
+   *         in the same order. An element is {@code null} if no valid sequence was found.
+   */
+  default <T> Sequence[] bestSequences(T[][] sequences, Object[][] additionalContexts,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator, Executor executor) {
+    if (additionalContexts != null && additionalContexts.length != sequences.length) {
+      throw new IllegalArgumentException("There must be one additional context per sequence");
+    }
+    if (executor == null || sequences.length < 2) {
+      return bestSequences(sequences, additionalContexts, cg, validator);
+    }
+
+    // a few slices per processor, so that long sequences do not delay a single task too much
+    final int numSlices = Math.min(sequences.length, 4 * Runtime.getRuntime().availableProcessors());
+    final Sequence[] best = new Sequence[sequences.length];
+    final CompletableFuture<?>[] tasks = new CompletableFuture<?>[numSlices];
+    for (int slice = 0; slice < numSlices; slice++) {
+      final int from = (int) ((long) sequences.length * slice / numSlices);
+      final int to = (int) ((long) sequences.length * (slice + 1) / numSlices);
+      tasks[slice] = CompletableFuture.runAsync(() -> System.arraycopy(
+          bestSequences(Arrays.copyOfRange(sequences, from, to),
+              additionalContexts != null ? Arrays.copyOfRange(additionalContexts, from, to) : null,
+              cg, validator), 0, best, from, to - from), executor);
+    }
+
+    try {
+      CompletableFuture.allOf(tasks).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+    return best;
+  }
+
   /**
    * @return Retrieves all possible outcomes.
    */
@@ -17,6 +17,8 @@
 
 package opennlp.tools.tokenize;
 
+import opennlp.tools.util.featuregen.FeatureSink;
+
 /**
  * Interface for context generators required for
  * {@link Tokenizer tokenizer implementations}.
@@ -30,4 +32,23 @@ public interface TokenContextGenerator {
    * @return An array of features for a {@code sentence} at the specified {@code index}.
    */
   String[] getContext(String sentence, int index);
+
+  /**
+   * Adds the features for a token, which is a slice of a text, at the specified {@code index}
+   * to a {@link FeatureSink}. The features must be the same, and in the same order, as those
+   * returned by {@link #getContext(String, int)} for the token.
+   * <p>
+   * The default implementation copies the result of {@link #getContext(String, int)} to the
+   * {@link FeatureSink}.
+   *
+   * @param features The {@link FeatureSink} to add the features to.
+   * @param text The text which contains the token.
+   * @param start The start offset of the token in {@code text}, inclusive.
+   * @param end The end offset of the token in {@code text}, exclusive.
+   * @param index The index to consider splitting the token, relative to {@code start}.
+   */
+  default void createContext(FeatureSink features, CharSequence text, int start, int end,
+                             int index) {
+    features.addAll(getContext(text.subSequence(start, end).toString(), index));
+  }
 }
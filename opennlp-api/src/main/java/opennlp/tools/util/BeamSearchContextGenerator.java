@@ -17,6 +17,8 @@
 
 package opennlp.tools.util;
 
+import opennlp.tools.util.featuregen.FeatureSink;
+
 /**
  * Interface for context generators used with a sequence beam search.
  */
@@ -34,4 +36,79 @@ public interface BeamSearchContextGenerator<T> {
    * @return The context for the specified {@code index} in the specified {@code sequence}.
    */
   String[] getContext(int index, T[] sequence, String[] priorDecisions, Object[] additionalContext);
+
+  /**
+   * Adds the context for the specified position in the specified {@code sequence} to a
+   * {@link FeatureSink}. The features must be the same, and in the same order, as those
+   * returned by {@link #getContext(int, Object[], String[], Object[])}.
+   * <p>
+   * The default implementation copies the result of
+   * {@link #getContext(int, Object[], String[], Object[])} to the {@link FeatureSink}.
+   *
+   * @param features The {@link FeatureSink} to add the context to.
+   * @param index The index of the {@code sequence}.
+   * @param sequence The sequence of {@link T items} over which the beam search is performed.
+   * @param priorDecisions The sequence of decisions made prior to the context for
+   *                       which this decision is being made.
+   * @param additionalContext Any additional context specific to a class implementing this interface.
+   */
+  default void createContext(FeatureSink features, int index, T[] sequence, String[] priorDecisions,
+                             Object[] additionalContext) {
+    features.addAll(getContext(index, sequence, priorDecisions, additionalContext));
+  }
+
+  /**
+   * Indicates whether this generator splits its contexts into static features, which depend only
+   * on the position in the {@code sequence}, and history features, which also depend on the prior
+   * decisions. If so, a beam search can score the static features once per position, and only
+   * the history features once per hypothesis.
+   * <p>
+   * Implementations which return {@code true} must create the same features via
+   * {@link #createStaticContext(FeatureSink, int, Object[], String[], Object[])} and
+   * {@link #createHistoryContext(FeatureSink, int, Object[], String[], Object[])} together as
+   * via {@link #getContext(int, Object[], String[], Object[])}, in any order. Subclasses which
+   * change the context must therefore override this method too.
+   *
+   * @return {@code true} if the contexts are split, the default is {@code false}.
+   */
+  default boolean hasStaticContext() {
+    return false;
+  }
+
+  /**
+   * Adds the static features of the context for the specified position, which are the same
+   * for all prior decisions.
+   * <p>
+   * The default implementation adds no features.
+   *
+   * @param features The {@link FeatureSink} to add the features to.
+   * @param index The index of the {@code sequence}.
+   * @param sequence The sequence of {@link T items} over which the beam search is performed.
+   * @param priorDecisions The decisions of one of the hypotheses at this position. The static
+   *                       features must not depend on them.
+   * @param additionalContext Any additional context specific to a class implementing this interface.
+   */
+  default void createStaticContext(FeatureSink features, int index, T[] sequence,
+                                   String[] priorDecisions, Object[] additionalContext) {
+  }
+
+  /**
+   * Adds the features of the context for the specified position which depend on the prior
+   * decisions, i.e. all features which are not added by
+   * {@link #createStaticContext(FeatureSink, int, Object[], String[], Object[])}.
+   * <p>
+   * The default implementation adds the whole context via
+   * {@link #createContext(FeatureSink, int, Object[], String[], Object[])}.
+   *
+   * @param features The {@link FeatureSink} to add the features to.
+   * @param index The index of the {@code sequence}.
+   * @param sequence The sequence of {@link T items} over which the beam search is performed.
+   * @param priorDecisions The sequence of decisions made prior to the context for
+   *                       which this decision is being made.
+   * @param additionalContext Any additional context specific to a class implementing this interface.
+   */
+  default void createHistoryContext(FeatureSink features, int index, T[] sequence,
+                                    String[] priorDecisions, Object[] additionalContext) {
+    createContext(features, index, sequence, priorDecisions, additionalContext);
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ScratchState} which keeps released states in a bounded array of slots. Slots are taken
+ * and filled with compare-and-set, starting at an index derived from the calling thread, so
+ * concurrent threads usually probe different slots.
+ *
+ * @see StateStrategy#POOLED
+ */
+final class PooledScratchState<S> implements ScratchState<S> {
+
+  private final Supplier<S> factory;
+  private final AtomicReferenceArray<S> slots;
+
+  /**
+   * @param capacity The number of slots, a power of two.
+   */
+  PooledScratchState(Supplier<S> factory, int capacity) {
+    this.factory = factory;
+    this.slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  @Override
+  public S acquire() {
+    final int capacity = slots.length();
+    final int start = ScratchState.probeStart(capacity);
+    for (int i = 0; i < capacity; i++) {
+      final int index = (start + i) & (capacity - 1);
+      final S state = slots.get(index);
+      if (state != null && slots.compareAndSet(index, state, null)) {
+        return state;
+      }
+    }
+    return factory.get();
+  }
+
+  @Override
+  public void release(S state) {
+    final int capacity = slots.length();
+    final int start = ScratchState.probeStart(capacity);
+    for (int i = 0; i < capacity; i++) {
+      final int index = (start + i) & (capacity - 1);
+      if (slots.get(index) == null && slots.compareAndSet(index, null, state)) {
+        return;
+      }
+    }
+    // the pool is full, the state is dropped
+  }
+
+  @Override
+  public void clearForCurrentThread() {
+    // states are not bound to threads
+  }
+}
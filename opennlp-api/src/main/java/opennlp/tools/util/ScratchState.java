@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+/**
+ * Provides mutable scratch state to the threads which use a shared, thread-safe component.
+ * <p>
+ * A state is {@link #acquire() acquired} at the start of a call and {@link #release(Object) released}
+ * at its end, typically in a {@code finally} block. In between, it is used by the calling thread only.
+ * Scratch state must not carry results from one call to the next: depending on the
+ * {@link StateStrategy}, the next call may get a different state, or one used by another thread before.
+ *
+ * @param <S> The type of the state.
+ * @see StateStrategy#newState(java.util.function.Supplier)
+ */
+public interface ScratchState<S> {
+
+  /**
+   * @return A state for the exclusive use by the calling thread until it is released.
+   */
+  S acquire();
+
+  /**
+   * Returns a state obtained from {@link #acquire()} by the calling thread.
+   *
+   * @param state The state to return.
+   */
+  void release(S state);
+
+  /**
+   * Removes the state of the calling thread, if the strategy keeps states per thread. Call this
+   * when a pooled platform thread is returned or the component is disposed, to avoid
+   * classloader retention in container environments.
+   */
+  void clearForCurrentThread();
+
+  /**
+   * @return The number of states kept by the shared strategies: twice the number of processors,
+   *         rounded up to a power of two.
+   */
+  static int defaultCapacity() {
+    final int n = 2 * Runtime.getRuntime().availableProcessors();
+    return Integer.highestOneBit(n - 1) << 1;
+  }
+
+  /**
+   * Maps a thread to a start index in {@code [0, capacity)}.
+   *
+   * @param capacity A power of two.
+   */
+  static int probeStart(int capacity) {
+    final long id = Thread.currentThread().threadId();
+    // mix the id, thread ids are sequential
+    final int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & (capacity - 1);
+  }
+}
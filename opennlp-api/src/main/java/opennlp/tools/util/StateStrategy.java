@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Selects how thread-safe components manage their mutable {@link ScratchState scratch state},
+ * such as score buffers and per-sentence feature caches.
+ * <p>
+ * {@link #THREAD_LOCAL} keeps one state per thread. It is the cheapest option for a fixed set of
+ * long-lived platform threads. With virtual threads, e.g. from
+ * {@link java.util.concurrent.Executors#newVirtualThreadPerTaskExecutor()}, every task runs on a
+ * new thread and would allocate a new state which is never reused. {@link #POOLED} and
+ * {@link #STRIPED} instead share a bounded number of states between all threads.
+ *
+ * @see ScratchState
+ */
+public enum StateStrategy {
+
+  /**
+   * One state per thread, kept in a {@link ThreadLocal}.
+   */
+  THREAD_LOCAL,
+
+  /**
+   * A bounded, lock-free pool of states. A thread takes a state from the pool for the duration of
+   * one call and returns it afterward. If the pool is empty a new state is created, and a returned
+   * state is dropped if the pool is full.
+   */
+  POOLED,
+
+  /**
+   * A fixed number of stripes, each holding one state which is created on first use. A thread
+   * prefers the stripe derived from its id and probes the other stripes if that one is in use.
+   * If all stripes are in use, a temporary state is created for the call.
+   */
+  STRIPED;
+
+  /**
+   * System property to select the default {@link StateStrategy}, by its name in any case,
+   * e.g. {@code -Dopennlp.state.strategy=pooled}. If unset, {@link #THREAD_LOCAL} is used.
+   */
+  public static final String STRATEGY_PROPERTY = "opennlp.state.strategy";
+
+  /**
+   * @return The {@link StateStrategy} selected via {@link #STRATEGY_PROPERTY},
+   *         or {@link #THREAD_LOCAL} if the property is not set.
+   * @throws IllegalArgumentException Thrown if the property value is not a {@link StateStrategy}.
+   */
+  public static StateStrategy getDefault() {
+    final String name = System.getProperty(STRATEGY_PROPERTY);
+    if (name == null || name.isBlank()) {
+      return THREAD_LOCAL;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown value for " + STRATEGY_PROPERTY + ": " + name, e);
+    }
+  }
+
+  /**
+   * Creates a {@link ScratchState} managed by this strategy.
+   *
+   * @param factory Creates a new state. Must not be {@code null}.
+   * @param <S> The type of the state.
+   * @return A new {@link ScratchState}.
+   */
+  public <S> ScratchState<S> newState(Supplier<S> factory) {
+    if (factory == null) {
+      throw new IllegalArgumentException("factory must not be null");
+    }
+    return switch (this) {
+      case THREAD_LOCAL -> new ThreadLocalScratchState<>(factory);
+      case POOLED -> new PooledScratchState<>(factory, ScratchState.defaultCapacity());
+      case STRIPED -> new StripedScratchState<>(factory, ScratchState.defaultCapacity());
+    };
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ScratchState} with a fixed number of stripes, each owning one lazily created state.
+ * A stripe is locked with compare-and-set for the duration of a call; its state never leaves it.
+ *
+ * @see StateStrategy#STRIPED
+ */
+final class StripedScratchState<S> implements ScratchState<S> {
+
+  private final Supplier<S> factory;
+  private final AtomicIntegerArray locked;
+  private final AtomicReferenceArray<S> states;
+
+  /**
+   * @param stripes The number of stripes, a power of two.
+   */
+  StripedScratchState(Supplier<S> factory, int stripes) {
+    this.factory = factory;
+    this.locked = new AtomicIntegerArray(stripes);
+    this.states = new AtomicReferenceArray<>(stripes);
+  }
+
+  @Override
+  public S acquire() {
+    final int stripes = states.length();
+    final int start = ScratchState.probeStart(stripes);
+    for (int i = 0; i < stripes; i++) {
+      final int index = (start + i) & (stripes - 1);
+      if (locked.get(index) == 0 && locked.compareAndSet(index, 0, 1)) {
+        S state = states.get(index);
+        if (state == null) {
+          state = factory.get();
+          states.set(index, state);
+        }
+        return state;
+      }
+    }
+    // all stripes are in use, the state is released to the garbage collector
+    return factory.get();
+  }
+
+  @Override
+  public void release(S state) {
+    final int stripes = states.length();
+    final int start = ScratchState.probeStart(stripes);
+    for (int i = 0; i < stripes; i++) {
+      final int index = (start + i) & (stripes - 1);
+      // a state never moves to another stripe, a temporary state is not found
+      if (states.get(index) == state) {
+        locked.set(index, 0);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void clearForCurrentThread() {
+    // states are not bound to threads
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link ScratchState} which keeps one state per thread.
+ *
+ * @see StateStrategy#THREAD_LOCAL
+ */
+final class ThreadLocalScratchState<S> implements ScratchState<S> {
+
+  private final ThreadLocal<S> threadState;
+
+  ThreadLocalScratchState(Supplier<S> factory) {
+    this.threadState = ThreadLocal.withInitial(factory);
+  }
+
+  @Override
+  public S acquire() {
+    return threadState.get();
+  }
+
+  @Override
+  public void release(S state) {
+    // the state stays with its thread
+  }
+
+  @Override
+  public void clearForCurrentThread() {
+    threadState.remove();
+  }
+}
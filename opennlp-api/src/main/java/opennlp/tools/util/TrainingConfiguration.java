@@ -17,6 +17,8 @@
 
 package opennlp.tools.util;
 
+import java.util.concurrent.ExecutorService;
+
 import opennlp.tools.monitoring.StopCriteria;
 import opennlp.tools.monitoring.TrainingProgressMonitor;
 
@@ -24,5 +26,21 @@ import opennlp.tools.monitoring.TrainingProgressMonitor;
  * Configuration used for model training.
  * @param progMon {@link TrainingProgressMonitor} used to monitor the training progress.
  * @param stopCriteria {@link StopCriteria} used to abort training when the criteria is met.
+ * @param executor {@link ExecutorService} used by multi-threaded trainers instead of creating
+ *                 their own threads, or {@code null}. It is not shut down by the trainer, so it
+ *                 can be shared by several trainings. If the tasks which start a training run
+ *                 in the same pool, it should be a {@link java.util.concurrent.ForkJoinPool}.
  */
-public record TrainingConfiguration(TrainingProgressMonitor progMon, StopCriteria<Double> stopCriteria) {}
+public record TrainingConfiguration(TrainingProgressMonitor progMon, StopCriteria<Double> stopCriteria,
+                                    ExecutorService executor) {
+
+  /**
+   * Initializes a {@link TrainingConfiguration} without an {@link ExecutorService}.
+   *
+   * @param progMon {@link TrainingProgressMonitor} used to monitor the training progress.
+   * @param stopCriteria {@link StopCriteria} used to abort training when the criteria is met.
+   */
+  public TrainingConfiguration(TrainingProgressMonitor progMon, StopCriteria<Double> stopCriteria) {
+    this(progMon, stopCriteria, null);
+  }
+}
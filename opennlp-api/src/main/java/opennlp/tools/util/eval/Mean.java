@@ -57,6 +57,16 @@ public class Mean {
     this.count += count;
   }
 
+  /**
+   * Merge the values of another {@link Mean} into this one.
+   *
+   * @param mean The {@link Mean} to merge.
+   */
+  public void mergeInto(final Mean mean) {
+    this.sum += mean.sum;
+    this.count += mean.count;
+  }
+
   /**
    * @return Retrieves the mean of all values added with {@link #add(double)}
    * or {@code 0} if there are zero add values.
@@ -18,6 +18,7 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -44,6 +45,40 @@ public interface AdaptiveFeatureGenerator {
    */
   void createFeatures(List<String> features, String[] tokens, int index, String[] previousOutcomes);
 
+  /**
+   * Adds the same features as {@link #createFeatures(List, String[], int, String[])} to the
+   * specified {@link FeatureSink}, in the same order.
+   * <p>
+   * The default implementation collects the features in a list and copies them to the
+   * {@link FeatureSink}. Implementations should override it to write their features directly,
+   * which avoids creating a {@link String} per feature.
+   *
+   * @param features The {@link FeatureSink} to add the features to.
+   * @param tokens The tokens of the sentence or other text unit being processed.
+   * @param index The index of the token which is currently being processed.
+   * @param previousOutcomes The outcomes for the tokens prior to the specified index.
+   */
+  default void emitFeatures(FeatureSink features, String[] tokens, int index,
+                              String[] previousOutcomes) {
+    List<String> list = new ArrayList<>();
+    createFeatures(list, tokens, index, previousOutcomes);
+    for (String feature : list) {
+      features.add(feature);
+    }
+  }
+
+  /**
+   * Indicates whether the features depend on the {@code previousOutcomes}. Features which do not
+   * are the same for all hypotheses of a beam search at a position, so they can be scored once.
+   * <p>
+   * The default implementation returns {@code true}, which is always safe.
+   *
+   * @return {@code true} if the features may depend on the {@code previousOutcomes}.
+   */
+  default boolean dependsOnPreviousOutcomes() {
+    return true;
+  }
+
   /**
    * Informs a feature generator that the specified tokens have been classified with the
    * corresponding set of specified {@code outcomes}.
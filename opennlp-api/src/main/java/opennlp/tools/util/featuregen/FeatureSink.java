@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of features, which are written as a constant prefix followed by
+ * slices of tokens, without creating a {@link String} per feature.
+ * <p>
+ * The characters of all features are kept in one array, together with the end offset and
+ * the {@link String#hashCode() hash code} of each feature, which is computed while the
+ * feature is written. A {@link opennlp.tools.ml.model.MaxentModel} can thereby look up the
+ * features of a {@link FeatureSink} directly, see
+ * {@link opennlp.tools.ml.model.MaxentModel#evalFeatures(FeatureSink, double[])}.
+ * <p>
+ * A feature is either added at once, e.g. via {@link #add(String, CharSequence)}, or
+ * written piecewise by {@link #begin(String)}, followed by calls to the {@code append}
+ * methods and {@link #end()}. The prefixes pushed via {@link #pushPrefix(String)} are
+ * prepended to every feature until they are popped again.
+ * <p>
+ * A {@link FeatureSink} is not thread safe, it is meant to be {@link #clear() cleared} and
+ * reused by one thread.
+ *
+ * @see AdaptiveFeatureGenerator#emitFeatures(FeatureSink, String[], int, String[])
+ */
+public final class FeatureSink {
+
+  private char[] chars = new char[1024];
+  private int length;
+
+  private int[] ends = new int[64];
+  private int[] hashes = new int[64];
+  private int size;
+
+  private char[] prefixChars = new char[16];
+  private int prefixLength;
+  private int[] prefixEnds = new int[4];
+  private int prefixDepth;
+
+  private int start = -1;
+  private int hash;
+
+  /**
+   * Adds a feature.
+   *
+   * @param feature The feature to add.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink add(CharSequence feature) {
+    return begin().append(feature).end();
+  }
+
+  /**
+   * Adds the feature {@code prefix + value}.
+   *
+   * @param prefix The prefix of the feature, usually a constant.
+   * @param value The value of the feature.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink add(String prefix, CharSequence value) {
+    return begin(prefix).append(value).end();
+  }
+
+  /**
+   * Adds the feature {@code prefix + value.subSequence(from, to)}.
+   *
+   * @param prefix The prefix of the feature, usually a constant.
+   * @param value The value of the feature.
+   * @param from The start index of the slice of {@code value}, inclusive.
+   * @param to The end index of the slice of {@code value}, exclusive.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink add(String prefix, CharSequence value, int from, int to) {
+    return begin(prefix).append(value, from, to).end();
+  }
+
+  /**
+   * Adds the features of a {@link String} array.
+   *
+   * @param features The features to add.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink addAll(String[] features) {
+    for (String feature : features) {
+      add(feature);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a range of the features of another {@link FeatureSink}.
+   *
+   * @param source The {@link FeatureSink} to copy the features from. Must not be this instance.
+   * @param from The index of the first feature to copy, inclusive.
+   * @param to The index of the last feature to copy, exclusive.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink addAll(FeatureSink source, int from, int to) {
+    for (int i = from; i < to; i++) {
+      begin();
+      append(source.chars, source.getStart(i), source.ends[i]);
+      end();
+    }
+    return this;
+  }
+
+  /**
+   * Starts a new feature, which begins with the pushed prefixes.
+   *
+   * @return This {@link FeatureSink}.
+   * @throws IllegalStateException Thrown if the previous feature was not ended.
+   */
+  public FeatureSink begin() {
+    if (start != -1) {
+      throw new IllegalStateException("The previous feature was not ended");
+    }
+    start = length;
+    hash = 0;
+    return append(prefixChars, 0, prefixLength);
+  }
+
+  /**
+   * Starts a new feature, which begins with the pushed prefixes and {@code prefix}.
+   *
+   * @param prefix The prefix of the feature, usually a constant.
+   * @return This {@link FeatureSink}.
+   * @throws IllegalStateException Thrown if the previous feature was not ended.
+   */
+  public FeatureSink begin(String prefix) {
+    return begin().append(prefix);
+  }
+
+  /**
+   * Appends characters to the current feature.
+   *
+   * @param value The characters to append.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink append(CharSequence value) {
+    return append(value, 0, value.length());
+  }
+
+  /**
+   * Appends a slice of characters to the current feature.
+   *
+   * @param value The characters to append.
+   * @param from The start index of the slice of {@code value}, inclusive.
+   * @param to The end index of the slice of {@code value}, exclusive.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink append(CharSequence value, int from, int to) {
+    ensureCapacity(to - from);
+    int h = hash;
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      chars[length++] = c;
+      h = 31 * h + c;
+    }
+    hash = h;
+    return this;
+  }
+
+  /**
+   * Appends a character to the current feature.
+   *
+   * @param c The character to append.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink append(char c) {
+    ensureCapacity(1);
+    chars[length++] = c;
+    hash = 31 * hash + c;
+    return this;
+  }
+
+  /**
+   * Appends characters to the current feature in lower case. The result is equal to
+   * appending {@link opennlp.tools.util.StringUtil#toLowerCase(CharSequence)}.
+   *
+   * @param value The characters to append.
+   * @return This {@link FeatureSink}.
+   */
+  public FeatureSink appendLowerCase(CharSequence value) {
+    for (int i = 0; i < value.length(); ) {
+      final int cp = Character.codePointAt(value, i);
+      i += Character.charCount(cp);
+      final int lower = Character.toLowerCase(cp);
+      if (Character.isBmpCodePoint(lower)) {
+        append((char) lower);
+      } else {
+        append(Character.highSurrogate(lower));
+        append(Character.lowSurrogate(lower));
+      }
+    }
+    return this;
+  }
+
+  private FeatureSink append(char[] value, int from, int to) {
+    ensureCapacity(to - from);
+    int h = hash;
+    for (int i = from; i < to; i++) {
+      char c = value[i];
+      chars[length++] = c;
+      h = 31 * h + c;
+    }
+    hash = h;
+    return this;
+  }
+
+  /**
+   * Ends the current feature.
+   *
+   * @return This {@link FeatureSink}.
+   * @throws IllegalStateException Thrown if no feature was begun.
+   */
+  public FeatureSink end() {
+    if (start == -1) {
+      throw new IllegalStateException("No feature was begun");
+    }
+    if (size == ends.length) {
+      ends = Arrays.copyOf(ends, size * 2);
+      hashes = Arrays.copyOf(hashes, size * 2);
+    }
+    ends[size] = length;
+    hashes[size] = hash;
+    size++;
+    start = -1;
+    return this;
+  }
+
+  /**
+   * Pushes a prefix which is prepended to all features which are begun until it is popped.
+   * Pushed prefixes are nested, the innermost one comes last.
+   *
+   * @param prefix The prefix to push.
+   */
+  public void pushPrefix(String prefix) {
+    if (prefixDepth == prefixEnds.length) {
+      prefixEnds = Arrays.copyOf(prefixEnds, prefixDepth * 2);
+    }
+    if (prefixLength + prefix.length() > prefixChars.length) {
+      prefixChars = Arrays.copyOf(prefixChars,
+          Math.max(prefixChars.length * 2, prefixLength + prefix.length()));
+    }
+    prefix.getChars(0, prefix.length(), prefixChars, prefixLength);
+    prefixLength += prefix.length();
+    prefixEnds[prefixDepth++] = prefixLength;
+  }
+
+  /**
+   * Pops the prefix which was pushed last.
+   *
+   * @throws IllegalStateException Thrown if there is no pushed prefix.
+   */
+  public void popPrefix() {
+    if (prefixDepth == 0) {
+      throw new IllegalStateException("No prefix was pushed");
+    }
+    prefixDepth--;
+    prefixLength = prefixDepth > 0 ? prefixEnds[prefixDepth - 1] : 0;
+  }
+
+  private void ensureCapacity(int additional) {
+    if (length + additional > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + additional));
+    }
+  }
+
+  /**
+   * Removes all features and pushed prefixes, the buffers are kept for reuse.
+   */
+  public void clear() {
+    length = 0;
+    size = 0;
+    prefixLength = 0;
+    prefixDepth = 0;
+    start = -1;
+  }
+
+  /**
+   * @return The number of features.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The characters of all features. Must not be modified, and is only valid until
+   *         the next feature is added.
+   */
+  public char[] getChars() {
+    return chars;
+  }
+
+  /**
+   * @param i The index of a feature.
+   * @return The offset of the first character of the feature in {@link #getChars()}.
+   */
+  public int getStart(int i) {
+    return i > 0 ? ends[i - 1] : 0;
+  }
+
+  /**
+   * @param i The index of a feature.
+   * @return The offset after the last character of the feature in {@link #getChars()}.
+   */
+  public int getEnd(int i) {
+    return ends[i];
+  }
+
+  /**
+   * @param i The index of a feature.
+   * @return The hash code of the feature, which equals {@link String#hashCode()} of
+   *         {@link #get(int)}.
+   */
+  public int getHash(int i) {
+    return hashes[i];
+  }
+
+  /**
+   * @param i The index of a feature.
+   * @param feature The {@link String} to compare with.
+   * @return {@code true} if the feature has the same characters as {@code feature}.
+   */
+  public boolean contentEquals(int i, String feature) {
+    final int from = getStart(i);
+    final int len = ends[i] - from;
+    if (feature.length() != len || feature.hashCode() != hashes[i]) {
+      return false;
+    }
+    for (int j = 0; j < len; j++) {
+      if (chars[from + j] != feature.charAt(j)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param i The index of a feature.
+   * @return The feature as a new {@link String}.
+   */
+  public String get(int i) {
+    final int from = getStart(i);
+    return new String(chars, from, ends[i] - from);
+  }
+
+  /**
+   * @return The features as a new {@link String} array.
+   */
+  public String[] toArray() {
+    String[] features = new String[size];
+    for (int i = 0; i < size; i++) {
+      features[i] = get(i);
+    }
+    return features;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
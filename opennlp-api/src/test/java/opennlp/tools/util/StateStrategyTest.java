@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StateStrategyTest {
+
+  private static final class Counter {
+    private int inUse;
+  }
+
+  @ParameterizedTest
+  @EnumSource(StateStrategy.class)
+  void testStateIsReusedBySequentialCalls(StateStrategy strategy) {
+    AtomicInteger created = new AtomicInteger();
+    ScratchState<Counter> state = strategy.newState(() -> {
+      created.incrementAndGet();
+      return new Counter();
+    });
+
+    Counter first = state.acquire();
+    state.release(first);
+    Counter second = state.acquire();
+    state.release(second);
+
+    assertSame(first, second);
+    assertEquals(1, created.get());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StateStrategy.class, names = {"POOLED", "STRIPED"})
+  void testNestedAcquireGetsDistinctStates(StateStrategy strategy) {
+    ScratchState<Counter> state = strategy.newState(Counter::new);
+
+    Counter outer = state.acquire();
+    Counter inner = state.acquire();
+    assertNotSame(outer, inner);
+    state.release(inner);
+    state.release(outer);
+  }
+
+  @ParameterizedTest
+  @EnumSource(StateStrategy.class)
+  void testStateIsExclusiveAcrossVirtualThreads(StateStrategy strategy) throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    ScratchState<Counter> state = strategy.newState(() -> {
+      created.incrementAndGet();
+      return new Counter();
+    });
+
+    int tasks = 2000;
+    List<Future<Boolean>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < tasks; i++) {
+        results.add(executor.submit(() -> {
+          Counter counter = state.acquire();
+          try {
+            counter.inUse++;
+            return --counter.inUse == 0;
+          } finally {
+            state.release(counter);
+          }
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    }
+
+    if (strategy == StateStrategy.THREAD_LOCAL) {
+      assertEquals(tasks, created.get());
+    } else {
+      assertTrue(created.get() < tasks, "created " + created.get() + " states");
+    }
+  }
+
+  @Test
+  void testClearForCurrentThread() {
+    ScratchState<Counter> state = StateStrategy.THREAD_LOCAL.newState(Counter::new);
+    Counter first = state.acquire();
+    state.clearForCurrentThread();
+    assertNotSame(first, state.acquire());
+  }
+
+  @Test
+  void testDefaultStrategyProperty() {
+    String previous = System.getProperty(StateStrategy.STRATEGY_PROPERTY);
+    try {
+      System.clearProperty(StateStrategy.STRATEGY_PROPERTY);
+      assertEquals(StateStrategy.THREAD_LOCAL, StateStrategy.getDefault());
+
+      System.setProperty(StateStrategy.STRATEGY_PROPERTY, "pooled");
+      assertEquals(StateStrategy.POOLED, StateStrategy.getDefault());
+
+      System.setProperty(StateStrategy.STRATEGY_PROPERTY, " Striped ");
+      assertEquals(StateStrategy.STRIPED, StateStrategy.getDefault());
+
+      System.setProperty(StateStrategy.STRATEGY_PROPERTY, "carrier");
+      assertThrows(IllegalArgumentException.class, StateStrategy::getDefault);
+    } finally {
+      if (previous == null) {
+        System.clearProperty(StateStrategy.STRATEGY_PROPERTY);
+      } else {
+        System.setProperty(StateStrategy.STRATEGY_PROPERTY, previous);
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.util.StringUtil;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeatureSinkTest {
+
+  @Test
+  void testAddFeatures() {
+    FeatureSink sink = new FeatureSink();
+    sink.add("w=the").add("suf=", "going", 3, 5).add("pre=", "go");
+    sink.begin("pw,w=").append("of").append(',').append("the").end();
+
+    assertEquals(4, sink.size());
+    assertArrayEquals(new String[] {"w=the", "suf=ng", "pre=go", "pw,w=of,the"}, sink.toArray());
+    for (int i = 0; i < sink.size(); i++) {
+      assertEquals(sink.get(i).hashCode(), sink.getHash(i));
+      assertEquals(sink.get(i).length(), sink.getEnd(i) - sink.getStart(i));
+    }
+    assertTrue(sink.contentEquals(1, "suf=ng"));
+    assertFalse(sink.contentEquals(1, "suf=n"));
+    assertFalse(sink.contentEquals(1, "suf=nG"));
+  }
+
+  @Test
+  void testNestedPrefixes() {
+    FeatureSink sink = new FeatureSink();
+    sink.pushPrefix("p1");
+    sink.add("w=", "a");
+    sink.pushPrefix("n2");
+    sink.add("w=b");
+    sink.popPrefix();
+    sink.add("w=c");
+    sink.popPrefix();
+    sink.add("w=d");
+
+    assertArrayEquals(new String[] {"p1w=a", "p1n2w=b", "p1w=c", "w=d"}, sink.toArray());
+    assertEquals("p1n2w=b".hashCode(), sink.getHash(1));
+    assertThrows(IllegalStateException.class, sink::popPrefix);
+  }
+
+  @Test
+  void testAddAllAppliesPrefix() {
+    FeatureSink source = new FeatureSink();
+    source.add("a").add("b").add("c");
+
+    FeatureSink sink = new FeatureSink();
+    sink.pushPrefix("x");
+    sink.addAll(source, 1, 3);
+    sink.addAll(new String[] {"d"});
+
+    assertArrayEquals(new String[] {"xb", "xc", "xd"}, sink.toArray());
+  }
+
+  @Test
+  void testAppendLowerCase() {
+    String token = "𐐀İstanBUL";
+    FeatureSink sink = new FeatureSink();
+    sink.begin("w=").appendLowerCase(token).end();
+
+    assertEquals("w=" + StringUtil.toLowerCase(token), sink.get(0));
+    assertEquals(("w=" + StringUtil.toLowerCase(token)).hashCode(), sink.getHash(0));
+  }
+
+  @Test
+  void testGrowAndClear() {
+    FeatureSink sink = new FeatureSink();
+    String longFeature = "x".repeat(5000);
+    for (int i = 0; i < 100; i++) {
+      sink.add("f=", Integer.toString(i));
+    }
+    sink.add(longFeature);
+    assertEquals(101, sink.size());
+    assertEquals("f=99", sink.get(99));
+    assertEquals(longFeature, sink.get(100));
+
+    sink.pushPrefix("p");
+    sink.clear();
+    assertEquals(0, sink.size());
+    sink.add("a");
+    assertArrayEquals(new String[] {"a"}, sink.toArray());
+  }
+
+  @Test
+  void testUnbalancedFeatures() {
+    FeatureSink sink = new FeatureSink();
+    assertThrows(IllegalStateException.class, sink::end);
+    sink.begin("a");
+    assertThrows(IllegalStateException.class, () -> sink.begin("b"));
+  }
+}
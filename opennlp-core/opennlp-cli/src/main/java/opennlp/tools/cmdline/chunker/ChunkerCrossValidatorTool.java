@@ -77,7 +77,8 @@ public final class ChunkerCrossValidatorTool
       validator = new ChunkerCrossValidator(params.getLang(), mlParams,
           chunkerFactory,
           listeners.toArray(new ChunkerEvaluationMonitor[0]));
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     }
     catch (IOException e) {
       throw createTerminationIOException(e);
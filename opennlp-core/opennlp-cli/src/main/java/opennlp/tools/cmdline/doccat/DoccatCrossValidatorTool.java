@@ -99,7 +99,8 @@ public final class DoccatCrossValidatorTool extends
       validator = new DoccatCrossValidator(params.getLang(), mlParams,
           factory, listenersArr);
 
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     } catch (IOException e) {
       throw new TerminateToolException(-1,
           "IO error while reading training data or indexing data: " + e.getMessage(), e);
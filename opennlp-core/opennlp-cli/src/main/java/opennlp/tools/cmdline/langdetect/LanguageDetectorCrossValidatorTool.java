@@ -95,7 +95,8 @@ public final class LanguageDetectorCrossValidatorTool extends
       validator = new LanguageDetectorCrossValidator(mlParams,
           factory, listenersArr);
 
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     } catch (IOException e) {
       throw new TerminateToolException(-1,
           "IO error while reading training data or indexing data: " + e.getMessage(), e);
@@ -142,7 +142,8 @@ public final class TokenNameFinderCrossValidatorTool
       validator = new TokenNameFinderCrossValidator(params.getLang(),
           params.getType(), mlParams, nameFinderFactory,
           listeners.toArray(new TokenNameFinderEvaluationMonitor[0]));
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     } catch (IOException e) {
       throw createTerminationIOException(e);
     } finally {
@@ -81,7 +81,8 @@ public final class SentenceDetectorCrossValidatorTool
       validator = new SDCrossValidator(params.getLang(), mlParams, sdFactory,
           errorListener);
 
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     }
     catch (IOException e) {
       throw createTerminationIOException(e);
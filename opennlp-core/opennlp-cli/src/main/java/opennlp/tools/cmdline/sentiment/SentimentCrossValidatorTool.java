@@ -89,7 +89,8 @@ public class SentimentCrossValidatorTool
     try {
       validator = new SentimentCrossValidator(params.getLang(), mlParams, sentimentFactory,
           listeners.toArray(new SentimentEvaluationMonitor[listeners.size()]));
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     } catch (IOException e) {
       throw new TerminateToolException(-1,
           "IO error while reading training data or indexing data: "
@@ -76,7 +76,8 @@ public final class TokenizerCrossValidatorTool
       validator = new opennlp.tools.tokenize.TokenizerCrossValidator(mlParams,
           tokFactory, listener);
 
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(),
+          params.getFoldThreads());
     }
     catch (IOException e) {
       throw createTerminationIOException(e);
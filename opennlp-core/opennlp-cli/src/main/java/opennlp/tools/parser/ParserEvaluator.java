@@ -115,6 +115,11 @@ public class ParserEvaluator extends Evaluator<Parse> {
     return prediction;
   }
 
+  @Override
+  protected void merge(Evaluator<Parse> shard) {
+    fmeasure.mergeInto(((ParserEvaluator) shard).fmeasure);
+  }
+
   public final FMeasure getFMeasure() {
     return fmeasure;
   }
@@ -19,10 +19,13 @@ package opennlp.dl;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.LongBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +35,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import ai.onnxruntime.OnnxTensor;
 import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
@@ -53,11 +57,19 @@ public abstract class AbstractDL implements AutoCloseable {
   public static final String ATTENTION_MASK = "attention_mask";
   public static final String TOKEN_TYPE_IDS = "token_type_ids";
 
+  /** The padding token of BERT vocabularies. */
+  static final String BERT_PAD_TOKEN = "[PAD]";
+  /** The padding token of RoBERTa vocabularies. */
+  static final String ROBERTA_PAD_TOKEN = "<pad>";
+
   protected final OrtEnvironment env;
   protected final OrtSession session;
   protected final Tokenizer tokenizer;
   protected final Map<String, Integer> vocab;
 
+  /** The id which pads shorter token sequences of a batch, see {@link #runBatch}. */
+  private final long padTokenId;
+
   private final AtomicBoolean closed = new AtomicBoolean();
 
   protected record ChunkRange(int start, int end) {
@@ -74,6 +86,19 @@ public abstract class AbstractDL implements AutoCloseable {
   protected record TextChunk(String text, int start, int end) {
   }
 
+  /**
+   * Token sequences padded to a common length, laid out row by row as the model inputs of
+   * shape {@code [size, length]}.
+   *
+   * @param ids The token ids, padded with the vocabulary's padding token.
+   * @param mask The attention mask, {@code 0} for padding positions.
+   * @param types The token type ids.
+   * @param size The number of sequences.
+   * @param length The length of the longest sequence.
+   */
+  record PaddedBatch(long[] ids, long[] mask, long[] types, int size, int length) {
+  }
+
   private static final Pattern JSON_ENTRY_PATTERN =
       Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"\\s*:\\s*(\\d+)");
 
@@ -106,6 +131,7 @@ public abstract class AbstractDL implements AutoCloseable {
       try {
         this.vocab = Map.copyOf(loadVocabFile(vocabulary));
         this.tokenizer = createBertTokenizer(vocab, lowerCase);
+        this.padTokenId = resolvePadTokenId(vocab);
       } catch (IOException | RuntimeException e) {
         // Vocabulary/tokenizer init failed after the native session was created; close it
         // so a partially constructed instance never leaks the ONNX session.
@@ -137,6 +163,7 @@ public abstract class AbstractDL implements AutoCloseable {
     this.session = session;
     this.vocab = vocab;
     this.tokenizer = createBertTokenizer(vocab, lowerCase);
+    this.padTokenId = resolvePadTokenId(vocab);
   }
 
   /**
@@ -152,6 +179,7 @@ public abstract class AbstractDL implements AutoCloseable {
       throws OrtException {
     requireNonNullArg(inferenceOptions, "inferenceOptions");
     validateSplitOptions(inferenceOptions);
+    validateBatchOptions(inferenceOptions);
     final OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions();
     if (inferenceOptions.isGpu()) {
       sessionOptions.addCUDA(inferenceOptions.getGpuDeviceId());
@@ -341,6 +369,152 @@ public abstract class AbstractDL implements AutoCloseable {
     }
   }
 
+  /**
+   * Validates the batching options used to run multiple token sequences as one tensor batch.
+   *
+   * @param options The inference options to validate.
+   * @throws IllegalArgumentException Thrown if the batch size or token budget is not positive.
+   */
+  protected static void validateBatchOptions(final InferenceOptions options) {
+    requireNonNullArg(options, "options");
+    if (options.getMaxBatchSize() <= 0) {
+      throw new IllegalArgumentException("The maxBatchSize must be greater than zero.");
+    }
+    if (options.getMaxBatchTokens() <= 0) {
+      throw new IllegalArgumentException("The maxBatchTokens must be greater than zero.");
+    }
+  }
+
+  /**
+   * Groups token sequences into batches. Sequences are ordered by length first, so a batch pads
+   * its sequences as little as possible. A batch holds at most {@code maxBatchSize} sequences,
+   * and its size times its longest sequence length stays within {@code maxBatchTokens} unless
+   * it consists of a single sequence.
+   *
+   * @param lengths The length of each sequence.
+   * @param maxBatchSize The maximum number of sequences per batch.
+   * @param maxBatchTokens The maximum number of tokens per batch, including padding.
+   * @param padding {@code false} if the model is run without an attention mask. Padding would
+   *     then change the model output, so a batch only holds sequences of equal length.
+   * @return The batches, each as the indices of its sequences in {@code lengths}.
+   */
+  protected static List<int[]> planBatches(final int[] lengths, final int maxBatchSize,
+                                           final int maxBatchTokens, final boolean padding) {
+    final Integer[] order = new Integer[lengths.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    // The sort is stable, sequences of equal length keep their input order
+    Arrays.sort(order, Comparator.comparingInt(i -> lengths[i]));
+
+    final List<int[]> batches = new ArrayList<>();
+    int start = 0;
+    while (start < order.length) {
+      final int firstLength = lengths[order[start]];
+      int end = start + 1;
+      while (end < order.length && end - start < maxBatchSize) {
+        final int length = lengths[order[end]];
+        // Ascending order, the candidate is the longest sequence of the extended batch
+        if ((long) (end - start + 1) * length > maxBatchTokens
+            || (!padding && length != firstLength)) {
+          break;
+        }
+        end++;
+      }
+      final int[] batch = new int[end - start];
+      for (int i = 0; i < batch.length; i++) {
+        batch[i] = order[start + i];
+      }
+      batches.add(batch);
+      start = end;
+    }
+    return batches;
+  }
+
+  /**
+   * Pads token sequences to the length of the longest one.
+   *
+   * @param sequences The token sequences.
+   * @param padTokenId The token id to pad the ids with.
+   * @return The padded batch.
+   */
+  static PaddedBatch padBatch(final List<Tokens> sequences, final long padTokenId) {
+    int length = 0;
+    for (final Tokens t : sequences) {
+      length = Math.max(length, t.ids().length);
+    }
+
+    final int size = sequences.size();
+    final long[] ids = new long[size * length];
+    final long[] mask = new long[size * length];
+    final long[] types = new long[size * length];
+    for (int row = 0; row < size; row++) {
+      final Tokens t = sequences.get(row);
+      final int offset = row * length;
+      final int count = t.ids().length;
+      System.arraycopy(t.ids(), 0, ids, offset, count);
+      System.arraycopy(t.mask(), 0, mask, offset, count);
+      System.arraycopy(t.types(), 0, types, offset, count);
+      Arrays.fill(ids, offset + count, offset + length, padTokenId);
+    }
+    return new PaddedBatch(ids, mask, types, size, length);
+  }
+
+  /**
+   * Runs the model once on a batch of token sequences, padded to a common length.
+   *
+   * @param sequences The token sequences of the batch.
+   * @param includeAttentionMask Whether to pass the attention mask to the model.
+   * @param includeTokenTypeIds Whether to pass the token type ids to the model.
+   * @return The value of the first model output, copied into Java arrays; its first dimension
+   *     is the batch dimension.
+   *
+   * @throws OrtException Thrown if the model cannot be run on the batch.
+   */
+  protected Object runBatch(final List<Tokens> sequences, final boolean includeAttentionMask,
+                            final boolean includeTokenTypeIds) throws OrtException {
+
+    final PaddedBatch batch = padBatch(sequences, padTokenId);
+    final long[] shape = {batch.size(), batch.length()};
+
+    // At most three inputs (ids, attention mask, token type ids), so size for exactly that.
+    final Map<String, OnnxTensor> inputs = HashMap.newHashMap(3);
+    try {
+      inputs.put(INPUT_IDS, OnnxTensor.createTensor(env, LongBuffer.wrap(batch.ids()), shape));
+
+      if (includeAttentionMask) {
+        inputs.put(ATTENTION_MASK, OnnxTensor.createTensor(env, LongBuffer.wrap(batch.mask()), shape));
+      }
+
+      if (includeTokenTypeIds) {
+        inputs.put(TOKEN_TYPE_IDS, OnnxTensor.createTensor(env, LongBuffer.wrap(batch.types()), shape));
+      }
+
+      // getValue() copies the tensor into Java arrays, so the result can be closed safely.
+      try (OrtSession.Result result = session.run(inputs)) {
+        return result.get(0).getValue();
+      }
+    } finally {
+      inputs.values().forEach(OnnxTensor::close);
+    }
+  }
+
+  /**
+   * Resolves the id of the padding token, {@value #BERT_PAD_TOKEN} or {@value #ROBERTA_PAD_TOKEN}.
+   * Padded positions are masked out, so {@code 0} is a safe fallback for vocabularies without
+   * either token.
+   *
+   * @param vocab The vocabulary map.
+   * @return The id of the padding token.
+   */
+  static long resolvePadTokenId(final Map<String, Integer> vocab) {
+    Integer id = vocab.get(BERT_PAD_TOKEN);
+    if (id == null) {
+      id = vocab.get(ROBERTA_PAD_TOKEN);
+    }
+    return id != null ? id : 0;
+  }
+
   /**
    * Unicode-aware whitespace. Input is tokenized on the full Unicode {@code White_Space} set
    * rather than the six ASCII characters Java's {@code \s} recognizes, and the same class is
@@ -28,6 +28,8 @@ public class InferenceOptions {
   private Boolean lowerCase;
   private boolean normalizeWhitespace;
   private boolean normalizeDashes;
+  private int maxBatchSize = 32;
+  private int maxBatchTokens = 16384;
 
   public boolean isIncludeAttentionMask() {
     return includeAttentionMask;
@@ -141,4 +143,37 @@ public class InferenceOptions {
     this.lowerCase = lowerCase;
   }
 
+  /** {@return the maximum number of token sequences run through the model as one batch} */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of token sequences (document chunks) which are padded to a common
+   * length and run through the model as one tensor batch. Set {@code 1} to run every chunk on its
+   * own. Defaults to {@code 32}.
+   *
+   * @param maxBatchSize The maximum batch size. Must be greater than zero.
+   */
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /** {@return the maximum number of tokens in a batch, including padding} */
+  public int getMaxBatchTokens() {
+    return maxBatchTokens;
+  }
+
+  /**
+   * Sets the token budget of a batch: the batch size times the length of its longest sequence,
+   * that is, the number of tokens in the padded input tensor. This bounds the memory used by a
+   * batch of long chunks. A single sequence that exceeds the budget is run on its own. Defaults
+   * to {@code 16384}.
+   *
+   * @param maxBatchTokens The maximum number of tokens in a batch. Must be greater than zero.
+   */
+  public void setMaxBatchTokens(int maxBatchTokens) {
+    this.maxBatchTokens = maxBatchTokens;
+  }
+
 }
@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.dl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.commons.ThreadSafe;
+
+/**
+ * Collects concurrently submitted inference requests into micro-batches and runs each
+ * micro-batch with a single call of a {@link BatchFunction}, typically one of the batch
+ * methods of the {@link AbstractDL} subclasses:
+ *
+ * <pre>{@code
+ * MicroBatchScheduler<String[], double[]> scheduler =
+ *     new MicroBatchScheduler<>(categorizer::categorizeAll, 16, Duration.ofMillis(5));
+ * double[] scores = scheduler.submit(document).join();
+ * }</pre>
+ *
+ * <p>A micro-batch is dispatched once it holds {@code maxBatchSize} requests, or once its
+ * oldest request has waited {@code maxWait}. A larger wait time yields larger batches and a
+ * higher throughput at the cost of latency. Batches are run one after the other by a single
+ * daemon thread, so a shared model sees at most one concurrent call from a scheduler.</p>
+ *
+ * <p>If a batch fails with an exception, its requests are run again one at a time, so that
+ * one bad input does not fail the unrelated requests it was batched with.</p>
+ *
+ * <p>The futures are completed on the scheduler thread. Dependent actions which do more than
+ * a little work should be attached with the {@code Async} methods of {@link CompletableFuture},
+ * otherwise they delay the next batch.</p>
+ *
+ * <p>{@link #getStatistics()} reports the queue depth, a histogram of the batch sizes, and
+ * percentiles of the latency between submitting a request and completing its future.</p>
+ *
+ * @param <I> The type of the inputs.
+ * @param <O> The type of the results.
+ */
+@ThreadSafe
+public class MicroBatchScheduler<I, O> implements AutoCloseable {
+
+  /**
+   * Computes the results of a batch of inputs.
+   *
+   * @param <I> The type of the inputs.
+   * @param <O> The type of the results.
+   */
+  @FunctionalInterface
+  public interface BatchFunction<I, O> {
+
+    /**
+     * @param inputs The inputs of the batch.
+     * @return The results, one for each of the {@code inputs} and in the same order.
+     * @throws Exception Thrown if the batch cannot be processed.
+     */
+    List<O> apply(List<I> inputs) throws Exception;
+  }
+
+  /**
+   * A snapshot of the statistics of a {@link MicroBatchScheduler}.
+   *
+   * @param queueDepth The number of requests waiting to be batched.
+   * @param requests The number of completed requests, including failed requests.
+   * @param failedRequests The number of requests completed exceptionally.
+   * @param batches The number of dispatched batches.
+   * @param batchSizes The number of batches per batch size: element {@code n} counts the
+   *     batches of {@code n} requests.
+   * @param p50 The median latency of the recent requests.
+   * @param p90 The 90th percentile latency of the recent requests.
+   * @param p99 The 99th percentile latency of the recent requests.
+   */
+  public record Statistics(int queueDepth, long requests, long failedRequests, long batches,
+                           long[] batchSizes, Duration p50, Duration p90, Duration p99) {
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(MicroBatchScheduler.class);
+
+  /** The number of recent request latencies the percentiles are computed from. */
+  static final int LATENCY_WINDOW = 4096;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private static final class Request<I, O> {
+    private final I input;
+    private final long submitted;
+    private final CompletableFuture<O> future = new CompletableFuture<>();
+
+    private Request(I input, long submitted) {
+      this.input = input;
+      this.submitted = submitted;
+    }
+  }
+
+  /** Enqueued by {@link #close()} after the last request, it stops the scheduler thread. */
+  private final Request<I, O> shutdown = new Request<>(null, 0);
+
+  private final BatchFunction<I, O> batchFunction;
+  private final int maxBatchSize;
+  private final long maxWaitNanos;
+  private final BlockingQueue<Request<I, O>> queue = new LinkedBlockingQueue<>();
+  private final Thread thread;
+
+  private boolean closed;
+
+  // The statistics are written by the scheduler thread only and guarded by this lock.
+  private final Object statisticsLock = new Object();
+  private long requests;
+  private long failedRequests;
+  private long batches;
+  private final long[] batchSizes;
+  private final long[] latencies = new long[LATENCY_WINDOW];
+
+  /**
+   * Initializes and starts a {@link MicroBatchScheduler}.
+   *
+   * @param batchFunction The {@link BatchFunction} which runs a batch. Must not be {@code null}.
+   * @param maxBatchSize The maximum number of requests in a batch. Must be greater than zero.
+   * @param maxWait The maximum time a request waits for further requests before its batch
+   *     is dispatched. Must not be {@code null} or negative.
+   *
+   * @throws IllegalArgumentException Thrown if parameters are invalid.
+   */
+  public MicroBatchScheduler(final BatchFunction<I, O> batchFunction, final int maxBatchSize,
+                             final Duration maxWait) {
+    if (batchFunction == null) {
+      throw new IllegalArgumentException("batchFunction must not be null");
+    }
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be greater than zero, but was "
+          + maxBatchSize);
+    }
+    if (maxWait == null || maxWait.isNegative()) {
+      throw new IllegalArgumentException("maxWait must not be null or negative, but was " + maxWait);
+    }
+
+    this.batchFunction = batchFunction;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.batchSizes = new long[maxBatchSize + 1];
+
+    this.thread = new Thread(this::run, "opennlp-dl-batcher-" + THREAD_COUNT.incrementAndGet());
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Submits an input to be processed in one of the next batches.
+   *
+   * @param input The input. Must not be {@code null}.
+   * @return A {@link CompletableFuture} which is completed with the result of {@code input},
+   *     or exceptionally with the failure of {@code input}.
+   *
+   * @throws IllegalArgumentException Thrown if {@code input} is {@code null}.
+   * @throws IllegalStateException Thrown if the scheduler is closed.
+   */
+  public CompletableFuture<O> submit(final I input) {
+    if (input == null) {
+      throw new IllegalArgumentException("input must not be null");
+    }
+    final Request<I, O> request = new Request<>(input, System.nanoTime());
+    synchronized (queue) {
+      if (closed) {
+        throw new IllegalStateException("The scheduler is closed");
+      }
+      queue.add(request);
+    }
+    return request.future;
+  }
+
+  /**
+   * @return The number of requests waiting to be batched.
+   */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * @return A snapshot of the {@link Statistics} of this scheduler.
+   */
+  public Statistics getStatistics() {
+    final int queueDepth = getQueueDepth();
+    synchronized (statisticsLock) {
+      final int window = (int) Math.min(requests, LATENCY_WINDOW);
+      final long[] sorted = Arrays.copyOf(latencies, window);
+      Arrays.sort(sorted);
+      return new Statistics(queueDepth, requests, failedRequests, batches, batchSizes.clone(),
+          percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99));
+    }
+  }
+
+  /**
+   * Computes a percentile with the nearest-rank method.
+   *
+   * @param sorted The sorted latencies in nanoseconds.
+   * @param p The percentile, in {@code (0, 1]}.
+   * @return The percentile, or {@link Duration#ZERO} if there are no latencies.
+   */
+  static Duration percentile(final long[] sorted, final double p) {
+    if (sorted.length == 0) {
+      return Duration.ZERO;
+    }
+    final int rank = (int) Math.ceil(p * sorted.length);
+    return Duration.ofNanos(sorted[Math.max(rank, 1) - 1]);
+  }
+
+  /**
+   * Stops accepting requests, processes all requests submitted so far and waits for the
+   * scheduler thread to finish. The {@link BatchFunction} and its model are not closed.
+   *
+   * @throws InterruptedException Thrown if interrupted while waiting.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (queue) {
+      if (!closed) {
+        closed = true;
+        queue.add(shutdown);
+      }
+    }
+    thread.join();
+  }
+
+  private void run() {
+    final List<Request<I, O>> batch = new ArrayList<>(maxBatchSize);
+    boolean stopping = false;
+    while (!stopping) {
+      try {
+        final Request<I, O> first = queue.take();
+        if (first == shutdown) {
+          break;
+        }
+        batch.add(first);
+
+        final long deadline = first.submitted + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+          final Request<I, O> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          if (next == shutdown) {
+            stopping = true;
+            break;
+          }
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        // The scheduler thread is not exposed, only close() ends it.
+        logger.warn("Ignoring interrupt of the micro-batch scheduler thread");
+        if (batch.isEmpty()) {
+          continue;
+        }
+      }
+
+      dispatch(batch);
+      batch.clear();
+    }
+  }
+
+  private void dispatch(final List<Request<I, O>> batch) {
+    final List<I> inputs = new ArrayList<>(batch.size());
+    for (final Request<I, O> request : batch) {
+      inputs.add(request.input);
+    }
+
+    int failed = 0;
+    try {
+      final List<O> results = batchFunction.apply(inputs);
+      final Throwable failure = checkResults(results, inputs.size());
+      if (failure == null) {
+        for (int i = 0; i < batch.size(); i++) {
+          batch.get(i).future.complete(results.get(i));
+        }
+      } else {
+        failed = fail(batch, failure);
+      }
+    } catch (Exception e) {
+      if (batch.size() == 1) {
+        failed = fail(batch, e);
+      } else {
+        // A single bad input fails the whole batch, so each request is run on its own and
+        // only the requests which fail by themselves are completed exceptionally.
+        for (final Request<I, O> request : batch) {
+          failed += dispatch(request);
+        }
+      }
+    } catch (Throwable t) {
+      // Any failure, including an Error, is reported to the callers. The scheduler thread
+      // keeps running, otherwise the futures of queued requests would never complete.
+      failed = fail(batch, t);
+    }
+
+    final long now = System.nanoTime();
+    synchronized (statisticsLock) {
+      for (final Request<I, O> request : batch) {
+        latencies[(int) (requests++ % LATENCY_WINDOW)] = now - request.submitted;
+      }
+      failedRequests += failed;
+      batches++;
+      batchSizes[batch.size()]++;
+    }
+  }
+
+  /**
+   * Runs a single request of a failed batch.
+   *
+   * @return {@code 1} if the request failed, otherwise {@code 0}.
+   */
+  private int dispatch(final Request<I, O> request) {
+    try {
+      final List<O> results = batchFunction.apply(List.of(request.input));
+      final Throwable failure = checkResults(results, 1);
+      if (failure == null) {
+        request.future.complete(results.get(0));
+        return 0;
+      }
+      request.future.completeExceptionally(failure);
+    } catch (Throwable t) {
+      request.future.completeExceptionally(t);
+    }
+    return 1;
+  }
+
+  private static Throwable checkResults(final List<?> results, final int inputs) {
+    if (results == null || results.size() != inputs) {
+      return new IllegalStateException("The batch function returned "
+          + (results == null ? "null" : results.size() + " results") + " for " + inputs + " inputs");
+    }
+    return null;
+  }
+
+  private int fail(final List<Request<I, O>> batch, final Throwable failure) {
+    for (final Request<I, O> request : batch) {
+      request.future.completeExceptionally(failure);
+    }
+    return batch.size();
+  }
+}
@@ -19,17 +19,14 @@ package opennlp.dl.namefinder;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
-import ai.onnxruntime.OnnxTensor;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import org.slf4j.Logger;
@@ -116,6 +113,8 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
   private final int splitOverlapSize;
   private final boolean normalizeWhitespace;
   private final boolean normalizeDashes;
+  private final int maxBatchSize;
+  private final int maxBatchTokens;
 
   /**
    * Instantiates a {@link opennlp.tools.namefind.TokenNameFinder name finder} using ONNX models.
@@ -171,6 +170,8 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
     this.splitOverlapSize = inferenceOptions.getSplitOverlapSize();
     this.normalizeWhitespace = inferenceOptions.isNormalizeWhitespace();
     this.normalizeDashes = inferenceOptions.isNormalizeDashes();
+    this.maxBatchSize = inferenceOptions.getMaxBatchSize();
+    this.maxBatchTokens = inferenceOptions.getMaxBatchTokens();
     this.sentenceDetector = sentenceDetector;
 
   }
@@ -209,7 +210,34 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
    */
   @Override
   public Span[] find(String[] input) {
-    return locate(input).spans().toArray(new Span[0]);
+    return locate(List.<String[]>of(validateInput(input))).get(0).spans().toArray(new Span[0]);
+  }
+
+  /**
+   * Finds names in multiple inputs, as {@link #find(String[])} does for each of them. The chunks
+   * of all inputs are padded to a common length and run through the model in batches, bounded by
+   * {@link InferenceOptions#getMaxBatchSize()} and {@link InferenceOptions#getMaxBatchTokens()},
+   * which uses the parallelism of the inference runtime far better than running one chunk at a
+   * time.
+   *
+   * @param inputs The token arrays to search.
+   * @return The detected spans of each input, in the order of {@code inputs}.
+   * @throws IllegalStateException Thrown under the same conditions as {@link #find(String[])}.
+   * @throws IllegalArgumentException Thrown if {@code inputs} is {@code null}, or under the same
+   *     conditions as {@link #find(String[])} for any of its elements.
+   */
+  public List<Span[]> findAll(List<String[]> inputs) {
+    requireNonNullArg(inputs, "inputs");
+    for (final String[] input : inputs) {
+      validateInput(input);
+    }
+
+    final List<DecodedSpans> decoded = locate(inputs);
+    final List<Span[]> spans = new ArrayList<>(decoded.size());
+    for (final DecodedSpans d : decoded) {
+      spans.add(d.spans().toArray(new Span[0]));
+    }
+    return spans;
   }
 
   /**
@@ -228,7 +256,7 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
    */
   @Override
   public Span[] findInOriginal(String[] input) {
-    final DecodedSpans decoded = locate(input);
+    final DecodedSpans decoded = locate(List.<String[]>of(validateInput(input))).get(0);
     final Alignment alignment = decoded.aligned().alignment();
     final List<Span> mapped = new ArrayList<>(decoded.spans().size());
     for (final Span span : decoded.spans()) {
@@ -239,20 +267,75 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
   }
 
   /**
-   * Shared detection core: normalizes the joined input (capturing the alignment back to the
+   * Shared detection core: normalizes each joined input (capturing the alignment back to the
    * original), then decodes each overlapping chunk bounded to its own character region and resolves
    * overlaps. Bounding per chunk lets a boundary entity that two consecutive chunks both cover
    * surface as overlapping candidates, which {@link #mergeOverlappingSpans(List)} collapses to the
    * longer (more complete) span instead of silently keeping whichever a single forward cursor
-   * reached first.
+   * reached first. The chunks of all inputs are run through the model in batches.
    *
-   * @param input The tokens to search; must not be {@code null} or contain a {@code null} token.
-   * @return The decoded spans paired with the normalization {@link AlignedText}.
+   * @param inputs The token arrays to search, already checked by {@link #validateInput(String[])}.
+   * @return The decoded spans of each input paired with its normalization {@link AlignedText}.
+   */
+  private List<DecodedSpans> locate(List<String[]> inputs) {
+
+    final List<AlignedText> normalizedInputs = new ArrayList<>(inputs.size());
+    final List<InputChunk> chunks = new ArrayList<>();
+    for (int i = 0; i < inputs.size(); i++) {
+
+      // Join the tokens here because they will be tokenized using Wordpiece during inference.
+      final AlignedText normalized = normalizeInputAligned(
+          String.join(" ", inputs.get(i)), normalizeWhitespace, normalizeDashes);
+      final String text = normalized.normalizedString();
+      normalizedInputs.add(normalized);
+
+      // sentPosDetect (not sentDetect) so each sentence's offset in the full text is known.
+      final Span[] sentenceSpans = sentenceDetector.sentPosDetect(text);
+
+      for (final Span sentenceSpan : sentenceSpans) {
+
+        final int sentenceStart = sentenceSpan.getStart();
+        final String sentence = sentenceSpan.getCoveredText(text).toString();
+
+        // The WordPiece tokenized text, in overlapping chunks. This changes the spacing in the text.
+        for (final ChunkTokens chunk : tokenize(sentence)) {
+          chunks.add(new InputChunk(i, chunk.tokens(),
+              sentenceStart + chunk.start(), sentenceStart + chunk.end()));
+        }
+      }
+    }
+
+    final float[][][] scores = infer(chunks);
+
+    final List<List<Span>> candidates = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      candidates.add(new ArrayList<>());
+    }
+    for (int c = 0; c < chunks.size(); c++) {
+      final InputChunk chunk = chunks.get(c);
+      // Decode within the chunk's own character region in the full text. Keeping each chunk's
+      // entities inside the region it was built from locates a repeated surface form in the right
+      // chunk rather than mis-matching it to an earlier occurrence, while still letting two
+      // overlapping chunks both emit a boundary entity for mergeOverlappingSpans to reconcile.
+      final String text = normalizedInputs.get(chunk.input()).normalizedString();
+      candidates.get(chunk.input()).addAll(decodeSpans(text, chunk.tokens().tokens(), scores[c],
+          ids2Labels, chunk.regionStart(), chunk.regionEnd()));
+    }
+
+    final List<DecodedSpans> decoded = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      decoded.add(new DecodedSpans(mergeOverlappingSpans(candidates.get(i)), normalizedInputs.get(i)));
+    }
+    return decoded;
+  }
+
+  /**
+   * @param input The tokens to search.
+   * @return The {@code input}.
    * @throws IllegalArgumentException Thrown if {@code input} is {@code null} or contains a
    *     {@code null} token.
    */
-  private DecodedSpans locate(String[] input) {
-
+  private static String[] validateInput(String[] input) {
     requireNonNullArg(input, "input");
     for (int i = 0; i < input.length; i++) {
       if (input[i] == null) {
@@ -260,36 +343,7 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
             "The input must not contain null tokens; the token at index " + i + " was null.");
       }
     }
-
-    // Join the tokens here because they will be tokenized using Wordpiece during inference.
-    final AlignedText normalized =
-        normalizeInputAligned(String.join(" ", input), normalizeWhitespace, normalizeDashes);
-    final String text = normalized.normalizedString();
-
-    // sentPosDetect (not sentDetect) so each sentence's offset in the full text is known.
-    final Span[] sentenceSpans = sentenceDetector.sentPosDetect(text);
-
-    final List<Span> candidates = new ArrayList<>();
-    for (final Span sentenceSpan : sentenceSpans) {
-
-      final int sentenceStart = sentenceSpan.getStart();
-      final String sentence = sentenceSpan.getCoveredText(text).toString();
-
-      // The WordPiece tokenized text, in overlapping chunks. This changes the spacing in the text.
-      for (final ChunkTokens chunk : tokenize(sentence)) {
-        // Decode within the chunk's own character region in the full text. Keeping each chunk's
-        // entities inside the region it was built from locates a repeated surface form in the right
-        // chunk rather than mis-matching it to an earlier occurrence, while still letting two
-        // overlapping chunks both emit a boundary entity for mergeOverlappingSpans to reconcile.
-        final int regionStart = sentenceStart + chunk.start();
-        final int regionEnd = sentenceStart + chunk.end();
-        candidates.addAll(decodeSpans(text, chunk.tokens().tokens(), infer(chunk.tokens()),
-            ids2Labels, regionStart, regionEnd));
-      }
-
-    }
-
-    return new DecodedSpans(mergeOverlappingSpans(candidates), normalized);
+    return input;
   }
 
   private record DecodedSpans(List<Span> spans, AlignedText aligned) {
@@ -299,6 +353,11 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
   private record ChunkTokens(Tokens tokens, int start, int end) {
   }
 
+  // A chunk's WordPiece tokens paired with the input it belongs to and its character region in the
+  // normalized text of that input.
+  private record InputChunk(int input, Tokens tokens, int regionStart, int regionEnd) {
+  }
+
   /**
    * Resolves spans that overlap in character coordinates, as happens when an entity falls in the
    * shared region of two consecutive overlapping chunks and is decoded by both. The longer span is
@@ -341,55 +400,59 @@ public class NameFinderDL extends AbstractDL implements OffsetMappingNameFinder
   }
 
   /**
-   * Runs the model on one token window and returns the per-token label score rows. A failure
-   * executing the model (an {@link OrtException} or any runtime fault) is surfaced as an
-   * {@link IllegalStateException} (cause preserved); an unexpected output shape is its own loud
-   * failure. This mirrors the fail-loud contract of the sibling {@code DocumentCategorizerDL}.
+   * Runs the model on the chunks, in batches, and returns the per-token label score rows of each
+   * chunk. A failure executing the model (an {@link OrtException} or any runtime fault) is surfaced
+   * as an {@link IllegalStateException} (cause preserved); an unexpected output shape is its own
+   * loud failure. This mirrors the fail-loud contract of the sibling {@code DocumentCategorizerDL}.
    *
-   * @param tokens The tokens for one chunk to run inference on.
-   * @return The {@code [token][label]} score matrix for the chunk.
+   * @param chunks The chunks to run inference on.
+   * @return The {@code [chunk][token][label]} scores.
    */
-  private float[][] infer(final Tokens tokens) {
-
-    // At most three inputs (ids, attention mask, token type ids), so size for exactly that.
-    final Map<String, OnnxTensor> inputs = HashMap.newHashMap(3);
-    final Object output;
-    try {
-      inputs.put(INPUT_IDS, OnnxTensor.createTensor(env, LongBuffer.wrap(tokens.ids()),
-          new long[] {1, tokens.ids().length}));
-
-      if (includeAttentionMask) {
-        inputs.put(ATTENTION_MASK, OnnxTensor.createTensor(env,
-            LongBuffer.wrap(tokens.mask()), new long[] {1, tokens.mask().length}));
+  private float[][][] infer(final List<InputChunk> chunks) {
+
+    final int[] lengths = new int[chunks.size()];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = chunks.get(i).tokens().ids().length;
+    }
+
+    final float[][][] scores = new float[chunks.size()][][];
+    for (final int[] batch : planBatches(lengths, maxBatchSize, maxBatchTokens, includeAttentionMask)) {
+      final List<Tokens> sequences = new ArrayList<>(batch.length);
+      for (final int i : batch) {
+        sequences.add(chunks.get(i).tokens());
       }
 
-      if (includeTokenTypeIds) {
-        inputs.put(TOKEN_TYPE_IDS, OnnxTensor.createTensor(env,
-            LongBuffer.wrap(tokens.types()), new long[] {1, tokens.types().length}));
+      final Object output;
+      try {
+        output = runBatch(sequences, includeAttentionMask, includeTokenTypeIds);
+      } catch (OrtException ex) {
+        throw new IllegalStateException(
+            "Unable to perform name finder inference: " + ex.getMessage(), ex);
+      } catch (RuntimeException ex) {
+        throw new IllegalStateException(
+            "Unexpected runtime failure during name finder inference: " + ex.getMessage(), ex);
       }
 
-      // getValue() copies the tensor into Java arrays, so the result can be closed safely.
-      try (OrtSession.Result result = session.run(inputs)) {
-        output = result.get(0).getValue();
+      final float[][][] rows = scoresFromOutput(output, batch.length);
+      for (int j = 0; j < batch.length; j++) {
+        // Drop the score rows of the padding positions
+        scores[batch[j]] = Arrays.copyOf(rows[j], Math.min(rows[j].length, lengths[batch[j]]));
       }
-    } catch (OrtException ex) {
-      throw new IllegalStateException(
-          "Unable to perform name finder inference: " + ex.getMessage(), ex);
-    } catch (RuntimeException ex) {
-      throw new IllegalStateException(
-          "Unexpected runtime failure during name finder inference: " + ex.getMessage(), ex);
-    } finally {
-      inputs.values().forEach(OnnxTensor::close);
     }
+    return scores;
+  }
 
+  // Package-visible so the output-shape dispatch can be exercised without a live model session.
+  static float[][][] scoresFromOutput(final Object output, final int batchSize) {
     // The model returns one score row per token, batched: float[batch][token][label]. Any other
-    // shape (or an empty batch) is a model-contract violation, surfaced on its own rather than as
-    // "inference failed".
+    // shape (or a batch of the wrong size) is a model-contract violation, surfaced on its own rather
+    // than as "inference failed".
     if (output instanceof float[][][] v) {
-      if (v.length == 0) {
-        throw new IllegalStateException("Model output batch must contain at least one entry.");
+      if (v.length != batchSize) {
+        throw new IllegalStateException("Model output batch must contain " + batchSize
+            + " entries, but contained " + v.length + ".");
       }
-      return v[0];
+      return v;
     }
     throw new IllegalStateException("Unexpected model output type: "
         + (output == null ? "null" : output.getClass().getName()));
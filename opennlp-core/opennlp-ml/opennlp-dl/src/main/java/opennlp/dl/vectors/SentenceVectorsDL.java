@@ -20,8 +20,10 @@ package opennlp.dl.vectors;
 import java.io.File;
 import java.io.IOException;
 import java.nio.LongBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import ai.onnxruntime.OnnxTensor;
@@ -29,6 +31,7 @@ import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 
 import opennlp.dl.AbstractDL;
+import opennlp.dl.InferenceOptions;
 import opennlp.dl.Tokens;
 import opennlp.tools.commons.ThreadSafe;
 import opennlp.tools.tokenize.Tokenizer;
@@ -60,6 +63,9 @@ import opennlp.tools.tokenize.Tokenizer;
 @ThreadSafe
 public class SentenceVectorsDL extends AbstractDL {
 
+  private final int maxBatchSize;
+  private final int maxBatchTokens;
+
   /**
    * Instantiates a {@link SentenceVectorsDL sentence vector generator} for an
    * uncased model. Input text is lower cased and accent stripped during
@@ -93,10 +99,40 @@ public class SentenceVectorsDL extends AbstractDL {
   public SentenceVectorsDL(final File model, final File vocabulary, final boolean lowerCase)
       throws OrtException, IOException {
 
-    super(model, vocabulary, new OrtSession.SessionOptions(), lowerCase);
+    this(model, vocabulary, lowerCaseOptions(lowerCase));
 
   }
 
+  /**
+   * Instantiates a {@link SentenceVectorsDL sentence vector generator} using ONNX models.
+   * Input text is lower cased and accent stripped during tokenization unless
+   * {@link InferenceOptions#setLowerCase(boolean)} is set to {@code false} for a cased model.
+   *
+   * @param model The file name of a sentence vectors ONNX model.
+   * @param vocabulary The file name of the vocabulary file for the model.
+   * @param inferenceOptions {@link InferenceOptions} to control the inference, e.g. the
+   *     GPU and the batch limits of {@link #getVectors(List)}.
+   *
+   * @throws OrtException Thrown if the {@code model} cannot be loaded.
+   * @throws IOException Thrown if errors occurred loading the {@code model} or {@code vocabulary}.
+   */
+  public SentenceVectorsDL(final File model, final File vocabulary,
+                           final InferenceOptions inferenceOptions)
+      throws OrtException, IOException {
+
+    super(model, vocabulary, sessionOptions(inferenceOptions), resolveLowerCase(inferenceOptions, true));
+
+    this.maxBatchSize = inferenceOptions.getMaxBatchSize();
+    this.maxBatchTokens = inferenceOptions.getMaxBatchTokens();
+
+  }
+
+  private static InferenceOptions lowerCaseOptions(final boolean lowerCase) {
+    final InferenceOptions inferenceOptions = new InferenceOptions();
+    inferenceOptions.setLowerCase(lowerCase);
+    return inferenceOptions;
+  }
+
   /**
    * Generates vectors given a sentence.
    * 
@@ -132,6 +168,65 @@ public class SentenceVectorsDL extends AbstractDL {
 
   }
 
+  /**
+   * Generates the vectors of multiple sentences. The sentences are grouped into batches of
+   * similar length, and each batch is run as a single model invocation.
+   *
+   * @param sentences The input sentences.
+   * @return The sentence vectors, in the order of {@code sentences}.
+   *
+   * @throws OrtException Thrown if an error occurs during inference.
+   * @throws IllegalArgumentException Thrown if {@code sentences} is {@code null}.
+   */
+  public List<float[]> getVectors(final List<String> sentences) throws OrtException {
+
+    if (sentences == null) {
+      throw new IllegalArgumentException("sentences must not be null");
+    }
+
+    final List<Tokens> encoded = new ArrayList<>(sentences.size());
+    final int[] lengths = new int[sentences.size()];
+    for (int i = 0; i < lengths.length; i++) {
+      encoded.add(tokenize(sentences.get(i), tokenizer, vocab));
+      lengths[i] = encoded.get(i).ids().length;
+    }
+
+    final float[][] vectors = new float[encoded.size()][];
+    for (final int[] batch : planBatches(lengths, maxBatchSize, maxBatchTokens, true)) {
+      final List<Tokens> sequences = new ArrayList<>(batch.length);
+      for (final int i : batch) {
+        sequences.add(encoded.get(i));
+      }
+
+      final float[][] rows = vectorsFromOutput(runBatch(sequences, true, true), batch.length);
+      for (int j = 0; j < batch.length; j++) {
+        vectors[batch[j]] = rows[j];
+      }
+    }
+    return Arrays.asList(vectors);
+
+  }
+
+  /**
+   * Takes the vector of the first token of each sequence from the output of a batch.
+   *
+   * @param output The model output, {@code [sequence][token][dimension]}.
+   * @param batchSize The number of sequences in the batch.
+   * @return The {@code [sequence][dimension]} vectors.
+   */
+  // Package-visible so the batch output-shape check can be exercised without a live model session.
+  static float[][] vectorsFromOutput(final Object output, final int batchSize) {
+    if (output instanceof float[][][] v && v.length == batchSize) {
+      final float[][] vectors = new float[batchSize][];
+      for (int i = 0; i < batchSize; i++) {
+        vectors[i] = v[i][0];
+      }
+      return vectors;
+    }
+    throw new IllegalStateException("Unexpected model output for a batch of " + batchSize
+        + " sequences: " + (output == null ? "null" : output.getClass().getName()));
+  }
+
   /**
    * Encodes text as model inputs: wordpiece token ids, an attention mask of ones,
    * and single-segment (all zero) token type ids.
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.dl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Model-free tests for the batching seam of {@link AbstractDL}: how token sequences are grouped
+ * into batches and padded to a common length.
+ */
+public class BatchPlanningTest {
+
+  @Test
+  void testGroupsByLengthWithinMaxBatchSize() {
+    final List<int[]> batches = AbstractDL.planBatches(new int[] {5, 2, 4, 3, 1}, 2, 1000, true);
+
+    assertEquals(3, batches.size());
+    assertArrayEquals(new int[] {4, 1}, batches.get(0));
+    assertArrayEquals(new int[] {3, 2}, batches.get(1));
+    assertArrayEquals(new int[] {0}, batches.get(2));
+  }
+
+  @Test
+  void testRespectsTokenBudget() {
+    // 3 * 4 = 12 padded tokens fit, a fourth sequence of length 4 would need 16
+    final List<int[]> batches = AbstractDL.planBatches(new int[] {4, 4, 4, 4, 2}, 10, 12, true);
+
+    assertEquals(2, batches.size());
+    assertArrayEquals(new int[] {4, 0, 1}, batches.get(0));
+    assertArrayEquals(new int[] {2, 3}, batches.get(1));
+  }
+
+  @Test
+  void testRunsSequenceExceedingTokenBudgetOnItsOwn() {
+    final List<int[]> batches = AbstractDL.planBatches(new int[] {20, 1, 1}, 10, 8, true);
+
+    assertEquals(2, batches.size());
+    assertArrayEquals(new int[] {1, 2}, batches.get(0));
+    assertArrayEquals(new int[] {0}, batches.get(1));
+  }
+
+  @Test
+  void testDoesNotPadWithoutAttentionMask() {
+    final List<int[]> batches = AbstractDL.planBatches(new int[] {3, 2, 3, 2, 3}, 10, 1000, false);
+
+    assertEquals(2, batches.size());
+    assertArrayEquals(new int[] {1, 3}, batches.get(0));
+    assertArrayEquals(new int[] {0, 2, 4}, batches.get(1));
+  }
+
+  @Test
+  void testPlansNoBatchForNoSequences() {
+    assertEquals(0, AbstractDL.planBatches(new int[0], 10, 1000, true).size());
+  }
+
+  @Test
+  void testPadsToLongestSequence() {
+    final Tokens a = new Tokens(new String[] {"a", "b", "c"},
+        new long[] {7, 8, 9}, new long[] {1, 1, 1}, new long[] {0, 0, 1});
+    final Tokens b = new Tokens(new String[] {"d"}, new long[] {6}, new long[] {1}, new long[] {1});
+
+    final AbstractDL.PaddedBatch batch = AbstractDL.padBatch(List.of(a, b), 42);
+
+    assertEquals(2, batch.size());
+    assertEquals(3, batch.length());
+    assertArrayEquals(new long[] {7, 8, 9, 6, 42, 42}, batch.ids());
+    assertArrayEquals(new long[] {1, 1, 1, 1, 0, 0}, batch.mask());
+    assertArrayEquals(new long[] {0, 0, 1, 1, 0, 0}, batch.types());
+  }
+
+  @Test
+  void testResolvesPadTokenId() {
+    assertEquals(5, AbstractDL.resolvePadTokenId(Map.of(AbstractDL.BERT_PAD_TOKEN, 5)));
+    assertEquals(1, AbstractDL.resolvePadTokenId(Map.of(AbstractDL.ROBERTA_PAD_TOKEN, 1)));
+    assertEquals(0, AbstractDL.resolvePadTokenId(Map.of("hello", 3)));
+  }
+}
@@ -74,4 +74,29 @@ public class InferenceOptionsValidationTest {
 
     assertThrows(IllegalArgumentException.class, () -> AbstractDL.validateSplitOptions(options));
   }
+
+  @Test
+  void testValidBatchOptions() {
+    final InferenceOptions options = new InferenceOptions();
+    options.setMaxBatchSize(1);
+    options.setMaxBatchTokens(1);
+
+    assertDoesNotThrow(() -> AbstractDL.validateBatchOptions(options));
+  }
+
+  @Test
+  void testRejectsZeroMaxBatchSize() {
+    final InferenceOptions options = new InferenceOptions();
+    options.setMaxBatchSize(0);
+
+    assertThrows(IllegalArgumentException.class, () -> AbstractDL.validateBatchOptions(options));
+  }
+
+  @Test
+  void testRejectsNegativeMaxBatchTokens() {
+    final InferenceOptions options = new InferenceOptions();
+    options.setMaxBatchTokens(-1);
+
+    assertThrows(IllegalArgumentException.class, () -> AbstractDL.validateBatchOptions(options));
+  }
 }
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.dl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MicroBatchSchedulerTest {
+
+  @Test
+  void testRequestsAreGroupedIntoBatches() throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    // The wait time never elapses in this test, batches are dispatched because they are
+    // full or because the scheduler is closed.
+    final MicroBatchScheduler<Integer, String> scheduler = new MicroBatchScheduler<>(inputs -> {
+      started.countDown();
+      release.await();
+      batches.add(List.copyOf(inputs));
+      return inputs.stream().map(i -> "r" + i).toList();
+    }, 3, Duration.ofMinutes(1));
+
+    final List<CompletableFuture<String>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(scheduler.submit(i));
+    }
+    started.await();
+
+    // The first batch is running, so all further requests are queued
+    for (int i = 3; i < 8; i++) {
+      futures.add(scheduler.submit(i));
+    }
+    assertEquals(5, scheduler.getQueueDepth());
+
+    release.countDown();
+    scheduler.close();
+
+    for (int i = 0; i < futures.size(); i++) {
+      assertEquals("r" + i, futures.get(i).join());
+    }
+    assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6, 7)), batches);
+
+    final MicroBatchScheduler.Statistics statistics = scheduler.getStatistics();
+    assertEquals(0, statistics.queueDepth());
+    assertEquals(8, statistics.requests());
+    assertEquals(0, statistics.failedRequests());
+    assertEquals(3, statistics.batches());
+    assertArrayEquals(new long[] {0, 0, 1, 2}, statistics.batchSizes());
+    assertTrue(statistics.p50().compareTo(statistics.p99()) <= 0);
+  }
+
+  @Test
+  void testBatchIsDispatchedAfterMaxWait() throws InterruptedException {
+    try (MicroBatchScheduler<Integer, Integer> scheduler = new MicroBatchScheduler<>(
+        inputs -> inputs.stream().map(i -> i * 2).toList(), 100, Duration.ofMillis(10))) {
+      assertEquals(42, scheduler.submit(21).join());
+      assertEquals(1, scheduler.getStatistics().batches());
+    }
+  }
+
+  @Test
+  void testFailureCompletesAllFuturesOfTheBatch() throws InterruptedException {
+    final MicroBatchScheduler<Integer, Integer> scheduler = new MicroBatchScheduler<>(inputs -> {
+      throw new IllegalStateException("inference failed");
+    }, 2, Duration.ofMinutes(1));
+
+    final CompletableFuture<Integer> first = scheduler.submit(1);
+    final CompletableFuture<Integer> second = scheduler.submit(2);
+    scheduler.close();
+
+    for (CompletableFuture<Integer> future : List.of(first, second)) {
+      final CompletionException e = assertThrows(CompletionException.class, future::join);
+      assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+    assertEquals(2, scheduler.getStatistics().failedRequests());
+  }
+
+  @Test
+  void testFailingInputDoesNotFailTheOtherRequests() throws InterruptedException {
+    final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+    final MicroBatchScheduler<Integer, Integer> scheduler = new MicroBatchScheduler<>(inputs -> {
+      batches.add(List.copyOf(inputs));
+      if (inputs.contains(0)) {
+        throw new IllegalArgumentException("input must not be zero");
+      }
+      return inputs.stream().map(i -> 10 / i).toList();
+    }, 3, Duration.ofMinutes(1));
+
+    final CompletableFuture<Integer> first = scheduler.submit(1);
+    final CompletableFuture<Integer> bad = scheduler.submit(0);
+    final CompletableFuture<Integer> third = scheduler.submit(5);
+    scheduler.close();
+
+    assertEquals(10, first.join());
+    assertEquals(2, third.join());
+    final CompletionException e = assertThrows(CompletionException.class, bad::join);
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    assertEquals(List.of(List.of(1, 0, 5), List.of(1), List.of(0), List.of(5)), batches);
+
+    final MicroBatchScheduler.Statistics statistics = scheduler.getStatistics();
+    assertEquals(3, statistics.requests());
+    assertEquals(1, statistics.failedRequests());
+    assertEquals(1, statistics.batches());
+  }
+
+  @Test
+  void testMismatchingResultCountFailsTheBatch() throws InterruptedException {
+    final MicroBatchScheduler<Integer, Integer> scheduler =
+        new MicroBatchScheduler<>(inputs -> List.of(1), 2, Duration.ofMinutes(1));
+
+    final CompletableFuture<Integer> first = scheduler.submit(1);
+    final CompletableFuture<Integer> second = scheduler.submit(2);
+    scheduler.close();
+
+    assertThrows(CompletionException.class, first::join);
+    assertThrows(CompletionException.class, second::join);
+  }
+
+  @Test
+  void testClosedSchedulerRejectsRequests() throws InterruptedException {
+    final MicroBatchScheduler<Integer, Integer> scheduler =
+        new MicroBatchScheduler<>(inputs -> inputs, 2, Duration.ZERO);
+    scheduler.close();
+    scheduler.close();
+
+    assertThrows(IllegalStateException.class, () -> scheduler.submit(1));
+  }
+
+  @Test
+  void testInvalidArguments() throws InterruptedException {
+    assertThrows(IllegalArgumentException.class,
+        () -> new MicroBatchScheduler<Integer, Integer>(null, 1, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MicroBatchScheduler<Integer, Integer>(inputs -> inputs, 0, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MicroBatchScheduler<Integer, Integer>(inputs -> inputs, 1, Duration.ofMillis(-1)));
+
+    try (MicroBatchScheduler<Integer, Integer> scheduler =
+             new MicroBatchScheduler<>(inputs -> inputs, 1, Duration.ZERO)) {
+      assertThrows(IllegalArgumentException.class, () -> scheduler.submit(null));
+    }
+  }
+
+  @Test
+  void testPercentile() {
+    final long[] sorted = new long[100];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = i + 1;
+    }
+    assertEquals(Duration.ofNanos(50), MicroBatchScheduler.percentile(sorted, 0.5));
+    assertEquals(Duration.ofNanos(99), MicroBatchScheduler.percentile(sorted, 0.99));
+    assertEquals(Duration.ofNanos(7), MicroBatchScheduler.percentile(new long[] {7}, 0.99));
+    assertEquals(Duration.ZERO, MicroBatchScheduler.percentile(new long[0], 0.5));
+  }
+}
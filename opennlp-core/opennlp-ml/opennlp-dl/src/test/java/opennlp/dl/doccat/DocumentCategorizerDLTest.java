@@ -18,6 +18,7 @@
 package opennlp.dl.doccat;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,7 @@ import opennlp.tools.tokenize.WordpieceTokenizer;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -218,4 +220,43 @@ public class DocumentCategorizerDLTest {
         () -> DocumentCategorizerDL.requireMatchingCategoryCount(new double[] {1.0}, 2));
     assertTrue(e.getMessage().contains("do not match"), e.getMessage());
   }
+
+  @Test
+  void testBatchCategorizeFailsLoudlyWhenInferenceFails() {
+    final IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+        categorizerWithoutSession().categorizeAll(
+            List.of(new String[] {"hello world"}, new String[] {"hello"})));
+
+    assertTrue(e.getMessage().contains("document classification inference"));
+  }
+
+  @Test
+  void testBatchCategorizeRejectsMalformedInputBeforeInference() {
+    // Every document is validated before any inference runs, so the input bug is reported
+    // instead of the inference failure of the session-less categorizer.
+    final DocumentCategorizerDL categorizer = categorizerWithoutSession();
+
+    assertThrows(IllegalArgumentException.class, () -> categorizer.categorizeAll(null));
+    assertThrows(IllegalArgumentException.class, () ->
+        categorizer.categorizeAll(List.of(new String[] {"hello"}, new String[0])));
+    assertThrows(IllegalArgumentException.class, () ->
+        categorizer.categorizeAll(List.of(new String[] {"hello"}, new String[] {" "})));
+  }
+
+  @Test
+  void testBatchCategorizeOfNoDocuments() {
+    assertEquals(0, categorizerWithoutSession().categorizeAll(List.of()).size());
+  }
+
+  @Test
+  void testLogitsFromBatchOutput() {
+    final float[][] rows = {{1f, 2f}, {3f, 4f}};
+    assertSame(rows, DocumentCategorizerDL.logitsFromOutput(rows, 2));
+    assertArrayEquals(new float[][] {{3f, 4f}},
+        DocumentCategorizerDL.logitsFromOutput(new float[] {3f, 4f}, 1));
+    assertThrows(IllegalStateException.class,
+        () -> DocumentCategorizerDL.logitsFromOutput(new float[] {3f, 4f}, 2));
+    assertThrows(IllegalStateException.class,
+        () -> DocumentCategorizerDL.logitsFromOutput(rows, 3));
+  }
 }
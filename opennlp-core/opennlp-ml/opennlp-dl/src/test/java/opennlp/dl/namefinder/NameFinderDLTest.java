@@ -541,4 +541,15 @@ public class NameFinderDLTest {
     assertThrows(IllegalArgumentException.class,
         () -> new NameFinderDL(null, null, null, null));
   }
+
+  @Test
+  void testScoresFromOutputChecksBatchShape() {
+    final float[][][] scores = {{{1f, 2f}}, {{3f, 4f}}};
+    assertArrayEquals(scores, NameFinderDL.scoresFromOutput(scores, 2));
+    assertThrows(IllegalStateException.class, () -> NameFinderDL.scoresFromOutput(scores, 1));
+    assertThrows(IllegalStateException.class,
+        () -> NameFinderDL.scoresFromOutput(new float[0][][], 1));
+    assertThrows(IllegalStateException.class,
+        () -> NameFinderDL.scoresFromOutput(new float[][] {{1f}}, 1));
+  }
 }
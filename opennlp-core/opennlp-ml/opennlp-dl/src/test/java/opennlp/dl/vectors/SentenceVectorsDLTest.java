@@ -17,11 +17,13 @@
 
 package opennlp.dl.vectors;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import opennlp.dl.InferenceOptions;
 import opennlp.dl.Tokens;
 import opennlp.tools.tokenize.WordpieceTokenizer;
 
@@ -78,4 +80,26 @@ public class SentenceVectorsDLTest {
     assertThrows(IllegalArgumentException.class, () ->
         SentenceVectorsDL.tokenize("hello xyz", tokenizer, vocab));
   }
+
+  @Test
+  void testVectorsFromOutputTakesTheFirstTokenOfEachSequence() {
+    final float[][][] output = {{{1f, 2f}, {3f, 4f}}, {{5f, 6f}, {7f, 8f}}};
+
+    assertArrayEquals(new float[][] {{1f, 2f}, {5f, 6f}},
+        SentenceVectorsDL.vectorsFromOutput(output, 2));
+    assertThrows(IllegalStateException.class, () -> SentenceVectorsDL.vectorsFromOutput(output, 3));
+    assertThrows(IllegalStateException.class,
+        () -> SentenceVectorsDL.vectorsFromOutput(new float[][] {{1f}}, 1));
+  }
+
+  @Test
+  void testConstructorValidatesInferenceOptions() {
+    final File missing = new File("missing.onnx");
+    final InferenceOptions options = new InferenceOptions();
+    options.setMaxBatchSize(0);
+
+    assertThrows(IllegalArgumentException.class, () -> new SentenceVectorsDL(missing, missing, options));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SentenceVectorsDL(missing, missing, (InferenceOptions) null));
+  }
 }
@@ -23,6 +23,7 @@ import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.EvalParameters;
+import opennlp.tools.ml.model.IndexedParameters;
 import opennlp.tools.ml.model.MaxentModel;
 
 /**
@@ -105,10 +106,15 @@ public class NaiveBayesModel extends AbstractModel {
   }
 
   public double[] eval(String[] context, float[] values, double[] outsums) {
+    if (indexedParams != null) {
+      java.util.Arrays.fill(outsums, 0);
+      return eval(context, values, outsums, indexedParams, evalParams);
+    }
+
     Context[] scontexts = new Context[context.length];
     java.util.Arrays.fill(outsums, 0);
     for (int i = 0; i < context.length; i++) {
-      scontexts[i] = pmap.get(context[i]);
+      scontexts[i] = getContext(context[i]);
     }
     return eval(scontexts, values, outsums, evalParams, true);
   }
@@ -140,30 +146,81 @@ public class NaiveBayesModel extends AbstractModel {
   static double[] eval(Context[] context, float[] values, double[] prior,
                        EvalParameters model, boolean normalize) {
     Probabilities<Integer> probabilities = new LogProbabilities<>();
-    double[] outcomeTotals = model instanceof NaiveBayesEvalParameters
-        ? ((NaiveBayesEvalParameters) model).getOutcomeTotals() : new double[prior.length];
-    long vocabulary = model instanceof NaiveBayesEvalParameters
-        ? ((NaiveBayesEvalParameters) model).getVocabulary() : 0;
-    double[] activeParameters;
-    int[] activeOutcomes;
+    double[] outcomeTotals = getOutcomeTotals(model, prior);
+    long vocabulary = getVocabulary(model);
     double value = 1;
     for (int ci = 0; ci < context.length; ci++) {
       if (context[ci] != null) {
         Context predParams = context[ci];
-        activeOutcomes = predParams.getOutcomes();
-        activeParameters = predParams.getParameters();
         if (values != null) {
           value = values[ci];
         }
-        int ai = 0;
-        for (int i = 0; i < outcomeTotals.length && ai < activeOutcomes.length; ++i) {
-          int oid = activeOutcomes[ai];
-          double numerator = oid == i ? activeParameters[ai++] * value : 0;
-          double denominator = outcomeTotals[i];
-          probabilities.addIn(i, getProbability(numerator, denominator, vocabulary, true), 1);
+        addIn(probabilities, predParams.getOutcomes(), predParams.getParameters(),
+            0, predParams.getOutcomes().length, value, outcomeTotals, vocabulary);
+      }
+    }
+    return addInOutcomeTotals(probabilities, outcomeTotals, prior);
+  }
+
+  /**
+   * Evaluates a {@link NaiveBayesModel} on its {@link IndexedParameters}.
+   *
+   * @param context The predicates which have been observed at the present decision point.
+   * @param values The {@code float[]} values to be used.
+   * @param prior The data prior to the evaluation as {@code double[]}.
+   * @param params The {@link IndexedParameters} of the model.
+   * @param model The {@link EvalParameters} used for evaluation.
+   *
+   * @return The resulting evaluation data as {@code double[]}.
+   */
+  static double[] eval(String[] context, float[] values, double[] prior,
+                       IndexedParameters params, EvalParameters model) {
+    Probabilities<Integer> probabilities = new LogProbabilities<>();
+    double[] outcomeTotals = getOutcomeTotals(model, prior);
+    long vocabulary = getVocabulary(model);
+    int[] offsets = params.getOffsets();
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int pid = params.getPredicateId(context[ci]);
+      if (pid >= 0) {
+        if (values != null) {
+          value = values[ci];
         }
+        addIn(probabilities, params.getOutcomes(), params.getParameters(),
+            offsets[pid], offsets[pid + 1], value, outcomeTotals, vocabulary);
       }
     }
+    return addInOutcomeTotals(probabilities, outcomeTotals, prior);
+  }
+
+  private static double[] getOutcomeTotals(EvalParameters model, double[] prior) {
+    return model instanceof NaiveBayesEvalParameters
+        ? ((NaiveBayesEvalParameters) model).getOutcomeTotals() : new double[prior.length];
+  }
+
+  private static long getVocabulary(EvalParameters model) {
+    return model instanceof NaiveBayesEvalParameters
+        ? ((NaiveBayesEvalParameters) model).getVocabulary() : 0;
+  }
+
+  /*
+   * Adds the probabilities of one predicate whose active outcomes and parameters
+   * are located in the range [from, to) of the given arrays.
+   */
+  private static void addIn(Probabilities<Integer> probabilities, int[] activeOutcomes,
+                            double[] activeParameters, int from, int to, double value,
+                            double[] outcomeTotals, long vocabulary) {
+    int ai = from;
+    for (int i = 0; i < outcomeTotals.length && ai < to; ++i) {
+      int oid = activeOutcomes[ai];
+      double numerator = oid == i ? activeParameters[ai++] * value : 0;
+      double denominator = outcomeTotals[i];
+      probabilities.addIn(i, getProbability(numerator, denominator, vocabulary, true), 1);
+    }
+  }
+
+  private static double[] addInOutcomeTotals(Probabilities<Integer> probabilities,
+                                             double[] outcomeTotals, double[] prior) {
     double total = 0;
     for (double outcomeTotal : outcomeTotals) {
       total += outcomeTotal;
@@ -21,11 +21,15 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import opennlp.tools.ml.AbstractMLModelWriter;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.AbstractModelWriter;
 import opennlp.tools.ml.model.ComparablePredicate;
 import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.ParameterPrecision;
 
 /**
  * The base class for {@link NaiveBayesModel} writers.
@@ -40,6 +44,8 @@ import opennlp.tools.ml.model.Context;
  */
 public abstract class NaiveBayesModelWriter extends AbstractMLModelWriter {
 
+  private static final Logger logger = LoggerFactory.getLogger(NaiveBayesModelWriter.class);
+
   /**
    * Initializes a {@link NaiveBayesModelWriter} for a
    * {@link AbstractModel NaiveBayes model}.
@@ -98,6 +104,18 @@ public abstract class NaiveBayesModelWriter extends AbstractMLModelWriter {
     return sortPreds;
   }
 
+  /**
+   * Naive Bayes parameters are counts which are always written as {@code double}s,
+   * a different {@link ParameterPrecision} is ignored.
+   */
+  @Override
+  public void setParameterPrecision(ParameterPrecision precision) {
+    if (precision != ParameterPrecision.DOUBLE) {
+      logger.warn("Naive Bayes models are always written with double parameters, ignoring {}",
+          precision);
+    }
+  }
+
   /**
    * Writes the {@link AbstractModel perceptron model}, using the
    * {@link #writeUTF(String)}, {@link #writeDouble(double)}, or {@link #writeInt(int)}}
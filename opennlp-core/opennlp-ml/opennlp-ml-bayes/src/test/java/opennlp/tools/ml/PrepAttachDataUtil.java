@@ -91,4 +91,14 @@ public class PrepAttachDataUtil {
 
     Assertions.assertEquals(expecedAccuracy, accuracy, .00001);
   }
+
+  /**
+   * Asserts that two models compute identical probabilities for all events of the dev set.
+   */
+  public static void assertSameProbabilities(MaxentModel expected, MaxentModel actual)
+      throws IOException {
+    for (Event ev : readPpaFile("devset")) {
+      Assertions.assertArrayEquals(expected.eval(ev.getContext()), actual.eval(ev.getContext()));
+    }
+  }
 }
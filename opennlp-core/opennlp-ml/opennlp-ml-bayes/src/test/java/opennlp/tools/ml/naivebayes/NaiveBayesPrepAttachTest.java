@@ -19,6 +19,7 @@ package opennlp.tools.ml.naivebayes;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +28,8 @@ import org.junit.jupiter.api.Test;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
@@ -87,4 +90,27 @@ public class NaiveBayesPrepAttachTest {
     Assertions.assertInstanceOf(NaiveBayesModel.class, model);
     PrepAttachDataUtil.testModel(model, 0.7945035899975241);
   }
+
+  @Test
+  void testNaiveBayesOnPrepAttachDataWithIndexedParameters() throws IOException {
+    TrainingParameters trainingParameters = new TrainingParameters();
+    trainingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    trainingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    DataIndexer<TrainingParameters> testDataIndexer = new TwoPassDataIndexer();
+    testDataIndexer.init(trainingParameters, new HashMap<>());
+    testDataIndexer.index(trainingStream);
+    AbstractModel model = new NaiveBayesTrainer().trainModel(testDataIndexer);
+
+    Object[] data = model.getDataStructures();
+    @SuppressWarnings("unchecked")
+    Map<String, Context> pmap = (Map<String, Context>) data[1];
+    System.setProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY, "true");
+    try {
+      AbstractModel indexed = new NaiveBayesModel(pmap.values().toArray(new Context[0]),
+          pmap.keySet().toArray(new String[0]), (String[]) data[2]);
+      PrepAttachDataUtil.assertSameProbabilities(model, indexed);
+    } finally {
+      System.clearProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY);
+    }
+  }
 }
@@ -17,6 +17,7 @@
 
 package opennlp.tools.ml;
 
+import java.io.Closeable;
 import java.io.IOException;
 
 import opennlp.tools.ml.model.AbstractDataIndexer;
@@ -24,6 +25,8 @@ import opennlp.tools.ml.model.ChecksumEventStream;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.DataIndexerFactory;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FeatureHasher;
+import opennlp.tools.ml.model.HashedEventStream;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
@@ -39,6 +42,15 @@ public abstract class AbstractEventTrainer<P extends Parameters>
   public static final String DATA_INDEXER_ONE_PASS_VALUE = "OnePass";
   public static final String DATA_INDEXER_TWO_PASS_VALUE = "TwoPass";
   public static final String DATA_INDEXER_ONE_PASS_REAL_VALUE = "OnePassRealValue";
+  public static final String DATA_INDEXER_ON_DISK_VALUE = "OnDisk";
+
+  /**
+   * The number of buckets to hash the predicates of the training events into, see
+   * {@link FeatureHasher}. The trained model has at most this many predicates and stores
+   * no predicate strings. Defaults to {@code 0}, which disables hashing.
+   */
+  public static final String FEATURE_HASH_BUCKETS_PARAM = "FeatureHashBuckets";
+  public static final int FEATURE_HASH_BUCKETS_DEFAULT_VALUE = 0;
 
   public AbstractEventTrainer() {
   }
@@ -50,6 +62,18 @@ public abstract class AbstractEventTrainer<P extends Parameters>
   @Override
   public void validate() {
     super.validate();
+
+    final int buckets;
+    try {
+      buckets = trainingParameters.getIntParameter(FEATURE_HASH_BUCKETS_PARAM,
+          FEATURE_HASH_BUCKETS_DEFAULT_VALUE);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(e);
+    }
+    if (buckets < 0) {
+      throw new IllegalArgumentException(FEATURE_HASH_BUCKETS_PARAM
+          + " must not be negative: " + buckets);
+    }
   }
 
   public abstract boolean isSortAndMerge();
@@ -87,9 +111,19 @@ public abstract class AbstractEventTrainer<P extends Parameters>
     validate();
 
     ChecksumEventStream hses = new ChecksumEventStream(events);
-    DataIndexer<P> indexer = getDataIndexer(hses);
+    int buckets = trainingParameters.getIntParameter(FEATURE_HASH_BUCKETS_PARAM,
+        FEATURE_HASH_BUCKETS_DEFAULT_VALUE);
+    DataIndexer<P> indexer = getDataIndexer(buckets > 0
+        ? new HashedEventStream(hses, new FeatureHasher(buckets)) : hses);
 
     addToReport("Training-Eventhash", String.valueOf(hses.calculateChecksum()));
-    return train(indexer);
+    try {
+      return train(indexer);
+    } finally {
+      // Indexers like the OnDiskDataIndexer hold temporary files
+      if (indexer instanceof Closeable closeable) {
+        closeable.close();
+      }
+    }
   }
 }
@@ -99,6 +99,9 @@ public abstract class AbstractMLModelWriter extends AbstractModelWriter {
 
   @Override
   public void persist() throws IOException {
+    // the precision of the parameters, if they are not doubles
+    writeParameterPrecision();
+
     // the mapping from outcomes to their integer indexes
     writeInt(OUTCOME_LABELS.length);
 
@@ -126,9 +129,7 @@ public abstract class AbstractMLModelWriter extends AbstractModelWriter {
     }
 
     // write out the parameters
-    for (ComparablePredicate comparablePredicate : sorted)
-      for (int j = 0; j < comparablePredicate.params.length; j++)
-        writeDouble(comparablePredicate.params[j]);
+    writeParameters(sorted, OUTCOME_LABELS.length);
 
     close();
   }
@@ -21,14 +21,18 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
 
 import opennlp.tools.commons.ThreadSafe;
+import opennlp.tools.ml.model.AdditiveModel;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.BeamSearchContextGenerator;
-import opennlp.tools.util.Cache;
+import opennlp.tools.util.ScratchState;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.StateStrategy;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * Performs k-best search over a sequence.
@@ -37,7 +41,19 @@ import opennlp.tools.util.SequenceValidator;
  * PhD diss, Univ. of Pennsylvania.
  * <p>
  * This implementation is thread-safe. The contexts cache and probability buffer
- * are maintained per-thread via {@link ThreadLocal}.
+ * are maintained per-thread via {@link ThreadLocal}, or shared between threads according
+ * to the {@link StateStrategy} of the instance.
+ * <p>
+ * If enabled, the contexts cache is keyed by the contents of the predicates returned by
+ * {@link BeamSearchContextGenerator#getContext(int, Object[], String[], Object[])}, so repeated
+ * contexts are scored only once per thread. Its effectiveness can be monitored via
+ * {@link #getCacheStatistics()}.
+ * <p>
+ * If contexts are written into a {@link FeatureSink}, see {@link #FEATURE_SINK_PROPERTY}, the
+ * {@link BeamSearchContextGenerator#hasStaticContext() context generator splits} its contexts and
+ * the model is an {@link AdditiveModel}, the scores of the static features are computed once per
+ * position, and only the features which depend on the prior decisions are scored per hypothesis.
+ * The contexts cache is not used in that case.
  * <p>
  * <b>Note:</b> In container environments with classloader isolation (e.g. Jakarta EE),
  * {@link ThreadLocal} state may pin the classloader. Ensure instances do not outlive
@@ -52,26 +68,69 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
 
   public static final String BEAM_SIZE_PARAMETER = "BeamSize";
 
+  /**
+   * The name of the system property which, if set to {@code true}, makes beam searches write
+   * the contexts into a per-thread {@link FeatureSink} via
+   * {@link BeamSearchContextGenerator#createContext(FeatureSink, int, Object[], String[], Object[])}
+   * and evaluate them with {@link MaxentModel#evalFeatures(FeatureSink, double[])}, instead of creating
+   * a {@code String[]} per context. The property is read when a {@link BeamSearch} is instantiated.
+   */
+  public static final String FEATURE_SINK_PROPERTY = "opennlp.beamsearch.featureSink";
+
   private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
 
   private final int size;
   private final MaxentModel model;
+  private final AdditiveModel additiveModel;
 
   private static final int ZERO_LOG = -100000;
 
   private final int cacheSize;
+  private final boolean useFeatureSink;
+
+  private final StateStrategy stateStrategy;
+  private final ScratchState<CacheState> scratchState;
 
-  private final ThreadLocal<CacheState> threadState;
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder cacheEvictions = new LongAdder();
 
-  private static final class CacheState {
+  private final class CacheState {
     private final double[] probs;
     private final double[] tempScores;
-    private final Cache<String[], double[]> cache;
+    private final ContextScoreCache cache;
+    private final double[] staticScores;
+    private final FeatureSink features;
+    private final Queue<Sequence> prev;
+    private final Queue<Sequence> next;
 
-    CacheState(int numOutcomes, int cacheSize) {
+    CacheState(int numOutcomes, int cacheSize, boolean useFeatureSink) {
       this.probs = new double[numOutcomes];
       this.tempScores = new double[numOutcomes];
-      this.cache = cacheSize > 0 ? new Cache<>(cacheSize) : null;
+      this.staticScores = new double[numOutcomes];
+      this.cache = cacheSize > 0 ? new ContextScoreCache(cacheSize, numOutcomes,
+          cacheHits, cacheMisses, cacheEvictions) : null;
+      this.features = useFeatureSink ? new FeatureSink() : null;
+      this.prev = new PriorityQueue<>(size);
+      this.next = new PriorityQueue<>(size);
+    }
+  }
+
+  /**
+   * Usage statistics of the contexts cache, aggregated over all threads.
+   *
+   * @param hits The number of contexts whose scores were served from the cache.
+   * @param misses The number of contexts which had to be evaluated by the model.
+   * @param evictions The number of cached contexts replaced by newer ones.
+   */
+  public record CacheStatistics(long hits, long misses, long evictions) {
+
+    /**
+     * @return The ratio of hits to lookups, or {@code 0} if there were no lookups.
+     */
+    public double hitRate() {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0d : (double) hits / lookups;
     }
   }
 
@@ -90,17 +149,51 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
    *
    * @param size The size of the beam (k).
    * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
-   * @param cacheSize The capacity of the per-thread contexts cache. Use {@code 0} to disable
-   *     only that cache; per-thread score buffers are still allocated so evaluation stays
-   *     thread-safe (see {@link CacheState}).
+   * @param cacheSize The capacity of the per-thread contexts cache, rounded up to the next power
+   *     of two. Use {@code 0} to disable only that cache; per-thread score buffers are still
+   *     allocated so evaluation stays thread-safe (see {@link CacheState}).
    */
   public BeamSearch(int size, MaxentModel model, int cacheSize) {
+    this(size, model, cacheSize, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link BeamSearch} instance with an optional contexts cache.
+   *
+   * @param size The size of the beam (k).
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   * @param cacheSize The capacity of the contexts cache, rounded up to the next power
+   *     of two. Use {@code 0} to disable only that cache.
+   * @param stateStrategy The {@link StateStrategy} which manages the contexts caches and score
+   *     buffers of the threads using this instance.
+   */
+  public BeamSearch(int size, MaxentModel model, int cacheSize, StateStrategy stateStrategy) {
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
 
     this.size = size;
     this.model = model;
+    this.additiveModel = model instanceof AdditiveModel am && am.hasAdditiveScores() ? am : null;
     this.cacheSize = cacheSize;
-    this.threadState = ThreadLocal.withInitial(
-        () -> new CacheState(model.getNumOutcomes(), cacheSize));
+    this.stateStrategy = stateStrategy;
+    this.useFeatureSink = Boolean.getBoolean(FEATURE_SINK_PROPERTY);
+    this.scratchState = stateStrategy.newState(
+        () -> new CacheState(model.getNumOutcomes(), cacheSize, useFeatureSink));
+  }
+
+  /**
+   * Creates a {@link BeamSearch} with the same beam size, model and contexts cache capacity
+   * as this instance, but with the specified {@link StateStrategy}.
+   *
+   * @param strategy The {@link StateStrategy} of the new instance.
+   * @return This instance if it already uses {@code strategy}, otherwise a new {@link BeamSearch}.
+   */
+  public BeamSearch withStateStrategy(StateStrategy strategy) {
+    if (strategy == stateStrategy) {
+      return this;
+    }
+    return new BeamSearch(size, model, cacheSize, strategy);
   }
 
   /**
@@ -111,11 +204,26 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
       final Object[] additionalContext, final double minSequenceScore,
       final BeamSearchContextGenerator<T> cg, final SequenceValidator<T> validator) {
 
-    final CacheState state = threadState.get();
+    final CacheState state = scratchState.acquire();
+    try {
+      return bestSequences(numSequences, sequence, additionalContext, minSequenceScore,
+          cg, validator, state);
+    } finally {
+      scratchState.release(state);
+    }
+  }
+
+  private <T> Sequence[] bestSequences(final int numSequences, final T[] sequence,
+      final Object[] additionalContext, final double minSequenceScore,
+      final BeamSearchContextGenerator<T> cg, final SequenceValidator<T> validator,
+      final CacheState state) {
 
-    Queue<Sequence> prev = new PriorityQueue<>(size);
-    Queue<Sequence> next = new PriorityQueue<>(size);
+    // the queues are reused by the following calls of this thread
+    Queue<Sequence> prev = state.prev;
+    Queue<Sequence> next = state.next;
     Queue<Sequence> tmp;
+    prev.clear();
+    next.clear();
     prev.add(new Sequence());
 
     Object[] context = additionalContext;
@@ -123,25 +231,45 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
       context = EMPTY_ADDITIONAL_CONTEXT;
     }
 
+    final boolean splitContexts = state.features != null && additiveModel != null
+        && cg.hasStaticContext();
+
     for (int i = 0; i < sequence.length; i++) {
       final int sz = StrictMath.min(size, prev.size());
 
+      if (splitContexts && !prev.isEmpty()) {
+        // the static features are the same for all hypotheses, they are scored only once
+        state.features.clear();
+        cg.createStaticContext(state.features, i, sequence,
+            prev.peek().getOutcomes().toArray(new String[0]), context);
+        Arrays.fill(state.staticScores, 0);
+        additiveModel.addScores(state.features, state.staticScores);
+      }
+
       for (int sc = 0; prev.size() > 0 && sc < sz; sc++) {
         final Sequence top = prev.remove();
         final List<String> tmpOutcomes = top.getOutcomes();
         final String[] outcomes = tmpOutcomes.toArray(new String[0]);
-        final String[] contexts = cg.getContext(i, sequence, outcomes, context);
         final double[] scores;
-        if (state.cache != null) {
-          scores = state.cache.computeIfAbsent(contexts, c -> {
-            // eval() writes into state.probs; cache values must be immutable copies for reuse.
-            double[] res = model.eval(c, state.probs);
-            double[] copy = new double[res.length];
-            System.arraycopy(res, 0, copy, 0, res.length);
-            return copy;
-          });
+        if (splitContexts) {
+          state.features.clear();
+          cg.createHistoryContext(state.features, i, sequence, outcomes, context);
+          System.arraycopy(state.staticScores, 0, state.probs, 0, state.probs.length);
+          additiveModel.addScores(state.features, state.probs);
+          scores = additiveModel.normalizeScores(state.probs);
+        } else if (state.features != null) {
+          state.features.clear();
+          cg.createContext(state.features, i, sequence, outcomes, context);
+          scores = state.cache != null ? state.cache.scores(state.features, model, state.probs)
+              : model.evalFeatures(state.features, state.probs);
         } else {
-          scores = model.eval(contexts, state.probs);
+          final String[] contexts = cg.getContext(i, sequence, outcomes, context);
+          if (state.cache != null) {
+            // the cache copies the result of eval(), it never hands out state.probs
+            scores = state.cache.scores(contexts, model, state.probs);
+          } else {
+            scores = model.eval(contexts, state.probs);
+          }
         }
 
         // tempScores is a per-thread scratch buffer of length numOutcomes; we sort a copy here so
@@ -191,6 +319,7 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
     for (int seqIndex = 0; seqIndex < numSeq; seqIndex++) {
       topSequences[seqIndex] = prev.remove();
     }
+    prev.clear();
 
     return topSequences;
   }
@@ -220,6 +349,41 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts cache and score buffers of the calling thread are acquired once for all
+   * {@code sequences}.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(final T[][] sequences, final Object[][] additionalContexts,
+      final BeamSearchContextGenerator<T> cg, final SequenceValidator<T> validator) {
+    if (additionalContexts != null && additionalContexts.length != sequences.length) {
+      throw new IllegalArgumentException("There must be one additional context per sequence");
+    }
+
+    final Sequence[] best = new Sequence[sequences.length];
+    final CacheState state = scratchState.acquire();
+    try {
+      for (int i = 0; i < sequences.length; i++) {
+        final Sequence[] sequence = bestSequences(1, sequences[i],
+            additionalContexts != null ? additionalContexts[i] : null, ZERO_LOG, cg, validator, state);
+        best[i] = sequence.length > 0 ? sequence[0] : null;
+      }
+    } finally {
+      scratchState.release(state);
+    }
+    return best;
+  }
+
+  /**
+   * @return The {@link CacheStatistics} of the contexts cache, summed over all threads which
+   *     used this instance. All counters are zero if the cache is disabled.
+   */
+  public CacheStatistics getCacheStatistics() {
+    return new CacheStatistics(cacheHits.sum(), cacheMisses.sum(), cacheEvictions.sum());
+  }
+
   @Override
   public String[] getOutcomes() {
     String[] outcomes = new String[model.getNumOutcomes()];
@@ -231,7 +395,9 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
   }
 
   /**
-   * Clears {@link ThreadLocal} state for the <b>current</b> thread only. This is intentionally not a
+   * Clears {@link ThreadLocal} state for the <b>current</b> thread only. Instances with a
+   * {@link StateStrategy#POOLED pooled} or {@link StateStrategy#STRIPED striped} state strategy keep
+   * no per-thread state. This is intentionally not a
    * "shut down the {@code BeamSearch} instance" operation: a single {@code BeamSearch} is typically
    * shared across many pool threads, and each one owns an independent {@link CacheState} entry.
    *
@@ -248,6 +414,6 @@ public class BeamSearch implements SequenceClassificationModel, AutoCloseable {
    */
   @Override
   public void close() {
-    threadState.remove();
+    scratchState.clearForCurrentThread();
   }
 }
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.featuregen.FeatureSink;
+
+/**
+ * A bounded cache of {@link MaxentModel} score vectors, keyed by the <i>contents</i> of a
+ * context array.
+ * <p>
+ * Lookups are driven by a 64-bit hash over the predicate strings, so two independently built
+ * but equal {@code String[]} contexts share one entry. Entries are organized in two-way sets;
+ * a miss on a full set evicts the least recently used slot of that set. Score vectors are
+ * copied into slot buffers which are allocated once and then reused, hence a warm cache
+ * allocates only the key copy of a newly inserted entry.
+ * <p>
+ * Hits, misses and evictions are reported to {@link LongAdder counters} supplied by the owner,
+ * which allows several per-thread caches to contribute to one set of statistics.
+ * <p>
+ * Instances are not thread-safe, {@link BeamSearch} keeps one cache per thread.
+ *
+ * @see BeamSearch
+ */
+final class ContextScoreCache {
+
+  private static final int WAYS = 2;
+
+  private final int setMask;
+  private final long[] hashes;
+  private final String[][] keys;
+  private final double[][] scores;
+  /* Per set, the way which was accessed most recently. */
+  private final byte[] mostRecent;
+
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  /**
+   * Initializes a {@link ContextScoreCache}.
+   *
+   * @param capacity The maximum number of cached contexts. It is rounded up to the next
+   *                 power of two. Must be greater than zero.
+   * @param numOutcomes The length of the score vectors to cache.
+   * @param hits The counter incremented on each cache hit.
+   * @param misses The counter incremented on each cache miss.
+   * @param evictions The counter incremented whenever an entry is replaced.
+   * @throws IllegalArgumentException Thrown if {@code capacity} is not positive.
+   */
+  ContextScoreCache(int capacity, int numOutcomes,
+                    LongAdder hits, LongAdder misses, LongAdder evictions) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than zero: " + capacity);
+    }
+    final int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+    final int sets = slots / WAYS;
+    this.setMask = sets - 1;
+    this.hashes = new long[slots];
+    this.keys = new String[slots][];
+    this.scores = new double[slots][];
+    for (int i = 0; i < slots; i++) {
+      scores[i] = new double[numOutcomes];
+    }
+    this.mostRecent = new byte[sets];
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  /**
+   * @return The number of contexts this cache can hold.
+   */
+  int capacity() {
+    return keys.length;
+  }
+
+  /**
+   * Retrieves the scores for {@code contexts}, evaluating {@code model} on a miss.
+   * <p>
+   * The returned array is owned by the cache and must not be modified by the caller.
+   * It stays valid until the next call to this method.
+   *
+   * @param contexts The predicates to evaluate.
+   * @param model The {@link MaxentModel} used to compute scores on a miss.
+   * @param probs A scratch buffer of length {@code numOutcomes} passed to
+   *              {@link MaxentModel#eval(String[], double[])}.
+   * @return The score vector for {@code contexts}.
+   */
+  double[] scores(String[] contexts, MaxentModel model, double[] probs) {
+    final long hash = hash(contexts);
+    final int set = (int) (hash ^ (hash >>> 32)) & setMask;
+    final int base = set * WAYS;
+
+    for (int way = 0; way < WAYS; way++) {
+      final int slot = base + way;
+      if (hashes[slot] == hash && keys[slot] != null && Arrays.equals(keys[slot], contexts)) {
+        mostRecent[set] = (byte) way;
+        hits.increment();
+        return scores[slot];
+      }
+    }
+
+    misses.increment();
+
+    // Prefer an empty way, otherwise replace the least recently used one.
+    int way = keys[base] == null ? 0 : keys[base + 1] == null ? 1 : 1 - mostRecent[set];
+    final int slot = base + way;
+    if (keys[slot] != null) {
+      evictions.increment();
+    }
+
+    final double[] result = model.eval(contexts, probs);
+    System.arraycopy(result, 0, scores[slot], 0, scores[slot].length);
+    hashes[slot] = hash;
+    // Context generators may reuse their output arrays, the key must be a private copy.
+    keys[slot] = Arrays.copyOf(contexts, contexts.length);
+    mostRecent[set] = (byte) way;
+    return scores[slot];
+  }
+
+  /**
+   * Retrieves the scores for the features of a {@link FeatureSink}, evaluating {@code model}
+   * on a miss. The features share the entries of equal {@code String[]} contexts, and only a
+   * miss converts them to strings for the key.
+   *
+   * @param features The predicates to evaluate.
+   * @param model The {@link MaxentModel} used to compute scores on a miss.
+   * @param probs A scratch buffer of length {@code numOutcomes} passed to
+   *              {@link MaxentModel#evalFeatures(FeatureSink, double[])}.
+   * @return The score vector for {@code features}, see {@link #scores(String[], MaxentModel, double[])}.
+   */
+  double[] scores(FeatureSink features, MaxentModel model, double[] probs) {
+    final long hash = hash(features);
+    final int set = (int) (hash ^ (hash >>> 32)) & setMask;
+    final int base = set * WAYS;
+
+    for (int way = 0; way < WAYS; way++) {
+      final int slot = base + way;
+      if (hashes[slot] == hash && keys[slot] != null && contentEquals(keys[slot], features)) {
+        mostRecent[set] = (byte) way;
+        hits.increment();
+        return scores[slot];
+      }
+    }
+
+    misses.increment();
+
+    int way = keys[base] == null ? 0 : keys[base + 1] == null ? 1 : 1 - mostRecent[set];
+    final int slot = base + way;
+    if (keys[slot] != null) {
+      evictions.increment();
+    }
+
+    final double[] result = model.evalFeatures(features, probs);
+    System.arraycopy(result, 0, scores[slot], 0, scores[slot].length);
+    hashes[slot] = hash;
+    keys[slot] = features.toArray();
+    mostRecent[set] = (byte) way;
+    return scores[slot];
+  }
+
+  private static boolean contentEquals(String[] key, FeatureSink features) {
+    if (key.length != features.size()) {
+      return false;
+    }
+    for (int i = 0; i < key.length; i++) {
+      if (key[i] == null || !features.contentEquals(i, key[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes the same hash as {@link #hash(String[])} over the features of a
+   * {@link FeatureSink}.
+   *
+   * @param features The predicates to hash.
+   * @return The hash value.
+   */
+  static long hash(FeatureSink features) {
+    long h = features.size();
+    for (int i = 0; i < features.size(); i++) {
+      h = h * 0x9E3779B97F4A7C15L + features.getHash(i);
+    }
+    return spread(h);
+  }
+
+  /**
+   * Computes a 64-bit hash over the contents of {@code contexts}. It relies on
+   * {@link String#hashCode()}, which is computed once per string and then cached
+   * by the JVM, and spreads the combined value with the MurmurHash3 finalizer.
+   *
+   * @param contexts The predicates to hash.
+   * @return The hash value.
+   */
+  static long hash(String[] contexts) {
+    long h = contexts.length;
+    for (String c : contexts) {
+      h = h * 0x9E3779B97F4A7C15L + (c == null ? 0 : c.hashCode());
+    }
+    return spread(h);
+  }
+
+  private static long spread(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Map;
+import java.util.Properties;
+
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Creates the {@link SequenceClassificationModel} which decodes the sequences of a
+ * {@link MaxentModel}, as specified by the {@link #DECODER_PARAMETER} of a model.
+ * <p>
+ * Like the {@link BeamSearch#BEAM_SIZE_PARAMETER}, the decoder parameters are taken from the
+ * {@link TrainingParameters} and stored in the manifest of a trained model.
+ */
+public final class SequenceDecoderFactory {
+
+  /**
+   * The name of the model parameter which specifies the decoder, either {@link #BEAM_SEARCH},
+   * which is the default, or {@link #VITERBI}.
+   */
+  public static final String DECODER_PARAMETER = "Decoder";
+
+  public static final String BEAM_SEARCH = "BeamSearch";
+
+  public static final String VITERBI = "Viterbi";
+
+  private SequenceDecoderFactory() {
+  }
+
+  /**
+   * Copies the decoder parameters from {@link TrainingParameters} into the manifest entries of a
+   * model which is trained with them.
+   *
+   * @param params The {@link TrainingParameters} of the training.
+   * @param manifestInfoEntries The manifest entries of the trained model.
+   * @throws IllegalArgumentException Thrown if the decoder parameters are invalid.
+   */
+  public static void putManifestEntries(TrainingParameters params,
+                                        Map<String, String> manifestInfoEntries) {
+    String decoder = params.getStringParameter(DECODER_PARAMETER, null);
+    if (decoder == null) {
+      return;
+    }
+    if (!BEAM_SEARCH.equals(decoder) && !VITERBI.equals(decoder)) {
+      throw new IllegalArgumentException("Unknown decoder: " + decoder);
+    }
+    manifestInfoEntries.put(DECODER_PARAMETER, decoder);
+
+    if (VITERBI.equals(decoder)) {
+      int order = params.getIntParameter(ViterbiSearch.ORDER_PARAMETER, ViterbiSearch.DEFAULT_ORDER);
+      if (order < 1 || order > 2) {
+        throw new IllegalArgumentException(ViterbiSearch.ORDER_PARAMETER + " must be 1 or 2: " + order);
+      }
+      manifestInfoEntries.put(ViterbiSearch.ORDER_PARAMETER, Integer.toString(order));
+    }
+  }
+
+  /**
+   * Creates the decoder which is specified by the manifest of a model.
+   *
+   * @param manifest The manifest of the model.
+   * @param defaultBeamSize The beam size if the manifest does not specify one.
+   * @param model The {@link MaxentModel} which assigns the probabilities to the outcomes.
+   * @return A {@link BeamSearch} or a {@link ViterbiSearch}.
+   * @throws IllegalArgumentException Thrown if the manifest specifies an unknown decoder.
+   */
+  public static SequenceClassificationModel create(Properties manifest, int defaultBeamSize,
+                                                   MaxentModel model) {
+    String decoder = manifest.getProperty(DECODER_PARAMETER, BEAM_SEARCH);
+
+    if (VITERBI.equals(decoder)) {
+      String orderString = manifest.getProperty(ViterbiSearch.ORDER_PARAMETER);
+      int order = orderString != null ? Integer.parseInt(orderString) : ViterbiSearch.DEFAULT_ORDER;
+      return new ViterbiSearch(order, model);
+    }
+    else if (BEAM_SEARCH.equals(decoder)) {
+      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
+      int beamSize = beamSizeString != null ? Integer.parseInt(beamSizeString) : defaultBeamSize;
+      return new BeamSearch(beamSize, model);
+    }
+    else {
+      throw new IllegalArgumentException("Unknown decoder: " + decoder);
+    }
+  }
+}
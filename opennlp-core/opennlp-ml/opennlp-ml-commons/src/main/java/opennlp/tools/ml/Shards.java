@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Splits the items a trainer processes in parallel, e.g. events or predicates,
+ * into shards of consecutive items.
+ */
+public final class Shards {
+
+  private Shards() {
+  }
+
+  /**
+   * Splits the items {@code 0} to {@code items - 1} into {@code shards} ranges of
+   * consecutive items with about the same total cost. A range ends at the first item at
+   * which its share of the total cost is reached, ranges may be empty.
+   *
+   * @param items The number of items. Must not be negative.
+   * @param cost The estimated cost of an item, e.g. its number of features. Must not be negative.
+   * @param shards The number of ranges. Must be greater than {@code 0}.
+   * @return The first item of each range, followed by the number of items.
+   * @throws IllegalArgumentException Thrown if {@code items} is negative or {@code shards}
+   *     is not positive.
+   */
+  public static int[] partition(int items, IntToLongFunction cost, int shards) {
+    if (items < 0) {
+      throw new IllegalArgumentException("items must not be negative, but is " + items);
+    }
+    if (shards < 1) {
+      throw new IllegalArgumentException("shards must be greater than 0, but is " + shards);
+    }
+
+    long total = 0;
+    for (int i = 0; i < items; i++) {
+      total += cost.applyAsLong(i);
+    }
+
+    final int[] starts = new int[shards + 1];
+    int shard = 1;
+    long sum = 0;
+    for (int i = 0; i < items && shard < shards; i++) {
+      sum += cost.applyAsLong(i);
+      while (shard < shards && sum * shards >= total * shard) {
+        starts[shard++] = i + 1;
+      }
+    }
+    while (shard <= shards) {
+      starts[shard++] = items;
+    }
+    return starts;
+  }
+}
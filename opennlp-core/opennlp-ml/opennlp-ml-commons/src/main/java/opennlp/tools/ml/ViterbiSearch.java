@@ -0,0 +1,437 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Arrays;
+
+import opennlp.tools.commons.ThreadSafe;
+import opennlp.tools.ml.model.AdditiveModel;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.ScratchState;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.StateStrategy;
+import opennlp.tools.util.featuregen.FeatureSink;
+
+/**
+ * Finds the most probable sequence by dynamic programming over the last {@code order}
+ * outcomes, as described by Viterbi (1967).
+ * <p>
+ * The search state at a position is the tuple of the previous {@code order} outcomes. For each
+ * reachable state the context is evaluated once, and every valid outcome extends the state
+ * with the highest score. The scores and back pointers are kept in primitive arrays, which are
+ * reused by the following calls of a thread, so no {@link Sequence} is created before the best
+ * one is traced back.
+ * <p>
+ * The result is exact if the {@link BeamSearchContextGenerator} and the {@link SequenceValidator}
+ * depend on at most the last {@code order} prior decisions. The earlier prior decisions passed to
+ * them are those of the best path to the previous position, which makes the search approximate
+ * for generators with a longer history. A second order search evaluates up to the squared number
+ * of outcomes per position, it is only cheaper than a {@link BeamSearch} if the contexts are
+ * split into static and history features, see {@link BeamSearch}.
+ * <p>
+ * At each position the state with the highest score is evaluated first, so a context generator
+ * which caches the features of a position, e.g. via a
+ * {@code opennlp.tools.util.featuregen.CachedFeatureGenerator}, sees the same prior decisions as
+ * with a {@link BeamSearch}.
+ * <p>
+ * This implementation is thread-safe, the score buffers are managed according to the
+ * {@link StateStrategy} of the instance.
+ *
+ * @see BeamSearch
+ * @see SequenceDecoderFactory
+ */
+@ThreadSafe
+public class ViterbiSearch implements SequenceClassificationModel, AutoCloseable {
+
+  /**
+   * The name of the model parameter which specifies the number of prior decisions a
+   * search state consists of, {@code 1} or {@code 2}.
+   */
+  public static final String ORDER_PARAMETER = "ViterbiOrder";
+
+  public static final int DEFAULT_ORDER = 1;
+
+  private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
+
+  private static final double ZERO_LOG = -100000;
+
+  private final int order;
+  private final MaxentModel model;
+  private final AdditiveModel additiveModel;
+  private final boolean useFeatureSink;
+
+  private final String[] outcomes;
+  /* The number of symbols of a state tuple: the outcomes and a symbol for "before the start". */
+  private final int base;
+  private final int numStates;
+  private final int startState;
+
+  private final StateStrategy stateStrategy;
+  private final ScratchState<ViterbiState> scratchState;
+
+  private final class ViterbiState {
+    private final double[] probs;
+    private final double[] staticScores;
+    private final FeatureSink features;
+    private final double[] scores;
+    private final double[] nextScores;
+    private final int[] active;
+    private final int[] nextActive;
+    /* Per position and state, the previous state and the probability of the last outcome. */
+    private int[] backPointers;
+    private double[] outcomeProbs;
+    private int[] path;
+
+    ViterbiState(boolean useFeatureSink) {
+      this.probs = new double[outcomes.length];
+      this.staticScores = new double[outcomes.length];
+      this.features = useFeatureSink ? new FeatureSink() : null;
+      this.scores = new double[numStates];
+      this.nextScores = new double[numStates];
+      this.active = new int[numStates];
+      this.nextActive = new int[numStates];
+      this.backPointers = new int[0];
+      this.outcomeProbs = new double[0];
+      this.path = new int[0];
+    }
+
+    void ensureLength(int length) {
+      if (path.length < length) {
+        final int capacity = Math.max(length, path.length * 2);
+        backPointers = new int[capacity * numStates];
+        outcomeProbs = new double[capacity * numStates];
+        path = new int[capacity];
+      }
+    }
+  }
+
+  /**
+   * Initializes a first order {@link ViterbiSearch} instance.
+   *
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   */
+  public ViterbiSearch(MaxentModel model) {
+    this(DEFAULT_ORDER, model);
+  }
+
+  /**
+   * Initializes a {@link ViterbiSearch} instance.
+   *
+   * @param order The number of prior decisions a search state consists of, {@code 1} or {@code 2}.
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   */
+  public ViterbiSearch(int order, MaxentModel model) {
+    this(order, model, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link ViterbiSearch} instance.
+   *
+   * @param order The number of prior decisions a search state consists of, {@code 1} or {@code 2}.
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   * @param stateStrategy The {@link StateStrategy} which manages the score buffers of the threads
+   *     using this instance.
+   * @throws IllegalArgumentException Thrown if parameters were invalid.
+   */
+  public ViterbiSearch(int order, MaxentModel model, StateStrategy stateStrategy) {
+    if (order < 1 || order > 2) {
+      throw new IllegalArgumentException("order must be 1 or 2: " + order);
+    }
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
+
+    this.order = order;
+    this.model = model;
+    this.additiveModel = model instanceof AdditiveModel am && am.hasAdditiveScores() ? am : null;
+    this.useFeatureSink = Boolean.getBoolean(BeamSearch.FEATURE_SINK_PROPERTY);
+
+    this.outcomes = new String[model.getNumOutcomes()];
+    for (int i = 0; i < outcomes.length; i++) {
+      outcomes[i] = model.getOutcome(i);
+    }
+    this.base = outcomes.length + 1;
+    this.numStates = order == 1 ? base : base * base;
+    // the tuple of start symbols, which are encoded as the last symbol
+    this.startState = numStates - 1;
+
+    this.stateStrategy = stateStrategy;
+    this.scratchState = stateStrategy.newState(() -> new ViterbiState(useFeatureSink));
+  }
+
+  /**
+   * Creates a {@link ViterbiSearch} with the same order and model as this instance,
+   * but with the specified {@link StateStrategy}.
+   *
+   * @param strategy The {@link StateStrategy} of the new instance.
+   * @return This instance if it already uses {@code strategy}, otherwise a new {@link ViterbiSearch}.
+   */
+  public ViterbiSearch withStateStrategy(StateStrategy strategy) {
+    if (strategy == stateStrategy) {
+      return this;
+    }
+    return new ViterbiSearch(order, model, strategy);
+  }
+
+  /**
+   * @return The number of prior decisions a search state consists of.
+   */
+  public int getOrder() {
+    return order;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * A {@link ViterbiSearch} finds only the best sequence, at most one sequence is returned.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(final int numSequences, final T[] sequence,
+      final Object[] additionalContext, final double minSequenceScore,
+      final BeamSearchContextGenerator<T> cg, final SequenceValidator<T> validator) {
+
+    if (numSequences < 1) {
+      return new Sequence[0];
+    }
+    final ViterbiState state = scratchState.acquire();
+    try {
+      final Sequence best = bestSequence(sequence, additionalContext, minSequenceScore,
+          cg, validator, state);
+      return best != null ? new Sequence[] {best} : new Sequence[0];
+    } finally {
+      scratchState.release(state);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * A {@link ViterbiSearch} finds only the best sequence, at most one sequence is returned.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(final int numSequences, final T[] sequence,
+      final Object[] additionalContext, final BeamSearchContextGenerator<T> cg,
+      final SequenceValidator<T> validator) {
+    return bestSequences(numSequences, sequence, additionalContext, ZERO_LOG, cg, validator);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <T> Sequence bestSequence(final T[] sequence, final Object[] additionalContext,
+      final BeamSearchContextGenerator<T> cg, final SequenceValidator<T> validator) {
+    final ViterbiState state = scratchState.acquire();
+    try {
+      return bestSequence(sequence, additionalContext, ZERO_LOG, cg, validator, state);
+    } finally {
+      scratchState.release(state);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The score buffers of the calling thread are acquired once for all {@code sequences}.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(final T[][] sequences, final Object[][] additionalContexts,
+      final BeamSearchContextGenerator<T> cg, final SequenceValidator<T> validator) {
+    if (additionalContexts != null && additionalContexts.length != sequences.length) {
+      throw new IllegalArgumentException("There must be one additional context per sequence");
+    }
+
+    final Sequence[] best = new Sequence[sequences.length];
+    final ViterbiState state = scratchState.acquire();
+    try {
+      for (int i = 0; i < sequences.length; i++) {
+        best[i] = bestSequence(sequences[i], additionalContexts != null ? additionalContexts[i] : null,
+            ZERO_LOG, cg, validator, state);
+      }
+    } finally {
+      scratchState.release(state);
+    }
+    return best;
+  }
+
+  private <T> Sequence bestSequence(final T[] sequence, final Object[] additionalContext,
+      final double minSequenceScore, final BeamSearchContextGenerator<T> cg,
+      final SequenceValidator<T> validator, final ViterbiState state) {
+
+    final Object[] context = additionalContext != null ? additionalContext : EMPTY_ADDITIONAL_CONTEXT;
+    final int length = sequence.length;
+    state.ensureLength(length);
+
+    double[] scores = state.scores;
+    double[] nextScores = state.nextScores;
+    int[] active = state.active;
+    int[] nextActive = state.nextActive;
+    Arrays.fill(scores, Double.NEGATIVE_INFINITY);
+    Arrays.fill(nextScores, Double.NEGATIVE_INFINITY);
+
+    scores[startState] = 0;
+    active[0] = startState;
+    int numActive = 1;
+
+    final boolean splitContexts = state.features != null && additiveModel != null
+        && cg.hasStaticContext();
+
+    for (int i = 0; i < length; i++) {
+      // the best state is evaluated first, like the best hypothesis of a beam search, since
+      // context generators may cache the features of the first evaluation of a position
+      final int bestIndex = bestIndex(scores, active, numActive);
+      final int best = active[bestIndex];
+      active[bestIndex] = active[0];
+      active[0] = best;
+
+      final String[] priorDecisions = new String[i];
+      if (i > order) {
+        // the decisions before the search state are taken from the best path so far
+        tracePath(state, i, best);
+        for (int j = 0; j < i - order; j++) {
+          priorDecisions[j] = outcomes[state.path[j]];
+        }
+      }
+
+      if (splitContexts) {
+        // the static features are the same for all states, they are scored only once
+        writeDecisions(priorDecisions, i, best);
+        state.features.clear();
+        cg.createStaticContext(state.features, i, sequence, priorDecisions, context);
+        Arrays.fill(state.staticScores, 0);
+        additiveModel.addScores(state.features, state.staticScores);
+      }
+
+      final int offset = i * numStates;
+      int numNext = 0;
+      for (int a = 0; a < numActive; a++) {
+        final int s = active[a];
+        writeDecisions(priorDecisions, i, s);
+
+        final double[] probs;
+        if (splitContexts) {
+          state.features.clear();
+          cg.createHistoryContext(state.features, i, sequence, priorDecisions, context);
+          System.arraycopy(state.staticScores, 0, state.probs, 0, state.probs.length);
+          additiveModel.addScores(state.features, state.probs);
+          probs = additiveModel.normalizeScores(state.probs);
+        } else if (state.features != null) {
+          state.features.clear();
+          cg.createContext(state.features, i, sequence, priorDecisions, context);
+          probs = model.evalFeatures(state.features, state.probs);
+        } else {
+          probs = model.eval(cg.getContext(i, sequence, priorDecisions, context), state.probs);
+        }
+
+        final int shifted = (s * base) % numStates;
+        for (int o = 0; o < outcomes.length; o++) {
+          final double score = scores[s] + StrictMath.log(probs[o]);
+          final int next = shifted + o;
+          if (score > minSequenceScore && score > nextScores[next]
+              && validator.validSequence(i, sequence, priorDecisions, outcomes[o])) {
+            if (nextScores[next] == Double.NEGATIVE_INFINITY) {
+              nextActive[numNext++] = next;
+            }
+            nextScores[next] = score;
+            state.backPointers[offset + next] = s;
+            state.outcomeProbs[offset + next] = probs[o];
+          }
+        }
+      }
+
+      for (int a = 0; a < numActive; a++) {
+        scores[active[a]] = Double.NEGATIVE_INFINITY;
+      }
+      if (numNext == 0) {
+        return null;
+      }
+
+      double[] tmpScores = scores;
+      scores = nextScores;
+      nextScores = tmpScores;
+      int[] tmpActive = active;
+      active = nextActive;
+      nextActive = tmpActive;
+      numActive = numNext;
+    }
+
+    final Sequence best = new Sequence();
+    if (length > 0) {
+      final double[] probs = new double[length];
+      int s = active[bestIndex(scores, active, numActive)];
+      for (int i = length - 1; i >= 0; i--) {
+        state.path[i] = s % base;
+        probs[i] = state.outcomeProbs[i * numStates + s];
+        s = state.backPointers[i * numStates + s];
+      }
+      for (int i = 0; i < length; i++) {
+        best.add(outcomes[state.path[i]], probs[i]);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Writes the outcomes of the search state {@code s} into the last {@code order} entries of the
+   * prior decisions of the position {@code i}.
+   */
+  private void writeDecisions(String[] priorDecisions, int i, int s) {
+    for (int k = 1; k <= order && k <= i; k++) {
+      priorDecisions[i - k] = outcomes[s % base];
+      s /= base;
+    }
+  }
+
+  /**
+   * Traces the back pointers from the state {@code s} at the position {@code length} and writes
+   * the outcome indices of the path into the path buffer.
+   */
+  private void tracePath(ViterbiState state, int length, int s) {
+    for (int i = length - 1; i >= 0; i--) {
+      state.path[i] = s % base;
+      s = state.backPointers[i * numStates + s];
+    }
+  }
+
+  private static int bestIndex(double[] scores, int[] active, int numActive) {
+    int best = 0;
+    for (int a = 1; a < numActive; a++) {
+      if (scores[active[a]] > scores[active[best]]) {
+        best = a;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public String[] getOutcomes() {
+    return outcomes.clone();
+  }
+
+  /**
+   * Clears {@link ThreadLocal} state for the <b>current</b> thread only, see
+   * {@link BeamSearch#close()}.
+   */
+  @Override
+  public void close() {
+    scratchState.clearForCurrentThread();
+  }
+}
@@ -135,6 +135,8 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
    * This method will alter the {@code eventsToCompare} list.
    * <p>
    * It does an in place sort, followed by an in place edit to remove duplicates.
+   * If more than one {@link Parameters#THREADS_PARAM thread} is configured, the events
+   * are sorted in parallel.
    *
    * @param eventsToCompare The {@link List< ComparableEvent >} events used as input.
    * @param sort Whether to use sorting, or not.
@@ -149,7 +151,18 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
     numEvents = eventsToCompare.size();
     if (sort && eventsToCompare.size() > 0) {
 
-      Collections.sort(eventsToCompare);
+      int threads = trainingParameters != null
+          ? trainingParameters.getIntParameter(Parameters.THREADS_PARAM, 1) : 1;
+      if (threads > 1) {
+        // The parallel sort is stable as well, the merged events are the same
+        ComparableEvent[] events = eventsToCompare.toArray(new ComparableEvent[0]);
+        Arrays.parallelSort(events);
+        for (int i = 0; i < events.length; i++) {
+          eventsToCompare.set(i, events[i]);
+        }
+      } else {
+        Collections.sort(eventsToCompare);
+      }
 
       ComparableEvent ce = eventsToCompare.get(0);
       for (int i = 1; i < numEvents; i++) {
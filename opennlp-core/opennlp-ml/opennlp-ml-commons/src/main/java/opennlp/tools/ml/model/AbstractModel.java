@@ -27,12 +27,23 @@ import java.util.Objects;
 
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A basic {@link MaxentModel} implementation.
  */
 public abstract class AbstractModel implements MaxentModel {
 
+  /**
+   * The name of the system property which, if set to {@code true}, makes models resolve
+   * predicates through {@link IndexedParameters} instead of {@link #pmap} during evaluation.
+   * <p>
+   * This avoids boxed map lookups and {@link Context} dereferences on the evaluation path,
+   * at the cost of holding a second, flat copy of the parameters. The property is read
+   * when a model is instantiated.
+   */
+  public static final String INDEXED_PARAMETERS_PROPERTY = "opennlp.ml.indexedParameters";
+
   private static final DecimalFormat DECIMAL_FORMAT =
       new DecimalFormat("0.0000", DecimalFormatSymbols.getInstance(Locale.ROOT));
 
@@ -42,6 +53,19 @@ public abstract class AbstractModel implements MaxentModel {
   protected String[] outcomeNames;
   /** Parameters for the model. */
   protected EvalParameters evalParams;
+  /**
+   * Flat copy of the parameters in {@link #pmap} for evaluation, {@code null} unless
+   * {@link #INDEXED_PARAMETERS_PROPERTY} is enabled or the model has {@link #hasher hashed}
+   * predicates.
+   */
+  protected IndexedParameters indexedParams;
+  /**
+   * The {@link FeatureHasher} of the predicates if the model was trained on hashed
+   * predicates, otherwise {@code null}.
+   */
+  protected FeatureHasher hasher;
+  /** The parameters which resolve {@link FeatureSink features}, created on first use. */
+  private volatile IndexedParameters featureSinkParams;
   /** Prior distribution for this model. */
   protected Prior prior;
 
@@ -61,6 +85,8 @@ public abstract class AbstractModel implements MaxentModel {
     this.pmap = pmap;
     this.outcomeNames =  outcomeNames;
     this.evalParams = new EvalParameters(params,outcomeNames.length);
+    this.hasher = FeatureHasher.forLabels(pmap.keySet());
+    this.indexedParams = createIndexedParameters(pmap, outcomeNames.length, hasher);
   }
 
   /**
@@ -73,6 +99,56 @@ public abstract class AbstractModel implements MaxentModel {
   public AbstractModel(Context[] params, String[] predLabels, String[] outcomeNames) {
     init(predLabels, params, outcomeNames);
     this.evalParams = new EvalParameters(params, outcomeNames.length);
+    this.hasher = FeatureHasher.forLabels(pmap.keySet());
+    this.indexedParams = createIndexedParameters(pmap, outcomeNames.length, hasher);
+  }
+
+  private static IndexedParameters createIndexedParameters(Map<String, Context> pmap,
+                                                           int numOutcomes, FeatureHasher hasher) {
+    // hashed predicates are always resolved by their bucket, the labels are not looked up
+    if (hasher != null) {
+      return new IndexedParameters(pmap, numOutcomes, hasher);
+    }
+    return Boolean.getBoolean(INDEXED_PARAMETERS_PROPERTY)
+        ? new IndexedParameters(pmap, numOutcomes) : null;
+  }
+
+  /**
+   * @param predicate A predicate of a context.
+   * @return The {@link Context parameters} of {@code predicate}, or {@code null} if the
+   *         model does not know it. Predicates of a model with a {@link #hasher} are hashed.
+   */
+  protected final Context getContext(String predicate) {
+    if (hasher != null && predicate != null) {
+      return pmap.get(hasher.getLabel(predicate));
+    }
+    return pmap.get(predicate);
+  }
+
+  /**
+   * @return The {@link #indexedParams} if the model has them, otherwise {@link IndexedParameters}
+   *         which are created on the first call. They resolve the features of a
+   *         {@link FeatureSink} without creating a {@link String} per feature.
+   */
+  protected final IndexedParameters getIndexedParameters() {
+    if (indexedParams != null) {
+      return indexedParams;
+    }
+    IndexedParameters params = featureSinkParams;
+    if (params == null) {
+      // IndexedParameters are immutable, concurrent first calls at most create redundant copies
+      params = new IndexedParameters(pmap, outcomeNames.length);
+      featureSinkParams = params;
+    }
+    return params;
+  }
+
+  /**
+   * @return The {@link FeatureHasher} if the model was trained on hashed predicates,
+   *         otherwise {@code null}.
+   */
+  public FeatureHasher getFeatureHasher() {
+    return hasher;
   }
 
   private void init(String[] predLabels, Context[] params, String[] outcomeNames) {
@@ -24,6 +24,8 @@ import java.io.InputStream;
 import java.util.StringTokenizer;
 import java.util.zip.GZIPInputStream;
 
+import opennlp.tools.util.InvalidFormatException;
+
 /**
  * An abstract, basic implementation of a model reader.
  */
@@ -64,6 +66,10 @@ public abstract class AbstractModelReader {
   protected int NUM_PREDS;
   protected DataReader dataReader;
 
+  /** The precision of the parameters, announced before the outcomes. */
+  private ParameterPrecision parameterPrecision = ParameterPrecision.DOUBLE;
+  private int numOutcomes;
+
   /**
    * Initializes a {@link AbstractModelReader} via a {@link File}.
    *
@@ -162,12 +168,17 @@ public abstract class AbstractModelReader {
    */
   protected String[] getOutcomes() throws IOException {
     int numOutcomes = readInt();
+    if (numOutcomes == ParameterPrecision.MARKER) {
+      parameterPrecision = ParameterPrecision.fromId(readInt());
+      numOutcomes = readInt();
+    }
     if (numOutcomes < 0 || numOutcomes > MAX_ENTRIES) {
       throw new IllegalArgumentException(
           "Outcome count " + numOutcomes + " exceeds safe limit of " + MAX_ENTRIES);
     }
     String[] outcomeLabels = new String[numOutcomes];
     for (int i = 0; i < numOutcomes; i++) outcomeLabels[i] = readUTF();
+    this.numOutcomes = numOutcomes;
     return outcomeLabels;
   }
 
@@ -220,10 +231,15 @@ public abstract class AbstractModelReader {
    *     outcome pattern (a set of outcomes that occurs with a context) is being specified. The
    *     second index specifies the number of contexts which use this pattern at index {@code 0},
    *     and the index of each outcome which make up this pattern in indices {@code 1-n}.
-   * @return An array of {@link Context} objects.
+   * @return An array of {@link Context} objects. If the model was written in a
+   *     {@link ParameterPrecision} other than {@code DOUBLE}, these are {@link CompactContext}s.
    * @throws IOException Thrown when the model file does not match the outcome patterns or can not be read.
    */
   protected Context[] getParameters(int[][] outcomePatterns) throws IOException {
+    if (parameterPrecision != ParameterPrecision.DOUBLE) {
+      return getCompactParameters(outcomePatterns);
+    }
+
     Context[] params = new Context[NUM_PREDS];
     int pid = 0;
     for (int[] pattern : outcomePatterns) {
@@ -244,4 +260,77 @@ public abstract class AbstractModelReader {
     return params;
   }
 
+  /**
+   * Reads parameters written by {@link AbstractModelWriter#writeParameters(ComparablePredicate[], int)}.
+   */
+  private Context[] getCompactParameters(int[][] outcomePatterns) throws IOException {
+    float[] scales = null;
+    if (parameterPrecision.isQuantized()) {
+      scales = new float[numOutcomes];
+      for (int oid = 0; oid < numOutcomes; oid++) {
+        scales[oid] = Float.intBitsToFloat(readInt());
+      }
+    }
+
+    final int bits = parameterPrecision.getBits();
+    final int perInt = Integer.SIZE / bits;
+    int packed = 0;
+    int remaining = 0;
+
+    Context[] params = new Context[NUM_PREDS];
+    int pid = 0;
+    for (int[] pattern : outcomePatterns) {
+      int[] outcomePattern = new int[pattern.length - 1];
+      System.arraycopy(pattern, 1, outcomePattern, 0, pattern.length - 1);
+      for (int oid : outcomePattern) {
+        if (oid < 0 || oid >= numOutcomes) {
+          throw new InvalidFormatException("Invalid outcome in outcome pattern: " + oid);
+        }
+      }
+
+      for (int j = 0; j < pattern[0]; j++) {
+        if (pid >= NUM_PREDS) {
+          throw new InvalidFormatException("The outcome patterns cover more than "
+              + NUM_PREDS + " predicates");
+        }
+        switch (parameterPrecision) {
+          case FLOAT -> {
+            float[] values = new float[outcomePattern.length];
+            for (int k = 0; k < values.length; k++) {
+              values[k] = Float.intBitsToFloat(readInt());
+            }
+            params[pid] = CompactContext.ofFloats(outcomePattern, values);
+          }
+          case INT16 -> {
+            short[] values = new short[outcomePattern.length];
+            for (int k = 0; k < values.length; k++) {
+              if (remaining == 0) {
+                packed = readInt();
+                remaining = perInt;
+              }
+              // the first parameter is in the highest bits, shift it up and sign extend it
+              final int shift = Integer.SIZE - bits * remaining--;
+              values[k] = (short) (packed << shift >> (Integer.SIZE - bits));
+            }
+            params[pid] = CompactContext.ofShorts(outcomePattern, values, scales);
+          }
+          default -> {
+            byte[] values = new byte[outcomePattern.length];
+            for (int k = 0; k < values.length; k++) {
+              if (remaining == 0) {
+                packed = readInt();
+                remaining = perInt;
+              }
+              // the first parameter is in the highest bits, shift it up and sign extend it
+              final int shift = Integer.SIZE - bits * remaining--;
+              values[k] = (byte) (packed << shift >> (Integer.SIZE - bits));
+            }
+            params[pid] = CompactContext.ofBytes(outcomePattern, values, scales);
+          }
+        }
+        pid++;
+      }
+    }
+    return params;
+  }
 }
@@ -19,16 +19,113 @@ package opennlp.tools.ml.model;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Objects;
 
 /**
  * An abstract, basic implementation of a model writer.
  */
 public abstract class AbstractModelWriter {
 
+  /** The precision the parameters are written in. */
+  protected ParameterPrecision parameterPrecision = ParameterPrecision.DOUBLE;
+
   public AbstractModelWriter() {
     super();
   }
 
+  /**
+   * Selects the precision the parameters are written in. Models written in a precision
+   * other than {@link ParameterPrecision#DOUBLE} are read back with {@link CompactContext}
+   * parameters and can not be read by older versions.
+   *
+   * @param precision The {@link ParameterPrecision}. Must not be {@code null}.
+   */
+  public void setParameterPrecision(ParameterPrecision precision) {
+    this.parameterPrecision = Objects.requireNonNull(precision, "precision must not be null");
+  }
+
+  /**
+   * @return The {@link ParameterPrecision} the parameters are written in.
+   */
+  public ParameterPrecision getParameterPrecision() {
+    return parameterPrecision;
+  }
+
+  /**
+   * Announces the {@link #getParameterPrecision() parameter precision}, unless it is
+   * {@link ParameterPrecision#DOUBLE}. Must be written right before the number of outcomes.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  protected void writeParameterPrecision() throws IOException {
+    if (parameterPrecision != ParameterPrecision.DOUBLE) {
+      writeInt(ParameterPrecision.MARKER);
+      writeInt(parameterPrecision.getId());
+    }
+  }
+
+  /**
+   * Writes the parameters of the predicates in the {@link #getParameterPrecision()
+   * parameter precision}.
+   * <p>
+   * {@link ParameterPrecision#DOUBLE} parameters are written with {@link #writeDouble(double)},
+   * all others with {@link #writeInt(int)}. A quantized precision first writes the scale of
+   * each outcome as {@code float} bits, and then packs several parameters into each
+   * {@code int}, the first one in the highest bits.
+   *
+   * @param sorted The predicates in the order they were written.
+   * @param numOutcomes The number of outcomes of the model.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  protected void writeParameters(ComparablePredicate[] sorted, int numOutcomes) throws IOException {
+    switch (parameterPrecision) {
+      case DOUBLE -> {
+        for (ComparablePredicate predicate : sorted) {
+          for (double param : predicate.params) {
+            writeDouble(param);
+          }
+        }
+      }
+      case FLOAT -> {
+        for (ComparablePredicate predicate : sorted) {
+          for (double param : predicate.params) {
+            writeInt(Float.floatToIntBits((float) param));
+          }
+        }
+      }
+      default -> {
+        double[] maxAbs = new double[numOutcomes];
+        for (ComparablePredicate predicate : sorted) {
+          ParameterPrecision.updateMaxAbs(maxAbs, predicate.outcomes, predicate.params);
+        }
+        float[] scales = parameterPrecision.toScales(maxAbs);
+        for (float scale : scales) {
+          writeInt(Float.floatToIntBits(scale));
+        }
+
+        final int bits = parameterPrecision.getBits();
+        final int perInt = Integer.SIZE / bits;
+        final int mask = (1 << bits) - 1;
+        int packed = 0;
+        int count = 0;
+        for (ComparablePredicate predicate : sorted) {
+          for (int ai = 0; ai < predicate.params.length; ai++) {
+            int q = parameterPrecision.quantize(predicate.params[ai], scales[predicate.outcomes[ai]]);
+            packed = packed << bits | q & mask;
+            if (++count == perInt) {
+              writeInt(packed);
+              packed = 0;
+              count = 0;
+            }
+          }
+        }
+        if (count > 0) {
+          writeInt(packed << bits * (perInt - count));
+        }
+      }
+    }
+  }
+
   /**
    * Writes a {@link String} to the underlying {@link DataOutputStream}.
    *
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A read-only {@link Context} which stores its parameters in a {@link ParameterPrecision}
+ * below {@code double}, as {@code float}s or as quantized integers with a scale per outcome.
+ * <p>
+ * {@link #addParameters(double[], double)} multiplies in {@code float} and is the way
+ * to evaluate the parameters. {@link #getParameters()} returns a new {@code double[]}
+ * on each call, it is meant for writing and converting models.
+ */
+public final class CompactContext extends Context {
+
+  private final ParameterPrecision precision;
+  private final float[] floats;
+  private final short[] shorts;
+  private final byte[] bytes;
+  /** The scale of each outcome of the model, shared by all contexts of a model. */
+  private final float[] scales;
+
+  private CompactContext(int[] outcomePattern, ParameterPrecision precision, float[] floats,
+                         short[] shorts, byte[] bytes, float[] scales) {
+    super(outcomePattern, null);
+    this.precision = precision;
+    this.floats = floats;
+    this.shorts = shorts;
+    this.bytes = bytes;
+    this.scales = scales;
+  }
+
+  /**
+   * @param outcomePattern The outcomes for which parameters exist for this context.
+   * @param parameters The {@link ParameterPrecision#FLOAT} parameters for the outcomes.
+   * @return A new {@link CompactContext}.
+   */
+  public static CompactContext ofFloats(int[] outcomePattern, float[] parameters) {
+    return new CompactContext(outcomePattern, ParameterPrecision.FLOAT, parameters,
+        null, null, null);
+  }
+
+  /**
+   * @param outcomePattern The outcomes for which parameters exist for this context.
+   * @param parameters The {@link ParameterPrecision#INT16} quantized parameters for the outcomes.
+   * @param scales The scale of each outcome of the model.
+   * @return A new {@link CompactContext}.
+   */
+  public static CompactContext ofShorts(int[] outcomePattern, short[] parameters, float[] scales) {
+    return new CompactContext(outcomePattern, ParameterPrecision.INT16, null,
+        parameters, null, Objects.requireNonNull(scales, "scales must not be null"));
+  }
+
+  /**
+   * @param outcomePattern The outcomes for which parameters exist for this context.
+   * @param parameters The {@link ParameterPrecision#INT8} quantized parameters for the outcomes.
+   * @param scales The scale of each outcome of the model.
+   * @return A new {@link CompactContext}.
+   */
+  public static CompactContext ofBytes(int[] outcomePattern, byte[] parameters, float[] scales) {
+    return new CompactContext(outcomePattern, ParameterPrecision.INT8, null,
+        null, parameters, Objects.requireNonNull(scales, "scales must not be null"));
+  }
+
+  /**
+   * Converts the parameters of a model to a {@link ParameterPrecision}. The scales of a
+   * quantized precision are computed over all {@code params}, just as the model writers do.
+   *
+   * @param params The {@link Context parameters} of a model.
+   * @param numOutcomes The number of outcomes of the model.
+   * @param precision The {@link ParameterPrecision} to convert to.
+   * @return The converted parameters, or {@code params} for {@link ParameterPrecision#DOUBLE}.
+   */
+  public static Context[] compact(Context[] params, int numOutcomes, ParameterPrecision precision) {
+    if (precision == ParameterPrecision.DOUBLE) {
+      return params;
+    }
+
+    float[] scales = null;
+    if (precision.isQuantized()) {
+      double[] maxAbs = new double[numOutcomes];
+      for (Context context : params) {
+        ParameterPrecision.updateMaxAbs(maxAbs, context.getOutcomes(), context.getParameters());
+      }
+      scales = precision.toScales(maxAbs);
+    }
+
+    Context[] compacted = new Context[params.length];
+    for (int pid = 0; pid < params.length; pid++) {
+      final int[] outcomes = params[pid].getOutcomes();
+      final double[] parameters = params[pid].getParameters();
+      compacted[pid] = switch (precision) {
+        case FLOAT -> {
+          float[] values = new float[parameters.length];
+          for (int ai = 0; ai < values.length; ai++) {
+            values[ai] = (float) parameters[ai];
+          }
+          yield ofFloats(outcomes, values);
+        }
+        case INT16 -> {
+          short[] values = new short[parameters.length];
+          for (int ai = 0; ai < values.length; ai++) {
+            values[ai] = (short) precision.quantize(parameters[ai], scales[outcomes[ai]]);
+          }
+          yield ofShorts(outcomes, values, scales);
+        }
+        default -> {
+          byte[] values = new byte[parameters.length];
+          for (int ai = 0; ai < values.length; ai++) {
+            values[ai] = (byte) precision.quantize(parameters[ai], scales[outcomes[ai]]);
+          }
+          yield ofBytes(outcomes, values, scales);
+        }
+      };
+    }
+    return compacted;
+  }
+
+  /**
+   * @return The {@link ParameterPrecision} of the parameters.
+   */
+  public ParameterPrecision getPrecision() {
+    return precision;
+  }
+
+  /**
+   * @return A new array with the parameters converted to {@code double}.
+   */
+  @Override
+  public double[] getParameters() {
+    double[] parameters = new double[outcomes.length];
+    for (int ai = 0; ai < parameters.length; ai++) {
+      parameters[ai] = getParameter(ai);
+    }
+    return parameters;
+  }
+
+  private float getParameter(int ai) {
+    return switch (precision) {
+      case FLOAT -> floats[ai];
+      case INT16 -> shorts[ai] * scales[outcomes[ai]];
+      default -> bytes[ai] * scales[outcomes[ai]];
+    };
+  }
+
+  @Override
+  public void addParameters(double[] sums, double value) {
+    final float v = (float) value;
+    switch (precision) {
+      case FLOAT -> {
+        for (int ai = 0; ai < outcomes.length; ai++) {
+          sums[outcomes[ai]] += floats[ai] * v;
+        }
+      }
+      case INT16 -> {
+        for (int ai = 0; ai < outcomes.length; ai++) {
+          final int oid = outcomes[ai];
+          sums[oid] += shorts[ai] * scales[oid] * v;
+        }
+      }
+      default -> {
+        for (int ai = 0; ai < outcomes.length; ai++) {
+          final int oid = outcomes[ai];
+          sums[oid] += bytes[ai] * scales[oid] * v;
+        }
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(precision, Arrays.hashCode(outcomes), Arrays.hashCode(floats),
+        Arrays.hashCode(shorts), Arrays.hashCode(bytes), Arrays.hashCode(scales));
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+
+    if (obj instanceof CompactContext context) {
+      return precision == context.precision
+          && Arrays.equals(outcomes, context.outcomes)
+          && Arrays.equals(floats, context.floats)
+          && Arrays.equals(shorts, context.shorts)
+          && Arrays.equals(bytes, context.bytes)
+          && Arrays.equals(scales, context.scales);
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * A temporary file of events which are stored as variable length encoded outcome and
+ * predicate ids.
+ * <p>
+ * While the events are written, ids are assigned to the outcomes and predicates in the order
+ * they are seen and the predicates are counted. Afterwards, the predicates which pass the cutoff
+ * are indexed in the order of their names, and the {@link Reader} maps the predicate ids of the
+ * events to this index.
+ */
+final class CompactEventSpill implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(CompactEventSpill.class);
+
+  private final File file;
+  private final int numEvents;
+  private final long checksum;
+  private final String[] outcomeLabels;
+  private final String[] predLabels;
+  private final int[] predCounts;
+  private final int[] predicateMap;
+  private String[] rawPredicates;
+
+  private CompactEventSpill(File file, int numEvents, long checksum, String[] outcomeLabels,
+                            String[] predLabels, int[] predCounts, int[] predicateMap,
+                            String[] rawPredicates) {
+    this.file = file;
+    this.numEvents = numEvents;
+    this.checksum = checksum;
+    this.outcomeLabels = outcomeLabels;
+    this.predLabels = predLabels;
+    this.predCounts = predCounts;
+    this.predicateMap = predicateMap;
+    this.rawPredicates = rawPredicates;
+  }
+
+  /**
+   * Writes the events to a temporary file.
+   *
+   * @param eventStream The {@link ObjectStream events} to write.
+   * @param cutoff The minimum number of times a predicate must occur to be indexed.
+   * @return The {@link CompactEventSpill} of the events.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  static CompactEventSpill write(ObjectStream<Event> eventStream, int cutoff) throws IOException {
+    Map<String,Integer> outcomeIndex = new HashMap<>();
+    Map<String,Integer> rawPredicateIndex = new HashMap<>();
+    List<String> rawPredicates = new ArrayList<>();
+    int[] rawCounts = new int[1024];
+
+    File tmp = Files.createTempFile("events", null).toFile();
+    tmp.deleteOnExit();
+    int numEvents = 0;
+    long checksum;
+
+    try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+         CheckedOutputStream writeStream = new CheckedOutputStream(out, new CRC32C());
+         DataOutputStream dos = new DataOutputStream(writeStream)) {
+
+      Event ev;
+      while ((ev = eventStream.read()) != null) {
+        numEvents++;
+
+        writeVarInt(dos, outcomeIndex.computeIfAbsent(ev.getOutcome(), k -> outcomeIndex.size()));
+
+        String[] ec = ev.getContext();
+        writeVarInt(dos, ec.length);
+        for (String ctxString : ec) {
+          Integer id = rawPredicateIndex.get(ctxString);
+          if (id == null) {
+            id = rawPredicates.size();
+            rawPredicateIndex.put(ctxString, id);
+            rawPredicates.add(ctxString);
+            if (id == rawCounts.length) {
+              rawCounts = Arrays.copyOf(rawCounts, rawCounts.length * 2);
+            }
+          }
+          rawCounts[id]++;
+          writeVarInt(dos, id);
+        }
+
+        if (ev.getValues() == null) {
+          writeVarInt(dos, 0);
+        }
+        else {
+          writeVarInt(dos, ev.getValues().length);
+          for (float value : ev.getValues())
+            dos.writeFloat(value);
+        }
+      }
+      checksum = writeStream.getChecksum().getValue();
+    } catch (IOException | RuntimeException e) {
+      tmp.delete();
+      throw e;
+    }
+
+    // Map the ids of the predicates which pass the cutoff to the index of their sorted names
+    final int[] counts = rawCounts;
+    int[] selected = IntStream.range(0, rawPredicates.size())
+        .filter(id -> counts[id] >= cutoff).boxed()
+        .sorted(Comparator.comparing(rawPredicates::get))
+        .mapToInt(Integer::intValue).toArray();
+
+    int[] predicateMap = new int[rawPredicates.size()];
+    Arrays.fill(predicateMap, -1);
+    int[] predCounts = new int[selected.length];
+    String[] predLabels = new String[selected.length];
+    for (int i = 0; i < selected.length; i++) {
+      predicateMap[selected[i]] = i;
+      predCounts[i] = counts[selected[i]];
+      predLabels[i] = rawPredicates.get(selected[i]);
+    }
+
+    return new CompactEventSpill(tmp, numEvents, checksum,
+        AbstractDataIndexer.toIndexedStringArray(outcomeIndex), predLabels, predCounts, predicateMap,
+        rawPredicates.toArray(new String[0]));
+  }
+
+  /**
+   * @return The number of written events, including those without indexed predicates.
+   */
+  int getNumEvents() {
+    return numEvents;
+  }
+
+  String[] getOutcomeLabels() {
+    return outcomeLabels;
+  }
+
+  String[] getPredLabels() {
+    return predLabels;
+  }
+
+  int[] getPredCounts() {
+    return predCounts;
+  }
+
+  /**
+   * Releases the names of the predicates which are not indexed. Afterwards, dropped events
+   * are no longer logged with their context.
+   */
+  void releasePredicateNames() {
+    rawPredicates = null;
+  }
+
+  /**
+   * @return A new {@link Reader} over the events, which must be closed after use.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  Reader open() throws IOException {
+    return new Reader();
+  }
+
+  /**
+   * Deletes the temporary file.
+   */
+  @Override
+  public void close() {
+    file.delete();
+  }
+
+  /**
+   * Writes a non-negative {@code int} with 7 bits per byte, the low bits first.
+   */
+  static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  /**
+   * Reads an {@code int} which was written by {@link #writeVarInt(DataOutput, int)}.
+   */
+  static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length int in the event file.");
+  }
+
+  /**
+   * Reads the events which have at least one indexed predicate. The other events are skipped.
+   */
+  final class Reader implements Closeable {
+
+    private final CheckedInputStream checkedStream;
+    private final DataInputStream in;
+    private int remaining = numEvents;
+
+    private int[] rawContext = new int[16];
+    // The context arrays by length, an array is reused for all events of its length
+    private int[][] contexts = new int[16][];
+
+    private int outcome;
+    private int[] context;
+    private float[] values;
+
+    private Reader() throws IOException {
+      checkedStream = new CheckedInputStream(
+          new BufferedInputStream(new FileInputStream(file), 1 << 16), new CRC32C());
+      in = new DataInputStream(checkedStream);
+    }
+
+    /**
+     * Moves to the next event.
+     *
+     * @return {@code true} if there is a next event, or {@code false} if all were read.
+     * @throws IOException Thrown if IO errors occurred or if the checksum does not match
+     *                     after the last event.
+     */
+    boolean next() throws IOException {
+      while (remaining > 0) {
+        remaining--;
+        outcome = readVarInt(in);
+
+        int contextLength = readVarInt(in);
+        if (contextLength > rawContext.length) {
+          rawContext = new int[contextLength];
+        }
+        int numActive = 0;
+        for (int ci = 0; ci < contextLength; ci++) {
+          rawContext[ci] = readVarInt(in);
+          if (predicateMap[rawContext[ci]] != -1) {
+            numActive++;
+          }
+        }
+
+        int valuesLength = readVarInt(in);
+        values = null;
+        if (valuesLength > 0) {
+          values = new float[valuesLength];
+          for (int i = 0; i < valuesLength; i++)
+            values[i] = in.readFloat();
+        }
+
+        // drop events with no active features
+        if (numActive > 0) {
+          if (numActive >= contexts.length) {
+            contexts = Arrays.copyOf(contexts, Math.max(numActive + 1, contexts.length * 2));
+          }
+          if (contexts[numActive] == null) {
+            contexts[numActive] = new int[numActive];
+          }
+          context = contexts[numActive];
+          for (int ci = 0, j = 0; ci < contextLength; ci++) {
+            int pi = predicateMap[rawContext[ci]];
+            if (pi != -1) {
+              context[j++] = pi;
+            }
+          }
+          return true;
+        } else if (rawPredicates != null && logger.isInfoEnabled()) {
+          String[] names = new String[contextLength];
+          for (int ci = 0; ci < contextLength; ci++) {
+            names[ci] = rawPredicates[rawContext[ci]];
+          }
+          logger.info("Dropped event {}:{}", outcomeLabels[outcome], Arrays.asList(names));
+        }
+      }
+
+      if (checkedStream.getChecksum().getValue() != checksum) {
+        throw new IOException("Checksum for writing and reading events did not match.");
+      }
+      return false;
+    }
+
+    int getOutcome() {
+      return outcome;
+    }
+
+    /**
+     * @return The indexed predicates of the current event. The array is reused
+     *         by later events, so it must be copied to keep it.
+     */
+    int[] getContext() {
+      return context;
+    }
+
+    float[] getValues() {
+      return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Iterator;
+
+import opennlp.tools.commons.ThreadSafe;
+
+/**
+ * Maps predicates to a fixed number of buckets by a stable 64-bit hash.
+ * <p>
+ * A model trained on hashed predicates has at most {@link #getNumBuckets()} predicates,
+ * no matter how many distinct predicates occur in the training data. Each bucket is
+ * represented in the model by a short label, see {@link #getLabel(int)}, which encodes
+ * the number of buckets as well. A model whose predicates are all labels of the same
+ * {@link FeatureHasher} is recognized by {@link #forLabels(Iterable)} and hashes the
+ * predicates of a context the same way during evaluation.
+ * <p>
+ * The hash function is part of the model format and must therefore never change.
+ * Predicates which hash to the same bucket share their parameters.
+ *
+ * @see opennlp.tools.ml.AbstractEventTrainer#FEATURE_HASH_BUCKETS_PARAM
+ */
+@ThreadSafe
+public final class FeatureHasher {
+
+  /**
+   * The prefix of the bucket labels, which have the form
+   * {@code #hash:<number of buckets>:<bucket>}.
+   */
+  public static final String LABEL_PREFIX = "#hash:";
+
+  private final int numBuckets;
+
+  /**
+   * Initializes a {@link FeatureHasher}.
+   *
+   * @param numBuckets The number of buckets. Must be greater than zero.
+   * @throws IllegalArgumentException Thrown if {@code numBuckets} is not positive.
+   */
+  public FeatureHasher(int numBuckets) {
+    if (numBuckets < 1) {
+      throw new IllegalArgumentException("numBuckets must be greater than zero: " + numBuckets);
+    }
+    this.numBuckets = numBuckets;
+  }
+
+  /**
+   * Computes the 64-bit hash of a predicate. This is the FNV-1a hash of its UTF-16 code
+   * units followed by the finalization step of MurmurHash3 to spread the bits.
+   *
+   * @param predicate The predicate to hash. Must not be {@code null}.
+   * @return The hash of {@code predicate}.
+   */
+  public static long hash(CharSequence predicate) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < predicate.length(); i++) {
+      h ^= predicate.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return spread(h);
+  }
+
+  /**
+   * Computes the 64-bit hash of a predicate which is given as a range of characters.
+   * The result equals {@link #hash(CharSequence)} of the same characters.
+   *
+   * @param chars The array which contains the predicate.
+   * @param from The offset of the first character of the predicate, inclusive.
+   * @param to The offset after the last character of the predicate, exclusive.
+   * @return The hash of the predicate.
+   */
+  public static long hash(char[] chars, int from, int to) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = from; i < to; i++) {
+      h ^= chars[i];
+      h *= 0x100000001b3L;
+    }
+    return spread(h);
+  }
+
+  private static long spread(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * @param predicate The predicate to map. Must not be {@code null}.
+   * @return The bucket of {@code predicate}, in the range {@code [0, getNumBuckets())}.
+   */
+  public int getBucket(CharSequence predicate) {
+    return (int) Long.remainderUnsigned(hash(predicate), numBuckets);
+  }
+
+  /**
+   * @param chars The array which contains the predicate.
+   * @param from The offset of the first character of the predicate, inclusive.
+   * @param to The offset after the last character of the predicate, exclusive.
+   * @return The bucket of the predicate, in the range {@code [0, getNumBuckets())}.
+   */
+  public int getBucket(char[] chars, int from, int to) {
+    return (int) Long.remainderUnsigned(hash(chars, from, to), numBuckets);
+  }
+
+  /**
+   * @param bucket A bucket in the range {@code [0, getNumBuckets())}.
+   * @return The label which represents {@code bucket} in a model.
+   */
+  public String getLabel(int bucket) {
+    return LABEL_PREFIX + numBuckets + ':' + bucket;
+  }
+
+  /**
+   * @param predicate The predicate to map. Must not be {@code null}.
+   * @return The label of the bucket of {@code predicate}.
+   */
+  public String getLabel(CharSequence predicate) {
+    return getLabel(getBucket(predicate));
+  }
+
+  /**
+   * @param context The predicates to map.
+   * @return A new array with the labels of the buckets of the {@code context} predicates.
+   *         Predicates which share a bucket are mapped to equal labels.
+   */
+  public String[] getLabels(String[] context) {
+    String[] labels = new String[context.length];
+    for (int i = 0; i < context.length; i++) {
+      labels[i] = getLabel(context[i]);
+    }
+    return labels;
+  }
+
+  /**
+   * @param label A predicate label of a model.
+   * @return The bucket which {@code label} represents, or {@code -1} if it is not
+   *         a label of this {@link FeatureHasher}.
+   */
+  public int getLabelBucket(String label) {
+    if (!label.startsWith(LABEL_PREFIX)) {
+      return -1;
+    }
+    int separator = label.indexOf(':', LABEL_PREFIX.length());
+    if (separator == -1) {
+      return -1;
+    }
+    try {
+      if (Integer.parseInt(label, LABEL_PREFIX.length(), separator, 10) != numBuckets) {
+        return -1;
+      }
+      int bucket = Integer.parseInt(label, separator + 1, label.length(), 10);
+      return bucket >= 0 && bucket < numBuckets ? bucket : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * @return The number of buckets.
+   */
+  public int getNumBuckets() {
+    return numBuckets;
+  }
+
+  /**
+   * Recognizes the predicate labels of a model trained on hashed predicates.
+   *
+   * @param labels The predicate labels of a model.
+   * @return The {@link FeatureHasher} if all {@code labels} are bucket labels of the same
+   *         number of buckets, otherwise {@code null}. Also {@code null} if there are no labels.
+   */
+  public static FeatureHasher forLabels(Iterable<String> labels) {
+    Iterator<String> it = labels.iterator();
+    if (!it.hasNext()) {
+      return null;
+    }
+
+    String first = it.next();
+    if (!first.startsWith(LABEL_PREFIX)) {
+      return null;
+    }
+    int separator = first.indexOf(':', LABEL_PREFIX.length());
+    final FeatureHasher hasher;
+    try {
+      hasher = new FeatureHasher(Integer.parseInt(first, LABEL_PREFIX.length(), separator, 10));
+    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+      return null;
+    }
+
+    if (hasher.getLabelBucket(first) == -1) {
+      return null;
+    }
+    while (it.hasNext()) {
+      if (hasher.getLabelBucket(it.next()) == -1) {
+        return null;
+      }
+    }
+    return hasher;
+  }
+}
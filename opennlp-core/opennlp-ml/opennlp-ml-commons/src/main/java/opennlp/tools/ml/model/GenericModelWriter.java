@@ -72,6 +72,10 @@ public class GenericModelWriter extends AbstractModelWriter {
 
   private void init(AbstractModel model, DataOutputStream dos) {
     this.delegateWriter = fromType(model.getModelType(), model, dos);
+    // The fields are set directly, the constructors must not call the overridable setter
+    ParameterPrecision precision = ParameterPrecision.getDefault();
+    this.parameterPrecision = precision;
+    delegateWriter.setParameterPrecision(precision);
   }
 
   private AbstractModelWriter fromType(AlgorithmType type, AbstractModel model, DataOutputStream dos) {
@@ -91,6 +95,16 @@ public class GenericModelWriter extends AbstractModelWriter {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * The precision defaults to the one selected by {@link ParameterPrecision#PRECISION_PROPERTY}.
+   */
+  @Override
+  public void setParameterPrecision(ParameterPrecision precision) {
+    super.setParameterPrecision(precision);
+    delegateWriter.setParameterPrecision(precision);
+  }
+
   @Override
   public void close() throws IOException {
     delegateWriter.close();
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import opennlp.tools.util.AbstractObjectStream;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * An {@link ObjectStream event stream} which replaces the predicates of each {@link Event}
+ * with the labels of their {@link FeatureHasher} buckets. The outcome and values of the
+ * events are kept.
+ *
+ * @see FeatureHasher
+ */
+public class HashedEventStream extends AbstractObjectStream<Event> {
+
+  private final FeatureHasher hasher;
+
+  /**
+   * Initializes a {@link HashedEventStream}.
+   *
+   * @param eventStream The {@link ObjectStream} that provides the {@link Event} samples.
+   * @param hasher The {@link FeatureHasher} to map the predicates with.
+   */
+  public HashedEventStream(ObjectStream<Event> eventStream, FeatureHasher hasher) {
+    super(eventStream);
+    this.hasher = Objects.requireNonNull(hasher, "hasher must not be null");
+  }
+
+  @Override
+  public Event read() throws IOException {
+    Event event = super.read();
+    if (event == null) {
+      return null;
+    }
+    return new Event(event.getOutcome(), hasher.getLabels(event.getContext()), event.getValues());
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A cursor over the indexed events of a {@link StreamableDataIndexer}.
+ * <p>
+ * The cursor is positioned before the first event, {@link #next()} moves it to the next event.
+ * The arrays returned for the current event are only valid until the next call of
+ * {@link #next()}, because they may be reused.
+ *
+ * @see StreamableDataIndexer
+ */
+public interface IndexedEventCursor extends Closeable {
+
+  /**
+   * Moves to the next event.
+   *
+   * @return {@code true} if there is a next event, or {@code false} if all events were read.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  boolean next() throws IOException;
+
+  /**
+   * @return Retrieves the outcome index of the current event.
+   */
+  int getOutcome();
+
+  /**
+   * @return Retrieves the predicate indexes of the current event.
+   */
+  int[] getContext();
+
+  /**
+   * @return Retrieves the values of the current event context or {@code null}
+   *         if integer values are to be used.
+   */
+  float[] getValues();
+
+  /**
+   * @return Retrieves the number of times the current event was seen.
+   */
+  int getNumTimesSeen();
+}
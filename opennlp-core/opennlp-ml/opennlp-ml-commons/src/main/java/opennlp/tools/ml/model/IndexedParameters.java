@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import opennlp.tools.commons.ThreadSafe;
+import opennlp.tools.util.featuregen.FeatureSink;
+
+/**
+ * A read-only parameter store which keeps the model parameters of all predicates in
+ * flat, primitive arrays (compressed sparse row layout).
+ * <p>
+ * The active outcomes and parameters of the predicate with id {@code p} are located
+ * in the range {@code [offsets[p], offsets[p + 1])} of {@link #getOutcomes()} and
+ * {@link #getParameters()}. Predicate strings are resolved to ids via a
+ * {@link PredicateIndex}. Compared to a {@code Map<String, Context>}, evaluation
+ * neither boxes nor dereferences a {@link Context} object per predicate.
+ * <p>
+ * The parameters of a model trained on hashed predicates are instead resolved through
+ * the bucket of each predicate, and no predicate strings are kept.
+ *
+ * @see AbstractModel#INDEXED_PARAMETERS_PROPERTY
+ */
+@ThreadSafe
+public final class IndexedParameters {
+
+  private final PredicateIndex index;
+  private final FeatureHasher hasher;
+  /** The predicate id of each bucket, or {@code -1}, if {@link #hasher} is set. */
+  private final int[] bucketIds;
+  private final int[] offsets;
+  private final int[] outcomes;
+  private final double[] parameters;
+  private final int numOutcomes;
+
+  /**
+   * Initializes {@link IndexedParameters} from a predicate to {@link Context} mapping.
+   * The id of a predicate is its position in the iteration order of {@code pmap}.
+   *
+   * @param pmap The mapping between predicates and their {@link Context parameters}.
+   * @param numOutcomes The number of outcomes of the model.
+   */
+  public IndexedParameters(Map<String, ? extends Context> pmap, int numOutcomes) {
+    this(pmap, numOutcomes, null);
+  }
+
+  /**
+   * Initializes {@link IndexedParameters} from a predicate to {@link Context} mapping.
+   * The id of a predicate is its position in the iteration order of {@code pmap}.
+   *
+   * @param pmap The mapping between predicates and their {@link Context parameters}.
+   * @param numOutcomes The number of outcomes of the model.
+   * @param hasher The {@link FeatureHasher} whose bucket labels are the predicates of
+   *               {@code pmap}, or {@code null} if the predicates are not hashed.
+   * @throws IllegalArgumentException Thrown if {@code hasher} is set and a predicate
+   *                                  of {@code pmap} is not one of its labels.
+   */
+  public IndexedParameters(Map<String, ? extends Context> pmap, int numOutcomes,
+                           FeatureHasher hasher) {
+    final String[] predicates = new String[pmap.size()];
+    this.offsets = new int[predicates.length + 1];
+
+    int p = 0;
+    int total = 0;
+    for (Map.Entry<String, ? extends Context> entry : pmap.entrySet()) {
+      predicates[p++] = entry.getKey();
+      total += entry.getValue().getOutcomes().length;
+    }
+
+    this.outcomes = new int[total];
+    this.parameters = new double[total];
+
+    p = 0;
+    int pos = 0;
+    for (Context context : pmap.values()) {
+      final int[] activeOutcomes = context.getOutcomes();
+      System.arraycopy(activeOutcomes, 0, outcomes, pos, activeOutcomes.length);
+      System.arraycopy(context.getParameters(), 0, parameters, pos, activeOutcomes.length);
+      pos += activeOutcomes.length;
+      offsets[++p] = pos;
+    }
+
+    this.hasher = hasher;
+    if (hasher != null) {
+      this.index = null;
+      this.bucketIds = new int[hasher.getNumBuckets()];
+      Arrays.fill(bucketIds, -1);
+      for (int pid = 0; pid < predicates.length; pid++) {
+        final int bucket = hasher.getLabelBucket(predicates[pid]);
+        if (bucket == -1) {
+          throw new IllegalArgumentException("Not a bucket label: " + predicates[pid]);
+        }
+        bucketIds[bucket] = pid;
+      }
+    } else {
+      this.index = new PredicateIndex(predicates);
+      this.bucketIds = null;
+    }
+    this.numOutcomes = numOutcomes;
+  }
+
+  /**
+   * @param predicate The predicate to look up.
+   * @return The id of {@code predicate}, or {@code -1} if the model does not know it.
+   */
+  public int getPredicateId(String predicate) {
+    if (hasher != null) {
+      return predicate != null ? bucketIds[hasher.getBucket(predicate)] : -1;
+    }
+    return index.get(predicate);
+  }
+
+  /**
+   * Adds the parameters of all known predicates in {@code context} to {@code sums}.
+   * This is equivalent to resolving each predicate to its {@link Context} and calling
+   * {@link opennlp.tools.ml.ArrayMath#sumFeatures(Context[], float[], double[])}.
+   *
+   * @param context The predicates observed at the present decision point.
+   * @param values The values of the predicates, or {@code null} if all values are {@code 1}.
+   * @param sums The array to add the outcome sums to. Its length must be
+   *             {@link #getNumOutcomes()}.
+   */
+  public void sumFeatures(String[] context, float[] values, double[] sums) {
+    for (int ci = 0; ci < context.length; ci++) {
+      final int pid = getPredicateId(context[ci]);
+      if (pid >= 0) {
+        final double value = values != null ? values[ci] : 1;
+        final int end = offsets[pid + 1];
+        for (int ai = offsets[pid]; ai < end; ai++) {
+          sums[outcomes[ai]] += parameters[ai] * value;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the parameters of all known predicates in a {@link FeatureSink} to {@code sums}.
+   * The predicates are looked up by their characters, no {@link String} is created.
+   *
+   * @param features The predicates observed at the present decision point.
+   * @param sums The array to add the outcome sums to. Its length must be
+   *             {@link #getNumOutcomes()}.
+   * @see #sumFeatures(String[], float[], double[])
+   */
+  public void sumFeatures(FeatureSink features, double[] sums) {
+    final char[] chars = features.getChars();
+    for (int ci = 0; ci < features.size(); ci++) {
+      final int from = features.getStart(ci);
+      final int to = features.getEnd(ci);
+      final int pid = hasher != null ? bucketIds[hasher.getBucket(chars, from, to)]
+          : index.get(chars, from, to, features.getHash(ci));
+      if (pid >= 0) {
+        final int end = offsets[pid + 1];
+        for (int ai = offsets[pid]; ai < end; ai++) {
+          sums[outcomes[ai]] += parameters[ai];
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The number of indexed predicates.
+   */
+  public int getNumPredicates() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * @return The number of outcomes of the model.
+   */
+  public int getNumOutcomes() {
+    return numOutcomes;
+  }
+
+  /**
+   * @return The start offsets of each predicate's range, followed by the total number
+   *         of parameters. Must not be modified.
+   */
+  public int[] getOffsets() {
+    return offsets;
+  }
+
+  /**
+   * @return The outcome ids of all active parameters. Must not be modified.
+   */
+  public int[] getOutcomes() {
+    return outcomes;
+  }
+
+  /**
+   * @return The values of all active parameters. Must not be modified.
+   */
+  public double[] getParameters() {
+    return parameters;
+  }
+}
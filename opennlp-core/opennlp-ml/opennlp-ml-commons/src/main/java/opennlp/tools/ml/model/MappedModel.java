@@ -0,0 +1,496 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+import opennlp.tools.commons.ThreadSafe;
+import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.featuregen.FeatureSink;
+import opennlp.tools.util.model.ArtifactSerializer;
+import opennlp.tools.util.model.SerializableArtifact;
+
+/**
+ * A {@link MaxentModel} which is evaluated in place on a model written by the
+ * {@link MappedModelWriter}.
+ * <p>
+ * Typically, the model file is memory-mapped via {@link #open(Path)}. Only the outcome
+ * labels are copied to the heap, predicates are looked up by comparing their
+ * characters with the UTF-8 bytes in the mapped file and parameters are read directly
+ * from it. Loading a model is therefore independent of its size, and processes which
+ * map the same file share its pages in the operating system's page cache.
+ * <p>
+ * If the model was trained on hashed predicates, see {@link FeatureHasher}, the predicates
+ * are resolved through their bucket instead, which needs one {@code int} per bucket on the heap.
+ * <p>
+ * The probabilities computed are identical to those of the
+ * {@link AbstractModel model} the file was written from.
+ * <p>
+ * A {@link MappedModel} can be stored as the model artifact of a model package, e.g.
+ * a {@code POSModel} or {@code TokenNameFinderModel}. The package records the
+ * {@link MappedModelSerializer} in its manifest and the model is read back in the
+ * mapped format, into a heap buffer since a zip entry cannot be mapped.
+ *
+ * @see MappedModelWriter
+ */
+@ThreadSafe
+public final class MappedModel implements AdditiveModel, SerializableArtifact {
+
+  /**
+   * The {@link ArtifactSerializer} for {@link MappedModel} artifacts.
+   */
+  public static class MappedModelSerializer implements ArtifactSerializer<MappedModel> {
+
+    @Override
+    public MappedModel create(InputStream in) throws IOException {
+      return new MappedModel(ByteBuffer.wrap(in.readAllBytes()));
+    }
+
+    @Override
+    public void serialize(MappedModel artifact, OutputStream out) throws IOException {
+      final ByteBuffer data = artifact.buffer.duplicate().clear();
+      final byte[] chunk = new byte[Math.min(data.remaining(), 8192)];
+      while (data.hasRemaining()) {
+        final int length = Math.min(data.remaining(), chunk.length);
+        data.get(chunk, 0, length);
+        out.write(chunk, 0, length);
+      }
+    }
+  }
+
+  private final ByteBuffer buffer;
+
+  private final int kind;
+  private final String[] outcomeNames;
+  private final int numPredicates;
+  private final int mask;
+
+  private final int tableOffset;
+  private final int nameOffsetsOffset;
+  private final int namesOffset;
+  private final int paramOffsetsOffset;
+  private final int outcomesOffset;
+  private final int paramsOffset;
+
+  /** The log prior of each outcome of a GIS model. */
+  private final double uniformPrior;
+
+  /** The hasher and predicate id of each bucket if the model has hashed predicates. */
+  private final FeatureHasher hasher;
+  private final int[] bucketIds;
+
+  /**
+   * Initializes a {@link MappedModel} from a buffer holding a model in the format
+   * written by {@link MappedModelWriter}.
+   * <p>
+   * The buffer's content must not be modified while the model is in use.
+   *
+   * @param buffer The {@link ByteBuffer} holding the model, from its position to its limit.
+   * @throws InvalidFormatException Thrown if the buffer does not hold a valid model.
+   */
+  public MappedModel(ByteBuffer buffer) throws InvalidFormatException {
+    this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+
+    final int size = this.buffer.limit();
+    if (size < MappedModelWriter.HEADER_SIZE
+        || this.buffer.getInt(0) != MappedModelWriter.MAGIC) {
+      throw new InvalidFormatException("Not a mapped model");
+    }
+    if (this.buffer.getInt(4) != MappedModelWriter.VERSION) {
+      throw new InvalidFormatException("Unsupported mapped model version: " + this.buffer.getInt(4));
+    }
+
+    this.kind = this.buffer.getInt(8);
+    if (kind != MappedModelWriter.KIND_GIS && kind != MappedModelWriter.KIND_QN
+        && kind != MappedModelWriter.KIND_PERCEPTRON) {
+      throw new InvalidFormatException("Unsupported mapped model kind: " + kind);
+    }
+
+    final int numOutcomes = checkCount(this.buffer.getInt(12), "outcomes");
+    this.numPredicates = checkCount(this.buffer.getInt(16), "predicates");
+    final int numParams = this.buffer.getInt(20);
+    final int slots = this.buffer.getInt(24);
+    if (numParams < 0 || Integer.bitCount(slots) != 1
+        || slots != MappedModelWriter.tableSize(numPredicates)) {
+      throw new InvalidFormatException("Corrupt mapped model header");
+    }
+    this.mask = slots - 1;
+
+    try {
+      long pos = MappedModelWriter.HEADER_SIZE;
+      this.outcomeNames = new String[numOutcomes];
+      for (int oid = 0; oid < numOutcomes; oid++) {
+        final int length = this.buffer.getInt((int) pos);
+        if (length < 0) {
+          throw new InvalidFormatException("Corrupt outcome label");
+        }
+        final byte[] bytes = new byte[length];
+        this.buffer.get((int) pos + Integer.BYTES, bytes);
+        outcomeNames[oid] = new String(bytes, StandardCharsets.UTF_8);
+        pos += Integer.BYTES + length;
+      }
+
+      pos = align(pos, Integer.BYTES);
+      this.tableOffset = checkOffset(pos, size);
+      pos += 2L * Integer.BYTES * slots;
+      this.nameOffsetsOffset = checkOffset(pos, size);
+      pos += (long) Integer.BYTES * (numPredicates + 1);
+      this.namesOffset = checkOffset(pos, size);
+      pos += this.buffer.getInt(nameOffsetsOffset + Integer.BYTES * numPredicates);
+      pos = align(pos, Integer.BYTES);
+      this.paramOffsetsOffset = checkOffset(pos, size);
+      pos += (long) Integer.BYTES * (numPredicates + 1);
+      this.outcomesOffset = checkOffset(pos, size);
+      pos += (long) Integer.BYTES * numParams;
+      pos = align(pos, Double.BYTES);
+      this.paramsOffset = checkOffset(pos, size);
+      pos += (long) Double.BYTES * numParams;
+
+      if (pos != size
+          || this.buffer.getInt(paramOffsetsOffset + Integer.BYTES * numPredicates) != numParams) {
+        throw new InvalidFormatException("Corrupt mapped model, unexpected size");
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new InvalidFormatException("Corrupt mapped model, unexpected end of data", e);
+    }
+
+    this.uniformPrior = StrictMath.log(1.0 / numOutcomes);
+
+    // The names are only decoded if the first one looks like a bucket label
+    FeatureHasher modelHasher = null;
+    int[] modelBucketIds = null;
+    try {
+      if (numPredicates > 0 && getName(0).startsWith(FeatureHasher.LABEL_PREFIX)) {
+        final String[] names = new String[numPredicates];
+        for (int pid = 0; pid < numPredicates; pid++) {
+          names[pid] = getName(pid);
+        }
+        modelHasher = FeatureHasher.forLabels(Arrays.asList(names));
+        if (modelHasher != null) {
+          modelBucketIds = new int[modelHasher.getNumBuckets()];
+          Arrays.fill(modelBucketIds, -1);
+          for (int pid = 0; pid < numPredicates; pid++) {
+            modelBucketIds[modelHasher.getLabelBucket(names[pid])] = pid;
+          }
+        }
+      }
+    } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+      throw new InvalidFormatException("Corrupt mapped model, invalid predicate name", e);
+    }
+    this.hasher = modelHasher;
+    this.bucketIds = modelBucketIds;
+  }
+
+  /**
+   * Memory-maps a model file written by {@link MappedModelWriter}.
+   * <p>
+   * The mapping stays valid until the returned model is garbage collected. The file
+   * must not be modified while it is mapped.
+   *
+   * @param path The {@link Path} of the model file. Must be smaller than 2 GiB.
+   * @return The {@link MappedModel}.
+   * @throws IOException Thrown if IO errors occurred or the file is not a valid model.
+   */
+  public static MappedModel open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new InvalidFormatException("Mapped models are limited to 2 GiB, but the file has "
+            + size + " bytes");
+      }
+      return new MappedModel(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  private static int checkCount(int count, String name) throws InvalidFormatException {
+    if (count < 0 || count > AbstractModelReader.MAX_ENTRIES) {
+      throw new InvalidFormatException("Invalid number of " + name + ": " + count);
+    }
+    return count;
+  }
+
+  private static int checkOffset(long offset, int size) throws InvalidFormatException {
+    if (offset > size) {
+      throw new InvalidFormatException("Corrupt mapped model, unexpected end of data");
+    }
+    return (int) offset;
+  }
+
+  private static long align(long pos, int alignment) {
+    return (pos + alignment - 1) / alignment * alignment;
+  }
+
+  @Override
+  public double[] eval(String[] context) {
+    return eval(context, null, new double[outcomeNames.length]);
+  }
+
+  @Override
+  public double[] eval(String[] context, double[] probs) {
+    return eval(context, null, probs);
+  }
+
+  @Override
+  public double[] eval(String[] context, float[] values) {
+    return eval(context, values, new double[outcomeNames.length]);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The features are looked up without creating a {@link String} per feature.
+   */
+  @Override
+  public double[] evalFeatures(FeatureSink features, double[] probs) {
+    Arrays.fill(probs, 0, outcomeNames.length,
+        kind == MappedModelWriter.KIND_GIS ? uniformPrior : 0);
+    addScores(features, probs);
+    return normalize(probs);
+  }
+
+  @Override
+  public boolean hasAdditiveScores() {
+    return true;
+  }
+
+  @Override
+  public void addScores(FeatureSink features, double[] scores) {
+    final char[] chars = features.getChars();
+    final CharBuffer view = CharBuffer.wrap(chars);
+    for (int ci = 0; ci < features.size(); ci++) {
+      final int from = features.getStart(ci);
+      final int to = features.getEnd(ci);
+      final int pid = hasher != null ? bucketIds[hasher.getBucket(chars, from, to)]
+          : getPredicateId(view, from, to, features.getHash(ci));
+      if (pid >= 0) {
+        addParameters(pid, 1, scores);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The uniform prior of GIS models is omitted, since adding the same log prior to all
+   * scores does not change the normalized probabilities.
+   */
+  @Override
+  public double[] normalizeScores(double[] scores) {
+    return normalize(scores);
+  }
+
+  private double[] eval(String[] context, float[] values, double[] probs) {
+    Arrays.fill(probs, 0, outcomeNames.length,
+        kind == MappedModelWriter.KIND_GIS ? uniformPrior : 0);
+
+    for (int ci = 0; ci < context.length; ci++) {
+      final int pid = getPredicateId(context[ci]);
+      if (pid >= 0) {
+        addParameters(pid, values != null ? values[ci] : 1, probs);
+      }
+    }
+    return normalize(probs);
+  }
+
+  private void addParameters(int pid, double value, double[] probs) {
+    final int end = buffer.getInt(paramOffsetsOffset + Integer.BYTES * (pid + 1));
+    for (int ai = buffer.getInt(paramOffsetsOffset + Integer.BYTES * pid); ai < end; ai++) {
+      probs[buffer.getInt(outcomesOffset + Integer.BYTES * ai)] +=
+          buffer.getDouble(paramsOffset + Double.BYTES * ai) * value;
+    }
+  }
+
+  private double[] normalize(double[] probs) {
+    final int numOutcomes = outcomeNames.length;
+    switch (kind) {
+      case MappedModelWriter.KIND_GIS -> {
+        double normal = 0.0;
+        for (int oid = 0; oid < numOutcomes; oid++) {
+          probs[oid] = StrictMath.exp(probs[oid]);
+          normal += probs[oid];
+        }
+        for (int oid = 0; oid < numOutcomes; oid++) {
+          probs[oid] /= normal;
+        }
+      }
+      case MappedModelWriter.KIND_QN -> {
+        double logSumExp = ArrayMath.logSumOfExps(probs);
+        for (int oid = 0; oid < numOutcomes; oid++) {
+          probs[oid] = StrictMath.exp(probs[oid] - logSumExp);
+        }
+      }
+      default -> {
+        double maxPrior = 1;
+        for (int oid = 0; oid < numOutcomes; oid++) {
+          maxPrior = Math.max(maxPrior, StrictMath.abs(probs[oid]));
+        }
+        double normal = 0.0;
+        for (int oid = 0; oid < numOutcomes; oid++) {
+          probs[oid] = StrictMath.exp(probs[oid] / maxPrior);
+          normal += probs[oid];
+        }
+        for (int oid = 0; oid < numOutcomes; oid++) {
+          probs[oid] /= normal;
+        }
+      }
+    }
+    return probs;
+  }
+
+  /**
+   * @param predicate The predicate to look up.
+   * @return The id of {@code predicate}, or {@code -1} if the model does not know it.
+   */
+  int getPredicateId(String predicate) {
+    if (predicate == null) {
+      return -1;
+    }
+    if (hasher != null) {
+      return bucketIds[hasher.getBucket(predicate)];
+    }
+    return getPredicateId(predicate, 0, predicate.length(), predicate.hashCode());
+  }
+
+  /**
+   * Looks up the predicate {@code chars.subSequence(from, to)}, whose {@link String#hashCode()}
+   * is {@code hash}.
+   */
+  private int getPredicateId(CharSequence chars, int from, int to, int hash) {
+    int slot = PredicateIndex.spread(hash) & mask;
+    int id;
+    while ((id = buffer.getInt(tableOffset + 2 * Integer.BYTES * slot + Integer.BYTES)) != 0) {
+      if (buffer.getInt(tableOffset + 2 * Integer.BYTES * slot) == hash
+          && nameEquals(id - 1, chars, from, to)) {
+        return id - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Decodes the UTF-8 encoded name of predicate {@code pid}.
+   */
+  private String getName(int pid) {
+    final int start = buffer.getInt(nameOffsetsOffset + Integer.BYTES * pid);
+    final byte[] bytes =
+        new byte[buffer.getInt(nameOffsetsOffset + Integer.BYTES * (pid + 1)) - start];
+    buffer.get(namesOffset + start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compares the UTF-8 encoded name of predicate {@code pid} with {@code s.subSequence(from, to)}
+   * without decoding it to a {@link String}.
+   */
+  private boolean nameEquals(int pid, CharSequence s, int from, int to) {
+    int pos = namesOffset + buffer.getInt(nameOffsetsOffset + Integer.BYTES * pid);
+    final int end = namesOffset + buffer.getInt(nameOffsetsOffset + Integer.BYTES * (pid + 1));
+    int i = from;
+
+    while (pos < end) {
+      final int b = buffer.get(pos++) & 0xFF;
+      final int c;
+      if (b < 0x80) {
+        c = b;
+      } else if (b < 0xE0) {
+        c = (b & 0x1F) << 6 | buffer.get(pos++) & 0x3F;
+      } else if (b < 0xF0) {
+        c = (b & 0x0F) << 12 | (buffer.get(pos++) & 0x3F) << 6 | buffer.get(pos++) & 0x3F;
+      } else {
+        final int cp = (b & 0x07) << 18 | (buffer.get(pos++) & 0x3F) << 12
+            | (buffer.get(pos++) & 0x3F) << 6 | buffer.get(pos++) & 0x3F;
+        if (i >= to || s.charAt(i++) != Character.highSurrogate(cp)) {
+          return false;
+        }
+        c = Character.lowSurrogate(cp);
+      }
+      if (i >= to || s.charAt(i++) != c) {
+        return false;
+      }
+    }
+    return i == to;
+  }
+
+  @Override
+  public String getBestOutcome(double[] ocs) {
+    return outcomeNames[ArrayMath.argmax(ocs)];
+  }
+
+  @Override
+  public String getAllOutcomes(double[] ocs) {
+    if (ocs.length != outcomeNames.length) {
+      return "The double array sent as a parameter to MappedModel.getAllOutcomes() " +
+          "must not have been produced by this model.";
+    }
+    // DecimalFormat is not thread-safe
+    final DecimalFormat format = new DecimalFormat("0.0000", DecimalFormatSymbols.getInstance(Locale.ROOT));
+    StringBuilder sb = new StringBuilder(ocs.length * 2);
+    sb.append(outcomeNames[0]).append("[").append(format.format(ocs[0])).append("]");
+    for (int i = 1; i < ocs.length; i++) {
+      sb.append("  ").append(outcomeNames[i]).append("[").append(format.format(ocs[i])).append("]");
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String getOutcome(int i) {
+    return outcomeNames[i];
+  }
+
+  @Override
+  public int getIndex(String outcome) {
+    for (int i = 0; i < outcomeNames.length; i++) {
+      if (outcomeNames[i].equals(outcome)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int getNumOutcomes() {
+    return outcomeNames.length;
+  }
+
+  /**
+   * @return The number of predicates of the model.
+   */
+  public int getNumPredicates() {
+    return numPredicates;
+  }
+
+  @Override
+  public Class<?> getArtifactSerializerClass() {
+    return MappedModelSerializer.class;
+  }
+}
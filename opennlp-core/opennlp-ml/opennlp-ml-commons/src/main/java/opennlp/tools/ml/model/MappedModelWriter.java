@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import opennlp.tools.ml.AlgorithmType;
+
+/**
+ * Writes {@link AbstractModel GIS, QN and perceptron models} in the binary format
+ * read by {@link MappedModel}.
+ * <p>
+ * The format lays out the predicate dictionary as a hash table over UTF-8 encoded
+ * predicate names and all parameters in flat arrays, so a model can be evaluated
+ * directly on a memory-mapped file without deserializing it to the heap.
+ * All values are written in big-endian byte order:
+ * <ol>
+ * <li>Header: magic number, version, model kind, # of outcomes, # of predicates,
+ *     # of parameters and # of hash table slots ({@code int} each).</li>
+ * <li>Outcome labels: for each outcome the byte length and its UTF-8 bytes.</li>
+ * <li>Predicate table: for each slot the {@link String#hashCode() hash} of the
+ *     predicate and its id plus one, or {@code 0} for an empty slot ({@code int[]}).</li>
+ * <li>Predicate name offsets into the name bytes, # of predicates + 1 ({@code int[]}).</li>
+ * <li>Predicate name bytes, UTF-8 encoded, padded to a multiple of four.</li>
+ * <li>Parameter offsets per predicate, # of predicates + 1 ({@code int[]}).</li>
+ * <li>Outcome ids of all parameters ({@code int[]}), padded to a multiple of eight.</li>
+ * <li>Parameter values ({@code double[]}).</li>
+ * </ol>
+ *
+ * @see MappedModel
+ */
+public class MappedModelWriter {
+
+  static final int MAGIC = 0x4F4E4D4D; // "ONMM"
+  static final int VERSION = 1;
+
+  static final int KIND_GIS = 1;
+  static final int KIND_QN = 2;
+  static final int KIND_PERCEPTRON = 3;
+
+  static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+  /** The maximum size of a model in bytes, a {@link java.nio.ByteBuffer} is indexed by an {@code int}. */
+  static final long MAX_SIZE = Integer.MAX_VALUE;
+
+  private final int kind;
+  private final String[] outcomeLabels;
+  private final String[] predLabels;
+  private final Context[] params;
+
+  /**
+   * Initializes a {@link MappedModelWriter} for the specified {@code model}.
+   *
+   * @param model The {@link AbstractModel} to write. It must be a GIS model with a
+   *              {@link UniformPrior}, a QN or a perceptron model.
+   * @throws IllegalArgumentException Thrown if the type of {@code model} is not supported.
+   */
+  public MappedModelWriter(AbstractModel model) {
+    this.kind = kindOf(model);
+
+    Object[] data = model.getDataStructures();
+    @SuppressWarnings("unchecked")
+    Map<String, Context> pmap = (Map<String, Context>) data[1];
+
+    this.outcomeLabels = (String[]) data[2];
+    this.predLabels = new String[pmap.size()];
+    this.params = new Context[pmap.size()];
+
+    int i = 0;
+    for (Map.Entry<String, Context> pred : pmap.entrySet()) {
+      predLabels[i] = pred.getKey();
+      params[i] = pred.getValue();
+      i++;
+    }
+  }
+
+  private static int kindOf(AbstractModel model) {
+    final AlgorithmType type = model.getModelType();
+    if (type == null) {
+      throw new IllegalArgumentException("The model type must not be null");
+    }
+    return switch (type) {
+      case MAXENT -> {
+        if (model.prior != null && !(model.prior instanceof UniformPrior)) {
+          throw new IllegalArgumentException("Only GIS models with a uniform prior are supported");
+        }
+        yield KIND_GIS;
+      }
+      case MAXENT_QN -> KIND_QN;
+      case PERCEPTRON, PERCEPTRON_SEQUENCE -> KIND_PERCEPTRON;
+      default -> throw new IllegalArgumentException("Unsupported model type: " + type);
+    };
+  }
+
+  /**
+   * Converts a model stored in one of the existing GIS, QN or perceptron formats
+   * to the mapped model format.
+   *
+   * @param model The model {@link File} to read; it is read via {@link GenericModelReader}.
+   * @param mappedModel The {@link Path} to write the converted model to.
+   * @throws IOException Thrown if IO errors occurred.
+   * @throws IllegalArgumentException Thrown if the type of the model is not supported.
+   */
+  public static void convert(File model, Path mappedModel) throws IOException {
+    new MappedModelWriter(new GenericModelReader(model).getModel()).write(mappedModel);
+  }
+
+  /**
+   * Writes the model to the specified {@link Path}.
+   *
+   * @param path The {@link Path} to write the model to.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void write(Path path) throws IOException {
+    try (OutputStream out = Files.newOutputStream(path)) {
+      write(out);
+    }
+  }
+
+  /**
+   * Writes the model to the specified {@link OutputStream}. The stream is not closed.
+   *
+   * @param out The {@link OutputStream} to write the model to.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void write(OutputStream out) throws IOException {
+    final byte[][] outcomeBytes = encode(outcomeLabels);
+    final byte[][] predBytes = encode(predLabels);
+    final long[] layout = layout(outcomeBytes, predBytes);
+    final long size = layout[layout.length - 1];
+    if (size > MAX_SIZE) {
+      throw new IOException("The model needs " + size + " bytes, but the mapped format is limited to "
+          + MAX_SIZE + " bytes");
+    }
+
+    final int slots = tableSize(predLabels.length);
+    final int[] table = new int[2 * slots];
+    for (int pid = 0; pid < predLabels.length; pid++) {
+      final int hash = predLabels[pid].hashCode();
+      int slot = PredicateIndex.spread(hash) & (slots - 1);
+      while (table[2 * slot + 1] != 0) {
+        slot = (slot + 1) & (slots - 1);
+      }
+      table[2 * slot] = hash;
+      table[2 * slot + 1] = pid + 1;
+    }
+
+    final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+    dos.writeInt(MAGIC);
+    dos.writeInt(VERSION);
+    dos.writeInt(kind);
+    dos.writeInt(outcomeLabels.length);
+    dos.writeInt(predLabels.length);
+    dos.writeInt((int) numParams());
+    dos.writeInt(slots);
+
+    for (byte[] bytes : outcomeBytes) {
+      dos.writeInt(bytes.length);
+      dos.write(bytes);
+    }
+    pad(dos, layout[0], Integer.BYTES);
+
+    for (int value : table) {
+      dos.writeInt(value);
+    }
+
+    int nameOffset = 0;
+    dos.writeInt(nameOffset);
+    for (byte[] bytes : predBytes) {
+      nameOffset += bytes.length;
+      dos.writeInt(nameOffset);
+    }
+    for (byte[] bytes : predBytes) {
+      dos.write(bytes);
+    }
+    pad(dos, layout[1], Integer.BYTES);
+
+    int paramOffset = 0;
+    dos.writeInt(paramOffset);
+    for (Context context : params) {
+      paramOffset += context.getOutcomes().length;
+      dos.writeInt(paramOffset);
+    }
+    for (Context context : params) {
+      for (int oid : context.getOutcomes()) {
+        dos.writeInt(oid);
+      }
+    }
+    pad(dos, layout[2], Double.BYTES);
+
+    for (Context context : params) {
+      for (double param : context.getParameters()) {
+        dos.writeDouble(param);
+      }
+    }
+    dos.flush();
+  }
+
+  /**
+   * @return The number of bytes {@link #write(OutputStream)} writes for the model.
+   * @throws IllegalArgumentException Thrown if a label is not representable in UTF-8.
+   */
+  public long getSize() {
+    final long[] layout = layout(encode(outcomeLabels), encode(predLabels));
+    return layout[layout.length - 1];
+  }
+
+  /**
+   * Computes the layout of the model. The sizes are computed as {@code long}, so that a model
+   * which is too large is rejected before anything is written.
+   *
+   * @return The ends of the outcome labels, the predicate names and the outcome ids, which are
+   *         followed by padding, and the size of the model.
+   */
+  private long[] layout(byte[][] outcomeBytes, byte[][] predBytes) {
+    long end = HEADER_SIZE;
+    for (byte[] bytes : outcomeBytes) {
+      end += Integer.BYTES + bytes.length;
+    }
+    final long outcomesEnd = end;
+
+    end = align(end, Integer.BYTES) + 2L * tableSize(predBytes.length) * Integer.BYTES
+        + (predBytes.length + 1L) * Integer.BYTES;
+    for (byte[] bytes : predBytes) {
+      end += bytes.length;
+    }
+    final long namesEnd = end;
+
+    end = align(end, Integer.BYTES) + (predBytes.length + 1L) * Integer.BYTES
+        + numParams() * Integer.BYTES;
+    final long outcomeIdsEnd = end;
+
+    end = align(end, Double.BYTES) + numParams() * Double.BYTES;
+    return new long[] {outcomesEnd, namesEnd, outcomeIdsEnd, end};
+  }
+
+  private long numParams() {
+    long numParams = 0;
+    for (Context context : params) {
+      numParams += context.getOutcomes().length;
+    }
+    return numParams;
+  }
+
+  private static long align(long position, int alignment) {
+    return (position + alignment - 1) / alignment * alignment;
+  }
+
+  /**
+   * @return The number of hash table slots for {@code numPredicates}, a power of
+   *         two with a load factor of at most one half.
+   */
+  static int tableSize(int numPredicates) {
+    return Integer.highestOneBit(Math.max(2, numPredicates * 2) - 1) << 1;
+  }
+
+  private static byte[][] encode(String[] labels) {
+    final byte[][] bytes = new byte[labels.length][];
+    for (int i = 0; i < labels.length; i++) {
+      bytes[i] = encode(labels[i]);
+    }
+    return bytes;
+  }
+
+  private static byte[] encode(String s) {
+    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    // unpaired surrogates cannot be encoded and would silently be replaced
+    if (!s.equals(new String(bytes, StandardCharsets.UTF_8))) {
+      throw new IllegalArgumentException("Label is not representable in UTF-8: " + s);
+    }
+    return bytes;
+  }
+
+  /**
+   * Pads a section which ends at {@code position} to a multiple of {@code alignment}.
+   */
+  private static void pad(DataOutputStream dos, long position, int alignment) throws IOException {
+    for (long i = position; i < align(position, alignment); i++) {
+      dos.writeByte(0);
+    }
+  }
+}
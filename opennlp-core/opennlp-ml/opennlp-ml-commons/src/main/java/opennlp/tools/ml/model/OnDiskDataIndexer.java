@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * A {@link StreamableDataIndexer} which keeps the indexed events in a temporary file
+ * instead of the heap.
+ * <p>
+ * The events are written once, as variable length encoded outcome and predicate ids,
+ * and every {@link #cursor()} streams them from the file. The heap only holds the
+ * outcome and predicate labels, so trainers which stream the events can train on
+ * data sets which are much larger than the heap.
+ * <p>
+ * The events are not sorted and merged, each one is streamed with a count of one.
+ * The array getters, like {@link #getContexts()}, are not supported, so a trainer
+ * which does not stream the events fails instead of loading them into memory. The GIS,
+ * QN and perceptron trainers stream the events when they train in a single thread.
+ * <p>
+ * The temporary file is deleted by {@link #close()}.
+ *
+ * @see StreamableDataIndexer
+ * @see TwoPassDataIndexer
+ */
+public class OnDiskDataIndexer extends AbstractDataIndexer<TrainingParameters>
+    implements StreamableDataIndexer<TrainingParameters>, Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(OnDiskDataIndexer.class);
+
+  private CompactEventSpill spill;
+  private int numEvents;
+
+  public OnDiskDataIndexer() {}
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(ObjectStream<Event> eventStream) throws IOException {
+    int cutoff = trainingParameters.getIntParameter(Parameters.CUTOFF_PARAM,
+        Parameters.CUTOFF_DEFAULT_VALUE);
+
+    logger.info("Indexing events on disk using cutoff of {}", cutoff);
+    long start = System.currentTimeMillis();
+
+    close();
+    spill = CompactEventSpill.write(eventStream, cutoff);
+    outcomeLabels = spill.getOutcomeLabels();
+    predLabels = spill.getPredLabels();
+    predCounts = spill.getPredCounts();
+
+    // Count the events with indexed predicates, this also verifies the file
+    int count = 0;
+    try (CompactEventSpill.Reader reader = spill.open()) {
+      while (reader.next()) {
+        count++;
+      }
+    }
+    spill.releasePredicateNames();
+    numEvents = count;
+
+    if (numEvents == 0) {
+      close();
+      throw new InsufficientTrainingDataException("Insufficient training data to create model.");
+    }
+
+    logger.info(String.format("Done indexing %d events in %.2f s.", numEvents,
+        (System.currentTimeMillis() - start) / 1000d));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumEvents() {
+    return numEvents;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumUniqueEvents() {
+    return numEvents;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public IndexedEventCursor cursor() throws IOException {
+    if (spill == null) {
+      throw new IllegalStateException("The events are not indexed");
+    }
+    CompactEventSpill.Reader reader = spill.open();
+    return new IndexedEventCursor() {
+      @Override
+      public boolean next() throws IOException {
+        return reader.next();
+      }
+
+      @Override
+      public int getOutcome() {
+        return reader.getOutcome();
+      }
+
+      @Override
+      public int[] getContext() {
+        return reader.getContext();
+      }
+
+      @Override
+      public float[] getValues() {
+        return null;
+      }
+
+      @Override
+      public int getNumTimesSeen() {
+        return 1;
+      }
+
+      @Override
+      public void close() throws IOException {
+        reader.close();
+      }
+    };
+  }
+
+  /**
+   * Not supported, the events are streamed by {@link #cursor()}.
+   *
+   * @throws UnsupportedOperationException Thrown always.
+   */
+  @Override
+  public int[][] getContexts() {
+    throw notInMemory();
+  }
+
+  /**
+   * Not supported, the events are streamed by {@link #cursor()}.
+   *
+   * @throws UnsupportedOperationException Thrown always.
+   */
+  @Override
+  public int[] getNumTimesEventsSeen() {
+    throw notInMemory();
+  }
+
+  /**
+   * Not supported, the events are streamed by {@link #cursor()}.
+   *
+   * @throws UnsupportedOperationException Thrown always.
+   */
+  @Override
+  public int[] getOutcomeList() {
+    throw notInMemory();
+  }
+
+  private static UnsupportedOperationException notInMemory() {
+    return new UnsupportedOperationException("The events are kept on disk and can only be streamed, "
+        + "train with a single thread and a trainer which streams them, or use another DataIndexer");
+  }
+
+  /**
+   * Deletes the temporary file of the indexed events.
+   */
+  @Override
+  public synchronized void close() {
+    if (spill != null) {
+      spill.close();
+      spill = null;
+    }
+  }
+}
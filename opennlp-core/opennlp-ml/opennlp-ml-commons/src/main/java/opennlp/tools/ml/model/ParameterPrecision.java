@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Locale;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * The precision in which the parameters of a model are stored, both in the binary
+ * model formats and in memory, see {@link CompactContext}.
+ * <p>
+ * {@link #INT16} and {@link #INT8} quantize each parameter to a signed integer which is
+ * multiplied by a scale of its outcome. The scale of an outcome is chosen such that
+ * its largest absolute parameter is mapped to the largest integer.
+ *
+ * @see AbstractModelWriter#setParameterPrecision(ParameterPrecision)
+ */
+public enum ParameterPrecision {
+
+  /** 64-bit floating point parameters, the format of all existing models. */
+  DOUBLE(0, 64),
+  /** 32-bit floating point parameters. */
+  FLOAT(1, 32),
+  /** 16-bit parameters, quantized with a scale per outcome. */
+  INT16(2, 16),
+  /** 8-bit parameters, quantized with a scale per outcome. */
+  INT8(3, 8);
+
+  /**
+   * The name of the system property which selects the {@link ParameterPrecision}
+   * models are written with by the {@link GenericModelWriter}, e.g. {@code int8}.
+   * Defaults to {@link #DOUBLE}.
+   */
+  public static final String PRECISION_PROPERTY = "opennlp.ml.parameterPrecision";
+
+  /**
+   * Written in place of the number of outcomes to announce a model whose parameters are
+   * not stored as {@code double}s. Older readers reject the negative count.
+   */
+  static final int MARKER = Integer.MIN_VALUE;
+
+  private final int id;
+  private final int bits;
+
+  ParameterPrecision(int id, int bits) {
+    this.id = id;
+    this.bits = bits;
+  }
+
+  /**
+   * @return The number of bits a parameter is stored in.
+   */
+  public int getBits() {
+    return bits;
+  }
+
+  /**
+   * @return {@code true} if the parameters are quantized integers with a scale per outcome.
+   */
+  public boolean isQuantized() {
+    return this == INT16 || this == INT8;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  static ParameterPrecision fromId(int id) throws InvalidFormatException {
+    for (ParameterPrecision precision : values()) {
+      if (precision.id == id) {
+        return precision;
+      }
+    }
+    throw new InvalidFormatException("Unknown parameter precision: " + id);
+  }
+
+  /**
+   * @return The largest quantized value, only defined for {@link #isQuantized()} precisions.
+   */
+  int getMaxValue() {
+    return (1 << (bits - 1)) - 1;
+  }
+
+  /**
+   * Records the largest absolute parameter of each outcome.
+   *
+   * @param maxAbs The largest absolute parameter per outcome, updated in place.
+   * @param outcomes The outcomes of a {@link Context}.
+   * @param parameters The parameters of a {@link Context}.
+   */
+  static void updateMaxAbs(double[] maxAbs, int[] outcomes, double[] parameters) {
+    for (int ai = 0; ai < outcomes.length; ai++) {
+      maxAbs[outcomes[ai]] = Math.max(maxAbs[outcomes[ai]], Math.abs(parameters[ai]));
+    }
+  }
+
+  /**
+   * @param maxAbs The largest absolute parameter per outcome.
+   * @return The scale per outcome of a quantized precision.
+   */
+  float[] toScales(double[] maxAbs) {
+    float[] scales = new float[maxAbs.length];
+    for (int oid = 0; oid < maxAbs.length; oid++) {
+      scales[oid] = (float) (maxAbs[oid] / getMaxValue());
+    }
+    return scales;
+  }
+
+  /**
+   * @param parameter The parameter to quantize.
+   * @param scale The scale of the parameter's outcome.
+   * @return The quantized parameter, in the range {@code [-getMaxValue(), getMaxValue()]}.
+   */
+  int quantize(double parameter, float scale) {
+    if (scale == 0) {
+      return 0;
+    }
+    final long q = Math.round(parameter / scale);
+    return (int) Math.max(-getMaxValue(), Math.min(getMaxValue(), q));
+  }
+
+  /**
+   * @return The {@link ParameterPrecision} selected via {@link #PRECISION_PROPERTY},
+   *         or {@link #DOUBLE} if the property is not set.
+   * @throws IllegalArgumentException Thrown if the property value is not a
+   *                                  {@link ParameterPrecision}.
+   */
+  public static ParameterPrecision getDefault() {
+    final String name = System.getProperty(PRECISION_PROPERTY);
+    if (name == null || name.isBlank()) {
+      return DOUBLE;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown value for " + PRECISION_PROPERTY + ": " + name, e);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Objects;
+
+import opennlp.tools.commons.ThreadSafe;
+
+/**
+ * An immutable, open-addressing hash table which maps predicate strings to
+ * consecutive {@code int} ids.
+ * <p>
+ * In contrast to a {@link java.util.HashMap}, no entry objects are created and the
+ * values are not boxed: keys, their cached hash codes and the ids are kept in three
+ * parallel arrays which are probed linearly. The id of a predicate is its position in
+ * the array passed to {@link #PredicateIndex(String[])}.
+ */
+@ThreadSafe
+public final class PredicateIndex {
+
+  /** The maximum ratio of predicates to slots. */
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private final String[] keys;
+  private final int[] hashes;
+  private final int[] ids;
+  private final int mask;
+  private final int size;
+
+  /**
+   * Initializes a {@link PredicateIndex}.
+   *
+   * @param predicates The predicates to index. Must not contain {@code null}
+   *                   or duplicate elements.
+   * @throws IllegalArgumentException Thrown if {@code predicates} contains duplicates.
+   */
+  public PredicateIndex(String[] predicates) {
+    Objects.requireNonNull(predicates, "predicates must not be null");
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (predicates.length / LOAD_FACTOR)) - 1) << 1;
+    this.keys = new String[capacity];
+    this.hashes = new int[capacity];
+    this.ids = new int[capacity];
+    this.mask = capacity - 1;
+    this.size = predicates.length;
+
+    for (int id = 0; id < predicates.length; id++) {
+      final String predicate = Objects.requireNonNull(predicates[id], "predicate must not be null");
+      final int hash = predicate.hashCode();
+      int slot = spread(hash) & mask;
+      while (keys[slot] != null) {
+        if (hashes[slot] == hash && keys[slot].equals(predicate)) {
+          throw new IllegalArgumentException("Duplicate predicate: " + predicate);
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = predicate;
+      hashes[slot] = hash;
+      ids[slot] = id;
+    }
+  }
+
+  /**
+   * @param predicate The predicate to look up.
+   * @return The id of {@code predicate}, or {@code -1} if it is not indexed.
+   */
+  public int get(String predicate) {
+    if (predicate == null) {
+      return -1;
+    }
+    final int hash = predicate.hashCode();
+    int slot = spread(hash) & mask;
+    String key;
+    while ((key = keys[slot]) != null) {
+      if (hashes[slot] == hash && key.equals(predicate)) {
+        return ids[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Looks up a predicate which is given as a range of characters, without creating a
+   * {@link String}.
+   *
+   * @param chars The array which contains the predicate.
+   * @param from The offset of the first character of the predicate, inclusive.
+   * @param to The offset after the last character of the predicate, exclusive.
+   * @param hash The {@link String#hashCode() hash code} of the predicate.
+   * @return The id of the predicate, or {@code -1} if it is not indexed.
+   */
+  public int get(char[] chars, int from, int to, int hash) {
+    final int length = to - from;
+    int slot = spread(hash) & mask;
+    String key;
+    while ((key = keys[slot]) != null) {
+      if (hashes[slot] == hash && key.length() == length && matches(key, chars, from)) {
+        return ids[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private static boolean matches(String key, char[] chars, int from) {
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) != chars[from + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The number of indexed predicates.
+   */
+  public int size() {
+    return size;
+  }
+
+  /*
+   * String hash codes of short, similar predicates (e.g. "w=a", "w=b") tend to differ only
+   * in the low bits, mix in the high bits to reduce clustering.
+   */
+  static int spread(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+
+import opennlp.tools.util.Parameters;
+
+/**
+ * A {@link DataIndexer} which can stream its indexed events, so that trainers can
+ * make their passes over the events without loading them into memory.
+ * <p>
+ * The array getters of {@link DataIndexer}, like {@link #getContexts()}, may not be
+ * supported, so that trainers which cannot stream the events fail instead of loading
+ * all events into memory.
+ *
+ * @see IndexedEventCursor
+ */
+public interface StreamableDataIndexer<P extends Parameters> extends DataIndexer<P> {
+
+  /**
+   * @return Retrieves the number of unique events which are streamed by a cursor.
+   */
+  int getNumUniqueEvents();
+
+  /**
+   * Opens a new cursor over the indexed events. Every cursor streams the events in
+   * the same order, and several cursors can be open at the same time.
+   *
+   * @return A new {@link IndexedEventCursor} which must be closed after use.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  IndexedEventCursor cursor() throws IOException;
+}
@@ -26,6 +26,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,14 @@ import opennlp.tools.util.TrainingParameters;
  * will be used. This greatly reduces the amount of memory required for storing
  * the events. During the first pass a temporary event file is created which
  * is read during the second pass.
+ * <p>
+ * The format of the temporary file is selected with {@link #SPILL_FORMAT_PARAM}. By default,
+ * the events are written with their outcome and context strings, which are parsed
+ * and looked up again in the second pass. With {@link #SPILL_FORMAT_COMPACT_VALUE}, the first pass
+ * assigns ids to outcomes and predicates as they are seen and writes the events as
+ * variable length encoded ids. The second pass then only maps the ids of the predicates
+ * which pass the cutoff to their final index, without touching any strings. Both formats
+ * produce the same indexed data.
  *
  * @see DataIndexer
  * @see AbstractDataIndexer
@@ -56,6 +65,21 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
 
   private static final Logger logger = LoggerFactory.getLogger(TwoPassDataIndexer.class);
 
+  /**
+   * The parameter to select the format of the temporary event file.
+   */
+  public static final String SPILL_FORMAT_PARAM = "SpillFormat";
+
+  /**
+   * Writes the events with their outcome and context strings. This is the default.
+   */
+  public static final String SPILL_FORMAT_UTF_VALUE = "UTF";
+
+  /**
+   * Writes the events as variable length encoded outcome and predicate ids.
+   */
+  public static final String SPILL_FORMAT_COMPACT_VALUE = "Compact";
+
   public TwoPassDataIndexer() {}
 
   /**
@@ -66,11 +90,35 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
     int cutoff = trainingParameters.getIntParameter(Parameters.CUTOFF_PARAM,
         Parameters.CUTOFF_DEFAULT_VALUE);
     boolean sort = trainingParameters.getBooleanParameter(SORT_PARAM, SORT_DEFAULT);
+    String spillFormat = trainingParameters.getStringParameter(SPILL_FORMAT_PARAM, SPILL_FORMAT_UTF_VALUE);
 
     logger.info("Indexing events with TwoPass using cutoff of {}", cutoff);
     logger.info("Computing event counts...");
 
     long start = System.currentTimeMillis();
+
+    List<ComparableEvent> eventsToCompare;
+    if (SPILL_FORMAT_COMPACT_VALUE.equals(spillFormat)) {
+      eventsToCompare = indexCompact(eventStream, cutoff);
+    } else if (SPILL_FORMAT_UTF_VALUE.equals(spillFormat)) {
+      eventsToCompare = indexUTF(eventStream, cutoff);
+    } else {
+      throw new IllegalArgumentException("Unknown " + SPILL_FORMAT_PARAM + ": " + spillFormat);
+    }
+
+    logger.info("done.");
+
+    if (sort) {
+      logger.info("Sorting and merging events... ");
+    }
+    else {
+      logger.info("Collecting events... ");
+    }
+    sortAndMerge(eventsToCompare,sort);
+    logger.info(String.format("Done indexing in %.2f s.", (System.currentTimeMillis() - start) / 1000d));
+  }
+
+  private List<ComparableEvent> indexUTF(ObjectStream<Event> eventStream, int cutoff) throws IOException {
     Map<String,Integer> predicateIndex = new HashMap<>();
     File tmp = Files.createTempFile("events", null).toFile();
     tmp.deleteOnExit();
@@ -99,17 +147,27 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
 
     if (readChecksum != writeChecksum) {
       throw new IOException("Checksum for writing and reading events did not match.");
-    } else {
-      logger.info("done.");
+    }
+    return eventsToCompare;
+  }
 
-      if (sort) {
-        logger.info("Sorting and merging events... ");
-      }
-      else {
-        logger.info("Collecting events... ");
+  private List<ComparableEvent> indexCompact(ObjectStream<Event> eventStream, int cutoff)
+      throws IOException {
+    try (CompactEventSpill spill = CompactEventSpill.write(eventStream, cutoff)) {
+      logger.info("done. {} events", spill.getNumEvents());
+      outcomeLabels = spill.getOutcomeLabels();
+      predLabels = spill.getPredLabels();
+      predCounts = spill.getPredCounts();
+
+      logger.info("Indexing...");
+      List<ComparableEvent> eventsToCompare = new ArrayList<>(spill.getNumEvents());
+      try (CompactEventSpill.Reader reader = spill.open()) {
+        while (reader.next()) {
+          eventsToCompare.add(new ComparableEvent(reader.getOutcome(), reader.getContext().clone(),
+              reader.getValues()));
+        }
       }
-      sortAndMerge(eventsToCompare,sort);
-      logger.info(String.format("Done indexing in %.2f s.", (System.currentTimeMillis() - start) / 1000d));
+      return eventsToCompare;
     }
   }
 
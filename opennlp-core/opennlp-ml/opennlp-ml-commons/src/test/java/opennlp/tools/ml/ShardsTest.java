@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ShardsTest {
+
+  private static int[] partition(long[] costs, int shards) {
+    return Shards.partition(costs.length, i -> costs[i], shards);
+  }
+
+  @Test
+  void testPartition() {
+    Assertions.assertArrayEquals(new int[] {0, 3, 4}, partition(new long[] {1, 1, 1, 3}, 2));
+    Assertions.assertArrayEquals(new int[] {0, 1, 4}, partition(new long[] {6, 2, 2, 2}, 2));
+    Assertions.assertArrayEquals(new int[] {0, 2, 4}, partition(new long[] {1, 1, 1, 1}, 2));
+    Assertions.assertArrayEquals(new int[] {0, 4}, partition(new long[] {1, 1, 1, 1}, 1));
+  }
+
+  @Test
+  void testMoreShardsThanItems() {
+    Assertions.assertArrayEquals(new int[] {0, 1, 2, 2}, partition(new long[] {1, 1}, 3));
+    Assertions.assertArrayEquals(new int[] {0, 0}, partition(new long[0], 1));
+    Assertions.assertArrayEquals(new int[] {0, 1, 1}, partition(new long[] {0}, 2));
+  }
+
+  @Test
+  void testInvalidArguments() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Shards.partition(-1, i -> 1, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Shards.partition(1, i -> 1, 0));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class CompactContextTest {
+
+  private static Context[] createParams() {
+    return new Context[] {
+        new Context(new int[] {0, 1}, new double[] {1.27, -0.5}),
+        new Context(new int[] {1, 2}, new double[] {2.0, 0}),
+        new Context(new int[] {0}, new double[] {-0.64})
+    };
+  }
+
+  @Test
+  void testInt8Quantization() {
+    Context[] params = CompactContext.compact(createParams(), 3, ParameterPrecision.INT8);
+
+    // outcome 0 has the scale 1.27 / 127, outcome 1 has 2.0 / 127, outcome 2 has no weight
+    Assertions.assertArrayEquals(new double[] {1.27, -0.5}, params[0].getParameters(), 0.01);
+    Assertions.assertArrayEquals(new double[] {2.0, 0}, params[1].getParameters(), 1e-6);
+    Assertions.assertArrayEquals(new double[] {-0.64}, params[2].getParameters(), 1e-6);
+
+    double[] sums = new double[3];
+    params[0].addParameters(sums, 2);
+    params[2].addParameters(sums, 1);
+    Assertions.assertArrayEquals(new double[] {2 * 1.27 - 0.635, -1.0, 0}, sums, 0.02);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = ParameterPrecision.class, names = {"FLOAT", "INT16", "INT8"})
+  void testAddParametersMatchesGetParameters(ParameterPrecision precision) {
+    Context[] params = CompactContext.compact(createParams(), 3, precision);
+    for (Context context : params) {
+      CompactContext compact = (CompactContext) context;
+      Assertions.assertEquals(precision, compact.getPrecision());
+
+      double[] sums = new double[3];
+      compact.addParameters(sums, 1);
+      double[] parameters = compact.getParameters();
+      for (int ai = 0; ai < parameters.length; ai++) {
+        Assertions.assertEquals(parameters[ai], sums[compact.getOutcomes()[ai]]);
+      }
+    }
+  }
+
+  @Test
+  void testDoubleIsUnchanged() {
+    Context[] params = createParams();
+    Assertions.assertSame(params, CompactContext.compact(params, 3, ParameterPrecision.DOUBLE));
+  }
+
+  @Test
+  void testEquals() {
+    Context[] a = CompactContext.compact(createParams(), 3, ParameterPrecision.INT16);
+    Context[] b = CompactContext.compact(createParams(), 3, ParameterPrecision.INT16);
+    Assertions.assertEquals(a[1], b[1]);
+    Assertions.assertEquals(a[1].hashCode(), b[1].hashCode());
+    Assertions.assertNotEquals(a[0], b[1]);
+    Assertions.assertNotEquals(createParams()[1], a[1]);
+  }
+
+  @Test
+  void testDefaultPrecisionProperty() {
+    try {
+      Assertions.assertEquals(ParameterPrecision.DOUBLE, ParameterPrecision.getDefault());
+      System.setProperty(ParameterPrecision.PRECISION_PROPERTY, " Int16 ");
+      Assertions.assertEquals(ParameterPrecision.INT16, ParameterPrecision.getDefault());
+      System.setProperty(ParameterPrecision.PRECISION_PROPERTY, "int4");
+      Assertions.assertThrows(IllegalArgumentException.class, ParameterPrecision::getDefault);
+    } finally {
+      System.clearProperty(ParameterPrecision.PRECISION_PROPERTY);
+    }
+  }
+}
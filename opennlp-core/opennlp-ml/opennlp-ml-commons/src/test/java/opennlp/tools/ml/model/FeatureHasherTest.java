@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
+
+public class FeatureHasherTest {
+
+  @Test
+  void testStableHash() {
+    // the hash is part of the model format, these values must never change
+    Assertions.assertEquals(-1166397803181037274L, FeatureHasher.hash(""));
+    Assertions.assertEquals(707338498750395649L, FeatureHasher.hash("w=the"));
+    Assertions.assertEquals(7658284694100169203L, FeatureHasher.hash(new StringBuilder("prep=of")));
+
+    FeatureHasher hasher = new FeatureHasher(1000);
+    Assertions.assertEquals(342, hasher.getBucket(""));
+    Assertions.assertEquals(649, hasher.getBucket("w=the"));
+    Assertions.assertEquals(203, hasher.getBucket("prep=of"));
+
+    char[] chars = "xw=thex".toCharArray();
+    Assertions.assertEquals(707338498750395649L, FeatureHasher.hash(chars, 1, 6));
+    Assertions.assertEquals(-1166397803181037274L, FeatureHasher.hash(chars, 3, 3));
+    Assertions.assertEquals(649, hasher.getBucket(chars, 1, 6));
+  }
+
+  @Test
+  void testBucketRange() {
+    FeatureHasher hasher = new FeatureHasher(7);
+    int[] counts = new int[hasher.getNumBuckets()];
+    for (int i = 0; i < 7000; i++) {
+      counts[hasher.getBucket("w=" + i)]++;
+    }
+    for (int count : counts) {
+      Assertions.assertTrue(count > 800 && count < 1200, "bucket count " + count);
+    }
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new FeatureHasher(0));
+  }
+
+  @Test
+  void testLabels() {
+    FeatureHasher hasher = new FeatureHasher(1000);
+    Assertions.assertEquals("#hash:1000:649", hasher.getLabel("w=the"));
+    Assertions.assertArrayEquals(new String[] {"#hash:1000:649", "#hash:1000:203"},
+        hasher.getLabels(new String[] {"w=the", "prep=of"}));
+
+    Assertions.assertEquals(649, hasher.getLabelBucket("#hash:1000:649"));
+    Assertions.assertEquals(-1, hasher.getLabelBucket("#hash:100:64"));
+    Assertions.assertEquals(-1, hasher.getLabelBucket("#hash:1000:1000"));
+    Assertions.assertEquals(-1, hasher.getLabelBucket("#hash:1000"));
+    Assertions.assertEquals(-1, hasher.getLabelBucket("w=the"));
+  }
+
+  @Test
+  void testForLabels() {
+    FeatureHasher hasher = FeatureHasher.forLabels(List.of("#hash:16:3", "#hash:16:0"));
+    Assertions.assertNotNull(hasher);
+    Assertions.assertEquals(16, hasher.getNumBuckets());
+
+    Assertions.assertNull(FeatureHasher.forLabels(List.of()));
+    Assertions.assertNull(FeatureHasher.forLabels(List.of("#hash:16:3", "w=the")));
+    Assertions.assertNull(FeatureHasher.forLabels(List.of("#hash:16:3", "#hash:8:3")));
+    Assertions.assertNull(FeatureHasher.forLabels(List.of("#hash:x:3")));
+    Assertions.assertNull(FeatureHasher.forLabels(List.of("#hash:0:0")));
+    Assertions.assertNull(FeatureHasher.forLabels(List.of("#hash:")));
+  }
+
+  @Test
+  void testHashedEventStream() throws IOException {
+    FeatureHasher hasher = new FeatureHasher(1000);
+    float[] values = {1f, 2f};
+    try (ObjectStream<Event> events = new HashedEventStream(ObjectStreamUtils.createObjectStream(
+        new Event("yes", new String[] {"w=the", "prep=of"}, values)), hasher)) {
+      Event event = events.read();
+      Assertions.assertEquals("yes", event.getOutcome());
+      Assertions.assertArrayEquals(new String[] {"#hash:1000:649", "#hash:1000:203"},
+          event.getContext());
+      Assertions.assertSame(values, event.getValues());
+      Assertions.assertNull(events.read());
+    }
+  }
+
+  @Test
+  void testIndexedParameters() {
+    FeatureHasher hasher = new FeatureHasher(1000);
+    Map<String, Context> pmap = new LinkedHashMap<>();
+    pmap.put(hasher.getLabel("w=the"), new Context(new int[] {0}, new double[] {1.5}));
+    pmap.put(hasher.getLabel("prep=of"), new Context(new int[] {1}, new double[] {2}));
+    IndexedParameters params = new IndexedParameters(pmap, 2, hasher);
+
+    Assertions.assertEquals(2, params.getNumPredicates());
+    Assertions.assertEquals(0, params.getPredicateId("w=the"));
+    Assertions.assertEquals(1, params.getPredicateId("prep=of"));
+    Assertions.assertEquals(-1, params.getPredicateId(null));
+
+    double[] sums = new double[2];
+    params.sumFeatures(new String[] {"w=the", "prep=of", "w=the"}, null, sums);
+    Assertions.assertEquals(Arrays.toString(new double[] {3, 2}), Arrays.toString(sums));
+
+    pmap.put("w=the", new Context(new int[] {0}, new double[] {1}));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new IndexedParameters(pmap, 2, hasher));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+public class OnDiskDataIndexerTest {
+
+  private static ObjectStream<Event> createEventStream() {
+    // He belongs to <START:org> Apache Software Foundation <END> .
+    return new SimpleEventStreamBuilder()
+        .add("other/w=he n1w=belongs n2w=to po=other pow=other,He powf=other,ic ppo=other")
+        .add("other/w=belongs p1w=he n1w=to n2w=apache po=other pow=other,belongs powf=other,lc ppo=other")
+        .add("other/w=to p1w=belongs p2w=he n1w=apache n2w=software po=other pow=other,to" +
+            " powf=other,lc ppo=other")
+        .add("org-start/w=apache p1w=to p2w=belongs n1w=software n2w=foundation po=other pow=other,Apache" +
+            " powf=other,ic ppo=other")
+        .add("org-cont/w=software p1w=apache p2w=to n1w=foundation n2w=. po=org-start" +
+            " pow=org-start,Software powf=org-start,ic ppo=other")
+        .add("org-cont/w=foundation p1w=software p2w=apache n1w=. po=org-cont pow=org-cont,Foundation" +
+            " powf=org-cont,ic ppo=org-start")
+        .add("other/w=. p1w=foundation p2w=software po=org-cont pow=org-cont,. powf=org-cont,other" +
+            " ppo=org-cont")
+        .build();
+  }
+
+  private static TrainingParameters createParameters(int cutoff) {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.CUTOFF_PARAM, cutoff);
+    params.put(AbstractDataIndexer.SORT_PARAM, false);
+    return params;
+  }
+
+  @Test
+  void testCursorStreamsTheIndexedEvents() throws IOException {
+    try (OnDiskDataIndexer indexer = new OnDiskDataIndexer()) {
+      indexer.init(createParameters(5), null);
+      indexer.index(createEventStream());
+
+      Assertions.assertEquals(5, indexer.getNumEvents());
+      Assertions.assertEquals(5, indexer.getNumUniqueEvents());
+      Assertions.assertArrayEquals(new String[] {"ppo=other"}, indexer.getPredLabels());
+      Assertions.assertArrayEquals(new String[] {"other", "org-start", "org-cont"},
+          indexer.getOutcomeLabels());
+      Assertions.assertArrayEquals(new int[] {5}, indexer.getPredCounts());
+
+      // every cursor streams all events again
+      for (int pass = 0; pass < 2; pass++) {
+        List<Integer> outcomes = new ArrayList<>();
+        try (IndexedEventCursor cursor = indexer.cursor()) {
+          while (cursor.next()) {
+            outcomes.add(cursor.getOutcome());
+            Assertions.assertArrayEquals(new int[] {0}, cursor.getContext());
+            Assertions.assertEquals(1, cursor.getNumTimesSeen());
+            Assertions.assertNull(cursor.getValues());
+          }
+        }
+        Assertions.assertEquals(List.of(0, 0, 0, 1, 2), outcomes);
+      }
+    }
+  }
+
+  @Test
+  void testSameIndexAsTwoPassDataIndexer() throws IOException {
+    DataIndexer<TrainingParameters> expected = new TwoPassDataIndexer();
+    expected.init(createParameters(1), null);
+    expected.index(createEventStream());
+
+    try (OnDiskDataIndexer indexer = new OnDiskDataIndexer()) {
+      indexer.init(createParameters(1), null);
+      indexer.index(createEventStream());
+
+      Assertions.assertEquals(expected.getNumEvents(), indexer.getNumEvents());
+      Assertions.assertArrayEquals(expected.getPredLabels(), indexer.getPredLabels());
+      Assertions.assertArrayEquals(expected.getPredCounts(), indexer.getPredCounts());
+      Assertions.assertArrayEquals(expected.getOutcomeLabels(), indexer.getOutcomeLabels());
+      try (IndexedEventCursor cursor = indexer.cursor()) {
+        for (int ei = 0; ei < expected.getContexts().length; ei++) {
+          Assertions.assertTrue(cursor.next());
+          Assertions.assertArrayEquals(expected.getContexts()[ei], cursor.getContext());
+          Assertions.assertEquals(expected.getOutcomeList()[ei], cursor.getOutcome());
+          Assertions.assertEquals(expected.getNumTimesEventsSeen()[ei], cursor.getNumTimesSeen());
+        }
+        Assertions.assertFalse(cursor.next());
+      }
+
+      // the events are never loaded into memory
+      Assertions.assertThrows(UnsupportedOperationException.class, indexer::getContexts);
+      Assertions.assertThrows(UnsupportedOperationException.class, indexer::getOutcomeList);
+      Assertions.assertThrows(UnsupportedOperationException.class, indexer::getNumTimesEventsSeen);
+      Assertions.assertNull(indexer.getValues());
+    }
+  }
+
+  @Test
+  void testClose() throws IOException {
+    OnDiskDataIndexer indexer = new OnDiskDataIndexer();
+    indexer.init(createParameters(1), null);
+    indexer.index(createEventStream());
+    indexer.close();
+    Assertions.assertThrows(IllegalStateException.class, indexer::cursor);
+  }
+
+  @Test
+  void testInsufficientTrainingData() {
+    OnDiskDataIndexer indexer = new OnDiskDataIndexer();
+    indexer.init(createParameters(10), null);
+    Assertions.assertThrows(InsufficientTrainingDataException.class,
+        () -> indexer.index(createEventStream()));
+    Assertions.assertThrows(InsufficientTrainingDataException.class,
+        () -> indexer.index(ObjectStreamUtils.createObjectStream(List.<Event>of())));
+  }
+
+  @Test
+  void testVarInt() throws IOException {
+    int[] numbers = {0, 1, 127, 128, 16383, 16384, 2097151, Integer.MAX_VALUE};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (int number : numbers) {
+      CompactEventSpill.writeVarInt(out, number);
+    }
+    Assertions.assertEquals(1 + 1 + 1 + 2 + 2 + 3 + 3 + 5, bytes.size());
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (int number : numbers) {
+      Assertions.assertEquals(number, CompactEventSpill.readVarInt(in));
+    }
+  }
+}
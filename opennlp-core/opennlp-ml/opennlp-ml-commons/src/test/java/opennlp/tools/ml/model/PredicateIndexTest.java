@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.util.featuregen.FeatureSink;
+
+public class PredicateIndexTest {
+
+  @Test
+  void testLookup() {
+    String[] predicates = new String[1000];
+    for (int i = 0; i < predicates.length; i++) {
+      predicates[i] = "w=" + i;
+    }
+    PredicateIndex index = new PredicateIndex(predicates);
+
+    Assertions.assertEquals(predicates.length, index.size());
+    for (int i = 0; i < predicates.length; i++) {
+      Assertions.assertEquals(i, index.get(new String(predicates[i])));
+    }
+    Assertions.assertEquals(-1, index.get("w=1000"));
+    Assertions.assertEquals(-1, index.get(""));
+    Assertions.assertEquals(-1, index.get(null));
+  }
+
+  @Test
+  void testEmpty() {
+    PredicateIndex index = new PredicateIndex(new String[0]);
+    Assertions.assertEquals(0, index.size());
+    Assertions.assertEquals(-1, index.get("a"));
+  }
+
+  @Test
+  void testCollidingHashCodes() {
+    // "Aa" and "BB" share the same String.hashCode()
+    PredicateIndex index = new PredicateIndex(new String[] {"Aa", "BB", "AaAa", "BBBB"});
+    Assertions.assertEquals(0, index.get("Aa"));
+    Assertions.assertEquals(1, index.get("BB"));
+    Assertions.assertEquals(2, index.get("AaAa"));
+    Assertions.assertEquals(3, index.get("BBBB"));
+    Assertions.assertEquals(-1, index.get("AaBB"));
+  }
+
+  @Test
+  void testLookupCharacterRange() {
+    PredicateIndex index = new PredicateIndex(new String[] {"Aa", "BB", "w=the"});
+    char[] chars = "xxAaBBw=thew=them".toCharArray();
+
+    Assertions.assertEquals(0, index.get(chars, 2, 4, "Aa".hashCode()));
+    Assertions.assertEquals(1, index.get(chars, 4, 6, "BB".hashCode()));
+    Assertions.assertEquals(2, index.get(chars, 6, 11, "w=the".hashCode()));
+    Assertions.assertEquals(-1, index.get(chars, 11, 17, "w=them".hashCode()));
+    Assertions.assertEquals(-1, index.get(chars, 0, 0, "".hashCode()));
+  }
+
+  @Test
+  void testDuplicatePredicate() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new PredicateIndex(new String[] {"a", "b", "a"}));
+  }
+
+  @Test
+  void testIndexedParametersSumFeatures() {
+    Map<String, Context> pmap = new LinkedHashMap<>();
+    pmap.put("a", new Context(new int[] {0, 2}, new double[] {0.5, -1}));
+    pmap.put("b", new Context(new int[] {1}, new double[] {2}));
+    pmap.put("c", new Context(new int[0], new double[0]));
+
+    IndexedParameters params = new IndexedParameters(pmap, 3);
+    Assertions.assertEquals(3, params.getNumPredicates());
+    Assertions.assertArrayEquals(new int[] {0, 2, 3, 3}, params.getOffsets());
+
+    String[] context = {"b", "x", "a", "c"};
+    float[] values = {2f, 1f, 3f, 1f};
+
+    double[] expected = new double[3];
+    ArrayMath.sumFeatures(new Context[] {pmap.get("b"), null, pmap.get("a"), pmap.get("c")},
+        values, expected);
+    double[] actual = new double[3];
+    params.sumFeatures(context, values, actual);
+    Assertions.assertArrayEquals(expected, actual);
+    Assertions.assertArrayEquals(new double[] {1.5, 4, -3}, actual);
+  }
+
+  @Test
+  void testIndexedParametersSumFeatureSink() {
+    Map<String, Context> pmap = new LinkedHashMap<>();
+    pmap.put("w=a", new Context(new int[] {0, 2}, new double[] {0.5, -1}));
+    pmap.put("w=b", new Context(new int[] {1}, new double[] {2}));
+
+    FeatureSink features = new FeatureSink();
+    features.add("w=", "b").add("w=x").add("w=", "abc", 0, 1);
+
+    double[] expected = new double[3];
+    new IndexedParameters(pmap, 3).sumFeatures(features.toArray(), null, expected);
+    double[] actual = new double[3];
+    new IndexedParameters(pmap, 3).sumFeatures(features, actual);
+    Assertions.assertArrayEquals(new double[] {0.5, 2, -1}, actual);
+    Assertions.assertArrayEquals(expected, actual);
+
+    FeatureHasher hasher = new FeatureHasher(16);
+    Map<String, Context> hashed = new LinkedHashMap<>();
+    hashed.put(hasher.getLabel("w=b"), new Context(new int[] {1}, new double[] {2}));
+    IndexedParameters hashedParams = new IndexedParameters(hashed, 3, hasher);
+    double[] hashedSums = new double[3];
+    hashedParams.sumFeatures(features, hashedSums);
+    double[] expectedHashedSums = new double[3];
+    hashedParams.sumFeatures(features.toArray(), null, expectedHashedSums);
+    Assertions.assertArrayEquals(expectedHashedSums, hashedSums);
+    Assertions.assertEquals(2, hashedSums[1]);
+  }
+}
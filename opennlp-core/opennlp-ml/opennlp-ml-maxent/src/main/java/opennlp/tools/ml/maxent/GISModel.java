@@ -22,10 +22,12 @@ import java.util.Objects;
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.AdditiveModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.EvalParameters;
 import opennlp.tools.ml.model.Prior;
 import opennlp.tools.ml.model.UniformPrior;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A maximum entropy model which has been trained using the Generalized
@@ -33,7 +35,7 @@ import opennlp.tools.ml.model.UniformPrior;
  *
  * @see AbstractModel
  */
-public final class GISModel extends AbstractModel {
+public final class GISModel extends AbstractModel implements AdditiveModel {
 
   /**
    * Initializes a {@link GISModel} with the specified parameters, outcome names, and
@@ -96,6 +98,51 @@ public final class GISModel extends AbstractModel {
     return eval(context, null, outsums);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The features are resolved without creating {@link String strings} if the model has
+   * a {@link UniformPrior}, other priors need the predicates as strings.
+   */
+  @Override
+  public double[] evalFeatures(FeatureSink features, double[] outsums) {
+    if (!(prior instanceof UniformPrior)) {
+      return eval(features.toArray(), null, outsums);
+    }
+    prior.logPrior(outsums, (int[]) null, null);
+    getIndexedParameters().sumFeatures(features, outsums);
+    return normalize(outsums, evalParams.getNumOutcomes());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The scores are only additive with a {@link UniformPrior}.
+   */
+  @Override
+  public boolean hasAdditiveScores() {
+    return prior instanceof UniformPrior;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addScores(FeatureSink features, double[] scores) {
+    getIndexedParameters().sumFeatures(features, scores);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The uniform prior is omitted, since adding the same log prior to all scores does not change
+   * the normalized probabilities.
+   */
+  @Override
+  public double[] normalizeScores(double[] scores) {
+    return normalize(scores, evalParams.getNumOutcomes());
+  }
+
   /**
    * Evaluates a context and return an array of the likelihood
    * of each outcome given that context.
@@ -111,9 +158,16 @@ public final class GISModel extends AbstractModel {
    *         method {@link #getOutcome(int)}.
    */
   public double[] eval(String[] context, float[] values, double[] outsums) {
+    // A uniform prior does not depend on the context, no need to resolve the Context objects
+    if (indexedParams != null && prior instanceof UniformPrior) {
+      prior.logPrior(outsums, (int[]) null, values);
+      indexedParams.sumFeatures(context, values, outsums);
+      return normalize(outsums, evalParams.getNumOutcomes());
+    }
+
     Context[] scontexts = new Context[context.length];
     for (int i = 0; i < context.length; i++) {
-      scontexts[i] = pmap.get(context[i]);
+      scontexts[i] = getContext(context[i]);
     }
     prior.logPrior(outsums, scontexts, values);
     return GISModel.eval(scontexts, values, outsums, evalParams);
@@ -192,14 +246,17 @@ public final class GISModel extends AbstractModel {
                        EvalParameters model) {
 
     ArrayMath.sumFeatures(context, values, prior);
+    return normalize(prior, model.getNumOutcomes());
+  }
 
+  private static double[] normalize(double[] prior, int numOutcomes) {
     double normal = 0.0;
-    for (int oid = 0; oid < model.getNumOutcomes(); oid++) {
+    for (int oid = 0; oid < numOutcomes; oid++) {
       prior[oid] = StrictMath.exp(prior[oid]);
       normal += prior[oid];
     }
 
-    for (int oid = 0; oid < model.getNumOutcomes(); oid++) {
+    for (int oid = 0; oid < numOutcomes; oid++) {
       prior[oid] /= normal;
     }
     return prior;
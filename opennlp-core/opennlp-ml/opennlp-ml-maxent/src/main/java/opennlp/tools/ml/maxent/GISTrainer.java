@@ -18,14 +18,16 @@
 package opennlp.tools.ml.maxent;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,13 +35,16 @@ import org.slf4j.LoggerFactory;
 import opennlp.tools.commons.Trainer;
 import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Shards;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.EvalParameters;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.IndexedEventCursor;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.MutableContext;
 import opennlp.tools.ml.model.OnePassDataIndexer;
 import opennlp.tools.ml.model.Prior;
+import opennlp.tools.ml.model.StreamableDataIndexer;
 import opennlp.tools.ml.model.UniformPrior;
 import opennlp.tools.monitoring.DefaultTrainingProgressMonitor;
 import opennlp.tools.monitoring.LogLikelihoodThresholdBreached;
@@ -70,6 +75,14 @@ import opennlp.tools.util.TrainingParameters;
  * A {@link Prior} can be used to train models which converge to the distribution which minimizes the
  * relative entropy between the distribution specified by the empirical constraints of the training
  * data and the specified prior. By default, the uniform distribution is used as the prior.
+ * <p>
+ * With more than one thread, see {@link Parameters#THREADS_PARAM}, the events are split into
+ * shards of about equal cost, which is estimated from the active outcomes of their features.
+ * The threads are taken from {@link TrainingConfiguration#executor()} if it is set, otherwise
+ * a pool is created for each training.
+ * <p>
+ * If the events are indexed by a {@link StreamableDataIndexer}, they are streamed in each
+ * iteration instead of being loaded into memory. Streamed events are trained in a single thread.
  */
 public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
 
@@ -120,6 +133,11 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
    * Records the num of times an event has been seen for each event i, in context[i].
    */
   private int[] numTimesEventsSeen;
+  /**
+   * The indexer which streams the events in each iteration, or {@code null} if the
+   * events are held in memory.
+   */
+  private StreamableDataIndexer<TrainingParameters> eventSource;
   /**
    * Stores the String names of the outcomes. The GIS only tracks outcomes as
    * ints, and so this array is needed to save the model to disk and thereby
@@ -144,6 +162,16 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
    * Stores the expected values of the features based on the current models
    */
   private MutableContext[][] modelExpects;
+
+  /**
+   * The first unique event of each thread's shard, followed by the number of unique events.
+   */
+  private int[] eventShards;
+
+  /**
+   * The first predicate of each thread's shard, followed by the number of predicates.
+   */
+  private int[] predicateShards;
   /**
    * This is the prior distribution that the model uses for training.
    */
@@ -348,64 +376,65 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
       throw new IllegalArgumentException("threads must be at least one or greater but is " + threads + "!");
     }
 
+    eventSource = null;
+    if (di instanceof StreamableDataIndexer<TrainingParameters> streamable) {
+      if (threads > 1) {
+        throw new IllegalArgumentException("Streamed events are trained in a single thread, but threads is "
+            + threads);
+      }
+      eventSource = streamable;
+    }
+
     modelExpects = new MutableContext[threads][];
 
     /* Incorporate all of the needed info *****/
     logger.info("Incorporating indexed data for training...");
-    contexts = di.getContexts();
-    values = di.getValues();
-    /*
-    The number of times a predicate occurred in the training data.
-   */
-    int[] predicateCounts = di.getPredCounts();
-    numTimesEventsSeen = di.getNumTimesEventsSeen();
-    numUniqueEvents = contexts.length;
+    if (eventSource != null) {
+      contexts = null;
+      values = null;
+      numTimesEventsSeen = null;
+      outcomeList = null;
+      numUniqueEvents = eventSource.getNumUniqueEvents();
+    } else {
+      contexts = di.getContexts();
+      values = di.getValues();
+      numTimesEventsSeen = di.getNumTimesEventsSeen();
+      outcomeList = di.getOutcomeList();
+      numUniqueEvents = contexts.length;
+    }
     this.prior = modelPrior;
     //printTable(contexts);
 
-    // determine the correction constant and its inverse
-    double correctionConstant = 0;
-    for (int ci = 0; ci < contexts.length; ci++) {
-      if (values == null || values[ci] == null) {
-        if (contexts[ci].length > correctionConstant) {
-          correctionConstant = contexts[ci].length;
-        }
-      } else {
-        float cl = values[ci][0];
-        for (int vi = 1; vi < values[ci].length; vi++) {
-          cl += values[ci][vi];
-        }
-
-        if (cl > correctionConstant) {
-          correctionConstant = cl;
-        }
-      }
-    }
-    logger.info("done.");
-
     outcomeLabels = di.getOutcomeLabels();
-    outcomeList = di.getOutcomeList();
     numOutcomes = outcomeLabels.length;
 
     predLabels = di.getPredLabels();
     prior.setLabels(outcomeLabels, predLabels);
     numPreds = predLabels.length;
 
-    logger.info("\tNumber of Event Tokens: {} " +
-        "\n\t Number of Outcomes: {} " +
-        "\n\t Number of Predicates: {}", numUniqueEvents, numOutcomes, numPreds);
-
-    // set up feature arrays
+    // set up feature arrays and determine the correction constant
     float[][] predCount = new float[numPreds][numOutcomes];
-    for (int ti = 0; ti < numUniqueEvents; ti++) {
-      for (int j = 0; j < contexts[ti].length; j++) {
-        if (values != null && values[ti] != null) {
-          predCount[contexts[ti][j]][outcomeList[ti]] += numTimesEventsSeen[ti] * values[ti][j];
-        } else {
-          predCount[contexts[ti][j]][outcomeList[ti]] += numTimesEventsSeen[ti];
+    double correctionConstant = 0;
+    if (eventSource != null) {
+      try (IndexedEventCursor cursor = eventSource.cursor()) {
+        while (cursor.next()) {
+          correctionConstant = Math.max(correctionConstant, countPredicates(cursor.getContext(),
+              cursor.getValues(), cursor.getOutcome(), cursor.getNumTimesSeen(), predCount));
         }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to stream the events", e);
+      }
+    } else {
+      for (int ei = 0; ei < numUniqueEvents; ei++) {
+        correctionConstant = Math.max(correctionConstant, countPredicates(contexts[ei],
+            values != null ? values[ei] : null, outcomeList[ei], numTimesEventsSeen[ei], predCount));
       }
     }
+    logger.info("done.");
+
+    logger.info("\tNumber of Event Tokens: {} " +
+        "\n\t Number of Outcomes: {} " +
+        "\n\t Number of Predicates: {}", numUniqueEvents, numOutcomes, numPreds);
 
     // A fake "observation" to cover features which are not detected in
     // the data.  The default is to assume that we observed "1/10th" of a
@@ -473,6 +502,27 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
       }
     }
 
+    // Estimate the work per event and per predicate to balance the threads
+    if (threads == 1) {
+      eventShards = new int[] {0, numUniqueEvents};
+    } else {
+      long[] eventCosts = new long[numUniqueEvents];
+      for (int ei = 0; ei < numUniqueEvents; ei++) {
+        long cost = numOutcomes;
+        for (int pi : contexts[ei]) {
+          cost += params[pi].getOutcomes().length;
+        }
+        eventCosts[ei] = cost;
+      }
+      eventShards = Shards.partition(numUniqueEvents, ei -> eventCosts[ei], threads);
+    }
+
+    long[] predicateCosts = new long[numPreds];
+    for (int pi = 0; pi < numPreds; pi++) {
+      predicateCosts[pi] = params[pi].getOutcomes().length + 1;
+    }
+    predicateShards = Shards.partition(numPreds, pi -> predicateCosts[pi], threads);
+
     logger.info("...done.");
 
     /* Find the parameters *****/
@@ -483,25 +533,54 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
     }
 
     findParameters(iterations, correctionConstant);
+    eventSource = null;
 
     // Create and return the model
     return new GISModel(params, predLabels, outcomeLabels);
 
   }
 
+  /**
+   * Adds the predicates of an event to the {@code predCount} of its outcome.
+   *
+   * @return The sum of the predicate values of the event.
+   */
+  private static double countPredicates(int[] context, float[] eventValues, int outcome, int times,
+                                        float[][] predCount) {
+    if (eventValues == null) {
+      for (int pi : context) {
+        predCount[pi][outcome] += times;
+      }
+      return context.length;
+    }
+
+    float cl = eventValues[0];
+    for (int vi = 1; vi < eventValues.length; vi++) {
+      cl += eventValues[vi];
+    }
+    for (int j = 0; j < context.length; j++) {
+      predCount[context[j]][outcome] += times * eventValues[j];
+    }
+    return cl;
+  }
+
   /* Estimate and return the model parameters. */
   private void findParameters(int iterations, double correctionConstant) {
     int threads = modelExpects.length;
 
-    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
-      Thread thread = new Thread(runnable);
-      thread.setName("opennlp.tools.ml.maxent.ModelExpectationComputeTask.nextIteration()");
-      thread.setDaemon(true);
-      return thread;
-    });
+    // An executor from the configuration is shared with other trainings and is not shut down here
+    ExecutorService executor = trainingConfiguration != null ? trainingConfiguration.executor() : null;
+    ExecutorService ownExecutor = null;
+    if (executor == null && threads > 1) {
+      ownExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setName("opennlp.tools.ml.maxent.ModelExpectationComputeTask.nextIteration()");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor = ownExecutor;
+    }
 
-    CompletionService<ModelExpectationComputeTask> completionService =
-        new ExecutorCompletionService<>(executor);
     double prevLL = 0.0;
     double currLL;
 
@@ -510,19 +589,25 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
     StopCriteria<Double> stopCriteria = getStopCriteria(trainingConfiguration);
 
     logger.info("Performing {} iterations.", iterations);
-    for (int i = 1; i <= iterations; i++) {
-      currLL = nextIteration(correctionConstant, completionService, i);
-      if (i > 1) {
-        if (prevLL > currLL) {
-          logger.warn("Model Diverging: loglikelihood decreased");
-          break;
-        }
-        if (stopCriteria.test(currLL - prevLL)) {
-          progressMonitor.finishedTraining(iterations, stopCriteria);
-          break;
+    try {
+      for (int i = 1; i <= iterations; i++) {
+        currLL = nextIteration(correctionConstant, executor, i);
+        if (i > 1) {
+          if (prevLL > currLL) {
+            logger.warn("Model Diverging: loglikelihood decreased");
+            break;
+          }
+          if (stopCriteria.test(currLL - prevLL)) {
+            progressMonitor.finishedTraining(iterations, stopCriteria);
+            break;
+          }
         }
+        prevLL = currLL;
+      }
+    } finally {
+      if (ownExecutor != null) {
+        ownExecutor.shutdown();
       }
-      prevLL = currLL;
     }
 
     //At this point, all iterations have finished successfully.
@@ -536,7 +621,8 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
     modelExpects = null;
     numTimesEventsSeen = null;
     contexts = null;
-    executor.shutdown();
+    eventShards = null;
+    predicateShards = null;
   }
 
   //modeled on implementation in  Zhang Le's maxent kit
@@ -563,57 +649,47 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
   }
 
   /* Compute one iteration of GIS and return log-likelihood.*/
-  private double nextIteration(double correctionConstant,
-                               CompletionService<ModelExpectationComputeTask> completionService,
-                               int iteration) {
+  private double nextIteration(double correctionConstant, ExecutorService executor, int iteration) {
     // compute contribution of p(a|b_i) for each feature and the new
     // correction parameter
     double loglikelihood = 0.0;
     int numEvents = 0;
     int numCorrect = 0;
 
-    // Each thread gets equal number of tasks, if the number of tasks
-    // is not divisible by the number of threads, the first "leftOver"
-    // threads have one extra task.
     int numberOfThreads = modelExpects.length;
-    int taskSize = numUniqueEvents / numberOfThreads;
-    int leftOver = numUniqueEvents % numberOfThreads;
-
-    // submit all tasks to the completion service.
+    List<ModelExpectationComputeTask> tasks = new ArrayList<>(numberOfThreads);
     for (int i = 0; i < numberOfThreads; i++) {
-      if (i < leftOver) {
-        completionService.submit(new ModelExpectationComputeTask(i, i * taskSize + i,
-            taskSize + 1));
-      } else {
-        completionService.submit(new ModelExpectationComputeTask(i,
-            i * taskSize + leftOver, taskSize));
-      }
+      tasks.add(new ModelExpectationComputeTask(i, eventShards[i], eventShards[i + 1] - eventShards[i]));
     }
 
-    for (int i = 0; i < numberOfThreads; i++) {
-      ModelExpectationComputeTask finishedTask;
-      try {
-        finishedTask = completionService.take().get();
-      } catch (InterruptedException e) {
-        // TODO: We got interrupted, but that is currently not really supported!
-        // For now we fail hard. We hopefully soon
-        // handle this case properly!
-        throw new IllegalStateException("Interruption is not supported!", e);
-      } catch (ExecutionException e) {
-        // Only runtime exception can be thrown during training, if one was thrown
-        // it should be re-thrown. That could for example be a NullPointerException
-        // which is caused through a bug in our implementation.
-        throw new RuntimeException("Exception during training: " + e.getMessage(), e);
-      }
-
-      // When they are done, retrieve the results ...
+    // The results are added up in shard order, so the outcome does not depend on scheduling
+    for (ModelExpectationComputeTask finishedTask : invokeAll(executor, tasks)) {
       numEvents += finishedTask.getNumEvents();
       numCorrect += finishedTask.getNumCorrect();
       loglikelihood += finishedTask.getLoglikelihood();
     }
 
-    // merge the results of the two computations
-    for (int pi = 0; pi < numPreds; pi++) {
+    // merge the model expectations of the threads and compute the new parameter values
+    List<Callable<Void>> updates = new ArrayList<>(numberOfThreads);
+    for (int i = 0; i < numberOfThreads; i++) {
+      final int from = predicateShards[i];
+      final int to = predicateShards[i + 1];
+      updates.add(() -> {
+        updateParameters(from, to, correctionConstant);
+        return null;
+      });
+    }
+    invokeAll(executor, updates);
+
+    getTrainingProgressMonitor(trainingConfiguration).
+        finishedIteration(iteration, numCorrect, numEvents, TrainingMeasure.LOG_LIKELIHOOD, loglikelihood);
+
+    return loglikelihood;
+  }
+
+  /* Merge the model expectations and update the parameters of the predicates [from, to). */
+  private void updateParameters(int from, int to, double correctionConstant) {
+    for (int pi = from; pi < to; pi++) {
       int[] activeOutcomes = params[pi].getOutcomes();
 
       for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
@@ -621,13 +697,9 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
           modelExpects[0][pi].updateParameter(aoi, modelExpects[i][pi].getParameters()[aoi]);
         }
       }
-    }
 
-    // compute the new parameter values
-    for (int pi = 0; pi < numPreds; pi++) {
       double[] observed = observedExpects[pi].getParameters();
       double[] model = modelExpects[0][pi].getParameters();
-      int[] activeOutcomes = params[pi].getOutcomes();
       for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
         if (useGaussianSmoothing) {
           params[pi].updateParameter(aoi, gaussianUpdate(pi, aoi, correctionConstant));
@@ -643,14 +715,46 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
         for (MutableContext[] modelExpect : modelExpects) {
           modelExpect[pi].setParameter(aoi, 0.0); // re-initialize to 0.0's
         }
-
       }
     }
+  }
 
-    getTrainingProgressMonitor(trainingConfiguration).
-        finishedIteration(iteration, numCorrect, numEvents, TrainingMeasure.LOG_LIKELIHOOD, loglikelihood);
+  /*
+   * Runs the tasks and returns their results in task order. A single task runs in the
+   * calling thread.
+   */
+  private static <T> List<T> invokeAll(ExecutorService executor, List<? extends Callable<T>> tasks) {
+    List<T> results = new ArrayList<>(tasks.size());
+    try {
+      if (tasks.size() == 1) {
+        results.add(tasks.get(0).call());
+        return results;
+      }
 
-    return loglikelihood;
+      List<Future<T>> futures = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      // TODO: We got interrupted, but that is currently not really supported!
+      // For now we fail hard. We hopefully soon
+      // handle this case properly!
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interruption is not supported!", e);
+    } catch (ExecutionException e) {
+      // Only runtime exception can be thrown during training, if one was thrown
+      // it should be re-thrown. That could for example be a NullPointerException
+      // which is caused through a bug in our implementation.
+      throw new RuntimeException("Exception during training: " + e.getMessage(), e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException("Exception during training: " + e.getMessage(), e);
+    }
+    return results;
   }
 
   private class ModelExpectationComputeTask implements Callable<ModelExpectationComputeTask> {
@@ -673,47 +777,62 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
 
       final double[] modelDistribution = new double[numOutcomes];
 
+      if (eventSource != null) {
+        try (IndexedEventCursor cursor = eventSource.cursor()) {
+          while (cursor.next()) {
+            computeEvent(cursor.getContext(), cursor.getValues(), cursor.getOutcome(),
+                cursor.getNumTimesSeen(), modelDistribution);
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to stream the events", e);
+        }
+        return this;
+      }
 
       for (int ei = startIndex; ei < startIndex + length; ei++) {
 
         // TODO: check interruption status here, if interrupted set a poisoned flag and return
 
-        if (values != null) {
-          prior.logPrior(modelDistribution, contexts[ei], values[ei]);
-          GISModel.eval(contexts[ei], values[ei], modelDistribution, evalParams);
-        } else {
-          prior.logPrior(modelDistribution, contexts[ei]);
-          GISModel.eval(contexts[ei], modelDistribution, evalParams);
-        }
-        for (int j = 0; j < contexts[ei].length; j++) {
-          int pi = contexts[ei][j];
-          int[] activeOutcomes = modelExpects[threadIndex][pi].getOutcomes();
-          for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
-            int oi = activeOutcomes[aoi];
-
-            // numTimesEventsSeen must also be thread safe
-            if (values != null && values[ei] != null) {
-              modelExpects[threadIndex][pi].updateParameter(aoi, modelDistribution[oi]
-                  * values[ei][j] * numTimesEventsSeen[ei]);
-            } else {
-              modelExpects[threadIndex][pi].updateParameter(aoi, modelDistribution[oi]
-                  * numTimesEventsSeen[ei]);
-            }
+        computeEvent(contexts[ei], values != null ? values[ei] : null, outcomeList[ei],
+            numTimesEventsSeen[ei], modelDistribution);
+      }
+
+      return this;
+    }
+
+    private void computeEvent(int[] context, float[] eventValues, int outcome, int times,
+                              double[] modelDistribution) {
+      if (eventValues != null) {
+        prior.logPrior(modelDistribution, context, eventValues);
+        GISModel.eval(context, eventValues, modelDistribution, evalParams);
+      } else {
+        prior.logPrior(modelDistribution, context);
+        GISModel.eval(context, modelDistribution, evalParams);
+      }
+      for (int j = 0; j < context.length; j++) {
+        int pi = context[j];
+        int[] activeOutcomes = modelExpects[threadIndex][pi].getOutcomes();
+        for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
+          int oi = activeOutcomes[aoi];
+
+          // numTimesEventsSeen must also be thread safe
+          if (eventValues != null) {
+            modelExpects[threadIndex][pi].updateParameter(aoi, modelDistribution[oi]
+                * eventValues[j] * times);
+          } else {
+            modelExpects[threadIndex][pi].updateParameter(aoi, modelDistribution[oi] * times);
           }
         }
+      }
 
-        loglikelihood += StrictMath.log(modelDistribution[outcomeList[ei]]) * numTimesEventsSeen[ei];
-
-        numEvents += numTimesEventsSeen[ei];
+      loglikelihood += StrictMath.log(modelDistribution[outcome]) * times;
 
-        int max = ArrayMath.argmax(modelDistribution);
-        if (max == outcomeList[ei]) {
-          numCorrect += numTimesEventsSeen[ei];
-        }
+      numEvents += times;
 
+      int max = ArrayMath.argmax(modelDistribution);
+      if (max == outcome) {
+        numCorrect += times;
       }
-
-      return this;
     }
 
     synchronized int getNumEvents() {
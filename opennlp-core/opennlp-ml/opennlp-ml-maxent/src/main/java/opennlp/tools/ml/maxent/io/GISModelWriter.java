@@ -120,6 +120,9 @@ public abstract class GISModelWriter extends AbstractMLModelWriter {
     // the value of the correction params (not used anymore)
     writeDouble(1);
 
+    // the precision of the parameters, if they are not doubles
+    writeParameterPrecision();
+
     // the mapping from outcomes to their integer indexes
     writeInt(OUTCOME_LABELS.length);
 
@@ -147,11 +150,7 @@ public abstract class GISModelWriter extends AbstractMLModelWriter {
     }
 
     // write out the parameters
-    for (ComparablePredicate aSorted : sorted) {
-      for (int j = 0; j < aSorted.params.length; j++) {
-        writeDouble(aSorted.params[j]);
-      }
-    }
+    writeParameters(sorted, OUTCOME_LABELS.length);
 
     close();
   }
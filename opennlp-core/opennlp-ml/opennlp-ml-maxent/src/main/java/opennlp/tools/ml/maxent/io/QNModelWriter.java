@@ -53,6 +53,9 @@ public abstract class QNModelWriter extends GISModelWriter {
     // the type of model (QN)
     writeUTF("QN");
 
+    // the precision of the parameters, if they are not doubles
+    writeParameterPrecision();
+
     // the mapping from outcomes to their integer indexes
     writeInt(OUTCOME_LABELS.length);
 
@@ -76,9 +79,7 @@ public abstract class QNModelWriter extends GISModelWriter {
     for (ComparablePredicate predicate : sorted) writeUTF(predicate.name);
 
     // write out the parameters
-    for (ComparablePredicate comparablePredicate : sorted)
-      for (int j = 0; j < comparablePredicate.params.length; j++)
-        writeDouble(comparablePredicate.params[j]);
+    writeParameters(sorted, OUTCOME_LABELS.length);
 
     close();
   }
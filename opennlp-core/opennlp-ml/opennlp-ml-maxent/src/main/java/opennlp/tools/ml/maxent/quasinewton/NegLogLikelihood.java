@@ -17,15 +17,22 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.IndexedEventCursor;
 import opennlp.tools.ml.model.OnePassRealValueDataIndexer;
+import opennlp.tools.ml.model.StreamableDataIndexer;
 import opennlp.tools.util.TrainingParameters;
 
 /**
  * Evaluates negative log-likelihood and its gradient from {@link DataIndexer}.
+ * <p>
+ * The events of a {@link StreamableDataIndexer} are streamed in each evaluation instead
+ * of being loaded into memory.
  *
  * @see Function
  */
@@ -42,6 +49,12 @@ public class NegLogLikelihood implements Function {
   protected final int[] outcomeList;
   protected final int[] numTimesEventsSeen;
 
+  /**
+   * The indexer which streams the events in each evaluation, or {@code null} if the
+   * events are held in memory.
+   */
+  protected final StreamableDataIndexer<TrainingParameters> eventSource;
+
   // For calculating negLogLikelihood and gradient
   protected final double[] tempSums;
   protected final double[] expectation;
@@ -54,19 +67,29 @@ public class NegLogLikelihood implements Function {
   public NegLogLikelihood(DataIndexer<TrainingParameters> indexer) {
 
     // Get data from indexer.
-    if (indexer instanceof OnePassRealValueDataIndexer) {
-      this.values = indexer.getValues();
+    if (indexer instanceof StreamableDataIndexer<TrainingParameters> streamable) {
+      this.eventSource = streamable;
+      this.values      = null;
+      this.contexts    = null;
+      this.outcomeList = null;
+      this.numTimesEventsSeen = null;
+      this.numContexts = streamable.getNumUniqueEvents();
     } else {
-      this.values = null;
-    }
+      this.eventSource = null;
+      if (indexer instanceof OnePassRealValueDataIndexer) {
+        this.values = indexer.getValues();
+      } else {
+        this.values = null;
+      }
 
-    this.contexts    = indexer.getContexts();
-    this.outcomeList = indexer.getOutcomeList();
-    this.numTimesEventsSeen = indexer.getNumTimesEventsSeen();
+      this.contexts    = indexer.getContexts();
+      this.outcomeList = indexer.getOutcomeList();
+      this.numTimesEventsSeen = indexer.getNumTimesEventsSeen();
+      this.numContexts = this.contexts.length;
+    }
 
     this.numOutcomes = indexer.getOutcomeLabels().length;
     this.numFeatures = indexer.getPredLabels().length;
-    this.numContexts = this.contexts.length;
     this.dimension   = numOutcomes * numFeatures;
 
     this.expectation = new double[numOutcomes];
@@ -103,29 +126,46 @@ public class NegLogLikelihood implements Function {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to domain dimension.");
 
-    int ci, oi, ai, vectorIndex, outcome;
-    double predValue, logSumOfExps;
     double negLogLikelihood = 0;
 
-    for (ci = 0; ci < numContexts; ci++) {
-      for (oi = 0; oi < numOutcomes; oi++) {
-        tempSums[oi] = 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
-          predValue = values != null ? values[ci][ai] : 1.0;
-          tempSums[oi] += predValue * x[vectorIndex];
+    if (eventSource != null) {
+      try (IndexedEventCursor cursor = eventSource.cursor()) {
+        while (cursor.next()) {
+          negLogLikelihood -= logLikelihood(x, cursor.getContext(), cursor.getValues(),
+              cursor.getOutcome()) * cursor.getNumTimesSeen();
         }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to stream the events", e);
       }
+      return negLogLikelihood;
+    }
 
-      logSumOfExps = ArrayMath.logSumOfExps(tempSums);
-
-      outcome = outcomeList[ci];
-      negLogLikelihood -= (tempSums[outcome] - logSumOfExps) * numTimesEventsSeen[ci];
+    for (int ci = 0; ci < numContexts; ci++) {
+      negLogLikelihood -= logLikelihood(x, contexts[ci], values != null ? values[ci] : null,
+          outcomeList[ci]) * numTimesEventsSeen[ci];
     }
 
     return negLogLikelihood;
   }
 
+  /**
+   * @return The log-likelihood of the {@code outcome} of an event.
+   */
+  private double logLikelihood(double[] x, int[] context, float[] eventValues, int outcome) {
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      tempSums[oi] = 0;
+      for (int ai = 0; ai < context.length; ai++) {
+        int vectorIndex = indexOf(oi, context[ai]);
+        double predValue = eventValues != null ? eventValues[ai] : 1.0;
+        tempSums[oi] += predValue * x[vectorIndex];
+      }
+    }
+
+    double logSumOfExps = ArrayMath.logSumOfExps(tempSums);
+
+    return tempSums[outcome] - logSumOfExps;
+  }
+
   /**
    * Computes the gradient.
    *
@@ -140,41 +180,56 @@ public class NegLogLikelihood implements Function {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to the function.");
 
-    int ci, oi, ai, vectorIndex;
-    double predValue, logSumOfExps;
-    int empirical;
-
     // Reset gradient
     Arrays.fill(gradient, 0);
 
-    for (ci = 0; ci < numContexts; ci++) {
-      for (oi = 0; oi < numOutcomes; oi++) {
-        expectation[oi] = 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
-          predValue = values != null ? values[ci][ai] : 1.0;
-          expectation[oi] += predValue * x[vectorIndex];
+    if (eventSource != null) {
+      try (IndexedEventCursor cursor = eventSource.cursor()) {
+        while (cursor.next()) {
+          addGradient(x, cursor.getContext(), cursor.getValues(), cursor.getOutcome(),
+              cursor.getNumTimesSeen());
         }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to stream the events", e);
       }
+      return gradient;
+    }
 
-      logSumOfExps = ArrayMath.logSumOfExps(expectation);
+    for (int ci = 0; ci < numContexts; ci++) {
+      addGradient(x, contexts[ci], values != null ? values[ci] : null, outcomeList[ci],
+          numTimesEventsSeen[ci]);
+    }
 
-      for (oi = 0; oi < numOutcomes; oi++) {
-        expectation[oi] = StrictMath.exp(expectation[oi] - logSumOfExps);
-      }
+    return gradient;
+  }
 
-      for (oi = 0; oi < numOutcomes; oi++) {
-        empirical = outcomeList[ci] == oi ? 1 : 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
-          predValue = values != null ? values[ci][ai] : 1.0;
-          gradient[vectorIndex] +=
-              predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
-        }
+  /**
+   * Adds the gradient of an event, which was seen {@code times} times.
+   */
+  private void addGradient(double[] x, int[] context, float[] eventValues, int outcome, int times) {
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      expectation[oi] = 0;
+      for (int ai = 0; ai < context.length; ai++) {
+        int vectorIndex = indexOf(oi, context[ai]);
+        double predValue = eventValues != null ? eventValues[ai] : 1.0;
+        expectation[oi] += predValue * x[vectorIndex];
       }
     }
 
-    return gradient;
+    double logSumOfExps = ArrayMath.logSumOfExps(expectation);
+
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      expectation[oi] = StrictMath.exp(expectation[oi] - logSumOfExps);
+    }
+
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      int empirical = outcome == oi ? 1 : 0;
+      for (int ai = 0; ai < context.length; ai++) {
+        int vectorIndex = indexOf(oi, context[ai]);
+        double predValue = eventValues != null ? eventValues[ai] : 1.0;
+        gradient[vectorIndex] += predValue * (expectation[oi] - empirical) * times;
+      }
+    }
   }
 
   protected int indexOf(int outcomeId, int featureId) {
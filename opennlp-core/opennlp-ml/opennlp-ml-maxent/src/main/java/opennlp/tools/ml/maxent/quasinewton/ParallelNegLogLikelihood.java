@@ -17,43 +17,70 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Shards;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.util.TrainingParameters;
 
 /**
  * Evaluates {@link NegLogLikelihood negative log-likelihood} and
  * its gradient in parallel.
+ * <p>
+ * The contexts are split into one partition per thread, sized by the number of features of
+ * the contexts rather than by the number of contexts, so each thread has about the same work.
+ * Each thread accumulates into its own partial value and gradient, and the partial gradients
+ * are summed in parallel over disjoint ranges of the gradient. The partitions do not depend on
+ * scheduling, so the results are reproducible.
+ * <p>
+ * The value and the gradient are computed in a single pass over the data. The gradient of the
+ * last point passed to {@link #valueAt(double[])} is kept, so a following
+ * {@link #gradientAt(double[])} for the same point, as issued by the line search of the
+ * {@link QNMinimizer}, does not pass over the data again. Like the serial
+ * {@link NegLogLikelihood}, every call of {@link #gradientAt(double[])} fills the returned
+ * array anew, so callers may modify it in place, as the {@link QNMinimizer.L2RegFunction} does.
+ * <p>
+ * The threads belong to a pool which lives as long as this instance, or until
+ * {@link #close()} is called. Idle threads of the pool terminate after a while.
  *
  * @see Function
  */
-public class ParallelNegLogLikelihood extends NegLogLikelihood {
+public class ParallelNegLogLikelihood extends NegLogLikelihood implements AutoCloseable {
 
-  private static final Logger logger = LoggerFactory.getLogger(ParallelNegLogLikelihood.class);
+  private static final AtomicInteger POOL_COUNT = new AtomicInteger();
 
   // Number of threads
   private final int threads;
 
+  private final ForkJoinPool pool;
+
+  // The first context of each partition, followed by numContexts
+  private final int[] partitionStart;
+
   // Partial value of negative log-likelihood to be computed by each thread
   private final double[] negLogLikelihoodThread;
 
   // Partial gradient
   private final double[][] gradientThread;
 
+  // The point of the last evaluation, its value and gradient
+  private final double[] lastPoint;
+  private double lastValue;
+  private final double[] lastGradient;
+  private boolean evaluated;
+
   /**
-   * @param indexer The {@link DataIndexer} to use as input provider.
+   * @param indexer The {@link DataIndexer} to use as input provider. Its events must be
+   *                held in memory, streamed events are evaluated by {@link NegLogLikelihood}.
    * @param threads The number of thread to compute with in parallel.
    *                Must be greater than {@code 0}.
    * @throws IllegalArgumentException Thrown if parameters were invalid.
@@ -65,9 +92,33 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
       throw new IllegalArgumentException(
           "Number of threads must 1 or larger");
 
+    if (eventSource != null)
+      throw new IllegalArgumentException(
+          "Streamed events are evaluated in a single thread");
+
     this.threads                = threads;
     this.negLogLikelihoodThread = new double[threads];
     this.gradientThread         = new double[threads][dimension];
+    this.lastPoint              = new double[dimension];
+    this.lastGradient           = new double[dimension];
+    this.partitionStart         = partition(contexts, threads);
+
+    final int poolId = POOL_COUNT.incrementAndGet();
+    this.pool = new ForkJoinPool(threads, p -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      thread.setName("opennlp-qn-" + poolId + "-worker-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+
+  /**
+   * Splits the contexts into {@code partitions} ranges of about equal work. The work of
+   * a context is proportional to its number of features.
+   *
+   * @return The first context of each range, followed by the number of contexts.
+   */
+  static int[] partition(int[][] contexts, int partitions) {
+    return Shards.partition(contexts.length, ci -> contexts[ci].length + 1, partitions);
   }
 
   /**
@@ -84,15 +135,8 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to domain dimension.");
 
-    // Compute partial value of negative log-likelihood in each thread
-    computeInParallel(x, NegLLComputeTask.class);
-
-    double negLogLikelihood = 0;
-    for (int t = 0; t < threads; t++) {
-      negLogLikelihood += negLogLikelihoodThread[t];
-    }
-
-    return negLogLikelihood;
+    evaluate(x);
+    return lastValue;
   }
 
   /**
@@ -109,145 +153,103 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to the function.");
 
-    // Compute partial gradient in each thread
-    computeInParallel(x, GradientComputeTask.class);
-
-    // Accumulate gradient
-    for (int i = 0; i < dimension; i++) {
-      gradient[i] = 0;
-      for (int t = 0; t < threads; t++) {
-        gradient[i] += gradientThread[t][i];
-      }
-    }
-
+    evaluate(x);
+    // the cached gradient is copied, since callers may modify the returned array
+    System.arraycopy(lastGradient, 0, gradient, 0, dimension);
     return gradient;
   }
 
   /**
-   * Computes the specified tasks in parallel.
+   * Shuts down the threads of this instance. It must not be used afterwards.
    */
-  private void computeInParallel(double[] x, Class<? extends ComputeTask> taskClass) {
-
-    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
-      Thread thread = new Thread(runnable);
-      thread.setName(
-          "opennlp.tools.ml.maxent.quasinewton.ParallelNegLogLikelihood.computeInParallel()");
-      thread.setDaemon(true);
-      return thread;
-    });
-
-    int taskSize = numContexts / threads;
-    int leftOver = numContexts % threads;
-
-    try {
-      Constructor<? extends ComputeTask> cons = taskClass.getConstructor(
-          ParallelNegLogLikelihood.class,
-          int.class, int.class, int.class, double[].class);
-
-      List<Future<?>> futures = new ArrayList<>();
-      for (int i = 0; i < threads; i++) {
-        if (i != threads - 1)
-          futures.add(executor.submit(
-              cons.newInstance(this, i, i * taskSize, taskSize, x)));
-        else
-          futures.add(executor.submit(
-              cons.newInstance(this, i, i * taskSize, taskSize + leftOver, x)));
-      }
-
-      for (Future<?> future: futures)
-        future.get();
-
-    } catch (Exception e) {
-      logger.error(e.getLocalizedMessage(), e);
-    }
-
-    executor.shutdown();
+  @Override
+  public void close() {
+    pool.shutdown();
   }
 
   /**
-   * A {@link ComputeTask} that is computed in parallel.
+   * Computes value and gradient at {@code x}, unless they were computed for it already.
    */
-  static abstract class ComputeTask implements Callable<ComputeTask> {
-
-    final int threadIndex;
-
-    // Start index of contexts to compute
-    final int startIndex;
-
-    // Number of contexts to compute
-    final int length;
-
-    final double[] x;
-
-    public ComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      this.threadIndex = threadIndex;
-      this.startIndex  = startIndex;
-      this.length      = length;
-      this.x           = x;
+  private void evaluate(double[] x) {
+    if (evaluated && Arrays.equals(x, lastPoint)) {
+      return;
     }
-  }
+    evaluated = false;
 
-  /**
-   * A {@link ComputeTask} for computing partial value of negative log-likelihood.
-   */
-  class NegLLComputeTask extends ComputeTask {
-
-    final double[] tempSums;
-
-    public NegLLComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      super(threadIndex, startIndex, length, x);
-      this.tempSums = new double[numOutcomes];
+    final List<Callable<Void>> tasks = new ArrayList<>(threads);
+    for (int t = 0; t < threads; t++) {
+      tasks.add(new ComputeTask(t, x));
     }
+    invokeAll(tasks);
 
-    @Override
-    public NegLLComputeTask call() {
-      int ci, oi, ai, vectorIndex, outcome;
-      double predValue, logSumOfExps;
-      negLogLikelihoodThread[threadIndex] = 0;
+    double negLogLikelihood = 0;
+    for (int t = 0; t < threads; t++) {
+      negLogLikelihood += negLogLikelihoodThread[t];
+    }
 
-      for (ci = startIndex; ci < startIndex + length; ci++) {
-        for (oi = 0; oi < numOutcomes; oi++) {
-          tempSums[oi] = 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            tempSums[oi] += predValue * x[vectorIndex];
+    // Accumulate gradient, each task sums a range of the partial gradients
+    tasks.clear();
+    final int rangeSize = (dimension + threads - 1) / threads;
+    for (int start = 0; start < dimension; start += rangeSize) {
+      final int from = start;
+      final int to = Math.min(dimension, start + rangeSize);
+      tasks.add(() -> {
+        for (int i = from; i < to; i++) {
+          double sum = 0;
+          for (int t = 0; t < threads; t++) {
+            sum += gradientThread[t][i];
           }
+          lastGradient[i] = sum;
         }
+        return null;
+      });
+    }
+    invokeAll(tasks);
 
-        logSumOfExps = ArrayMath.logSumOfExps(tempSums);
+    System.arraycopy(x, 0, lastPoint, 0, dimension);
+    lastValue = negLogLikelihood;
+    evaluated = true;
+  }
 
-        outcome = outcomeList[ci];
-        negLogLikelihoodThread[threadIndex] -=
-            (tempSums[outcome] - logSumOfExps) * numTimesEventsSeen[ci];
+  private void invokeAll(List<Callable<Void>> tasks) {
+    try {
+      for (Future<Void> future : pool.invokeAll(tasks)) {
+        future.get();
       }
-
-      return this;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while computing the negative log-likelihood", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to compute the negative log-likelihood", e.getCause());
     }
   }
 
   /**
-   * A {@link ComputeTask} for computing partial gradient.
+   * Computes the partial value and gradient over the partition of one thread.
    */
-  class GradientComputeTask extends ComputeTask {
+  private class ComputeTask implements Callable<Void> {
 
-    final double[] expectation;
+    private final int threadIndex;
+    private final double[] x;
+    private final double[] expectation;
 
-    public GradientComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      super(threadIndex, startIndex, length, x);
+    ComputeTask(int threadIndex, double[] x) {
+      this.threadIndex = threadIndex;
+      this.x           = x;
       this.expectation = new double[numOutcomes];
     }
 
     @Override
-    public GradientComputeTask call() {
-      int ci, oi, ai, vectorIndex;
+    public Void call() {
+      int ci, oi, ai, vectorIndex, outcome;
       double predValue, logSumOfExps;
       int empirical;
+      double negLogLikelihood = 0;
+      final double[] partialGradient = gradientThread[threadIndex];
 
-      // Reset gradientThread
-      Arrays.fill(gradientThread[threadIndex], 0);
+      Arrays.fill(partialGradient, 0);
 
-      for (ci = startIndex; ci < startIndex + length; ci++) {
+      for (ci = partitionStart[threadIndex]; ci < partitionStart[threadIndex + 1]; ci++) {
         for (oi = 0; oi < numOutcomes; oi++) {
           expectation[oi] = 0;
           for (ai = 0; ai < contexts[ci].length; ai++) {
@@ -259,22 +261,26 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
 
         logSumOfExps = ArrayMath.logSumOfExps(expectation);
 
+        outcome = outcomeList[ci];
+        negLogLikelihood -= (expectation[outcome] - logSumOfExps) * numTimesEventsSeen[ci];
+
         for (oi = 0; oi < numOutcomes; oi++) {
           expectation[oi] = StrictMath.exp(expectation[oi] - logSumOfExps);
         }
 
         for (oi = 0; oi < numOutcomes; oi++) {
-          empirical = outcomeList[ci] == oi ? 1 : 0;
+          empirical = outcome == oi ? 1 : 0;
           for (ai = 0; ai < contexts[ci].length; ai++) {
             vectorIndex = indexOf(oi, contexts[ci][ai]);
             predValue = values != null ? values[ci][ai] : 1.0;
-            gradientThread[threadIndex][vectorIndex] +=
+            partialGradient[vectorIndex] +=
                 predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
           }
         }
       }
 
-      return this;
+      negLogLikelihoodThread[threadIndex] = negLogLikelihood;
+      return null;
     }
   }
 }
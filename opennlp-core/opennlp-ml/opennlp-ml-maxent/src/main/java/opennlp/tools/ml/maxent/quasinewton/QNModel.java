@@ -17,11 +17,15 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
+import java.util.Arrays;
+
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.AdditiveModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A {@link MaxentModel maximum entropy model} which has been trained via the
@@ -32,7 +36,7 @@ import opennlp.tools.ml.model.MaxentModel;
  * @see MaxentModel
  * @see QNTrainer
  */
-public class QNModel extends AbstractModel {
+public class QNModel extends AbstractModel implements AdditiveModel {
 
   /**
    * Initializes a {@link QNModel} with the specified parameters,
@@ -56,7 +60,7 @@ public class QNModel extends AbstractModel {
   }
 
   private Context getPredIndex(String predicate) {
-    return pmap.get(predicate);
+    return getContext(predicate);
   }
 
   /**
@@ -83,6 +87,40 @@ public class QNModel extends AbstractModel {
     return eval(context, values, new double[evalParams.getNumOutcomes()]);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalFeatures(FeatureSink features, double[] probs) {
+    Arrays.fill(probs, 0);
+    getIndexedParameters().sumFeatures(features, probs);
+    return normalize(probs);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasAdditiveScores() {
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addScores(FeatureSink features, double[] scores) {
+    getIndexedParameters().sumFeatures(features, scores);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] normalizeScores(double[] scores) {
+    return normalize(scores);
+  }
+
   /**
    * Evaluates which should be used during inference.
    * 
@@ -95,6 +133,23 @@ public class QNModel extends AbstractModel {
    */
   private double[] eval(String[] context, float[] values, double[] probs) {
 
+    if (indexedParams != null) {
+      indexedParams.sumFeatures(context, values, probs);
+    } else {
+      sumFeatures(context, values, probs);
+    }
+    return normalize(probs);
+  }
+
+  private double[] normalize(double[] probs) {
+    double logSumExp = ArrayMath.logSumOfExps(probs);
+    for (int oi = 0; oi < outcomeNames.length; oi++) {
+      probs[oi] = StrictMath.exp(probs[oi] - logSumExp);
+    }
+    return probs;
+  }
+
+  private void sumFeatures(String[] context, float[] values, double[] probs) {
     for (int ci = 0; ci < context.length; ci++) {
       Context pred = getPredIndex(context[ci]);
 
@@ -102,20 +157,9 @@ public class QNModel extends AbstractModel {
         double predValue = 1.0;
         if (values != null) predValue = values[ci];
 
-        double[] parameters = pred.getParameters();
-        int[] outcomes = pred.getOutcomes();
-        for (int i = 0; i < outcomes.length; i++) {
-          int oi = outcomes[i];
-          probs[oi] += predValue * parameters[i];
-        }
+        pred.addParameters(probs, predValue);
       }
     }
-
-    double logSumExp = ArrayMath.logSumOfExps(probs);
-    for (int oi = 0; oi < outcomeNames.length; oi++) {
-      probs[oi] = StrictMath.exp(probs[oi] - logSumExp);
-    }
-    return probs;
   }
 
   /**
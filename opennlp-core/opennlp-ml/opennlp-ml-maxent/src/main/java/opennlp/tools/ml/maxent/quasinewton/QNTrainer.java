@@ -18,6 +18,7 @@
 package opennlp.tools.ml.maxent.quasinewton;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -32,11 +33,16 @@ import opennlp.tools.ml.maxent.quasinewton.QNMinimizer.Evaluator;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.IndexedEventCursor;
+import opennlp.tools.ml.model.StreamableDataIndexer;
 import opennlp.tools.util.TrainingParameters;
 
 /**
  * A Maxent model {@link Trainer trainer} using the
  * <a href="https://users.umiacs.umd.edu/~hal/docs/daume04cg-bfgs">L-BFGS</a> algorithm.
+ * <p>
+ * If the events are indexed by a {@link StreamableDataIndexer}, they are streamed in each
+ * evaluation instead of being loaded into memory. Streamed events are trained in a single thread.
  *
  * @see AbstractEventTrainer
  * @see QNMinimizer
@@ -198,6 +204,11 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
    */
   public QNModel trainModel(int iterations, DataIndexer<TrainingParameters> indexer) {
 
+    if (threads > 1 && indexer instanceof StreamableDataIndexer) {
+      throw new IllegalArgumentException("Streamed events are trained in a single thread, but threads is "
+          + threads);
+    }
+
     // Train model's parameters
     Function objectiveFunction;
     if (threads == 1) {
@@ -212,7 +223,14 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
         l1Cost, l2Cost, iterations, m, maxFctEval);
     minimizer.setEvaluator(new ModelEvaluator(indexer));
 
-    double[] parameters = minimizer.minimize(objectiveFunction);
+    double[] parameters;
+    try {
+      parameters = minimizer.minimize(objectiveFunction);
+    } finally {
+      if (objectiveFunction instanceof ParallelNegLogLikelihood parallelFunction) {
+        parallelFunction.close();
+      }
+    }
 
     // Construct model with trained parameters
     String[] predLabels = indexer.getPredLabels();
@@ -251,24 +269,30 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
      */
     @Override
     public double evaluate(double[] parameters) {
+      int nCorrect = 0;
+      int nTotalEvents = 0;
+
+      if (indexer instanceof StreamableDataIndexer<TrainingParameters> streamable) {
+        try (IndexedEventCursor cursor = streamable.cursor()) {
+          while (cursor.next()) {
+            if (isCorrect(parameters, cursor.getContext(), cursor.getValues(), cursor.getOutcome())) {
+              nCorrect += cursor.getNumTimesSeen();
+            }
+            nTotalEvents += cursor.getNumTimesSeen();
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to stream the events", e);
+        }
+        return (double) nCorrect / nTotalEvents;
+      }
+
       int[][] contexts = indexer.getContexts();
       float[][] values = indexer.getValues();
       int[] nEventsSeen = indexer.getNumTimesEventsSeen();
       int[] outcomeList = indexer.getOutcomeList();
-      int nOutcomes = indexer.getOutcomeLabels().length;
-      int nPredLabels = indexer.getPredLabels().length;
-
-      int nCorrect = 0;
-      int nTotalEvents = 0;
 
       for (int ei = 0; ei < contexts.length; ei++) {
-        int[] context = contexts[ei];
-        float[] value = values == null ? null : values[ei];
-
-        double[] probs = new double[nOutcomes];
-        QNModel.eval(context, value, probs, nOutcomes, nPredLabels, parameters);
-        int outcome = ArrayMath.argmax(probs);
-        if (outcome == outcomeList[ei]) {
+        if (isCorrect(parameters, contexts[ei], values == null ? null : values[ei], outcomeList[ei])) {
           nCorrect += nEventsSeen[ei];
         }
         nTotalEvents += nEventsSeen[ei];
@@ -276,5 +300,14 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
 
       return (double) nCorrect / nTotalEvents;
     }
+
+    private boolean isCorrect(double[] parameters, int[] context, float[] value, int outcome) {
+      int nOutcomes = indexer.getOutcomeLabels().length;
+      int nPredLabels = indexer.getPredLabels().length;
+
+      double[] probs = new double[nOutcomes];
+      QNModel.eval(context, value, probs, nOutcomes, nPredLabels, parameters);
+      return ArrayMath.argmax(probs) == outcome;
+    }
   }
 }
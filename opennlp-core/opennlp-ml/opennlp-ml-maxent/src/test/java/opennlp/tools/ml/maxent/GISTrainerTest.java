@@ -19,15 +19,20 @@ package opennlp.tools.ml.maxent;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingConfiguration;
 import opennlp.tools.util.TrainingParameters;
 
 public class GISTrainerTest {
@@ -76,4 +81,30 @@ public class GISTrainerTest {
     eventStream.close();
   }
 
+  @Test
+  void testSharedExecutor() throws Exception {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ALGORITHM_PARAM, "MAXENT");
+    params.put(AbstractEventTrainer.DATA_INDEXER_PARAM, AbstractEventTrainer.DATA_INDEXER_ONE_PASS_VALUE);
+    params.put(Parameters.CUTOFF_PARAM, 0);
+    params.put(Parameters.ITERATIONS_PARAM, 10);
+    params.put(Parameters.THREADS_PARAM, 3);
+
+    EventTrainer<TrainingParameters> trainer = new GISTrainer();
+    trainer.init(params, new HashMap<>());
+    AbstractModel expected = (AbstractModel) trainer.train(new FootballEventStream());
+
+    ExecutorService executor = new ForkJoinPool(2);
+    try {
+      for (int i = 0; i < 2; i++) {
+        trainer = new GISTrainer();
+        trainer.init(params, new HashMap<>(), new TrainingConfiguration(null, null, executor));
+        Assertions.assertEquals(expected, trainer.train(new FootballEventStream()));
+      }
+      // the executor is owned by the caller and still usable after training
+      Assertions.assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
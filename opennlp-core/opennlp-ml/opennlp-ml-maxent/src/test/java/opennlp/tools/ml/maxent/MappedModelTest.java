@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.model.AbstractDataIndexer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.MappedModel;
+import opennlp.tools.ml.model.MappedModelWriter;
+import opennlp.tools.ml.model.TwoPassDataIndexer;
+import opennlp.tools.ml.model.UniformPrior;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.featuregen.FeatureSink;
+
+public class MappedModelTest {
+
+  @TempDir
+  Path tempDir;
+
+  private DataIndexer<TrainingParameters> testDataIndexer;
+
+  @BeforeEach
+  void initIndexer() throws IOException {
+    TrainingParameters trainingParameters = new TrainingParameters();
+    trainingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    trainingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    testDataIndexer = new TwoPassDataIndexer();
+    testDataIndexer.init(trainingParameters, new HashMap<>());
+    testDataIndexer.index(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  @Test
+  void testGISModel() throws IOException {
+    AbstractModel model = new GISTrainer().trainModel(100,
+        testDataIndexer, new UniformPrior(), 1);
+
+    Path file = tempDir.resolve("gis.mmap");
+    MappedModelWriter writer = new MappedModelWriter(model);
+    writer.write(file);
+    Assertions.assertEquals(Files.size(file), writer.getSize());
+    MappedModel mapped = MappedModel.open(file);
+
+    Assertions.assertEquals(model.getNumOutcomes(), mapped.getNumOutcomes());
+    for (int i = 0; i < model.getNumOutcomes(); i++) {
+      Assertions.assertEquals(model.getOutcome(i), mapped.getOutcome(i));
+      Assertions.assertEquals(i, mapped.getIndex(model.getOutcome(i)));
+    }
+    PrepAttachDataUtil.assertSameProbabilities(model, mapped);
+    PrepAttachDataUtil.testModel(mapped, 0.7997028967566229);
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(mapped);
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(model);
+  }
+
+  @Test
+  void testQNModel() throws IOException {
+    AbstractModel model = new QNTrainer().trainModel(100, testDataIndexer);
+
+    Path file = tempDir.resolve("qn.mmap");
+    new MappedModelWriter(model).write(file);
+    MappedModel mapped = MappedModel.open(file);
+
+    PrepAttachDataUtil.assertSameProbabilities(model, mapped);
+    PrepAttachDataUtil.testModel(mapped, 0.8155484030700668);
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(mapped);
+  }
+
+  @Test
+  void testConvertBinaryModel() throws IOException {
+    AbstractModel model = new GISTrainer().trainModel(100,
+        testDataIndexer, new UniformPrior(), 1);
+
+    File binary = tempDir.resolve("gis.bin").toFile();
+    new GenericModelWriter(model, binary).persist();
+    Path file = tempDir.resolve("gis.mmap");
+    MappedModelWriter.convert(binary, file);
+
+    MappedModel mapped = MappedModel.open(file);
+    PrepAttachDataUtil.assertSameProbabilities(new GenericModelReader(binary).getModel(), mapped);
+    PrepAttachDataUtil.assertSameProbabilities(model, mapped);
+  }
+
+  @Test
+  void testHashedModel() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put(AbstractEventTrainer.FEATURE_HASH_BUCKETS_PARAM, 1 << 12);
+    GISTrainer trainer = new GISTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel model = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    File binary = tempDir.resolve("hashed.bin").toFile();
+    new GenericModelWriter(model, binary).persist();
+    AbstractModel read = new GenericModelReader(binary).getModel();
+    Assertions.assertEquals(1 << 12, read.getFeatureHasher().getNumBuckets());
+    PrepAttachDataUtil.assertSameProbabilities(model, read);
+
+    Path file = tempDir.resolve("hashed.mmap");
+    MappedModelWriter.convert(binary, file);
+    PrepAttachDataUtil.assertSameProbabilities(model, MappedModel.open(file));
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(MappedModel.open(file));
+  }
+
+  @Test
+  void testNonAsciiPredicates() throws IOException {
+    String[] predicates = {"w=Straße", "w=日本", "w=😀", "w=a", "Aa", "BB"};
+    Context[] params = new Context[predicates.length];
+    for (int i = 0; i < params.length; i++) {
+      params[i] = new Context(new int[] {i % 2}, new double[] {i + 1});
+    }
+    GISModel model = new GISModel(params, predicates, new String[] {"x", "y"});
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MappedModelWriter writer = new MappedModelWriter(model);
+    writer.write(out);
+    // the odd name lengths are padded
+    Assertions.assertEquals(out.size(), writer.getSize());
+    MappedModel mapped = new MappedModel(ByteBuffer.wrap(out.toByteArray()));
+
+    Assertions.assertEquals(predicates.length, mapped.getNumPredicates());
+    for (String predicate : predicates) {
+      String[] context = {new String(predicate)};
+      Assertions.assertArrayEquals(model.eval(context), mapped.eval(context));
+      Assertions.assertNotEquals(0.5, mapped.eval(context)[0]);
+
+      FeatureSink features = new FeatureSink();
+      features.add("x").add(predicate);
+      Assertions.assertArrayEquals(model.eval(context), mapped.evalFeatures(features, new double[2]));
+    }
+    for (String unknown : new String[] {"w=Strasse", "w=日", "w=\uD83D", "w=", "AaBB", ""}) {
+      Assertions.assertArrayEquals(new double[] {0.5, 0.5}, mapped.eval(new String[] {unknown}));
+    }
+  }
+
+  @Test
+  void testUnpairedSurrogate() {
+    GISModel model = new GISModel(new Context[] {new Context(new int[] {0}, new double[] {1})},
+        new String[] {"w=\uD83D"}, new String[] {"x"});
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new MappedModelWriter(model).write(new ByteArrayOutputStream()));
+  }
+
+  @Test
+  void testCorruptModel() throws IOException {
+    AbstractModel model = new QNTrainer().trainModel(10, testDataIndexer);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MappedModelWriter(model).write(out);
+    byte[] bytes = out.toByteArray();
+
+    byte[] truncated = new byte[bytes.length - 8];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> new MappedModel(ByteBuffer.wrap(truncated)));
+
+    Path binary = tempDir.resolve("model.bin");
+    Files.write(binary, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    Assertions.assertThrows(InvalidFormatException.class, () -> MappedModel.open(binary));
+  }
+}
@@ -19,7 +19,9 @@ package opennlp.tools.ml.maxent;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -28,8 +30,11 @@ import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.FeatureHasher;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.OnDiskDataIndexer;
 import opennlp.tools.ml.model.TwoPassDataIndexer;
 import opennlp.tools.ml.model.UniformPrior;
 import opennlp.tools.util.Parameters;
@@ -68,6 +73,27 @@ public class MaxentPrepAttachTest {
     PrepAttachDataUtil.testModel(model, 0.7997028967566229);
   }
 
+  @Test
+  void testMaxentOnPrepAttachDataOnDisk() throws IOException {
+    testDataIndexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel expected = new GISTrainer().trainModel(100, testDataIndexer, new UniformPrior(), 1);
+
+    TrainingParameters trainingParameters = new TrainingParameters();
+    trainingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    try (OnDiskDataIndexer indexer = new OnDiskDataIndexer()) {
+      indexer.init(trainingParameters, new HashMap<>());
+      indexer.index(PrepAttachDataUtil.createTrainingStream());
+
+      // the streamed events are in the same order as the unsorted events in memory
+      AbstractModel model = new GISTrainer().trainModel(100, indexer, new UniformPrior(), 1);
+      Assertions.assertEquals(expected, model);
+      PrepAttachDataUtil.testModel(model, 0.7997028967566229);
+
+      Assertions.assertThrows(IllegalArgumentException.class,
+          () -> new GISTrainer().trainModel(100, indexer, new UniformPrior(), 2));
+    }
+  }
+
   @Test
   void testMaxentOnPrepAttachDataWithParams() throws IOException {
 
@@ -109,4 +135,60 @@ public class MaxentPrepAttachTest {
 
     PrepAttachDataUtil.testModel(model, 0.8103490963109681);
   }
+
+  @Test
+  void testMaxentOnPrepAttachDataWithIndexedParameters() throws IOException {
+    testDataIndexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel model = new GISTrainer().trainModel(100,
+        testDataIndexer, new UniformPrior(), 1);
+
+    Object[] data = model.getDataStructures();
+    @SuppressWarnings("unchecked")
+    Map<String, Context> pmap = (Map<String, Context>) data[1];
+    System.setProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY, "true");
+    try {
+      AbstractModel indexed = new GISModel(pmap.values().toArray(new Context[0]),
+          pmap.keySet().toArray(new String[0]), (String[]) data[2]);
+      PrepAttachDataUtil.assertSameProbabilities(model, indexed);
+      PrepAttachDataUtil.assertSameFeatureSinkProbabilities(indexed);
+    } finally {
+      System.clearProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY);
+    }
+  }
+
+  @Test
+  void testMaxentOnPrepAttachDataWithFeatureHashing() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, Parameters.ALGORITHM_DEFAULT_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put(AbstractEventTrainer.FEATURE_HASH_BUCKETS_PARAM, 1 << 12);
+
+    EventTrainer<TrainingParameters> trainer = new GISTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel model = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    Assertions.assertEquals(1 << 12, model.getFeatureHasher().getNumBuckets());
+    Object[] data = model.getDataStructures();
+    @SuppressWarnings("unchecked")
+    Map<String, Context> pmap = (Map<String, Context>) data[1];
+    Assertions.assertTrue(pmap.size() <= 1 << 12);
+    for (String predicate : pmap.keySet()) {
+      Assertions.assertTrue(predicate.startsWith(FeatureHasher.LABEL_PREFIX), predicate);
+    }
+    // the cost of the collisions, without hashing the accuracy is 0.7997028967566229
+    PrepAttachDataUtil.testModel(model, 0.7699925724189156);
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(model);
+  }
+
+  @Test
+  void testInvalidFeatureHashBuckets() {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, Parameters.ALGORITHM_DEFAULT_VALUE);
+    trainParams.put(AbstractEventTrainer.FEATURE_HASH_BUCKETS_PARAM, -1);
+
+    EventTrainer<TrainingParameters> trainer = new GISTrainer();
+    trainer.init(trainParams, null);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> trainer.train(PrepAttachDataUtil.createTrainingStream()));
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.maxent.GISTrainer;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.model.AbstractDataIndexer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompactContext;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.ParameterPrecision;
+import opennlp.tools.ml.model.TwoPassDataIndexer;
+import opennlp.tools.ml.model.UniformPrior;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+public class ParameterPrecisionTest {
+
+  @TempDir
+  Path tempDir;
+
+  private DataIndexer<TrainingParameters> testDataIndexer;
+
+  @BeforeEach
+  void initIndexer() throws IOException {
+    TrainingParameters trainingParameters = new TrainingParameters();
+    trainingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    trainingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    testDataIndexer = new TwoPassDataIndexer();
+    testDataIndexer.init(trainingParameters, new HashMap<>());
+    testDataIndexer.index(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  private File write(AbstractModel model, ParameterPrecision precision, String name)
+      throws IOException {
+    File file = tempDir.resolve(name).toFile();
+    GenericModelWriter writer = new GenericModelWriter(model, file);
+    writer.setParameterPrecision(precision);
+    writer.persist();
+    return file;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Context> getPmap(AbstractModel model) {
+    return (Map<String, Context>) model.getDataStructures()[1];
+  }
+
+  // The accuracy of the double model is 0.7997028967566229
+  @ParameterizedTest
+  @CsvSource({"FLOAT, 0.7997028967566229", "INT16, 0.7997028967566229", "INT8, 0.7999504827927705"})
+  void testGISModel(ParameterPrecision precision, double expectedAccuracy) throws IOException {
+    AbstractModel model = new GISTrainer().trainModel(100,
+        testDataIndexer, new UniformPrior(), 1);
+
+    File doubles = write(model, ParameterPrecision.DOUBLE, "gis.bin");
+    File compact = write(model, precision, "gis-" + precision + ".bin");
+    Assertions.assertTrue(compact.length() < doubles.length());
+
+    AbstractModel read = new GenericModelReader(compact).getModel();
+    for (Context context : getPmap(read).values()) {
+      Assertions.assertEquals(precision, ((CompactContext) context).getPrecision());
+    }
+    PrepAttachDataUtil.testModel(read, expectedAccuracy);
+
+    // the writer quantizes the same way as the in-memory conversion
+    Map<String, Context> pmap = getPmap(model);
+    AbstractModel converted = new GISModel(CompactContext.compact(
+        pmap.values().toArray(new Context[0]), model.getNumOutcomes(), precision),
+        pmap.keySet().toArray(new String[0]), (String[]) model.getDataStructures()[2]);
+    PrepAttachDataUtil.assertSameProbabilities(converted, read);
+
+    // a compact model can be written as doubles without a loss
+    AbstractModel doublesRead = new GenericModelReader(
+        write(read, ParameterPrecision.DOUBLE, "gis-double.bin")).getModel();
+    PrepAttachDataUtil.assertSameProbabilities(read, doublesRead);
+  }
+
+  @Test
+  void testQNModel() throws IOException {
+    AbstractModel model = new QNTrainer().trainModel(100, testDataIndexer);
+
+    AbstractModel read = new GenericModelReader(
+        write(model, ParameterPrecision.INT16, "qn.bin")).getModel();
+    Assertions.assertInstanceOf(QNModel.class, read);
+    // the same accuracy as the double model
+    PrepAttachDataUtil.testModel(read, 0.8155484030700668);
+  }
+
+  @Test
+  void testDefaultPrecisionProperty() throws IOException {
+    AbstractModel model = new GISTrainer().trainModel(10,
+        testDataIndexer, new UniformPrior(), 1);
+
+    System.setProperty(ParameterPrecision.PRECISION_PROPERTY, "int8");
+    try {
+      File file = tempDir.resolve("gis.bin").toFile();
+      new GenericModelWriter(model, file).persist();
+      AbstractModel read = new GenericModelReader(file).getModel();
+      Assertions.assertInstanceOf(CompactContext.class, getPmap(read).values().iterator().next());
+    } finally {
+      System.clearProperty(ParameterPrecision.PRECISION_PROPERTY);
+    }
+  }
+}
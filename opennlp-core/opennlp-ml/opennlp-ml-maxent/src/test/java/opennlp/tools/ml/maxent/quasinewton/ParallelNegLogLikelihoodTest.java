@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent.quasinewton;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.TwoPassDataIndexer;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+public class ParallelNegLogLikelihoodTest {
+
+  private static final double TOLERANCE = 1.0E-8;
+
+  private DataIndexer<TrainingParameters> testDataIndexer;
+
+  @BeforeEach
+  void initIndexer() throws IOException {
+    TrainingParameters trainingParameters = new TrainingParameters();
+    trainingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    testDataIndexer = new TwoPassDataIndexer();
+    testDataIndexer.init(trainingParameters, new HashMap<>());
+    testDataIndexer.index(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  @Test
+  void testSameValueAndGradientAsSerial() {
+    NegLogLikelihood serial = new NegLogLikelihood(testDataIndexer);
+    double[] x = new double[serial.getDimension()];
+    Random random = new Random(42);
+    for (int i = 0; i < x.length; i++) {
+      x[i] = random.nextGaussian() * 0.1;
+    }
+    double expectedValue = serial.valueAt(x);
+    double[] expectedGradient = serial.gradientAt(x).clone();
+
+    try (ParallelNegLogLikelihood parallel = new ParallelNegLogLikelihood(testDataIndexer, 3)) {
+      double value = parallel.valueAt(x);
+      double[] gradient = parallel.gradientAt(x);
+      Assertions.assertEquals(expectedValue, value, Math.abs(expectedValue) * TOLERANCE);
+      for (int i = 0; i < gradient.length; i++) {
+        Assertions.assertEquals(expectedGradient[i], gradient[i], TOLERANCE);
+      }
+
+      // a different point is evaluated again, the same point gives the same result
+      x[0] += 1;
+      Assertions.assertNotEquals(value, parallel.valueAt(x));
+      x[0] -= 1;
+      Assertions.assertEquals(value, parallel.valueAt(x));
+    }
+  }
+
+  /**
+   * Tests that the gradient of the same point does not change if a caller modifies the
+   * returned array, as the {@link QNMinimizer.L2RegFunction} does.
+   */
+  @Test
+  void testGradientAtSamePointWithL2Regularization() {
+    NegLogLikelihood serial = new NegLogLikelihood(testDataIndexer);
+    double[] x = new double[serial.getDimension()];
+    Arrays.fill(x, 0.1);
+    double[] expectedGradient =
+        new QNMinimizer.L2RegFunction(serial, 0.5).gradientAt(x).clone();
+
+    try (ParallelNegLogLikelihood parallel = new ParallelNegLogLikelihood(testDataIndexer, 3)) {
+      Function l2 = new QNMinimizer.L2RegFunction(parallel, 0.5);
+      l2.valueAt(x);
+      for (int call = 0; call < 2; call++) {
+        double[] gradient = l2.gradientAt(x);
+        for (int i = 0; i < gradient.length; i++) {
+          Assertions.assertEquals(expectedGradient[i], gradient[i], TOLERANCE);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testPartitionsHaveEqualWork() {
+    int[][] contexts = new int[10][];
+    for (int i = 0; i < contexts.length; i++) {
+      contexts[i] = new int[i < 5 ? 9 : 1];
+    }
+    // 50 units in the first five contexts, 10 in the last five
+    Assertions.assertArrayEquals(new int[] {0, 3, 10}, ParallelNegLogLikelihood.partition(contexts, 2));
+    Assertions.assertArrayEquals(new int[] {0, 1, 2, 2},
+        ParallelNegLogLikelihood.partition(new int[2][0], 3));
+    Assertions.assertArrayEquals(new int[] {0, 0},
+        ParallelNegLogLikelihood.partition(new int[0][0], 1));
+  }
+}
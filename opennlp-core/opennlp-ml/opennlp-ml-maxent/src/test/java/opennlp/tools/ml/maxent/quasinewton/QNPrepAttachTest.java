@@ -19,15 +19,19 @@ package opennlp.tools.ml.maxent.quasinewton;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.OnDiskDataIndexer;
 import opennlp.tools.ml.model.TwoPassDataIndexer;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
@@ -47,6 +51,40 @@ public class QNPrepAttachTest {
     PrepAttachDataUtil.testModel(model, 0.8155484030700668);
   }
 
+  @Test
+  void testQNOnPrepAttachDataOnDisk() throws IOException {
+    DataIndexer<TrainingParameters> expectedIndexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    expectedIndexer.init(indexingParameters, new HashMap<>());
+    expectedIndexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel expected = new QNTrainer().trainModel(100, expectedIndexer);
+
+    try (OnDiskDataIndexer indexer = new OnDiskDataIndexer()) {
+      indexer.init(indexingParameters, new HashMap<>());
+      indexer.index(PrepAttachDataUtil.createTrainingStream());
+
+      // the streamed events are in the same order as the unsorted events in memory
+      AbstractModel model = new QNTrainer().trainModel(100, indexer);
+      Assertions.assertEquals(expected, model);
+      PrepAttachDataUtil.testModel(model, 0.8155484030700668);
+    }
+  }
+
+  @Test
+  void testQNOnPrepAttachDataOnDiskRejectsThreads() {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, QNTrainer.MAXENT_QN_VALUE);
+    trainParams.put(AbstractEventTrainer.DATA_INDEXER_PARAM, AbstractEventTrainer.DATA_INDEXER_ON_DISK_VALUE);
+    trainParams.put(QNTrainer.THREADS_PARAM, 2);
+
+    QNTrainer trainer = new QNTrainer();
+    trainer.init(trainParams, null);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> trainer.train(PrepAttachDataUtil.createTrainingStream()));
+  }
+
   @Test
   void testQNOnPrepAttachDataWithParamsDefault() throws IOException {
     TrainingParameters trainParams = new TrainingParameters();
@@ -118,5 +156,28 @@ public class QNPrepAttachTest {
     MaxentModel model = trainer.train(PrepAttachDataUtil.createTrainingStream());
     PrepAttachDataUtil.testModel(model, 0.8115870264917059);
   }
-}
 
+  @Test
+  void testQNOnPrepAttachDataWithIndexedParameters() throws IOException {
+    DataIndexer<TrainingParameters> indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel model = new QNTrainer().trainModel(100, indexer);
+
+    Object[] data = model.getDataStructures();
+    @SuppressWarnings("unchecked")
+    Map<String, Context> pmap = (Map<String, Context>) data[1];
+    System.setProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY, "true");
+    try {
+      AbstractModel indexed = new QNModel(pmap.values().toArray(new Context[0]),
+          pmap.keySet().toArray(new String[0]), (String[]) data[2]);
+      PrepAttachDataUtil.assertSameProbabilities(model, indexed);
+      PrepAttachDataUtil.assertSameFeatureSinkProbabilities(model);
+    } finally {
+      System.clearProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.junit.jupiter.api.Assertions;
@@ -36,6 +37,7 @@ import opennlp.tools.ml.model.OnePassRealValueDataIndexer;
 import opennlp.tools.ml.model.RealValueFileEventStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 public class QNTrainerTest {
 
@@ -81,6 +83,23 @@ public class QNTrainerTest {
     Assertions.assertNotNull(eval);
   }
 
+  @Test
+  void testEvalFeaturesIgnoresPreviousProbs() throws Exception {
+    RealValueFileEventStream rvfes1 = new RealValueFileEventStream(
+        "src/test/resources/data/opennlp/maxent/real-valued-weights-training-data.txt");
+    testDataIndexer.index(rvfes1);
+    QNModel trainedModel = new QNTrainer(15).trainModel(ITERATIONS, testDataIndexer);
+
+    String[] context = {"feature2", "feature3"};
+    FeatureSink features = new FeatureSink().addAll(context);
+    double[] probs = new double[trainedModel.getNumOutcomes()];
+    Arrays.fill(probs, 3);
+    double[] expected = trainedModel.eval(context);
+    Assertions.assertArrayEquals(expected, trainedModel.evalFeatures(features, probs), 1e-12);
+    // the buffer still holds the last result
+    Assertions.assertArrayEquals(expected, trainedModel.evalFeatures(features, probs), 1e-12);
+  }
+
   @Test
   void testModel() throws IOException {
     // given
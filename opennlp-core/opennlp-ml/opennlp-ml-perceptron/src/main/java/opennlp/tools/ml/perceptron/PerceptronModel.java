@@ -23,9 +23,11 @@ import java.util.Objects;
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.AdditiveModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.EvalParameters;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A {@link MaxentModel model} implementation based one the perceptron algorithm.
@@ -35,7 +37,7 @@ import opennlp.tools.ml.model.MaxentModel;
  * Discriminative Training Methods for Hidden Markov Models: Theory and Experiments
  * with the Perceptron Algorithm. Michael Collins, EMNLP 2002.
  */
-public class PerceptronModel extends AbstractModel {
+public class PerceptronModel extends AbstractModel implements AdditiveModel {
 
   /**
    * Initializes a {@link PerceptronModel}.
@@ -73,11 +75,51 @@ public class PerceptronModel extends AbstractModel {
     return eval(context,null,probs);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalFeatures(FeatureSink features, double[] outsums) {
+    Arrays.fill(outsums, 0);
+    getIndexedParameters().sumFeatures(features, outsums);
+    return normalize(outsums, evalParams.getNumOutcomes());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasAdditiveScores() {
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addScores(FeatureSink features, double[] scores) {
+    getIndexedParameters().sumFeatures(features, scores);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] normalizeScores(double[] scores) {
+    return normalize(scores, evalParams.getNumOutcomes());
+  }
+
   public double[] eval(String[] context, float[] values, double[] outsums) {
+    if (indexedParams != null) {
+      java.util.Arrays.fill(outsums, 0);
+      indexedParams.sumFeatures(context, values, outsums);
+      return normalize(outsums, evalParams.getNumOutcomes());
+    }
+
     Context[] scontexts = new Context[context.length];
     java.util.Arrays.fill(outsums, 0);
     for (int i = 0; i < context.length; i++) {
-      scontexts[i] = pmap.get(context[i]);
+      scontexts[i] = getContext(context[i]);
     }
     return eval(scontexts,values,outsums,evalParams,true);
   }
@@ -133,24 +175,27 @@ public class PerceptronModel extends AbstractModel {
     ArrayMath.sumFeatures(context, values, prior);
 
     if (normalize) {
-      int numOutcomes = model.getNumOutcomes();
+      normalize(prior, model.getNumOutcomes());
+    }
+    return prior;
+  }
 
-      double maxPrior = 1;
+  private static double[] normalize(double[] prior, int numOutcomes) {
+    double maxPrior = 1;
 
-      for (int oid = 0; oid < numOutcomes; oid++) {
-        if (maxPrior < StrictMath.abs(prior[oid]))
-          maxPrior = StrictMath.abs(prior[oid]);
-      }
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      if (maxPrior < StrictMath.abs(prior[oid]))
+        maxPrior = StrictMath.abs(prior[oid]);
+    }
 
-      double normal = 0.0;
-      for (int oid = 0; oid < numOutcomes; oid++) {
-        prior[oid] = StrictMath.exp(prior[oid] / maxPrior);
-        normal += prior[oid];
-      }
+    double normal = 0.0;
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      prior[oid] = StrictMath.exp(prior[oid] / maxPrior);
+      normal += prior[oid];
+    }
 
-      for (int oid = 0; oid < numOutcomes; oid++) {
-        prior[oid] /= normal;
-      }
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      prior[oid] /= normal;
     }
     return prior;
   }
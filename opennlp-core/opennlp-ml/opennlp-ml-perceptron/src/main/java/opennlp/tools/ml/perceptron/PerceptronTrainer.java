@@ -18,6 +18,13 @@
 package opennlp.tools.ml.perceptron;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,15 +32,19 @@ import org.slf4j.LoggerFactory;
 import opennlp.tools.commons.Trainer;
 import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Shards;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.EvalParameters;
+import opennlp.tools.ml.model.IndexedEventCursor;
 import opennlp.tools.ml.model.MutableContext;
+import opennlp.tools.ml.model.StreamableDataIndexer;
 import opennlp.tools.monitoring.DefaultTrainingProgressMonitor;
 import opennlp.tools.monitoring.IterDeltaAccuracyUnderTolerance;
 import opennlp.tools.monitoring.StopCriteria;
 import opennlp.tools.monitoring.TrainingMeasure;
 import opennlp.tools.monitoring.TrainingProgressMonitor;
+import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingConfiguration;
 import opennlp.tools.util.TrainingParameters;
 
@@ -45,6 +56,22 @@ import opennlp.tools.util.TrainingParameters;
  * <p>
  * Discriminative Training Methods for Hidden Markov Models: Theory and Experiments
  * with the Perceptron Algorithm. Michael Collins, EMNLP 2002.
+ * <p>
+ * With more than one thread, see {@link Parameters#THREADS_PARAM}, the events are split into
+ * one shard per thread and training uses iterative parameter mixing as described in:
+ * <p>
+ * Distributed Training Strategies for the Structured Perceptron.
+ * Ryan McDonald, Keith Hall and Gideon Mann, NAACL 2010.
+ * <p>
+ * In each iteration, every thread trains a copy of the current parameters on its shard, then
+ * the parameters are set to the average of the copies. Averaging over the iterations, the
+ * stop criteria and the {@link TrainingProgressMonitor} work on the mixed parameters as in
+ * single threaded training. The shards are fixed, so the trained model does not depend on
+ * thread scheduling, but it differs from the single threaded model. The threads are taken from
+ * {@link TrainingConfiguration#executor()} if it is set, otherwise a pool is created for each training.
+ * <p>
+ * If the events are indexed by a {@link StreamableDataIndexer}, they are streamed in each
+ * iteration instead of being loaded into memory. Streamed events are trained in a single thread.
  *
  * @see PerceptronModel
  * @see AbstractEventTrainer
@@ -95,6 +122,14 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
 
   private boolean useSkippedlAveraging;
 
+  private int threads = 1;
+
+  /**
+   * The indexer which streams the events in each iteration, or {@code null} if the
+   * events are held in memory.
+   */
+  private StreamableDataIndexer<TrainingParameters> eventSource;
+
   /**
    * Instantiates a {@link PerceptronTrainer} with default training parameters.
    */
@@ -157,7 +192,9 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
 
     this.setTolerance(tolerance);
 
-    return this.trainModel(iterations, indexer, cutoff, useAverage);
+    int threads = trainingParameters.getIntParameter(Parameters.THREADS_PARAM, 1);
+
+    return this.trainModel(iterations, indexer, cutoff, useAverage, threads);
   }
 
   // << members related to AbstractEventTrainer
@@ -244,15 +281,56 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
    */
   public AbstractModel trainModel(int iterations, DataIndexer<TrainingParameters> di,
                                   int cutoff, boolean useAverage) {
+    return trainModel(iterations, di, cutoff, useAverage, 1);
+  }
+
+  /**
+   * Trains a {@link PerceptronModel} with given parameters.
+   *
+   * @param iterations The number of iterations to use for training.
+   * @param di The {@link DataIndexer} used as data input.
+   * @param cutoff The {@link TrainingParameters#CUTOFF_PARAM} value to use for training.
+   * @param useAverage Whether to use 'averaging', or not.
+   *                   See {@link #setSkippedAveraging(boolean)} for details.
+   * @param threads The number of threads to train with, see {@link PerceptronTrainer}.
+   *                Must be greater than {@code 0}.
+   *
+   * @return A valid, trained {@link AbstractModel perceptron model}.
+   * @throws IllegalArgumentException Thrown if parameters are invalid.
+   */
+  public AbstractModel trainModel(int iterations, DataIndexer<TrainingParameters> di,
+                                  int cutoff, boolean useAverage, int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be at least one or greater but is " + threads + "!");
+    }
+    this.threads = threads;
+
     logger.info("Incorporating indexed data for training... ");
-    contexts = di.getContexts();
-    values = di.getValues();
-    numTimesEventsSeen = di.getNumTimesEventsSeen();
+    eventSource = null;
+    if (di instanceof StreamableDataIndexer<TrainingParameters> streamable) {
+      if (threads > 1) {
+        throw new IllegalArgumentException("Streamed events are trained in a single thread, but threads is "
+            + threads);
+      }
+      eventSource = streamable;
+    }
+
+    if (eventSource != null) {
+      contexts = null;
+      values = null;
+      numTimesEventsSeen = null;
+      outcomeList = null;
+      numUniqueEvents = eventSource.getNumUniqueEvents();
+    } else {
+      contexts = di.getContexts();
+      values = di.getValues();
+      numTimesEventsSeen = di.getNumTimesEventsSeen();
+      outcomeList = di.getOutcomeList();
+      numUniqueEvents = contexts.length;
+    }
     numEvents = di.getNumEvents();
-    numUniqueEvents = contexts.length;
 
     outcomeLabels = di.getOutcomeLabels();
-    outcomeList = di.getOutcomeList();
 
     predLabels = di.getPredLabels();
     numPreds = predLabels.length;
@@ -264,9 +342,14 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
         "\n\t Number of Outcomes: {} " +
         "\n\t Number of Predicates: {}", numUniqueEvents, numOutcomes, numPreds);
 
-    logger.info("Computing model parameters...");
+    if (threads == 1) {
+      logger.info("Computing model parameters...");
+    } else {
+      logger.info("Computing model parameters in {} threads...", threads);
+    }
 
     MutableContext[] finalParameters = findParameters(iterations, useAverage);
+    eventSource = null;
 
     logger.info("...done.");
 
@@ -316,86 +399,89 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
     // A counter for the denominator for averaging.
     int numTimesSummed = 0;
 
-    double stepsize = 1;
-    for (int i = 1; i <= iterations; i++) {
-
-      // Decrease the stepsize by a small amount.
-      if (stepSizeDecrease != null)
-        stepsize *= 1 - stepSizeDecrease;
-
-      int numCorrect = 0;
+    // The shards and their copies of the parameters, if trained in parallel
+    int[] shards = null;
+    MutableContext[][] shardParams = null;
+    ExecutorService executor = null;
+    ExecutorService ownExecutor = null;
+    if (threads > 1) {
+      // the unique events are weighted by how often they were seen
+      shards = Shards.partition(numUniqueEvents, ei -> numTimesEventsSeen[ei], threads);
+      shardParams = new MutableContext[threads][numPreds];
+      for (int t = 0; t < threads; t++) {
+        for (int pi = 0; pi < numPreds; pi++) {
+          shardParams[t][pi] = new MutableContext(allOutcomesPattern, new double[numOutcomes]);
+        }
+      }
+      // An executor from the configuration is shared with other trainings and is not shut down here
+      executor = trainingConfiguration != null ? trainingConfiguration.executor() : null;
+      if (executor == null) {
+        ownExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+          Thread thread = new Thread(runnable);
+          thread.setName("opennlp.tools.ml.perceptron.PerceptronTrainer.findParameters()");
+          thread.setDaemon(true);
+          return thread;
+        });
+        executor = ownExecutor;
+      }
+    }
 
-      for (int ei = 0; ei < numUniqueEvents; ei++) {
-        int targetOutcome = outcomeList[ei];
-
-        for (int ni = 0; ni < this.numTimesEventsSeen[ei]; ni++) {
-
-          // Compute the model's prediction according to the current parameters.
-          double[] modelDistribution = new double[numOutcomes];
-          if (values != null)
-            PerceptronModel.eval(contexts[ei], values[ei], modelDistribution, evalParams, false);
-          else
-            PerceptronModel.eval(contexts[ei], null, modelDistribution, evalParams, false);
-
-          int maxOutcome = ArrayMath.argmax(modelDistribution);
-
-          // If the predicted outcome is different from the target
-          // outcome, do the standard update: boost the parameters
-          // associated with the target and reduce those associated
-          // with the incorrect predicted outcome.
-          if (maxOutcome != targetOutcome) {
-            for (int ci = 0; ci < contexts[ei].length; ci++) {
-              int pi = contexts[ei][ci];
-              if (values == null) {
-                params[pi].updateParameter(targetOutcome, stepsize);
-                params[pi].updateParameter(maxOutcome, -stepsize);
-              } else {
-                params[pi].updateParameter(targetOutcome, stepsize * values[ei][ci]);
-                params[pi].updateParameter(maxOutcome, -stepsize * values[ei][ci]);
-              }
-            }
-          }
+    try {
+      double stepsize = 1;
+      for (int i = 1; i <= iterations; i++) {
+
+        // Decrease the stepsize by a small amount.
+        if (stepSizeDecrease != null)
+          stepsize *= 1 - stepSizeDecrease;
+
+        int numCorrect;
+        if (eventSource != null) {
+          numCorrect = trainStream(params, evalParams, stepsize);
+        } else if (shards == null) {
+          numCorrect = trainShard(0, numUniqueEvents, params, evalParams, stepsize);
+        } else {
+          numCorrect = trainShards(shards, params, shardParams, executor, stepsize);
+        }
 
-          // Update the counts for accuracy.
-          if (maxOutcome == targetOutcome)
-            numCorrect++;
+        // Calculate the training accuracy.
+        double trainingAccuracy = (double) numCorrect / numEvents;
+        if (i < 10 || (i % 10) == 0) {
+          progressMonitor.finishedIteration(i, numCorrect, numEvents,
+              TrainingMeasure.ACCURACY, trainingAccuracy);
         }
-      }
 
-      // Calculate the training accuracy.
-      double trainingAccuracy = (double) numCorrect / numEvents;
-      if (i < 10 || (i % 10) == 0) {
-        progressMonitor.finishedIteration(i, numCorrect, numEvents,
-            TrainingMeasure.ACCURACY, trainingAccuracy);
-      }
+        // TODO: Make averaging configurable !!!
 
-      // TODO: Make averaging configurable !!!
+        boolean doAveraging;
 
-      boolean doAveraging;
+        doAveraging = useAverage && useSkippedlAveraging && (i < 20 || isPerfectSquare(i)) || useAverage;
 
-      doAveraging = useAverage && useSkippedlAveraging && (i < 20 || isPerfectSquare(i)) || useAverage;
+        if (doAveraging) {
+          numTimesSummed++;
+          for (int pi = 0; pi < numPreds; pi++)
+            for (int aoi = 0; aoi < numOutcomes; aoi++)
+              summedParams[pi].updateParameter(aoi, params[pi].getParameters()[aoi]);
+        }
 
-      if (doAveraging) {
-        numTimesSummed++;
-        for (int pi = 0; pi < numPreds; pi++)
-          for (int aoi = 0; aoi < numOutcomes; aoi++)
-            summedParams[pi].updateParameter(aoi, params[pi].getParameters()[aoi]);
-      }
+        // If the tolerance is greater than the difference between the
+        // current training accuracy and all of the previous three
+        // training accuracies, stop training.
+        if (stopCriteria.test(prevAccuracy1 - trainingAccuracy)
+            && stopCriteria.test(prevAccuracy2 - trainingAccuracy)
+            && stopCriteria.test(prevAccuracy3 - trainingAccuracy)) {
+          progressMonitor.finishedTraining(iterations, stopCriteria);
+          break;
+        }
 
-      // If the tolerance is greater than the difference between the
-      // current training accuracy and all of the previous three
-      // training accuracies, stop training.
-      if (stopCriteria.test(prevAccuracy1 - trainingAccuracy)
-          && stopCriteria.test(prevAccuracy2 - trainingAccuracy)
-          && stopCriteria.test(prevAccuracy3 - trainingAccuracy)) {
-        progressMonitor.finishedTraining(iterations, stopCriteria);
-        break;
+        // Update the previous training accuracies.
+        prevAccuracy1 = prevAccuracy2;
+        prevAccuracy2 = prevAccuracy3;
+        prevAccuracy3 = trainingAccuracy;
+      }
+    } finally {
+      if (ownExecutor != null) {
+        ownExecutor.shutdown();
       }
-
-      // Update the previous training accuracies.
-      prevAccuracy1 = prevAccuracy2;
-      prevAccuracy2 = prevAccuracy3;
-      prevAccuracy3 = trainingAccuracy;
     }
 
     //At this point, all iterations have finished successfully.
@@ -423,22 +509,149 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
 
   }
 
-  private double trainingStats(EvalParameters evalParams) {
+  /**
+   * Runs one perceptron pass over the unique events {@code [from, to)}.
+   *
+   * @return The number of events which were predicted correctly before their update.
+   */
+  private int trainShard(int from, int to, MutableContext[] params, EvalParameters evalParams,
+                         double stepsize) {
     int numCorrect = 0;
 
-    for (int ei = 0; ei < numUniqueEvents; ei++) {
-      for (int ni = 0; ni < this.numTimesEventsSeen[ei]; ni++) {
+    for (int ei = from; ei < to; ei++) {
+      numCorrect += trainEvent(contexts[ei], values != null ? values[ei] : null, outcomeList[ei],
+          numTimesEventsSeen[ei], params, evalParams, stepsize);
+    }
+
+    return numCorrect;
+  }
 
-        double[] modelDistribution = new double[numOutcomes];
+  /**
+   * Runs one perceptron pass over the events streamed by the {@link #eventSource}.
+   *
+   * @return The number of events which were predicted correctly before their update.
+   */
+  private int trainStream(MutableContext[] params, EvalParameters evalParams, double stepsize) {
+    int numCorrect = 0;
+
+    try (IndexedEventCursor cursor = eventSource.cursor()) {
+      while (cursor.next()) {
+        numCorrect += trainEvent(cursor.getContext(), cursor.getValues(), cursor.getOutcome(),
+            cursor.getNumTimesSeen(), params, evalParams, stepsize);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to stream the events", e);
+    }
+
+    return numCorrect;
+  }
 
-        if (values != null)
-          PerceptronModel.eval(contexts[ei], values[ei], modelDistribution, evalParams,false);
-        else
-          PerceptronModel.eval(contexts[ei], null, modelDistribution, evalParams, false);
+  /**
+   * Trains on one unique event, which was seen {@code times} times.
+   *
+   * @return The number of times the event was predicted correctly before its update.
+   */
+  private int trainEvent(int[] context, float[] eventValues, int targetOutcome, int times,
+                         MutableContext[] params, EvalParameters evalParams, double stepsize) {
+    int numCorrect = 0;
 
-        int max = ArrayMath.argmax(modelDistribution);
-        if (max == outcomeList[ei])
-          numCorrect++;
+    for (int ni = 0; ni < times; ni++) {
+
+      // Compute the model's prediction according to the current parameters.
+      double[] modelDistribution = new double[numOutcomes];
+      PerceptronModel.eval(context, eventValues, modelDistribution, evalParams, false);
+
+      int maxOutcome = ArrayMath.argmax(modelDistribution);
+
+      // If the predicted outcome is different from the target
+      // outcome, do the standard update: boost the parameters
+      // associated with the target and reduce those associated
+      // with the incorrect predicted outcome.
+      if (maxOutcome != targetOutcome) {
+        for (int ci = 0; ci < context.length; ci++) {
+          int pi = context[ci];
+          if (eventValues == null) {
+            params[pi].updateParameter(targetOutcome, stepsize);
+            params[pi].updateParameter(maxOutcome, -stepsize);
+          } else {
+            params[pi].updateParameter(targetOutcome, stepsize * eventValues[ci]);
+            params[pi].updateParameter(maxOutcome, -stepsize * eventValues[ci]);
+          }
+        }
+      }
+
+      // Update the counts for accuracy.
+      if (maxOutcome == targetOutcome)
+        numCorrect++;
+    }
+
+    return numCorrect;
+  }
+
+  /**
+   * Runs one iteration of iterative parameter mixing: each shard is trained on a copy of
+   * {@code params}, then {@code params} is set to the average of the copies.
+   *
+   * @return The number of events which were predicted correctly before their update.
+   */
+  private int trainShards(int[] shards, MutableContext[] params, MutableContext[][] shardParams,
+                          ExecutorService executor, double stepsize) {
+    List<Future<Integer>> futures = new ArrayList<>(threads);
+    for (int t = 0; t < threads; t++) {
+      final int from = shards[t];
+      final int to = shards[t + 1];
+      final MutableContext[] copy = shardParams[t];
+      futures.add(executor.submit(() -> {
+        for (int pi = 0; pi < numPreds; pi++) {
+          System.arraycopy(params[pi].getParameters(), 0, copy[pi].getParameters(), 0, numOutcomes);
+        }
+        return trainShard(from, to, copy, new EvalParameters(copy, numOutcomes), stepsize);
+      }));
+    }
+
+    int numCorrect = 0;
+    try {
+      for (Future<Integer> future : futures) {
+        numCorrect += future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while training the perceptron", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to train the perceptron", e.getCause());
+    }
+
+    // Mix the parameters of the shards with uniform weights
+    for (int pi = 0; pi < numPreds; pi++) {
+      double[] mixed = params[pi].getParameters();
+      for (int aoi = 0; aoi < numOutcomes; aoi++) {
+        double sum = 0;
+        for (int t = 0; t < threads; t++) {
+          sum += shardParams[t][pi].getParameters()[aoi];
+        }
+        mixed[aoi] = sum / threads;
+      }
+    }
+
+    return numCorrect;
+  }
+
+  private double trainingStats(EvalParameters evalParams) {
+    int numCorrect = 0;
+
+    if (eventSource != null) {
+      try (IndexedEventCursor cursor = eventSource.cursor()) {
+        while (cursor.next()) {
+          numCorrect += countCorrect(cursor.getContext(), cursor.getValues(), cursor.getOutcome(),
+              cursor.getNumTimesSeen(), evalParams);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to stream the events", e);
+      }
+    } else {
+      for (int ei = 0; ei < numUniqueEvents; ei++) {
+        numCorrect += countCorrect(contexts[ei], values != null ? values[ei] : null, outcomeList[ei],
+            numTimesEventsSeen[ei], evalParams);
       }
     }
     double trainingAccuracy = (double) numCorrect / numEvents;
@@ -446,6 +659,13 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
     return trainingAccuracy;
   }
 
+  private int countCorrect(int[] context, float[] eventValues, int outcome, int times,
+                           EvalParameters evalParams) {
+    double[] modelDistribution = new double[numOutcomes];
+    PerceptronModel.eval(context, eventValues, modelDistribution, evalParams, false);
+    return ArrayMath.argmax(modelDistribution) == outcome ? times : 0;
+  }
+
   // See whether a number is a perfect square.
   // Inefficient, but fine for our purposes.
   private static boolean isPerfectSquare(int n) {
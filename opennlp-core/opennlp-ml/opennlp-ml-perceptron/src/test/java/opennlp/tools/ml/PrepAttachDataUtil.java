@@ -23,16 +23,19 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 
+import opennlp.tools.ml.model.AdditiveModel;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 public class PrepAttachDataUtil {
 
@@ -91,4 +94,43 @@ public class PrepAttachDataUtil {
 
     Assertions.assertEquals(expecedAccuracy, accuracy, .00001);
   }
+
+  /**
+   * Asserts that two models compute identical probabilities for all events of the dev set.
+   */
+  public static void assertSameProbabilities(MaxentModel expected, MaxentModel actual)
+      throws IOException {
+    for (Event ev : readPpaFile("devset")) {
+      Assertions.assertArrayEquals(expected.eval(ev.getContext()), actual.eval(ev.getContext()));
+    }
+  }
+
+  /**
+   * Asserts that {@code model} evaluates the contexts of the dev set the same way
+   * if they are passed in a {@link FeatureSink}, and, for an {@link AdditiveModel}, if the
+   * scores of the contexts are added up in two parts.
+   */
+  public static void assertSameFeatureSinkProbabilities(MaxentModel model) throws IOException {
+    FeatureSink features = new FeatureSink();
+    for (Event ev : readPpaFile("devset")) {
+      features.clear();
+      features.addAll(ev.getContext());
+      double[] expected = model.eval(ev.getContext(), new double[model.getNumOutcomes()]);
+      Assertions.assertArrayEquals(expected,
+          model.evalFeatures(features, new double[model.getNumOutcomes()]));
+
+      if (model instanceof AdditiveModel additive && additive.hasAdditiveScores()) {
+        // the scores of both halves of the context add up to those of the whole context
+        String[] context = ev.getContext();
+        double[] scores = new double[model.getNumOutcomes()];
+        features.clear();
+        features.addAll(Arrays.copyOfRange(context, 0, context.length / 2));
+        additive.addScores(features, scores);
+        features.clear();
+        features.addAll(Arrays.copyOfRange(context, context.length / 2, context.length));
+        additive.addScores(features, scores);
+        Assertions.assertArrayEquals(expected, additive.normalizeScores(scores), 1e-12);
+      }
+    }
+  }
 }
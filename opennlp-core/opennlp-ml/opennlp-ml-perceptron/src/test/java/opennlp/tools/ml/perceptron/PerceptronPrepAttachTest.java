@@ -22,17 +22,23 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MappedModel;
+import opennlp.tools.ml.model.MappedModelWriter;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.ParameterPrecision;
 import opennlp.tools.ml.model.TwoPassDataIndexer;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
@@ -124,6 +130,29 @@ public class PerceptronPrepAttachTest {
     PrepAttachDataUtil.testModel(restoredModel, 0.773706362961129);
   }
 
+  @Test
+  void testQuantizedModelSerialization() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, PerceptronTrainer.PERCEPTRON_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put("UseSkippedAveraging", true);
+
+    EventTrainer<TrainingParameters> trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel model = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    ByteArrayOutputStream modelBytes = new ByteArrayOutputStream();
+    BinaryPerceptronModelWriter writer = new BinaryPerceptronModelWriter(model,
+        new DataOutputStream(modelBytes));
+    writer.setParameterPrecision(ParameterPrecision.INT8);
+    writer.persist();
+
+    AbstractModel restoredModel = new BinaryPerceptronModelReader(
+        new DataInputStream(new ByteArrayInputStream(modelBytes.toByteArray()))).getModel();
+    // the accuracy of the double model is 0.773706362961129
+    PrepAttachDataUtil.testModel(restoredModel, 0.7717256746719485);
+  }
+
   @Test
   void testModelEquals() throws IOException {
     TrainingParameters trainParams = new TrainingParameters();
@@ -156,4 +185,103 @@ public class PerceptronPrepAttachTest {
     Assertions.assertTrue(
         reportMap.containsKey("Training-Eventhash"), "Report Map does not contain the training event hash");
   }
+
+  @Test
+  void testPerceptronOnPrepAttachDataWithIndexedParameters() throws IOException {
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel model = new PerceptronTrainer().trainModel(400, indexer, 1);
+
+    Object[] data = model.getDataStructures();
+    @SuppressWarnings("unchecked")
+    Map<String, Context> pmap = (Map<String, Context>) data[1];
+    System.setProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY, "true");
+    try {
+      AbstractModel indexed = new PerceptronModel(pmap.values().toArray(new Context[0]),
+          pmap.keySet().toArray(new String[0]), (String[]) data[2]);
+      PrepAttachDataUtil.assertSameProbabilities(model, indexed);
+    } finally {
+      System.clearProperty(AbstractModel.INDEXED_PARAMETERS_PROPERTY);
+    }
+  }
+
+  @Test
+  void testPerceptronOnPrepAttachDataMapped() throws IOException {
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel model = new PerceptronTrainer().trainModel(400, indexer, 1);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MappedModelWriter(model).write(out);
+    MaxentModel mapped = new MappedModel(ByteBuffer.wrap(out.toByteArray()));
+
+    PrepAttachDataUtil.assertSameProbabilities(model, mapped);
+    PrepAttachDataUtil.testModel(mapped, 0.7650408516959644);
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(model);
+    PrepAttachDataUtil.assertSameFeatureSinkProbabilities(mapped);
+  }
+
+  @Test
+  void testPerceptronOnPrepAttachDataInParallel() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, PerceptronTrainer.PERCEPTRON_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put(Parameters.THREADS_PARAM, 4);
+
+    EventTrainer<TrainingParameters> trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel modelA = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+    PrepAttachDataUtil.testModel(modelA, 0.7893042832384254);
+
+    // the shards are fixed, so training again gives the same model
+    AbstractModel modelB = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+    Assertions.assertEquals(modelA, modelB);
+  }
+
+  @Test
+  void testPerceptronWithInvalidThreads() throws IOException {
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new PerceptronTrainer().trainModel(10, indexer, 1, true, 0));
+  }
+
+  @Test
+  void testPerceptronOnPrepAttachDataOnDisk() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, PerceptronTrainer.PERCEPTRON_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put("UseSkippedAveraging", true);
+
+    EventTrainer<TrainingParameters> trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel expected = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    // the streamed events are in the same order as the unsorted events in memory
+    trainParams.put(AbstractEventTrainer.DATA_INDEXER_PARAM, AbstractEventTrainer.DATA_INDEXER_ON_DISK_VALUE);
+    trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel model = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    Assertions.assertEquals(expected, model);
+    PrepAttachDataUtil.testModel(model, 0.773706362961129);
+
+    // streamed events are not loaded into memory to train in several threads
+    trainParams.put(Parameters.THREADS_PARAM, 2);
+    EventTrainer<TrainingParameters> parallelTrainer = new PerceptronTrainer();
+    parallelTrainer.init(trainParams, null);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> parallelTrainer.train(PrepAttachDataUtil.createTrainingStream()));
+  }
 }
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.postag;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelType;
+
+/**
+ * JMH benchmark measuring the contexts cache of {@link BeamSearch} on
+ * a corpus with many repeated phrases, as it is typical for boilerplate
+ * heavy documents (headers, disclaimers, navigation text).
+ * <p>
+ * The {@code cacheSize} parameter is passed to
+ * {@link BeamSearch#BeamSearch(int, opennlp.tools.ml.model.MaxentModel, int)};
+ * {@code 0} disables the cache. Hit, miss and eviction counts are reported
+ * as secondary results to help sizing the cache, the hit rate is
+ * {@code cacheHits / (cacheHits + cacheMisses)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+public class BeamSearchContextCacheBenchmark {
+
+  private static final String[][] PHRASES = {
+      {"The", "driver", "got", "badly", "injured",
+       "by", "the", "accident", "."},
+      {"All", "rights", "reserved", "."},
+      {"Click", "here", "to", "unsubscribe", "from",
+       "this", "newsletter", "."},
+      {"The", "quick", "brown", "fox", "jumps",
+       "over", "the", "lazy", "dog", "."},
+      {"OpenNLP", "provides", "tools", "for",
+       "natural", "language", "processing", "."}
+  };
+
+  private static final String[][] UNIQUE = {
+      {"I", "wrote", "him", "a", "letter",
+       "right", "away", "."},
+      {"She", "told", "me", "that", "he",
+       "lived", "in", "Edinburgh", "."}
+  };
+
+  @State(Scope.Benchmark)
+  public static class ModelState {
+
+    @Param({"0", "256", "4096"})
+    int cacheSize;
+
+    POSModel posModel;
+    BeamSearch beamSearch;
+    List<String[]> corpus;
+
+    @Setup(Level.Trial)
+    public void train() throws IOException {
+      InputStreamFactory in = new ResourceAsStreamFactory(
+          POSTaggerME.class,
+          "/opennlp/tools/postag/"
+              + "AnnotatedSentences.txt");
+      ObjectStream<POSSample> samples =
+          new WordTagSampleStream(
+              new PlainTextByLineStream(
+                  in, StandardCharsets.UTF_8));
+      TrainingParameters p = new TrainingParameters();
+      p.put(Parameters.ALGORITHM_PARAM,
+          ModelType.MAXENT.toString());
+      p.put(Parameters.ITERATIONS_PARAM, 100);
+      p.put(Parameters.CUTOFF_PARAM, 5);
+      posModel = POSTaggerME.train("eng", samples, p,
+          new POSTaggerFactory());
+
+      beamSearch = new BeamSearch(POSTaggerME.DEFAULT_BEAM_SIZE,
+          posModel.getArtifact(POSModel.POS_MODEL_ENTRY_NAME), cacheSize);
+
+      // Four out of five sentences are repeated phrases
+      corpus = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        for (String[] phrase : PHRASES) {
+          corpus.add(phrase);
+        }
+      }
+      for (String[] sentence : UNIQUE) {
+        corpus.add(sentence);
+      }
+    }
+  }
+
+  /**
+   * Reports the statistics of the shared cache. JMH sums the counters of all threads
+   * and iterations, so only the first thread reports those of its iterations.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class CacheCounters {
+    public long cacheHits;
+    public long cacheMisses;
+    public long cacheEvictions;
+
+    private boolean reporting;
+    private BeamSearch.CacheStatistics start;
+
+    @Setup(Level.Iteration)
+    public void start(ModelState ms, ThreadParams threadParams) {
+      reporting = threadParams.getThreadIndex() == 0;
+      start = ms.beamSearch.getCacheStatistics();
+      cacheHits = cacheMisses = cacheEvictions = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop(ModelState ms) {
+      if (reporting) {
+        BeamSearch.CacheStatistics end = ms.beamSearch.getCacheStatistics();
+        cacheHits = end.hits() - start.hits();
+        cacheMisses = end.misses() - start.misses();
+        cacheEvictions = end.evictions() - start.evictions();
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Decoder {
+    POSContextGenerator contextGenerator;
+    SequenceValidator<String> validator;
+
+    @Setup(Level.Trial)
+    public void create(ModelState ms) {
+      POSTaggerFactory factory = ms.posModel.getFactory();
+      // Disable the generator's own cache to isolate the effect of the scores cache
+      contextGenerator = factory.getPOSContextGenerator(0);
+      validator = factory.getSequenceValidator();
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void singleThread(ModelState ms, Decoder d, CacheCounters counters, Blackhole bh) {
+    decode(ms, d, bh);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void sharedInstance(ModelState ms, Decoder d, CacheCounters counters, Blackhole bh) {
+    decode(ms, d, bh);
+  }
+
+  private static void decode(ModelState ms, Decoder d, Blackhole bh) {
+    for (String[] tokens : ms.corpus) {
+      bh.consume(ms.beamSearch.bestSequence(tokens, null,
+          d.contextGenerator, d.validator));
+    }
+  }
+
+  /**
+   * Quick local iteration only: {@code forks(0)} disables JVM fork isolation
+   * (unlike {@code mvn} with the {@code jmh} profile).
+   * Use the Maven-invoked configuration for publishable numbers.
+   */
+  public static void main(String[] args) throws Exception {
+    Options opt = new OptionsBuilder()
+        .include(BeamSearchContextCacheBenchmark.class.getSimpleName())
+        .forks(0)
+        .warmupIterations(3)
+        .measurementIterations(5)
+        .build();
+    new Runner(opt).run();
+  }
+}
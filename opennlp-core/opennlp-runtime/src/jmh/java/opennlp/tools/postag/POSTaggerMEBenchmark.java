@@ -19,6 +19,8 @@ package opennlp.tools.postag;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -32,6 +34,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
@@ -56,6 +59,12 @@ import opennlp.tools.util.model.ModelType;
  * The {@code allCaches} parameter controls both the context
  * generator cache and the feature generator cache
  * simultaneously, isolating the total impact of caching.
+ * <p>
+ * The document benchmarks tag a document of {@link #DOCUMENT_SIZE}
+ * sentences on a single caller thread, either sentence by sentence,
+ * with {@link POSTaggerME#tag(String[][])}, or with
+ * {@link POSTaggerME#tag(String[][], java.util.concurrent.Executor)}
+ * spreading the sentences over a thread pool.
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.SECONDS)
@@ -77,6 +86,16 @@ public class POSTaggerMEBenchmark {
        "natural", "language", "processing", "."}
   };
 
+  private static final int DOCUMENT_SIZE = 500;
+
+  private static final String[][] DOCUMENT = new String[DOCUMENT_SIZE][];
+
+  static {
+    for (int i = 0; i < DOCUMENT_SIZE; i++) {
+      DOCUMENT[i] = SENTENCES[i % SENTENCES.length];
+    }
+  }
+
   @State(Scope.Benchmark)
   public static class ModelState {
 
@@ -137,6 +156,22 @@ public class POSTaggerMEBenchmark {
     }
   }
 
+  @State(Scope.Benchmark)
+  public static class ExecutorState {
+    ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void start() {
+      executor = Executors.newFixedThreadPool(
+          Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      executor.shutdown();
+    }
+  }
+
   @Benchmark
   @Threads(Threads.MAX)
   public void newInstancePerCall(ModelState ms, Blackhole bh) {
@@ -161,6 +196,26 @@ public class POSTaggerMEBenchmark {
     }
   }
 
+  @Benchmark
+  @Threads(1)
+  public void documentPerSentence(SharedTagger st, Blackhole bh) {
+    for (String[] tokens : DOCUMENT) {
+      bh.consume(st.tagger.tag(tokens));
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void documentBatch(SharedTagger st, Blackhole bh) {
+    bh.consume(st.tagger.tag(DOCUMENT));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void documentBatchWithExecutor(SharedTagger st, ExecutorState es, Blackhole bh) {
+    bh.consume(st.tagger.tag(DOCUMENT, es.executor));
+  }
+
   /**
    * Quick local iteration only: {@code forks(0)} disables JVM fork isolation
    * (unlike {@code mvn} with the {@code jmh} profile).
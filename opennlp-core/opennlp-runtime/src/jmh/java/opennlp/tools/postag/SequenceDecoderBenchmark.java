@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.postag;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.ViterbiSearch;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelType;
+
+/**
+ * JMH benchmark comparing the {@link BeamSearch} of the POS tagger with
+ * first and second order {@link ViterbiSearch} decoders.
+ * <p>
+ * The {@code featureSink} parameter toggles
+ * {@link BeamSearch#FEATURE_SINK_PROPERTY}, under which both decoders score
+ * the static features of a position only once. The tag accuracy of the
+ * decoders is compared in {@code POSTaggerMETest}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+public class SequenceDecoderBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class ModelState {
+
+    @Param({"BeamSearch", "Viterbi1", "Viterbi2"})
+    String decoder;
+
+    @Param({"false", "true"})
+    boolean featureSink;
+
+    SequenceClassificationModel sequenceModel;
+    POSContextGenerator contextGenerator;
+    SequenceValidator<String> validator;
+    List<POSSample> corpus;
+
+    @Setup(Level.Trial)
+    public void train() throws IOException {
+      InputStreamFactory in = new ResourceAsStreamFactory(
+          POSTaggerME.class,
+          "/opennlp/tools/postag/"
+              + "AnnotatedSentences.txt");
+      TrainingParameters p = new TrainingParameters();
+      p.put(Parameters.ALGORITHM_PARAM,
+          ModelType.MAXENT.toString());
+      p.put(Parameters.ITERATIONS_PARAM, 100);
+      p.put(Parameters.CUTOFF_PARAM, 5);
+
+      corpus = new ArrayList<>();
+      try (ObjectStream<POSSample> samples = new WordTagSampleStream(
+          new PlainTextByLineStream(in, StandardCharsets.UTF_8))) {
+        POSModel posModel = POSTaggerME.train("eng", samples, p,
+            new POSTaggerFactory());
+        samples.reset();
+        POSSample sample;
+        while ((sample = samples.read()) != null) {
+          corpus.add(sample);
+        }
+
+        POSTaggerFactory factory = posModel.getFactory();
+        contextGenerator = factory.getPOSContextGenerator();
+        validator = factory.getSequenceValidator();
+
+        MaxentModel maxent = posModel.getArtifact(POSModel.POS_MODEL_ENTRY_NAME);
+        System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY,
+            String.valueOf(featureSink));
+        try {
+          sequenceModel = switch (decoder) {
+            case "BeamSearch" -> new BeamSearch(POSTaggerME.DEFAULT_BEAM_SIZE, maxent);
+            case "Viterbi1" -> new ViterbiSearch(1, maxent);
+            case "Viterbi2" -> new ViterbiSearch(2, maxent);
+            default -> throw new IllegalArgumentException(decoder);
+          };
+        } finally {
+          System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void singleThread(ModelState ms, Blackhole bh) {
+    for (POSSample sample : ms.corpus) {
+      bh.consume(decode(ms, sample.getSentence()));
+    }
+  }
+
+  private static Sequence decode(ModelState ms, String[] tokens) {
+    return ms.sequenceModel.bestSequence(tokens, null,
+        ms.contextGenerator, ms.validator);
+  }
+
+  /**
+   * Quick local iteration only: {@code forks(0)} disables JVM fork isolation
+   * (unlike {@code mvn} with the {@code jmh} profile).
+   * Use the Maven-invoked configuration for publishable numbers.
+   */
+  public static void main(String[] args) throws Exception {
+    Options opt = new OptionsBuilder()
+        .include(SequenceDecoderBenchmark.class.getSimpleName())
+        .forks(0)
+        .warmupIterations(3)
+        .measurementIterations(5)
+        .build();
+    new Runner(opt).run();
+  }
+}
@@ -106,6 +106,11 @@ public class TokenizerMEBenchmark {
     }
   }
 
+  @State(Scope.Thread)
+  public static class SpanBufferState {
+    final TokenSpanBuffer tokens = new TokenSpanBuffer();
+  }
+
   @Benchmark
   @Threads(Threads.MAX)
   public void newInstancePerCall(ModelState ms, Blackhole bh) {
@@ -130,6 +135,24 @@ public class TokenizerMEBenchmark {
     }
   }
 
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void instancePerThreadSpanBuffer(PerThreadState pt, SpanBufferState sb, Blackhole bh) {
+    for (String s : INPUT) {
+      pt.tokenizer.tokenizePos(s, sb.tokens);
+      bh.consume(sb.tokens.size());
+    }
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void sharedInstanceSpanBuffer(SharedState st, SpanBufferState sb, Blackhole bh) {
+    for (String s : INPUT) {
+      st.tokenizer.tokenizePos(s, sb.tokens);
+      bh.consume(sb.tokens.size());
+    }
+  }
+
   /**
    * Quick local iteration only: {@code forks(0)} disables JVM fork isolation
    * (unlike {@code mvn} with the {@code jmh} profile).
@@ -18,17 +18,26 @@
 package opennlp.tools.chunker;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 /**
  * Cross validator for {@link Chunker}.
  */
 public class ChunkerCrossValidator {
 
+  private static class FoldRecorder extends RecordingEvaluationMonitor<ChunkSample>
+      implements ChunkerEvaluationMonitor {
+  }
+
+  private record FoldResult(FMeasure fmeasure, FoldRecorder recorder) {
+  }
+
   private final String languageCode;
   private final TrainingParameters params;
 
@@ -61,19 +70,40 @@ public class ChunkerCrossValidator {
    * @throws IOException Thrown if IO errors occurred.
    */
   public void evaluate(ObjectStream<ChunkSample> samples, int nFolds) throws IOException {
-    CrossValidationPartitioner<ChunkSample> partitioner = new CrossValidationPartitioner<>(samples, nFolds);
+    evaluate(samples, nFolds, 1);
+  }
 
-    while (partitioner.hasNext()) {
+  /**
+   * Starts the evaluation and trains and tests up to {@code threads} folds at the same time.
+   * The listeners are notified in fold order after all folds are done.
+   *
+   * @param samples The {@link ObjectStream} of {@link ChunkSample samples} to train and test with.
+   * @param nFolds Number of folds. It must be greater than zero.
+   * @param threads Number of folds which are evaluated in parallel. It must be greater than zero.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void evaluate(ObjectStream<ChunkSample> samples, int nFolds, int threads) throws IOException {
+    CrossValidationPartitioner<ChunkSample> partitioner = new CrossValidationPartitioner<>(samples, nFolds);
 
-      CrossValidationPartitioner.TrainingSampleStream<ChunkSample> trainingSampleStream = partitioner.next();
+    List<FoldResult> results = partitioner.evaluate(threads, trainingSampleStream -> {
+      FoldRecorder recorder = threads > 1 ? new FoldRecorder() : null;
       ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
-          params, chunkerFactory);
+          threads > 1 ? new TrainingParameters(params) : params, chunkerFactory);
 
       // do testing
-      ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model), listeners);
+      ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model),
+          recorder != null ? new ChunkerEvaluationMonitor[] {recorder} : listeners);
       evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+      return new FoldResult(evaluator.getFMeasure(), recorder);
+    });
+
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
+      }
+      fmeasure.mergeInto(result.fmeasure());
     }
   }
 
@@ -69,6 +69,11 @@ public class ChunkerEvaluator extends Evaluator<ChunkSample> {
     return result;
   }
 
+  @Override
+  protected void merge(Evaluator<ChunkSample> shard) {
+    fmeasure.mergeInto(((ChunkerEvaluator) shard).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
@@ -21,23 +21,28 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.commons.ThreadSafe;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
+import opennlp.tools.ml.ViterbiSearch;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.models.ModelType;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.TokenTag;
 import opennlp.tools.util.TrainingParameters;
 
@@ -86,15 +91,37 @@ public class ChunkerME implements Chunker, Probabilistic {
    * @param model A valid {@link ChunkerModel model} instance.
    */
   public ChunkerME(ChunkerModel model) {
+    this(model, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link Chunker} with the specified {@link ChunkerModel} and {@link StateStrategy}.
+   * The {@link #DEFAULT_BEAM_SIZE} is used.
+   *
+   * @param model A valid {@link ChunkerModel model} instance.
+   * @param stateStrategy The {@link StateStrategy} which manages the scratch state of the threads
+   *     using this chunker, e.g. {@link StateStrategy#POOLED} for virtual threads.
+   */
+  public ChunkerME(ChunkerModel model, StateStrategy stateStrategy) {
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
     contextGenerator = model.getFactory().getContextGenerator();
     sequenceValidator = model.getFactory().getSequenceValidator();
 
-    if (model.getChunkerSequenceModel() != null) {
-      this.model = model.getChunkerSequenceModel();
+    SequenceClassificationModel sequenceModel = model.getChunkerSequenceModel();
+    if (sequenceModel instanceof BeamSearch beamSearch) {
+      this.model = beamSearch.withStateStrategy(stateStrategy);
+    }
+    else if (sequenceModel instanceof ViterbiSearch viterbiSearch) {
+      this.model = viterbiSearch.withStateStrategy(stateStrategy);
+    }
+    else if (sequenceModel != null) {
+      this.model = sequenceModel;
     }
     else {
       this.model = new BeamSearch(DEFAULT_BEAM_SIZE,
-              model.getArtifact(ChunkerModel.CHUNKER_MODEL_ENTRY_NAME), 0);
+              model.getArtifact(ChunkerModel.CHUNKER_MODEL_ENTRY_NAME), 0, stateStrategy);
     }
   }
 
@@ -111,6 +138,53 @@ public class ChunkerME implements Chunker, Probabilistic {
     return c.toArray(new String[0]);
   }
 
+  /**
+   * Chunks the sentences of a document. The decoding state of the calling thread is reused
+   * for all sentences. Unlike {@link #chunk(String[], String[])}, this does not change the
+   * sequence which {@link #probs()} refers to.
+   *
+   * @param toks The tokens of each sentence.
+   * @param tags The POS tags of each sentence.
+   * @return The chunk tags of each sentence, in the order of the sentences.
+   * @throws IllegalArgumentException Thrown if the number of sentences of {@code toks} and
+   *                                  {@code tags} differ.
+   */
+  public String[][] chunk(String[][] toks, String[][] tags) {
+    return chunk(toks, tags, null);
+  }
+
+  /**
+   * Chunks the sentences of a document, spread over the threads of an {@link Executor}.
+   * Unlike {@link #chunk(String[], String[])}, this does not change the sequence which
+   * {@link #probs()} refers to.
+   *
+   * @param toks The tokens of each sentence.
+   * @param tags The POS tags of each sentence.
+   * @param executor The {@link Executor} which chunks slices of the sentences, or
+   *                 {@code null} to chunk all of them on the calling thread.
+   * @return The chunk tags of each sentence, in the order of the sentences.
+   * @throws IllegalArgumentException Thrown if the number of sentences of {@code toks} and
+   *                                  {@code tags} differ.
+   */
+  public String[][] chunk(String[][] toks, String[][] tags, Executor executor) {
+    if (toks.length != tags.length) {
+      throw new IllegalArgumentException("There must be POS tags for each sentence");
+    }
+    TokenTag[][] tuples = new TokenTag[toks.length][];
+    for (int si = 0; si < toks.length; si++) {
+      tuples[si] = TokenTag.create(toks[si], tags[si]);
+    }
+
+    Sequence[] sequences = model.bestSequences(tuples, null, contextGenerator, sequenceValidator,
+        executor);
+    String[][] chunks = new String[toks.length][];
+    for (int si = 0; si < chunks.length; si++) {
+      chunks[si] = sequences[si] == null ? new String[toks[si].length]
+          : sequences[si].getOutcomes().toArray(new String[0]);
+    }
+    return chunks;
+  }
+
   @Override
   public Span[] chunkAsSpans(String[] toks, String[] tags) {
     String[] preds = chunk(toks, tags);
@@ -190,13 +264,15 @@ public class ChunkerME implements Chunker, Probabilistic {
     int beamSize = mlParams.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, ChunkerME.DEFAULT_BEAM_SIZE);
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
+    SequenceDecoderFactory.putManifestEntries(mlParams, manifestInfoEntries);
 
     TrainerType trainerType = TrainerFactory.getTrainerType(mlParams);
     MaxentModel chunkerModel = null;
     SequenceClassificationModel seqChunkerModel = null;
 
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> es = new ChunkerEventStream(in, factory.getContextGenerator());
+      ObjectStream<Event> es = ParallelEventStream.create(in, mlParams,
+          s -> new ChunkerEventStream(s, factory.getContextGenerator()));
       EventTrainer<TrainingParameters> trainer =
               TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
       chunkerModel = trainer.train(es);
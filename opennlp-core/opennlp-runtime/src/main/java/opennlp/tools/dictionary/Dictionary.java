@@ -25,6 +25,7 @@ import java.io.Reader;
 import java.util.AbstractSet;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
 import java.util.StringTokenizer;
 
@@ -37,16 +38,30 @@ import opennlp.tools.util.model.SerializableArtifact;
 
 /**
  * An iterable and serializable dictionary implementation.
+ * <p>
+ * A {@link Dictionary} is either mutable, or frozen. A frozen dictionary, created by
+ * {@link #freeze()}, {@link #loadFrozen(InputStream)} or {@link #Dictionary(TokenTrie)}, stores
+ * its entries in a {@link TokenTrie} instead of a set of {@link StringList} objects. Each distinct
+ * token is stored once and entries share their common prefixes, which reduces the memory of
+ * large gazetteers considerably. A frozen dictionary rejects modifications with an
+ * {@link UnsupportedOperationException}.
  *
  * @see SerializableArtifact
  * @see Iterable
  */
 public class Dictionary implements Iterable<StringList>, SerializableArtifact {
-  private final Set<StringList> entrySet = new HashSet<>();
+  private final Set<StringList> entrySet;
   private final boolean isCaseSensitive;
+  private final boolean frozen;
   private int minTokenCount = 99999;
   private int maxTokenCount = 0;
 
+  /**
+   * Built on demand by {@link #getTokenTrie()}, reset when the entries change.
+   * A frozen dictionary stores its entries in it.
+   */
+  private volatile TokenTrie tokenTrie;
+
   /**
    * Initializes an empty {@link Dictionary}.
    * By default, the resulting instance will not be case-sensitive.
@@ -61,7 +76,26 @@ public class Dictionary implements Iterable<StringList>, SerializableArtifact {
    * @param caseSensitive Whether the new instance will operate case-sensitive, or not.
    */
   public Dictionary(boolean caseSensitive) {
+    entrySet = new HashSet<>();
     isCaseSensitive = caseSensitive;
+    frozen = false;
+  }
+
+  /**
+   * Initializes a frozen {@link Dictionary} with the entries and the case sensitivity of
+   * a {@link TokenTrie}, e.g. one read with {@link TokenTrie#read(InputStream)}.
+   *
+   * @param trie The {@link TokenTrie} which holds the entries. Must not be {@code null}.
+   */
+  public Dictionary(TokenTrie trie) {
+    tokenTrie = Objects.requireNonNull(trie, "trie must not be null");
+    entrySet = new TrieEntrySet(trie);
+    isCaseSensitive = trie.isCaseSensitive();
+    frozen = true;
+    if (trie.size() > 0) {
+      minTokenCount = trie.getMinTokenCount();
+      maxTokenCount = trie.getMaxTokenCount();
+    }
   }
 
   /**
@@ -72,16 +106,53 @@ public class Dictionary implements Iterable<StringList>, SerializableArtifact {
    * @throws IOException Thrown if IO errors occurred.
    */
   public Dictionary(InputStream in) throws IOException {
+    entrySet = new HashSet<>();
+    frozen = false;
     isCaseSensitive = DictionaryEntryPersistor.create(in, entry -> put(entry.tokens()));
   }
 
+  /**
+   * Reads a frozen {@link Dictionary} from a dictionary resource, as written by
+   * {@link #serialize(OutputStream)}. The entries are streamed into the {@link TokenTrie},
+   * no intermediate mutable dictionary is created.
+   *
+   * @param in The {@link InputStream} that references the dictionary content.
+   * @return The frozen {@link Dictionary}.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public static Dictionary loadFrozen(InputStream in) throws IOException {
+    final TokenTrie.Builder builder = new TokenTrie.Builder();
+    final boolean caseSensitive = DictionaryEntryPersistor.create(in, entry -> builder.add(entry.tokens()));
+    return new Dictionary(builder.build(caseSensitive));
+  }
+
+  /**
+   * Creates a frozen copy of this dictionary, see {@link Dictionary}.
+   *
+   * @return The frozen {@link Dictionary}, or this instance if it is frozen already.
+   */
+  public Dictionary freeze() {
+    return frozen ? this : new Dictionary(getTokenTrie());
+  }
+
+  /**
+   * @return {@code true} if this dictionary is frozen and cannot be modified.
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
   /**
    * Adds the tokens to the dictionary as one new entry.
    *
    * @param tokens the new entry
+   * @throws UnsupportedOperationException Thrown if this dictionary is frozen.
    */
   public void put(StringList tokens) {
+    checkNotFrozen();
     entrySet.add(applyCaseSensitivity(tokens));
+    tokenTrie = null;
     minTokenCount = StrictMath.min(minTokenCount, tokens.size());
     maxTokenCount = StrictMath.max(maxTokenCount, tokens.size());
   }
@@ -108,9 +179,27 @@ public class Dictionary implements Iterable<StringList>, SerializableArtifact {
    * Removes the given tokens form the current instance.
    *
    * @param tokens The tokens to be filtered out (= removed).
+   * @throws UnsupportedOperationException Thrown if this dictionary is frozen.
    */
   public void remove(StringList tokens) {
+    checkNotFrozen();
     entrySet.remove(applyCaseSensitivity(tokens));
+    tokenTrie = null;
+  }
+
+  /**
+   * Retrieves a {@link TokenTrie} over the entries of this dictionary, with the same case
+   * sensitivity. The trie is built on the first call and reused until the entries change.
+   *
+   * @return The {@link TokenTrie} of the current entries.
+   */
+  public TokenTrie getTokenTrie() {
+    TokenTrie trie = tokenTrie;
+    if (trie == null) {
+      trie = TokenTrie.create(entrySet, isCaseSensitive);
+      tokenTrie = trie;
+    }
+    return trie;
   }
 
   /**
@@ -134,7 +223,9 @@ public class Dictionary implements Iterable<StringList>, SerializableArtifact {
 
       @Override
       public void remove() {
+        checkNotFrozen();
         entries.remove();
+        tokenTrie = null;
       }
     };
   }
@@ -341,6 +432,12 @@ public class Dictionary implements Iterable<StringList>, SerializableArtifact {
     return isCaseSensitive;
   }
 
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new UnsupportedOperationException("The dictionary is frozen");
+    }
+  }
+
   private StringList applyCaseSensitivity(StringList list) {
     if (isCaseSensitive) {
       return list.toCaseSensitive();
@@ -348,4 +445,30 @@ public class Dictionary implements Iterable<StringList>, SerializableArtifact {
       return list.toCaseInsensitive();
     }
   }
+
+  /**
+   * A read-only view of the entries of a {@link TokenTrie}.
+   */
+  private static final class TrieEntrySet extends AbstractSet<StringList> {
+    private final TokenTrie trie;
+
+    private TrieEntrySet(TokenTrie trie) {
+      this.trie = trie;
+    }
+
+    @Override
+    public Iterator<StringList> iterator() {
+      return trie.iterator();
+    }
+
+    @Override
+    public int size() {
+      return trie.size();
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+      return obj instanceof StringList entry && trie.contains(entry);
+    }
+  }
 }
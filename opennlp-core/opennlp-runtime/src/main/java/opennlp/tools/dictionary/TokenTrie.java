@@ -0,0 +1,659 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.dictionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import opennlp.tools.commons.ThreadSafe;
+import opennlp.tools.ml.model.AbstractModelReader;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.StringList;
+import opennlp.tools.util.model.ArtifactSerializer;
+import opennlp.tools.util.model.SerializableArtifact;
+
+/**
+ * An immutable token-level trie over the entries of a {@link Dictionary}, for finding
+ * dictionary entries in token sequences without allocating a {@link StringList} per probe.
+ * <p>
+ * Every distinct token is mapped to an integer id by an open addressing hash table. In
+ * case-insensitive mode, the table hashes and compares tokens ignoring case, as
+ * {@link String#equalsIgnoreCase(String)} does, so input tokens are never lower cased.
+ * The trie is stored in flat arrays: the outgoing edges of node {@code n} are located in
+ * {@code [childStart[n], childStart[n + 1])} of {@code childTokens} and {@code childNodes},
+ * sorted by token id. Node {@code 0} is the root.
+ * <p>
+ * A {@link TokenTrie} can be persisted as a model artifact, so large gazetteers can be loaded
+ * without rebuilding the trie from the dictionary entries.
+ *
+ * @see Dictionary#getTokenTrie()
+ */
+@ThreadSafe
+public final class TokenTrie implements Iterable<StringList>, SerializableArtifact {
+
+  /**
+   * The {@link ArtifactSerializer} for {@link TokenTrie} artifacts.
+   */
+  public static class TokenTrieSerializer implements ArtifactSerializer<TokenTrie> {
+
+    @Override
+    public TokenTrie create(InputStream in) throws IOException {
+      // the stream of an artifact ends with its zip entry, buffering cannot read past the trie
+      try {
+        return TokenTrie.read(new DataInputStream(new BufferedInputStream(in)));
+      } catch (EOFException e) {
+        throw new InvalidFormatException("Truncated token trie", e);
+      }
+    }
+
+    @Override
+    public void serialize(TokenTrie artifact, OutputStream out) throws IOException {
+      artifact.serialize(out);
+    }
+  }
+
+  private static final int MAGIC = 0x4F4E5454; // "ONTT"
+  private static final int VERSION = 1;
+
+  private final boolean caseSensitive;
+
+  // the token vocabulary
+  private final String[] tokens;
+  private final int[] table;
+
+  // the trie
+  private final int[] childStart;
+  private final int[] childTokens;
+  private final int[] childNodes;
+  private final long[] terminal;
+  private final int size;
+  private final int minTokenCount;
+  private final int maxTokenCount;
+
+  private TokenTrie(boolean caseSensitive, String[] tokens, int[] childStart, int[] childTokens,
+                    int[] childNodes, long[] terminal) {
+    this.caseSensitive = caseSensitive;
+    this.tokens = tokens;
+    this.childStart = childStart;
+    this.childTokens = childTokens;
+    this.childNodes = childNodes;
+    this.terminal = terminal;
+    this.table = new int[tableSize(tokens.length)];
+
+    for (int id = 0; id < tokens.length; id++) {
+      int slot = hash(tokens[id]) & (table.length - 1);
+      while (table[slot] != 0) {
+        slot = (slot + 1) & (table.length - 1);
+      }
+      table[slot] = id + 1;
+    }
+
+    int entries = 0;
+    for (long word : terminal) {
+      entries += Long.bitCount(word);
+    }
+    this.size = entries;
+
+    // a child is always created after its parent, so parents have lower ids
+    final int nodes = childStart.length - 1;
+    final int[] depth = new int[nodes];
+    int min = Integer.MAX_VALUE;
+    int max = 0;
+    for (int n = 0; n < nodes; n++) {
+      if (n > 0 && isTerminal(n)) {
+        min = Math.min(min, depth[n]);
+      }
+      // every leaf is terminal, so the deepest node ends the longest entry
+      max = Math.max(max, depth[n]);
+      for (int e = childStart[n]; e < childStart[n + 1]; e++) {
+        depth[childNodes[e]] = depth[n] + 1;
+      }
+    }
+    this.minTokenCount = entries == 0 ? 0 : min;
+    this.maxTokenCount = max;
+  }
+
+  /**
+   * Builds a {@link TokenTrie} from the specified entries.
+   *
+   * @param entries The entries, as {@link StringList token lists}. Duplicate entries, in the
+   *                sense of the case sensitivity of the trie, are added only once.
+   * @param caseSensitive Whether tokens are matched case-sensitive.
+   * @return The {@link TokenTrie}.
+   */
+  public static TokenTrie create(Iterable<StringList> entries, boolean caseSensitive) {
+    final Builder builder = new Builder();
+    for (StringList entry : entries) {
+      builder.add(entry);
+    }
+    return builder.build(caseSensitive);
+  }
+
+  /**
+   * Collects entries for a {@link TokenTrie}. The entries are kept as sequences of token ids,
+   * so that large entry sources can be streamed into a trie without holding a
+   * {@link StringList} per entry. The case sensitivity is only needed by {@link #build(boolean)},
+   * it can therefore be read from the end of the source.
+   */
+  public static final class Builder {
+
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final List<String> tokenList = new ArrayList<>();
+    // the entries, each stored as its token count followed by its token ids
+    private int[] entries = new int[1024];
+    private int length;
+
+    /**
+     * Adds an entry.
+     *
+     * @param entry The entry to add. Must not be {@code null}.
+     * @return This {@link Builder}.
+     */
+    public Builder add(StringList entry) {
+      ensureCapacity(entry.size() + 1);
+      entries[length++] = entry.size();
+      for (String token : entry) {
+        entries[length++] = vocabulary.computeIfAbsent(token, key -> {
+          tokenList.add(key);
+          return tokenList.size() - 1;
+        });
+      }
+      return this;
+    }
+
+    private void ensureCapacity(int required) {
+      if (length + required > entries.length) {
+        entries = Arrays.copyOf(entries, Math.max(entries.length * 2, length + required));
+      }
+    }
+
+    /**
+     * Builds the {@link TokenTrie} of all entries added so far.
+     *
+     * @param caseSensitive Whether tokens are matched case-sensitive.
+     * @return The {@link TokenTrie}.
+     */
+    public TokenTrie build(boolean caseSensitive) {
+      // in case-insensitive mode, tokens which differ in case only are merged into one id
+      final int[] ids = new int[tokenList.size()];
+      final List<String> tokens = new ArrayList<>();
+      final Map<String, Integer> merged = new HashMap<>();
+      for (int i = 0; i < ids.length; i++) {
+        final String token = tokenList.get(i);
+        ids[i] = merged.computeIfAbsent(caseSensitive ? token : fold(token), key -> {
+          tokens.add(token);
+          return tokens.size() - 1;
+        });
+      }
+
+      final EdgeMap edges = new EdgeMap();
+      final BitSet terminalNodes = new BitSet();
+      int nodes = 1;
+      for (int i = 0; i < length; ) {
+        final int end = i + 1 + entries[i];
+        int node = 0;
+        for (i++; i < end; i++) {
+          final long edge = ((long) node << 32) | ids[entries[i]];
+          int child = edges.get(edge);
+          if (child < 0) {
+            child = nodes++;
+            edges.put(edge, child);
+          }
+          node = child;
+        }
+        terminalNodes.set(node);
+      }
+
+      // group the edges by parent node and sort them by token id
+      final int[] childStart = new int[nodes + 1];
+      for (int i = 0; i < edges.keys.length; i++) {
+        if (edges.values[i] > 0) {
+          childStart[(int) (edges.keys[i] >>> 32) + 1]++;
+        }
+      }
+      for (int n = 0; n < nodes; n++) {
+        childStart[n + 1] += childStart[n];
+      }
+      final long[] sorted = new long[edges.size];
+      final int[] fill = Arrays.copyOf(childStart, nodes);
+      for (int i = 0; i < edges.keys.length; i++) {
+        if (edges.values[i] > 0) {
+          final int parent = (int) (edges.keys[i] >>> 32);
+          final long token = edges.keys[i] & 0xFFFFFFFFL;
+          sorted[fill[parent]++] = (token << 32) | edges.values[i];
+        }
+      }
+      final int[] childTokens = new int[sorted.length];
+      final int[] childNodes = new int[sorted.length];
+      for (int n = 0; n < nodes; n++) {
+        Arrays.sort(sorted, childStart[n], childStart[n + 1]);
+      }
+      for (int i = 0; i < sorted.length; i++) {
+        childTokens[i] = (int) (sorted[i] >>> 32);
+        childNodes[i] = (int) sorted[i];
+      }
+
+      return new TokenTrie(caseSensitive, tokens.toArray(new String[0]), childStart, childTokens,
+          childNodes, Arrays.copyOf(terminalNodes.toLongArray(), (nodes + 63) / 64));
+    }
+  }
+
+  /**
+   * An open addressing map from edges, encoded as parent node and token id, to child nodes.
+   * Child nodes are always greater than zero, so zero marks a free slot.
+   */
+  private static final class EdgeMap {
+    private long[] keys = new long[1024];
+    private int[] values = new int[1024];
+    private int size;
+
+    int get(long key) {
+      final int mask = keys.length - 1;
+      for (int slot = spread(Long.hashCode(key)) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+        if (keys[slot] == key) {
+          return values[slot];
+        }
+      }
+      return -1;
+    }
+
+    void put(long key, int value) {
+      if (2 * (size + 1) > keys.length) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+          if (oldValues[i] != 0) {
+            insert(oldKeys[i], oldValues[i]);
+          }
+        }
+      }
+      insert(key, value);
+      size++;
+    }
+
+    private void insert(long key, int value) {
+      final int mask = keys.length - 1;
+      int slot = spread(Long.hashCode(key)) & mask;
+      while (values[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+    }
+  }
+
+  /**
+   * @param token The token to look up.
+   * @return The id of {@code token}, or {@code -1} if no entry contains it.
+   */
+  public int getTokenId(String token) {
+    if (token == null) {
+      return -1;
+    }
+    final int mask = table.length - 1;
+    int slot = hash(token) & mask;
+    int id;
+    while ((id = table[slot]) != 0) {
+      if (matches(tokens[id - 1], token)) {
+        return id - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Maps each token to its id, see {@link #getTokenId(String)}.
+   *
+   * @param tokens The tokens to look up.
+   * @return The token ids.
+   */
+  public int[] getTokenIds(String[] tokens) {
+    final int[] ids = new int[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      ids[i] = getTokenId(tokens[i]);
+    }
+    return ids;
+  }
+
+  /**
+   * Computes the length of the longest entry which starts at {@code start}.
+   *
+   * @param tokenIds The ids of the tokens to search, as returned by {@link #getTokenIds(String[])}.
+   * @param start The index of the first token of the entry.
+   * @return The number of tokens of the longest matching entry, or {@code 0} if no entry matches.
+   */
+  public int longestMatch(int[] tokenIds, int start) {
+    int node = 0;
+    int longest = 0;
+    for (int i = start; i < tokenIds.length; i++) {
+      node = child(node, tokenIds[i]);
+      if (node < 0) {
+        break;
+      }
+      if (isTerminal(node)) {
+        longest = i - start + 1;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Computes the length of the longest entry which starts at {@code start}.
+   *
+   * @param tokens The tokens to search.
+   * @param start The index of the first token of the entry.
+   * @return The number of tokens of the longest matching entry, or {@code 0} if no entry matches.
+   */
+  public int longestMatch(String[] tokens, int start) {
+    int node = 0;
+    int longest = 0;
+    for (int i = start; i < tokens.length; i++) {
+      node = child(node, getTokenId(tokens[i]));
+      if (node < 0) {
+        break;
+      }
+      if (isTerminal(node)) {
+        longest = i - start + 1;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * @param entry The entry to check.
+   * @return {@code true} if the trie contains {@code entry}, {@code false} otherwise.
+   */
+  public boolean contains(StringList entry) {
+    int node = 0;
+    for (String token : entry) {
+      node = child(node, getTokenId(token));
+      if (node < 0) {
+        return false;
+      }
+    }
+    return isTerminal(node);
+  }
+
+  /**
+   * @return The number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The number of tokens of the shortest entry, or {@code 0} if the trie is empty.
+   */
+  public int getMinTokenCount() {
+    return minTokenCount;
+  }
+
+  /**
+   * @return The number of tokens of the longest entry.
+   */
+  public int getMaxTokenCount() {
+    return maxTokenCount;
+  }
+
+  /**
+   * @return {@code true} if tokens are matched case-sensitive, {@code false} otherwise.
+   */
+  public boolean isCaseSensitive() {
+    return caseSensitive;
+  }
+
+  /**
+   * @return An {@link Iterator} over the entries, in depth-first order of the trie. Each entry
+   *         is a new {@link StringList} with the case sensitivity of the trie.
+   */
+  @Override
+  public Iterator<StringList> iterator() {
+    return new Iterator<>() {
+      // the path from the root to the current node, and the next edge to visit on each level
+      private final int[] path = new int[maxTokenCount + 1];
+      private final int[] nextEdge = new int[maxTokenCount + 1];
+      private final String[] entryTokens = new String[maxTokenCount];
+      private int level;
+      private StringList next;
+
+      {
+        nextEdge[0] = childStart[0];
+        advance();
+      }
+
+      private void advance() {
+        next = null;
+        while (level >= 0 && next == null) {
+          final int e = nextEdge[level];
+          if (e < childStart[path[level] + 1]) {
+            nextEdge[level]++;
+            entryTokens[level] = tokens[childTokens[e]];
+            level++;
+            path[level] = childNodes[e];
+            nextEdge[level] = childStart[childNodes[e]];
+            if (isTerminal(childNodes[e])) {
+              next = new StringList(caseSensitive, Arrays.copyOf(entryTokens, level));
+            }
+          } else {
+            level--;
+          }
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public StringList next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        final StringList entry = next;
+        advance();
+        return entry;
+      }
+    };
+  }
+
+  private int child(int node, int tokenId) {
+    if (tokenId < 0) {
+      return -1;
+    }
+    final int index = Arrays.binarySearch(childTokens, childStart[node], childStart[node + 1], tokenId);
+    return index >= 0 ? childNodes[index] : -1;
+  }
+
+  private boolean isTerminal(int node) {
+    return (terminal[node >>> 6] & (1L << node)) != 0;
+  }
+
+  private boolean matches(String stored, String token) {
+    return caseSensitive ? stored.equals(token) : stored.equalsIgnoreCase(token);
+  }
+
+  private int hash(String token) {
+    if (caseSensitive) {
+      return spread(token.hashCode());
+    }
+    int h = 0;
+    for (int i = 0; i < token.length(); ) {
+      final int cp = token.codePointAt(i);
+      h = 31 * h + Character.toLowerCase(Character.toUpperCase(cp));
+      i += Character.charCount(cp);
+    }
+    return spread(h);
+  }
+
+  /**
+   * Folds the case of {@code token} consistently with {@link String#equalsIgnoreCase(String)}.
+   */
+  private static String fold(String token) {
+    final StringBuilder folded = new StringBuilder(token.length());
+    for (int i = 0; i < token.length(); ) {
+      final int cp = token.codePointAt(i);
+      folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp)));
+      i += Character.charCount(cp);
+    }
+    return folded.toString();
+  }
+
+  private static int spread(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int tableSize(int numTokens) {
+    return Integer.highestOneBit(Math.max(2, numTokens * 2) - 1) << 1;
+  }
+
+  /**
+   * Writes this trie in a compact binary format, see {@link #read(InputStream)}.
+   * The {@link OutputStream} remains open.
+   *
+   * @param out The {@link OutputStream} to write to.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void serialize(OutputStream out) throws IOException {
+    final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeBoolean(caseSensitive);
+
+    data.writeInt(tokens.length);
+    for (String token : tokens) {
+      final byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+      data.writeInt(bytes.length);
+      data.write(bytes);
+    }
+
+    data.writeInt(childStart.length - 1);
+    for (int start : childStart) {
+      data.writeInt(start);
+    }
+    for (int i = 0; i < childTokens.length; i++) {
+      data.writeInt(childTokens[i]);
+      data.writeInt(childNodes[i]);
+    }
+    for (long word : terminal) {
+      data.writeLong(word);
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads a {@link TokenTrie} written by {@link #serialize(OutputStream)}.
+   * The {@link InputStream} remains open and is not read beyond the end of the trie,
+   * it is not buffered either: pass a buffered stream if it is not one already.
+   *
+   * @param in The {@link InputStream} to read from.
+   * @return The {@link TokenTrie}.
+   * @throws InvalidFormatException Thrown if the data is not a valid {@link TokenTrie}.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public static TokenTrie read(InputStream in) throws IOException {
+    try {
+      return read(new DataInputStream(in));
+    } catch (EOFException e) {
+      throw new InvalidFormatException("Truncated token trie", e);
+    }
+  }
+
+  private static TokenTrie read(DataInputStream data) throws IOException {
+    if (data.readInt() != MAGIC) {
+      throw new InvalidFormatException("Not a token trie");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new InvalidFormatException("Unsupported token trie version: " + version);
+    }
+    final boolean caseSensitive = data.readBoolean();
+
+    final String[] tokens = new String[checkCount(data.readInt())];
+    for (int i = 0; i < tokens.length; i++) {
+      final byte[] bytes = new byte[checkCount(data.readInt())];
+      data.readFully(bytes);
+      tokens[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    final int nodes = checkCount(data.readInt());
+    if (nodes < 1) {
+      throw new InvalidFormatException("A token trie must have a root node");
+    }
+    final int[] childStart = new int[nodes + 1];
+    for (int n = 0; n <= nodes; n++) {
+      childStart[n] = data.readInt();
+      if (n > 0 && childStart[n] < childStart[n - 1]) {
+        throw new InvalidFormatException("Invalid edge offsets");
+      }
+    }
+    if (childStart[0] != 0 || childStart[nodes] != nodes - 1) {
+      throw new InvalidFormatException("Invalid number of edges");
+    }
+    final int[] childTokens = new int[nodes - 1];
+    final int[] childNodes = new int[nodes - 1];
+    for (int n = 0; n < nodes; n++) {
+      for (int e = childStart[n]; e < childStart[n + 1]; e++) {
+        childTokens[e] = data.readInt();
+        childNodes[e] = data.readInt();
+        if (childTokens[e] < 0 || childTokens[e] >= tokens.length
+            || (e > childStart[n] && childTokens[e] <= childTokens[e - 1])
+            || childNodes[e] <= n || childNodes[e] >= nodes) {
+          throw new InvalidFormatException("Invalid edge " + e);
+        }
+      }
+    }
+    final long[] terminal = new long[(nodes + 63) / 64];
+    for (int i = 0; i < terminal.length; i++) {
+      terminal[i] = data.readLong();
+    }
+    return new TokenTrie(caseSensitive, tokens, childStart, childTokens, childNodes, terminal);
+  }
+
+  private static int checkCount(int count) throws InvalidFormatException {
+    if (count < 0 || count > AbstractModelReader.MAX_ENTRIES) {
+      throw new InvalidFormatException("Invalid count: " + count + ", the limit is "
+          + AbstractModelReader.MAX_ENTRIES);
+    }
+    return count;
+  }
+
+  @Override
+  public Class<?> getArtifactSerializerClass() {
+    return TokenTrieSerializer.class;
+  }
+}
@@ -76,6 +76,11 @@ public class DocumentCategorizerEvaluator extends Evaluator<DocumentSample> {
     return new DocumentSample(cat, sample.getText());
   }
 
+  @Override
+  protected void merge(Evaluator<DocumentSample> shard) {
+    accuracy.mergeInto(((DocumentCategorizerEvaluator) shard).accuracy);
+  }
+
   /**
    * {@code accuracy = correctly categorized documents / total documents}
    *
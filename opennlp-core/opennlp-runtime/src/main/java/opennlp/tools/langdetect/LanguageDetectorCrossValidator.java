@@ -18,17 +18,26 @@
 package opennlp.tools.langdetect;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.Mean;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 /**
  * Cross validator for {@link LanguageDetector}.
  */
 public class LanguageDetectorCrossValidator {
 
+  private static class FoldRecorder extends RecordingEvaluationMonitor<LanguageSample>
+      implements LanguageDetectorEvaluationMonitor {
+  }
+
+  private record FoldResult(double accuracy, long documentCount, FoldRecorder recorder) {
+  }
+
   private final TrainingParameters params;
 
   private final Mean documentAccuracy = new Mean();
@@ -64,26 +73,45 @@ public class LanguageDetectorCrossValidator {
    */
   public void evaluate(ObjectStream<LanguageSample> samples, int nFolds)
       throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
+
+  /**
+   * Starts the evaluation and trains and tests up to {@code threads} folds at the same time.
+   * The listeners are notified in fold order after all folds are done.
+   *
+   * @param samples The {@link ObjectStream} of {@link LanguageSample samples} to train and test with.
+   * @param nFolds Number of folds. It must be greater than zero.
+   * @param threads Number of folds which are evaluated in parallel. It must be greater than zero.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void evaluate(ObjectStream<LanguageSample> samples, int nFolds, int threads)
+      throws IOException {
 
     CrossValidationPartitioner<LanguageSample> partitioner =
         new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<LanguageSample> trainingSampleStream =
-          partitioner.next();
+    List<FoldResult> results = partitioner.evaluate(threads, trainingSampleStream -> {
+      FoldRecorder recorder = threads > 1 ? new FoldRecorder() : null;
 
       LanguageDetectorModel model = LanguageDetectorME.train(
-          trainingSampleStream, params, factory);
+          trainingSampleStream, threads > 1 ? new TrainingParameters(params) : params, factory);
 
       LanguageDetectorEvaluator evaluator = new LanguageDetectorEvaluator(
-          new LanguageDetectorME(model), listeners);
+          new LanguageDetectorME(model),
+          recorder != null ? new LanguageDetectorEvaluationMonitor[] {recorder} : listeners);
 
       evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      documentAccuracy.add(evaluator.getAccuracy(),
-          evaluator.getDocumentCount());
+      return new FoldResult(evaluator.getAccuracy(), evaluator.getDocumentCount(), recorder);
+    });
 
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
+      }
+      documentAccuracy.add(result.accuracy(), result.documentCount());
     }
   }
 
@@ -71,6 +71,11 @@ public class LanguageDetectorEvaluator extends Evaluator<LanguageSample> {
     return new LanguageSample(predicted, sample.context());
   }
 
+  @Override
+  protected void merge(Evaluator<LanguageSample> shard) {
+    accuracy.mergeInto(((LanguageDetectorEvaluator) shard).accuracy);
+  }
+
   /**
    * @return Retrieves the accuracy of provided {@link DocumentCategorizer}.
    *         Here: {@code accuracy = correctly categorized documents / total documents}.
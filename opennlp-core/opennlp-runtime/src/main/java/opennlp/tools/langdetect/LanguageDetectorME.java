@@ -31,6 +31,7 @@ import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.MutableInt;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -279,8 +280,8 @@ public class LanguageDetectorME implements LanguageDetector {
         AbstractEventTrainer.DATA_INDEXER_ONE_PASS_VALUE);
 
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
-    MaxentModel model = trainer.train(
-        new LanguageDetectorEventStream(samples, factory.getContextGenerator()));
+    MaxentModel model = trainer.train(ParallelEventStream.create(samples, mlParams,
+        s -> new LanguageDetectorEventStream(s, factory.getContextGenerator())));
 
     return new LanguageDetectorModel(model, manifestInfoEntries, factory);
   }
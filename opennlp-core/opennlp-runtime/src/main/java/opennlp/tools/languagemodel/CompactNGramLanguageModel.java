@@ -0,0 +1,527 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.languagemodel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import opennlp.tools.commons.ThreadSafe;
+import opennlp.tools.ngram.NGramModel;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.StringList;
+
+/**
+ * An immutable {@link LanguageModel} which scores token sequences with Stupid Backoff, like
+ * {@link NGramLanguageModel}, but stores the ngram counts in a compact, context indexed trie.
+ * <p>
+ * Each ngram is a node of the trie, its tokens are the path from the root. Nodes are numbered
+ * in breadth-first order with the children of a node sorted by token id, so the children of
+ * node {@code p} are the consecutive nodes {@code childStart[p] + 1} to
+ * {@code childStart[p + 1]}, and only the token of each node, its count and the offsets of its
+ * children are stored. Looking up an ngram takes a binary search per token, hence scoring and
+ * {@link #predictNextTokens(String...) next token prediction} cost time proportional to the
+ * context and its continuations, not to the size of the model.
+ * <p>
+ * A model is created from an {@link NGramModel} with {@link #create(NGramModel, int)} or
+ * {@link NGramLanguageModel#compact()}, and persisted in a compact binary format with
+ * {@link #serialize(OutputStream)} and {@link #read(InputStream)}.
+ */
+@ThreadSafe
+public final class CompactNGramLanguageModel implements LanguageModel {
+
+  private static final int MAGIC = 0x4F4E4C4D; // "ONLM"
+  private static final int VERSION = 1;
+
+  private static final double BACKOFF_WEIGHT = 0.4;
+
+  private final int n;
+  // the number of distinct ngrams, the denominator of unigram scores
+  private final int size;
+
+  // the token vocabulary
+  private final String[] tokens;
+  private final int[] table;
+
+  // the trie, node 0 is the root
+  private final int[] childStart;
+  private final int[] nodeTokens;
+  private final int[] counts;
+
+  // the nodes of the unigrams, by descending count
+  private final int[] unigramsByCount;
+
+  private CompactNGramLanguageModel(int n, int size, String[] tokens, int[] childStart,
+                                    int[] nodeTokens, int[] counts) {
+    this.n = n;
+    this.size = size;
+    this.tokens = tokens;
+    this.childStart = childStart;
+    this.nodeTokens = nodeTokens;
+    this.counts = counts;
+
+    this.table = new int[Integer.highestOneBit(Math.max(2, tokens.length * 2) - 1) << 1];
+    for (int id = 0; id < tokens.length; id++) {
+      int slot = spread(tokens[id].hashCode()) & (table.length - 1);
+      while (table[slot] != 0) {
+        slot = (slot + 1) & (table.length - 1);
+      }
+      table[slot] = id + 1;
+    }
+
+    final int unigrams = childStart[1] - childStart[0];
+    final Integer[] order = new Integer[unigrams];
+    for (int i = 0; i < unigrams; i++) {
+      order[i] = i + 1;
+    }
+    Arrays.sort(order, Comparator.comparingInt((Integer node) -> counts[node]).reversed()
+        .thenComparingInt(node -> nodeTokens[node]));
+    this.unigramsByCount = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Creates a {@link CompactNGramLanguageModel} with the ngrams and counts of an
+   * {@link NGramModel}.
+   *
+   * @param model The {@link NGramModel} with the ngram counts. Must not be {@code null}.
+   * @param n The size of the ngrams to be used for scoring. Must be greater than {@code 0}.
+   * @return The {@link CompactNGramLanguageModel}.
+   *
+   * @throws IllegalArgumentException Thrown if one of the arguments was invalid.
+   */
+  public static CompactNGramLanguageModel create(NGramModel model, int n) {
+    if (model == null) {
+      throw new IllegalArgumentException("Parameter 'model' must not be null.");
+    }
+    if (n <= 0) {
+      throw new IllegalArgumentException("Parameter 'n' must be greater than 0.");
+    }
+
+    final Map<String, Integer> vocabulary = new HashMap<>();
+    final List<String> tokenList = new ArrayList<>();
+    final List<int[]> grams = new ArrayList<>(model.size());
+    final Map<int[], Integer> gramCounts = new IdentityHashMap<>();
+    int maxLength = 0;
+    for (StringList ngram : model) {
+      final int[] gram = new int[ngram.size()];
+      for (int i = 0; i < gram.length; i++) {
+        gram[i] = vocabulary.computeIfAbsent(ngram.getToken(i), token -> {
+          tokenList.add(token);
+          return tokenList.size() - 1;
+        });
+      }
+      grams.add(gram);
+      gramCounts.put(gram, model.getCount(ngram));
+      maxLength = Math.max(maxLength, gram.length);
+    }
+    grams.sort(Arrays::compare);
+
+    // Number the nodes level by level. On each level, the distinct prefixes of the sorted
+    // ngrams are in lexicographic order, which groups them by parent and sorts each group
+    // by token id.
+    final int[] parentOf = new int[grams.size()];
+    final List<Integer> parents = new ArrayList<>();
+    final List<Integer> nodeTokens = new ArrayList<>();
+    final List<Integer> nodeCounts = new ArrayList<>();
+    nodeTokens.add(-1);
+    nodeCounts.add(0);
+    parents.add(-1);
+    for (int length = 1; length <= maxLength; length++) {
+      int[] previous = null;
+      int node = 0;
+      for (int i = 0; i < grams.size(); i++) {
+        final int[] gram = grams.get(i);
+        if (gram.length < length) {
+          continue;
+        }
+        if (previous == null || !Arrays.equals(gram, 0, length, previous, 0, length)) {
+          node = nodeTokens.size();
+          nodeTokens.add(gram[length - 1]);
+          nodeCounts.add(0);
+          parents.add(parentOf[i]);
+          previous = gram;
+        }
+        parentOf[i] = node;
+        if (gram.length == length) {
+          nodeCounts.set(node, gramCounts.get(gram));
+        }
+      }
+    }
+
+    final int nodes = nodeTokens.size();
+    final int[] childStart = new int[nodes + 1];
+    for (int node = 1; node < nodes; node++) {
+      childStart[parents.get(node) + 1]++;
+    }
+    for (int node = 0; node < nodes; node++) {
+      childStart[node + 1] += childStart[node];
+    }
+    return new CompactNGramLanguageModel(n, model.size(), tokenList.toArray(new String[0]),
+        childStart, nodeTokens.stream().mapToInt(Integer::intValue).toArray(),
+        nodeCounts.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  /**
+   * @return The size of the ngrams used for scoring.
+   */
+  public int getN() {
+    return n;
+  }
+
+  /**
+   * @return The number of distinct ngrams of this model.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Retrieves the count of an ngram.
+   *
+   * @param ngram The tokens of the ngram.
+   * @return The count of the ngram, or {@code 0} if it is not contained.
+   */
+  public int getCount(String... ngram) {
+    final int node = node(ids(ngram), 0, ngram.length);
+    return node > 0 ? counts[node] : 0;
+  }
+
+  @Override
+  public double calculateProbability(String... tokens) {
+    if (tokens.length == 0) {
+      throw new IllegalArgumentException("tokens must not be empty");
+    }
+    double probability = 0d;
+    if (size > 0) {
+      final int[] ids = ids(tokens);
+      final int window = Math.min(n, ids.length);
+      for (int start = 0; start + window <= ids.length; start++) {
+        probability += StrictMath.log(stupidBackoff(ids, start, start + window));
+        if (Double.isNaN(probability)) {
+          probability = 0d;
+          break;
+        }
+      }
+      probability = StrictMath.exp(probability);
+    }
+    return probability;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * In contrast to {@link NGramLanguageModel#predictNextTokens(String...)}, which scores every
+   * ngram of the model as a continuation, this predicts the single token with the highest
+   * Stupid Backoff score after the last {@code n - 1} of the {@code tokens}.
+   *
+   * @return The most probable next token, as array of length one, or {@code null} if the model
+   *         is empty.
+   */
+  @Override
+  public String[] predictNextTokens(String... tokens) {
+    final String[] next = topNextTokens(1, tokens);
+    return next.length > 0 ? next : null;
+  }
+
+  /**
+   * Predicts the {@code k} tokens with the highest Stupid Backoff score after the last
+   * {@code n - 1} of the {@code context} tokens. Only the continuations of the context and
+   * its suffixes in the model are scored, and the unigrams are visited in order of their
+   * counts until no further token can enter the result.
+   *
+   * @param k The maximum number of tokens to predict. Must be greater than {@code 0}.
+   * @param context The preceding tokens.
+   * @return The predicted tokens, the most probable first. Tokens with the same score keep the
+   *         order in which they were found: continuations of longer contexts first, then by
+   *         token.
+   *
+   * @throws IllegalArgumentException Thrown if {@code k} is not greater than {@code 0}.
+   */
+  public String[] topNextTokens(int k, String... context) {
+    if (k <= 0) {
+      throw new IllegalArgumentException("Parameter 'k' must be greater than 0.");
+    }
+    final int m = Math.min(n - 1, context.length);
+    final int[] ids = ids(context);
+    final int contextStart = context.length - m;
+
+    // the head of the queue is the worst of the best k candidates
+    final PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator
+        .comparingDouble(Candidate::score).thenComparing(Candidate::rank, Comparator.reverseOrder()));
+    final Set<Integer> scored = new HashSet<>();
+
+    for (int level = m; level >= 0; level--) {
+      // no score on this or a lower level can exceed the bound, except for
+      // inconsistent counts where an ngram is more frequent than its context
+      final double bound = backoff(1d, m - level);
+      if (best.size() == k && best.peek().score() >= bound) {
+        break;
+      }
+      if (level > 0) {
+        final int parent = node(ids, contextStart + m - level, contextStart + m);
+        if (parent < 0) {
+          continue;
+        }
+        final double denominator = counts[parent] == 0 ? size : counts[parent];
+        for (int child = childStart[parent] + 1; child <= childStart[parent + 1]; child++) {
+          if (counts[child] > 0 && scored.add(nodeTokens[child])) {
+            final double score = backoff(counts[child] / denominator, m - level);
+            offer(best, k, new Candidate(nodeTokens[child], score, scored.size()));
+          }
+        }
+      } else {
+        for (int unigram : unigramsByCount) {
+          final double score = backoff((double) counts[unigram] / (double) size, m);
+          if (counts[unigram] == 0 || (best.size() == k && best.peek().score() >= score)) {
+            break;
+          }
+          if (scored.add(nodeTokens[unigram])) {
+            offer(best, k, new Candidate(nodeTokens[unigram], score, scored.size()));
+          }
+        }
+      }
+    }
+
+    final String[] next = new String[best.size()];
+    for (int i = next.length - 1; i >= 0; i--) {
+      next[i] = tokens[best.poll().token()];
+    }
+    return next;
+  }
+
+  private record Candidate(int token, double score, int rank) {
+  }
+
+  private static void offer(PriorityQueue<Candidate> best, int k, Candidate candidate) {
+    if (best.size() < k) {
+      best.add(candidate);
+    } else if (candidate.score() > best.peek().score()) {
+      best.poll();
+      best.add(candidate);
+    }
+  }
+
+  /**
+   * Computes the Stupid Backoff score of the ngram {@code ids[start, end)}, with the same
+   * arithmetic as {@link NGramLanguageModel}.
+   */
+  private double stupidBackoff(int[] ids, int start, int end) {
+    int backoffs = 0;
+    double score;
+    while (true) {
+      if (end - start == 1) {
+        final int node = node(ids, start, end);
+        score = (double) (node > 0 ? counts[node] : 0) / (double) size;
+        break;
+      }
+      final int context = node(ids, start, end - 1);
+      final int ngram = context < 0 ? -1 : child(context, ids[end - 1]);
+      if (ngram > 0 && counts[ngram] > 0) {
+        double countM1 = counts[context];
+        if (countM1 == 0d) {
+          countM1 = size; // to avoid Infinite if n-1grams do not exist
+        }
+        score = (double) counts[ngram] / countM1;
+        break;
+      }
+      backoffs++;
+      start++;
+    }
+    return backoff(score, backoffs);
+  }
+
+  private static double backoff(double score, int backoffs) {
+    for (int i = 0; i < backoffs; i++) {
+      score = BACKOFF_WEIGHT * score;
+    }
+    return score;
+  }
+
+  private int[] ids(String[] tokens) {
+    final int[] ids = new int[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      ids[i] = tokenId(tokens[i]);
+    }
+    return ids;
+  }
+
+  private int tokenId(String token) {
+    if (token == null) {
+      return -1;
+    }
+    final int mask = table.length - 1;
+    int slot = spread(token.hashCode()) & mask;
+    int id;
+    while ((id = table[slot]) != 0) {
+      if (tokens[id - 1].equals(token)) {
+        return id - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * @return The node of the ngram {@code ids[start, end)}, or {@code -1} if it is not in the trie.
+   */
+  private int node(int[] ids, int start, int end) {
+    int node = 0;
+    for (int i = start; i < end && node >= 0; i++) {
+      node = child(node, ids[i]);
+    }
+    return node;
+  }
+
+  private int child(int node, int tokenId) {
+    if (tokenId < 0) {
+      return -1;
+    }
+    final int index = Arrays.binarySearch(nodeTokens, childStart[node] + 1,
+        childStart[node + 1] + 1, tokenId);
+    return index >= 0 ? index : -1;
+  }
+
+  private static int spread(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Writes this model in a compact binary format, see {@link #read(InputStream)}.
+   * The {@link OutputStream} remains open.
+   *
+   * @param out The {@link OutputStream} to write to.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void serialize(OutputStream out) throws IOException {
+    final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(n);
+    data.writeInt(size);
+
+    data.writeInt(tokens.length);
+    for (String token : tokens) {
+      final byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+      data.writeInt(bytes.length);
+      data.write(bytes);
+    }
+
+    data.writeInt(counts.length);
+    for (int node = 0; node < counts.length; node++) {
+      data.writeInt(childStart[node + 1] - childStart[node]);
+      data.writeInt(nodeTokens[node]);
+      data.writeInt(counts[node]);
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads a {@link CompactNGramLanguageModel} written by {@link #serialize(OutputStream)}.
+   * The {@link InputStream} remains open.
+   *
+   * @param in The {@link InputStream} to read from.
+   * @return The {@link CompactNGramLanguageModel}.
+   * @throws InvalidFormatException Thrown if the data is not a valid model.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public static CompactNGramLanguageModel read(InputStream in) throws IOException {
+    try {
+      return read(new DataInputStream(new BufferedInputStream(in)));
+    } catch (EOFException e) {
+      throw new InvalidFormatException("Truncated language model", e);
+    }
+  }
+
+  private static CompactNGramLanguageModel read(DataInputStream data) throws IOException {
+    if (data.readInt() != MAGIC) {
+      throw new InvalidFormatException("Not a compact ngram language model");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new InvalidFormatException("Unsupported language model version: " + version);
+    }
+    final int n = data.readInt();
+    if (n <= 0) {
+      throw new InvalidFormatException("Invalid ngram size: " + n);
+    }
+    final int size = checkCount(data.readInt());
+
+    final String[] tokens = new String[checkCount(data.readInt())];
+    for (int i = 0; i < tokens.length; i++) {
+      final byte[] bytes = new byte[checkCount(data.readInt())];
+      data.readFully(bytes);
+      tokens[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    final int nodes = checkCount(data.readInt());
+    if (nodes < 1) {
+      throw new InvalidFormatException("A language model must have a root node");
+    }
+    final int[] childStart = new int[nodes + 1];
+    final int[] nodeTokens = new int[nodes];
+    final int[] counts = new int[nodes];
+    for (int node = 0; node < nodes; node++) {
+      final int children = checkCount(data.readInt());
+      childStart[node + 1] = childStart[node] + children;
+      nodeTokens[node] = data.readInt();
+      counts[node] = checkCount(data.readInt());
+      // breadth-first order: the children of a node follow it
+      if (childStart[node + 1] > nodes - 1 || (children > 0 && childStart[node] < node)) {
+        throw new InvalidFormatException("Invalid children of node " + node);
+      }
+      if (node > 0 && (nodeTokens[node] < 0 || nodeTokens[node] >= tokens.length)) {
+        throw new InvalidFormatException("Invalid token of node " + node);
+      }
+    }
+    if (childStart[nodes] != nodes - 1) {
+      throw new InvalidFormatException("Invalid number of nodes");
+    }
+    for (int node = 0; node < nodes; node++) {
+      for (int child = childStart[node] + 2; child <= childStart[node + 1]; child++) {
+        if (nodeTokens[child] <= nodeTokens[child - 1]) {
+          throw new InvalidFormatException("Unsorted children of node " + node);
+        }
+      }
+    }
+    return new CompactNGramLanguageModel(n, size, tokens, childStart, nodeTokens, counts);
+  }
+
+  private static int checkCount(int count) throws InvalidFormatException {
+    if (count < 0) {
+      throw new InvalidFormatException("Invalid count: " + count);
+    }
+    return count;
+  }
+}
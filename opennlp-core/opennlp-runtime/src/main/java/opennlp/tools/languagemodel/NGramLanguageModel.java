@@ -93,6 +93,15 @@ public class NGramLanguageModel extends NGramModel implements LanguageModel {
     add(new StringList(tokens), 1, n);
   }
 
+  /**
+   * Creates an immutable, compact copy of this model, see {@link CompactNGramLanguageModel}.
+   *
+   * @return The {@link CompactNGramLanguageModel} with the ngrams of this model.
+   */
+  public CompactNGramLanguageModel compact() {
+    return CompactNGramLanguageModel.create(this, n);
+  }
+
   @Override
   public double calculateProbability(String... tokens) {
     double probability = 0d;
@@ -70,6 +70,11 @@ public class LemmatizerEvaluator extends Evaluator<LemmaSample> {
     return new LemmaSample(reference.getTokens(), reference.getTags(), predictedLemmas);
   }
 
+  @Override
+  protected void merge(Evaluator<LemmaSample> shard) {
+    wordAccuracy.mergeInto(((LemmatizerEvaluator) shard).wordAccuracy);
+  }
+
   /**
    * Accuracy is defined as:
    * {@code word accuracy = correctly detected tags / total words}
@@ -24,21 +24,26 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.commons.ThreadSafe;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
+import opennlp.tools.ml.ViterbiSearch;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.StringUtil;
 import opennlp.tools.util.TrainingParameters;
 
@@ -82,6 +87,21 @@ public class LemmatizerME implements Lemmatizer, Probabilistic {
    * @param model The {@link LemmatizerModel} to be used.
    */
   public LemmatizerME(LemmatizerModel model) {
+    this(model, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link LemmatizerME} with the provided {@link LemmatizerModel model}
+   * and {@link StateStrategy}.
+   *
+   * @param model A valid {@link LemmatizerModel}.
+   * @param stateStrategy The {@link StateStrategy} which manages the scratch state of the threads
+   *     using this lemmatizer, e.g. {@link StateStrategy#POOLED} for virtual threads.
+   */
+  public LemmatizerME(LemmatizerModel model, StateStrategy stateStrategy) {
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
 
     LemmatizerFactory factory = model.getFactory();
     int defaultBeamSize = LemmatizerME.DEFAULT_BEAM_SIZE;
@@ -95,12 +115,19 @@ public class LemmatizerME implements Lemmatizer, Probabilistic {
 
     sequenceValidator = factory.getSequenceValidator();
 
-    if (model.getLemmatizerSequenceModel() != null) {
-      this.model = model.getLemmatizerSequenceModel();
+    SequenceClassificationModel sequenceModel = model.getLemmatizerSequenceModel();
+    if (sequenceModel instanceof BeamSearch beamSearch) {
+      this.model = beamSearch.withStateStrategy(stateStrategy);
+    }
+    else if (sequenceModel instanceof ViterbiSearch viterbiSearch) {
+      this.model = viterbiSearch.withStateStrategy(stateStrategy);
+    }
+    else if (sequenceModel != null) {
+      this.model = sequenceModel;
     }
     else {
       this.model = new opennlp.tools.ml.BeamSearch(beamSize,
-          (MaxentModel) model.getLemmatizerSequenceModel(), 0);
+          (MaxentModel) model.getLemmatizerSequenceModel(), 0, stateStrategy);
     }
   }
 
@@ -110,6 +137,54 @@ public class LemmatizerME implements Lemmatizer, Probabilistic {
     return decodeLemmas(toks, ses);
   }
 
+  /**
+   * Lemmatizes the sentences of a document. The decoding state of the calling thread is reused
+   * for all sentences. Unlike {@link #lemmatize(String[], String[])}, this does not change the
+   * sequence which {@link #probs()} refers to.
+   *
+   * @param toks The tokens of each sentence.
+   * @param tags The POS tags of each sentence.
+   * @return The lemmas of each sentence, in the order of the sentences.
+   * @throws IllegalArgumentException Thrown if the number of sentences of {@code toks} and
+   *                                  {@code tags} differ.
+   */
+  public String[][] lemmatize(String[][] toks, String[][] tags) {
+    return lemmatize(toks, tags, null);
+  }
+
+  /**
+   * Lemmatizes the sentences of a document, spread over the threads of an {@link Executor}.
+   * Unlike {@link #lemmatize(String[], String[])}, this does not change the sequence which
+   * {@link #probs()} refers to.
+   *
+   * @param toks The tokens of each sentence.
+   * @param tags The POS tags of each sentence.
+   * @param executor The {@link Executor} which lemmatizes slices of the sentences, or
+   *                 {@code null} to lemmatize all of them on the calling thread.
+   * @return The lemmas of each sentence, in the order of the sentences.
+   * @throws IllegalArgumentException Thrown if the number of sentences of {@code toks} and
+   *                                  {@code tags} differ.
+   */
+  public String[][] lemmatize(String[][] toks, String[][] tags, Executor executor) {
+    if (toks.length != tags.length) {
+      throw new IllegalArgumentException("There must be POS tags for each sentence");
+    }
+    Object[][] additionalContexts = new Object[tags.length][];
+    for (int si = 0; si < tags.length; si++) {
+      additionalContexts[si] = new Object[] {tags[si]};
+    }
+
+    Sequence[] sequences = model.bestSequences(toks, additionalContexts, contextGenerator,
+        sequenceValidator, executor);
+    String[][] lemmas = new String[toks.length][];
+    for (int si = 0; si < lemmas.length; si++) {
+      String[] ses = sequences[si] == null ? new String[toks[si].length]
+          : sequences[si].getOutcomes().toArray(new String[0]);
+      lemmas[si] = decodeLemmas(toks[si], ses);
+    }
+    return lemmas;
+  }
+
   @Override
   public List<List<String>> lemmatize(List<String> toks, List<String> tags) {
     String[] tokens = toks.toArray(new String[0]);
@@ -279,12 +354,14 @@ public class LemmatizerME implements Lemmatizer, Probabilistic {
 
     LemmatizerContextGenerator contextGenerator = factory.getContextGenerator();
     Map<String, String> manifestInfoEntries = new HashMap<>();
+    SequenceDecoderFactory.putManifestEntries(params, manifestInfoEntries);
     TrainerType trainerType = TrainerFactory.getTrainerType(params);
 
     MaxentModel lemmatizerModel = null;
     SequenceClassificationModel seqLemmatizerModel = null;
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> es = new LemmaSampleEventStream(samples, contextGenerator);
+      ObjectStream<Event> es = ParallelEventStream.create(samples, params,
+          s -> new LemmaSampleEventStream(s, factory.getContextGenerator()));
 
       EventTrainer<TrainingParameters> trainer =
           TrainerFactory.getEventTrainer(params, manifestInfoEntries);
@@ -23,6 +23,7 @@ import java.util.Objects;
 
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.FeatureGeneratorUtil;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A {@link NameContextGenerator} implementation for determining contextual features
@@ -116,4 +117,71 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
 
     return features.toArray(new String[0]);
   }
+
+  /**
+   * Adds the same features as {@link #getContext(int, String[], String[], Object[])} to a
+   * {@link FeatureSink}, without creating a {@link String} per feature if the feature
+   * generators support it.
+   */
+  @Override
+  public void createContext(FeatureSink features, int index, String[] tokens, String[] preds,
+                            Object[] additionalContext) {
+    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
+      featureGenerator.emitFeatures(features, tokens, index, preds);
+    }
+    createPreviousOutcomeFeatures(features, index, tokens, preds);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts are split if any feature generator does not
+   * {@link AdaptiveFeatureGenerator#dependsOnPreviousOutcomes() depend on the previous outcomes},
+   * the previous outcome features always depend on them.
+   */
+  @Override
+  public boolean hasStaticContext() {
+    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
+      if (!featureGenerator.dependsOnPreviousOutcomes()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void createStaticContext(FeatureSink features, int index, String[] tokens, String[] preds,
+                                  Object[] additionalContext) {
+    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
+      if (!featureGenerator.dependsOnPreviousOutcomes()) {
+        featureGenerator.emitFeatures(features, tokens, index, preds);
+      }
+    }
+  }
+
+  @Override
+  public void createHistoryContext(FeatureSink features, int index, String[] tokens, String[] preds,
+                                   Object[] additionalContext) {
+    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
+      if (featureGenerator.dependsOnPreviousOutcomes()) {
+        featureGenerator.emitFeatures(features, tokens, index, preds);
+      }
+    }
+    createPreviousOutcomeFeatures(features, index, tokens, preds);
+  }
+
+  private static void createPreviousOutcomeFeatures(FeatureSink features, int index, String[] tokens,
+                                                    String[] preds) {
+    //previous outcome features
+    if (preds != null) {
+      String po = index > 0 ? preds[index - 1] : NameFinderME.OTHER;
+      String ppo = index > 1 ? preds[index - 2] : NameFinderME.OTHER;
+
+      features.add("po=", po);
+      features.begin("pow=").append(po).append(',').append(tokens[index]).end();
+      features.begin("powf=").append(po).append(',')
+          .append(FeatureGeneratorUtil.tokenFeature(tokens[index])).end();
+      features.add("ppo=", ppo);
+    }
+  }
 }
@@ -17,23 +17,28 @@
 
 package opennlp.tools.namefind;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.dictionary.TokenTrie;
 import opennlp.tools.util.Span;
-import opennlp.tools.util.StringList;
 
 /**
  * This is a {@link Dictionary} based {@link TokenNameFinder name finder}.
  * It scans text for names inside a provided dictionary.
+ * <p>
+ * At each token, the longest dictionary entry starting there is reported as a name and the
+ * search continues after it. Entries are matched with a {@link TokenTrie}, so a search does not
+ * allocate per candidate entry.
  */
 public class DictionaryNameFinder implements TokenNameFinder {
 
   private static final String DEFAULT_TYPE = "default";
 
   private final Dictionary mDictionary;
+  private final TokenTrie trie;
   private final String type;
 
   /**
@@ -45,6 +50,20 @@ public class DictionaryNameFinder implements TokenNameFinder {
    */
   public DictionaryNameFinder(Dictionary dictionary, String type) {
     this.mDictionary = Objects.requireNonNull(dictionary, "dictionary must not be null");
+    this.trie = null;
+    this.type = Objects.requireNonNull(type, "type must not be null");
+  }
+
+  /**
+   * Initializes a {@link DictionaryNameFinder} with a prebuilt {@link TokenTrie}, e.g. one
+   * loaded as a model artifact, and a {@code type}.
+   *
+   * @param trie The {@link TokenTrie} to use. Must not be {@code null}.
+   * @param type the name type used for the produced spans. Must not be {@code null}.
+   */
+  public DictionaryNameFinder(TokenTrie trie, String type) {
+    this.mDictionary = null;
+    this.trie = Objects.requireNonNull(trie, "trie must not be null");
     this.type = Objects.requireNonNull(type, "type must not be null");
   }
 
@@ -60,35 +79,18 @@ public class DictionaryNameFinder implements TokenNameFinder {
 
   @Override
   public Span[] find(String[] textTokenized) {
-    List<Span> namesFound = new LinkedList<>();
-    final boolean caseSensitive = mDictionary.isCaseSensitive();
-    final int maxTokenCount = mDictionary.getMaxTokenCount();
-    for (int offsetFrom = 0; offsetFrom < textTokenized.length; offsetFrom++) {
-      Span nameFound = null;
-      String[] tokensSearching;
-
-      for (int offsetTo = offsetFrom; offsetTo < textTokenized.length; offsetTo++) {
-        int lengthSearching = offsetTo - offsetFrom + 1;
-
-        if (lengthSearching > maxTokenCount) {
-          break;
-        } else {
-          tokensSearching = new String[lengthSearching];
-          System.arraycopy(textTokenized, offsetFrom, tokensSearching, 0,
-              lengthSearching);
+    // a dictionary may still change, its trie is rebuilt after each change
+    final TokenTrie tokenTrie = trie != null ? trie : mDictionary.getTokenTrie();
+    final int[] tokenIds = tokenTrie.getTokenIds(textTokenized);
 
-          StringList entryForSearch = new StringList(caseSensitive, tokensSearching);
-
-          if (mDictionary.contains(entryForSearch)) {
-            nameFound = new Span(offsetFrom, offsetTo + 1, type);
-          }
-        }
-      }
+    List<Span> namesFound = new ArrayList<>();
+    for (int offsetFrom = 0; offsetFrom < tokenIds.length; offsetFrom++) {
+      final int length = tokenTrie.longestMatch(tokenIds, offsetFrom);
 
-      if (nameFound != null) {
-        namesFound.add(nameFound);
+      if (length > 0) {
+        namesFound.add(new Span(offsetFrom, offsetFrom + length, type));
         // skip over the found tokens for the next search
-        offsetFrom += nameFound.length() - 1;
+        offsetFrom += length - 1;
       }
     }
     return namesFound.toArray(new Span[0]);
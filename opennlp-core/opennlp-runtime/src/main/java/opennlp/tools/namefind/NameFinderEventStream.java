@@ -125,6 +125,14 @@ public class NameFinderEventStream extends opennlp.tools.util.AbstractEventStrea
     return events;
   }
 
+  /**
+   * The adaptive data is kept until a sample clears it.
+   */
+  @Override
+  protected boolean isIndependent(NameSample sample) {
+    return sample.isClearAdaptiveDataSet();
+  }
+
   @Override
   protected Iterator<Event> createEvents(NameSample sample) {
 
@@ -32,19 +32,23 @@ import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
+import opennlp.tools.ml.ViterbiSearch;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.LastResultOwnerOrThreadLocal;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceCodec;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.AdditionalContextFeatureGenerator;
 import opennlp.tools.util.featuregen.WindowFeatureGenerator;
@@ -104,13 +108,35 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
    * @param model The {@link TokenNameFinderModel} to initialize with.
    */
   public NameFinderME(TokenNameFinderModel model) {
+    this(model, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link NameFinderME} with a {@link TokenNameFinderModel} and a
+   * {@link StateStrategy} for the beam search and the feature cache.
+   *
+   * @param model A valid {@link TokenNameFinderModel}.
+   * @param stateStrategy The {@link StateStrategy} which manages the scratch state of the threads
+   *     using this name finder, e.g. {@link StateStrategy#POOLED} for virtual threads.
+   */
+  public NameFinderME(TokenNameFinderModel model, StateStrategy stateStrategy) {
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
 
     TokenNameFinderFactory factory = model.getFactory();
 
     seqCodec = factory.createSequenceCodec();
     sequenceValidator = seqCodec.createSequenceValidator();
-    this.model = model.getNameFinderSequenceModel();
-    contextGenerator = factory.createContextGenerator();
+    SequenceClassificationModel sequenceModel = model.getNameFinderSequenceModel();
+    if (sequenceModel instanceof BeamSearch beamSearch) {
+      this.model = beamSearch.withStateStrategy(stateStrategy);
+    } else if (sequenceModel instanceof ViterbiSearch viterbiSearch) {
+      this.model = viterbiSearch.withStateStrategy(stateStrategy);
+    } else {
+      this.model = sequenceModel;
+    }
+    contextGenerator = factory.createContextGenerator(stateStrategy);
 
     // TODO: We should deprecate this. And come up with a better solution!
     contextGenerator.addFeatureGenerator(
@@ -148,6 +174,26 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     return spans;
   }
   
+  /**
+   * Finds the names in consecutive sentences of a document, as if {@link #find(String[])} was
+   * called for each of them.
+   * <p>
+   * The adaptive data is updated after each sentence and affects the names found in the
+   * following ones, so the sentences are processed in order on the calling thread. It is not
+   * cleared, see {@link #clearAdaptiveData()}.
+   *
+   * @param sentences The tokens of each sentence.
+   * @return The {@link Span token spans} of the names of each sentence, in the order of the
+   *         {@code sentences}.
+   */
+  public Span[][] find(String[][] sentences) {
+    Span[][] names = new Span[sentences.length][];
+    for (int si = 0; si < sentences.length; si++) {
+      names[si] = find(sentences[si], EMPTY);
+    }
+    return names;
+  }
+
   @Override
   public void clearAdaptiveData() {
     contextGenerator.clearAdaptiveData();
@@ -279,6 +325,7 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     int beamSize = params.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, NameFinderME.DEFAULT_BEAM_SIZE);
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
+    SequenceDecoderFactory.putManifestEntries(params, manifestInfoEntries);
 
     MaxentModel nameFinderModel = null;
     SequenceClassificationModel seqModel = null;
@@ -286,8 +333,9 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     TrainerType trainerType = TrainerFactory.getTrainerType(params);
 
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> eventStream = new NameFinderEventStream(samples, type,
-              factory.createContextGenerator(), factory.createSequenceCodec());
+      ObjectStream<Event> eventStream = ParallelEventStream.create(samples, params,
+          s -> new NameFinderEventStream(s, type, factory.createContextGenerator(),
+              factory.createSequenceCodec()));
 
       EventTrainer<TrainingParameters> trainer =
           TrainerFactory.getEventTrainer(params, manifestInfoEntries);
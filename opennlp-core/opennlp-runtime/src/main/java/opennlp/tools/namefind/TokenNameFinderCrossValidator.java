@@ -32,6 +32,7 @@ import opennlp.tools.util.SequenceCodec;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 /**
  * Cross validator for {@link TokenNameFinder}.
@@ -133,6 +134,13 @@ public class TokenNameFinderCrossValidator {
     }
   }
 
+  private static class FoldRecorder extends RecordingEvaluationMonitor<NameSample>
+      implements TokenNameFinderEvaluationMonitor {
+  }
+
+  private record FoldResult(FMeasure fmeasure, FoldRecorder recorder) {
+  }
+
   private final String languageCode;
   private final TrainingParameters params;
   private final String type;
@@ -210,32 +218,56 @@ public class TokenNameFinderCrossValidator {
    * @throws IOException Thrown if IO errors occurred.
    */
   public void evaluate(ObjectStream<NameSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
+
+  /**
+   * Starts the evaluation and trains and tests up to {@code threads} folds at the same time.
+   * The listeners are notified in fold order after all folds are done.
+   * <p>
+   * Note:
+   * The name samples need to be grouped on a document basis.
+   *
+   * @param samples The {@link ObjectStream} of {@link NameSample samples} to train and test with.
+   * @param nFolds Number of folds. It must be greater than zero.
+   * @param threads Number of folds which are evaluated in parallel. It must be greater than zero.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void evaluate(ObjectStream<NameSample> samples, int nFolds, int threads) throws IOException {
 
     CrossValidationPartitioner<DocumentSample> partitioner = new CrossValidationPartitioner<>(
         new NameToDocumentSampleStream(samples), nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<DocumentSample> trainingSampleStream =
-          partitioner.next();
+    List<FoldResult> results = partitioner.evaluate(threads, trainingSampleStream -> {
+      FoldRecorder recorder = threads > 1 ? new FoldRecorder() : null;
+      TrainingParameters foldParams = threads > 1 ? new TrainingParameters(params) : params;
 
       TokenNameFinderModel model;
       if (factory != null) {
         model = NameFinderME.train(languageCode, type, new DocumentToNameSampleStream(trainingSampleStream),
-            params, factory);
+            foldParams, factory);
       }
       else {
         model = NameFinderME.train(languageCode, type, new DocumentToNameSampleStream(trainingSampleStream),
-            params, TokenNameFinderFactory.create(null, featureGeneratorBytes, resources, new BioCodec()));
+            foldParams,
+            TokenNameFinderFactory.create(null, featureGeneratorBytes, resources, new BioCodec()));
       }
 
       // do testing
-      TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
-          new NameFinderME(model), listeners);
+      TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(new NameFinderME(model),
+          recorder != null ? new TokenNameFinderEvaluationMonitor[] {recorder} : listeners);
 
       evaluator.evaluate(new DocumentToNameSampleStream(trainingSampleStream.getTestSampleStream()));
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+      return new FoldResult(evaluator.getFMeasure(), recorder);
+    });
+
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
+      }
+      fmeasure.mergeInto(result.fmeasure());
     }
   }
 
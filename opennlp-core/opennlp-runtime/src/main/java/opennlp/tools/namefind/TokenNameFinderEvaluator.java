@@ -88,6 +88,20 @@ public class TokenNameFinderEvaluator extends Evaluator<NameSample> {
     return new NameSample(reference.getSentence(), predictedNames, reference.isClearAdaptiveDataSet());
   }
 
+  /**
+   * The adaptive data of the name finder is kept until a sample clears it,
+   * so only such samples are evaluated without the samples before them.
+   */
+  @Override
+  protected boolean isIndependent(NameSample sample) {
+    return sample.isClearAdaptiveDataSet();
+  }
+
+  @Override
+  protected void merge(Evaluator<NameSample> shard) {
+    fmeasure.mergeInto(((TokenNameFinderEvaluator) shard).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
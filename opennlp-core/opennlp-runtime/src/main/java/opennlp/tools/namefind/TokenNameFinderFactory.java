@@ -28,6 +28,7 @@ import opennlp.tools.namefind.TokenNameFinderModel.FeatureGeneratorCreationError
 import opennlp.tools.util.BaseToolFactory;
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.SequenceCodec;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.ext.ExtensionLoader;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
@@ -208,17 +209,32 @@ public class TokenNameFinderFactory extends BaseToolFactory {
    * @see AdaptiveFeatureGenerator
    */
   public NameContextGenerator createContextGenerator() {
+    return createContextGenerator(StateStrategy.getDefault());
+  }
+
+  /**
+   * Creates and configures a new {@link NameContextGenerator} in a default combination
+   * whose feature cache keeps its per-thread state according to the given {@link StateStrategy}.
+   *
+   * @param stateStrategy The {@link StateStrategy} for the feature cache. Must not be {@code null}.
+   * @return A {@link NameContextGenerator} instance.
+   * @throws IllegalArgumentException Thrown if {@code stateStrategy} is {@code null}.
+   *
+   * @see DefaultNameContextGenerator
+   * @see CachedFeatureGenerator
+   */
+  public NameContextGenerator createContextGenerator(StateStrategy stateStrategy) {
 
-    AdaptiveFeatureGenerator featureGenerator = createFeatureGenerators();
+    AdaptiveFeatureGenerator featureGenerator = createFeatureGenerators(stateStrategy);
 
     if (featureGenerator == null) {
-      featureGenerator = new CachedFeatureGenerator(
+      featureGenerator = new CachedFeatureGenerator(new AggregatedFeatureGenerator(
           new WindowFeatureGenerator(new TokenFeatureGenerator(), 2, 2),
           new WindowFeatureGenerator(new TokenClassFeatureGenerator(true), 2, 2),
           new OutcomePriorFeatureGenerator(),
           new PreviousMapFeatureGenerator(),
           new BigramNameFeatureGenerator(),
-          new SentenceFeatureGenerator(true, false));
+          new SentenceFeatureGenerator(true, false)), stateStrategy);
     }
 
     return new DefaultNameContextGenerator(featureGenerator);
@@ -238,6 +254,27 @@ public class TokenNameFinderFactory extends BaseToolFactory {
    * @throws IllegalStateException Thrown if inconsistencies occurred during creation.
    */
   public AdaptiveFeatureGenerator createFeatureGenerators() {
+    return createFeatureGenerators(StateStrategy.getDefault());
+  }
+
+  /**
+   * Creates the {@link AdaptiveFeatureGenerator} like {@link #createFeatureGenerators()},
+   * but a cache enabled in the descriptor keeps its per-thread state according to
+   * the given {@link StateStrategy}.
+   *
+   * @param stateStrategy The {@link StateStrategy} for the feature cache. Must not be {@code null}.
+   * @return The {@link AdaptiveFeatureGenerator} or {@code null} if there
+   *         is no descriptor in the model.
+   *
+   * @throws FeatureGeneratorCreationError Thrown if configuration errors occurred.
+   * @throws IllegalStateException Thrown if inconsistencies occurred during creation.
+   * @throws IllegalArgumentException Thrown if {@code stateStrategy} is {@code null}.
+   */
+  public AdaptiveFeatureGenerator createFeatureGenerators(StateStrategy stateStrategy) {
+
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
 
     if (featureGeneratorBytes == null && artifactProvider != null) {
       featureGeneratorBytes = artifactProvider.getArtifact(
@@ -256,7 +293,7 @@ public class TokenNameFinderFactory extends BaseToolFactory {
         else {
           return resources.get(key);
         }
-      });
+      }, stateStrategy);
     } catch (InvalidFormatException e) {
       // It is assumed that the creation of the feature generation does not
       // fail after it succeeded once during model loading.
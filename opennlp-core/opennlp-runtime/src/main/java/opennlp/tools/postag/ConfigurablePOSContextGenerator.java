@@ -23,14 +23,19 @@ import java.util.Objects;
 
 import opennlp.tools.commons.ThreadSafe;
 import opennlp.tools.util.Cache;
+import opennlp.tools.util.ScratchState;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A configurable {@link POSContextGenerator context generator} for a {@link POSTagger}.
  * This implementation makes use of {@link AdaptiveFeatureGenerator}.
  * <p>
  * The per-sentence context cache is maintained per-thread via {@link ThreadLocal},
- * making this class safe for concurrent use.
+ * making this class safe for concurrent use. With a {@link StateStrategy#POOLED pooled} or
+ * {@link StateStrategy#STRIPED striped} {@link StateStrategy}, a bounded number of caches is
+ * shared between all threads instead.
  * <p>
  * <b>Note:</b> In container environments with classloader isolation (e.g. Jakarta EE),
  * {@link ThreadLocal} state may pin the classloader. Ensure instances do not outlive
@@ -46,7 +51,7 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
   private final AdaptiveFeatureGenerator featureGenerator;
   private final int cacheSize;
 
-  private final ThreadLocal<CacheState> threadState;
+  private final ScratchState<CacheState> scratchState;
 
   private static final class CacheState {
     private Object wordsKey;
@@ -76,11 +81,25 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
    * @param featureGenerator The {@link AdaptiveFeatureGenerator} to be used.
    */
   public ConfigurablePOSContextGenerator(int cacheSize, AdaptiveFeatureGenerator featureGenerator) {
+    this(cacheSize, featureGenerator, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link ConfigurablePOSContextGenerator} instance with an optional
+   * context cache managed by the specified {@link StateStrategy}.
+   *
+   * @param cacheSize The size of the context cache. Use {@code 0} to disable caching.
+   * @param featureGenerator The {@link AdaptiveFeatureGenerator} to be used.
+   * @param stateStrategy The {@link StateStrategy} which manages the caches of the threads.
+   */
+  public ConfigurablePOSContextGenerator(int cacheSize, AdaptiveFeatureGenerator featureGenerator,
+                                         StateStrategy stateStrategy) {
     this.featureGenerator = Objects.requireNonNull(featureGenerator,
         "featureGenerator must not be null");
     this.cacheSize = cacheSize;
-    this.threadState = cacheSize > 0
-        ? ThreadLocal.withInitial(() -> new CacheState(cacheSize))
+    this.scratchState = cacheSize > 0
+        ? Objects.requireNonNull(stateStrategy, "stateStrategy must not be null")
+            .newState(() -> new CacheState(cacheSize))
         : null;
   }
 
@@ -108,24 +127,57 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
       }
     }
 
-    if (threadState != null) {
-      CacheState state = threadState.get();
-      String cacheKey = index + tagprev + tagprevprev;
-      if (state.wordsKey == tokens) {
-        String[] cachedContexts = state.cache.get(cacheKey);
-        if (cachedContexts != null) {
-          return cachedContexts;
+    if (scratchState != null) {
+      CacheState state = scratchState.acquire();
+      try {
+        String cacheKey = index + tagprev + tagprevprev;
+        if (state.wordsKey == tokens) {
+          String[] cachedContexts = state.cache.get(cacheKey);
+          if (cachedContexts != null) {
+            return cachedContexts;
+          }
+        } else {
+          state.cache.clear();
+          state.wordsKey = tokens;
         }
-      } else {
-        state.cache.clear();
-        state.wordsKey = tokens;
-      }
 
-      String[] contexts = createContextFeatures(index, tokens, tags);
-      state.cache.put(cacheKey, contexts);
-      return contexts;
+        String[] contexts = createContextFeatures(index, tokens, tags);
+        state.cache.put(cacheKey, contexts);
+        return contexts;
+      } finally {
+        scratchState.release(state);
+      }
     } else {
       return createContextFeatures(index, tokens, tags);
     }
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts are split if the feature generator does not
+   * {@link AdaptiveFeatureGenerator#dependsOnPreviousOutcomes() depend on the previous tags},
+   * which is the case for feature generators whose features are cached. The context cache
+   * of this instance is not used for split contexts.
+   */
+  @Override
+  public boolean hasStaticContext() {
+    return !featureGenerator.dependsOnPreviousOutcomes();
+  }
+
+  @Override
+  public void createStaticContext(FeatureSink features, int index, String[] tokens, String[] tags,
+                                  Object[] additionalContext) {
+    if (!featureGenerator.dependsOnPreviousOutcomes()) {
+      featureGenerator.emitFeatures(features, tokens, index, tags);
+    }
+  }
+
+  @Override
+  public void createHistoryContext(FeatureSink features, int index, String[] tokens, String[] tags,
+                                   Object[] additionalContext) {
+    if (featureGenerator.dependsOnPreviousOutcomes()) {
+      featureGenerator.emitFeatures(features, tokens, index, tags);
+    }
+  }
 }
@@ -18,12 +18,11 @@
 
 package opennlp.tools.postag;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.StringList;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A default {@link POSContextGenerator context generator} for a {@link POSTagger}.
@@ -112,88 +111,93 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
    *     given the specified {@code tokens} and previous {@code tags}.
    */
   public String[] getContext(int index, Object[] tokens, String[] tags) {
-    String next, nextnext = null, lex, prev, prevprev = null;
-    String tagprev, tagprevprev;
-    tagprev = tagprevprev = null;
-
-    lex = tokens[index].toString();
-    if (tokens.length > index + 1) {
-      next = tokens[index + 1].toString();
-      if (tokens.length > index + 2)
-        nextnext = tokens[index + 2].toString();
-      else
-        nextnext = SE; // Sentence End
+    final FeatureSink features = new FeatureSink();
+    createContext(features, index, tokens, tags, true, true);
+    return features.toArray();
+  }
 
-    }
-    else {
-      next = SE; // Sentence End
-    }
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The tag features {@code t} and {@code t2} are history features, all others are static.
+   */
+  @Override
+  public boolean hasStaticContext() {
+    return true;
+  }
 
-    if (index - 1 >= 0) {
-      prev =  tokens[index - 1].toString();
-      tagprev =  tags[index - 1];
+  @Override
+  public void createStaticContext(FeatureSink features, int index, String[] tokens, String[] tags,
+                                  Object[] additionalContext) {
+    createContext(features, index, tokens, tags, true, false);
+  }
 
-      if (index - 2 >= 0) {
-        prevprev = tokens[index - 2].toString();
-        tagprevprev = tags[index - 2];
-      }
-      else {
-        prevprev = SB; // Sentence Beginning
-      }
-    }
-    else {
-      prev = SB; // Sentence Beginning
-    }
-    List<String> e = new ArrayList<>();
-    e.add("default");
-    // add the word itself
-    e.add("w=" + lex);
-
-    if (dict == null || !dict.contains(new StringList(lex))) {
-      // do some basic suffix analysis
-      String[] suffs = getSuffixes(lex);
-      for (String suff : suffs) {
-        e.add("suf=" + suff);
-      }
+  @Override
+  public void createHistoryContext(FeatureSink features, int index, String[] tokens, String[] tags,
+                                   Object[] additionalContext) {
+    createContext(features, index, tokens, tags, false, true);
+  }
 
-      String[] prefs = getPrefixes(lex);
-      for (String pref : prefs) {
-        e.add("pre=" + pref);
-      }
-      // see if the word has any special characters
-      if (lex.indexOf('-') != -1) {
-        e.add("h");
+  /**
+   * Writes the static and/or the history features for the token at {@code index} to the
+   * {@link FeatureSink}, in the order {@link #getContext(int, Object[], String[])} returns them.
+   */
+  private void createContext(FeatureSink features, int index, Object[] tokens, String[] tags,
+                             boolean staticFeatures, boolean historyFeatures) {
+    if (staticFeatures) {
+      final String lex = tokens[index].toString();
+      features.add("default");
+      // add the word itself
+      features.add("w=", lex);
+
+      if (dict == null || !dict.contains(new StringList(lex))) {
+        // do some basic suffix analysis
+        for (int li = 0; li < SUFFIX_LENGTH; li++) {
+          features.add("suf=", lex, StrictMath.max(lex.length() - li - 1, 0), lex.length());
+        }
+        for (int li = 0; li < PREFIX_LENGTH; li++) {
+          features.add("pre=", lex, 0, StrictMath.min(li + 1, lex.length()));
+        }
+        // see if the word has any special characters
+        if (lex.indexOf('-') != -1) {
+          features.add("h");
+        }
+        if (hasCap.matcher(lex).find()) {
+          features.add("c");
+        }
+        if (hasNum.matcher(lex).find()) {
+          features.add("d");
+        }
       }
+    }
 
-      if (hasCap.matcher(lex).find()) {
-        e.add("c");
+    // add the words and pos's of the surrounding context
+    if (index > 0) {
+      final String tagprev = tags[index - 1];
+      if (staticFeatures) {
+        features.add("p=", tokens[index - 1].toString());
       }
-
-      if (hasNum.matcher(lex).find()) {
-        e.add("d");
+      if (historyFeatures && tagprev != null) {
+        features.add("t=", tagprev);
       }
-    }
-    // add the words and pos's of the surrounding context
-    if (prev != null) {
-      e.add("p=" + prev);
-      if (tagprev != null) {
-        e.add("t=" + tagprev);
+      if (staticFeatures) {
+        features.add("pp=", index > 1 ? tokens[index - 2].toString() : SB);
       }
-      if (prevprev != null) {
-        e.add("pp=" + prevprev);
-        if (tagprevprev != null) {
-          e.add("t2=" + tagprevprev + "," + tagprev);
-        }
+      if (historyFeatures && index > 1 && tags[index - 2] != null) {
+        features.begin("t2=").append(tags[index - 2]).append(',')
+            .append(String.valueOf(tagprev)).end();
       }
+    } else if (staticFeatures) {
+      features.add("p=", SB);
     }
 
-    if (next != null) {
-      e.add("n=" + next);
-      if (nextnext != null) {
-        e.add("nn=" + nextnext);
+    if (staticFeatures) {
+      if (index + 1 < tokens.length) {
+        features.add("n=", tokens[index + 1].toString());
+        features.add("nn=", index + 2 < tokens.length ? tokens[index + 2].toString() : SE);
+      } else {
+        features.add("n=", SE);
       }
     }
-    return e.toArray(new String[0]);
   }
-
 }
@@ -70,6 +70,11 @@ public class POSEvaluator extends Evaluator<POSSample> {
     return new POSSample(reference.getSentence(), predictedTags);
   }
 
+  @Override
+  protected void merge(Evaluator<POSSample> shard) {
+    wordAccuracy.mergeInto(((POSEvaluator) shard).wordAccuracy);
+  }
+
   /**
    * Accuracy defined as:
    * {@code word accuracy = correctly detected tags / total words}
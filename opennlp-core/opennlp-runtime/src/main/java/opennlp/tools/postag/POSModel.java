@@ -29,7 +29,7 @@ import java.util.Objects;
 import java.util.Properties;
 
 import opennlp.tools.ml.BeamSearch;
-import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.BaseToolFactory;
@@ -188,14 +188,8 @@ public final class POSModel extends BaseModel implements SerializableArtifact {
     Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
 
     if (artifactMap.get(POS_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
-
-      int beamSize = POSTaggerME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
-
-      return new BeamSearch(beamSize, (MaxentModel) artifactMap.get(POS_MODEL_ENTRY_NAME));
+      return SequenceDecoderFactory.create(manifest, POSTaggerME.DEFAULT_BEAM_SIZE,
+          (MaxentModel) artifactMap.get(POS_MODEL_ENTRY_NAME));
     }
     else if (artifactMap.get(POS_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(POS_MODEL_ENTRY_NAME);
@@ -239,10 +233,10 @@ public final class POSModel extends BaseModel implements SerializableArtifact {
 
     if (obj instanceof POSModel model) {
       Map<String, Object> artifactMapToCheck = model.artifactMap;
-      AbstractModel abstractModel = (AbstractModel) artifactMapToCheck.get("pos.model");
+      Object posModel = artifactMapToCheck.get("pos.model");
 
       return artifactMap.get("manifest.properties").equals(artifactMapToCheck.get("manifest.properties")) &&
-              artifactMap.get("pos.model").equals(abstractModel) &&
+              artifactMap.get("pos.model").equals(posModel) &&
               Arrays.equals((byte[]) artifactMap.get(GENERATOR_DESCRIPTOR_ENTRY_NAME),
                             (byte[]) artifactMapToCheck.get(GENERATOR_DESCRIPTOR_ENTRY_NAME));
     }
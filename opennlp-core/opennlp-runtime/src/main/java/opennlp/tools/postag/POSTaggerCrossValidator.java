@@ -19,15 +19,24 @@ package opennlp.tools.postag;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.Mean;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 public class POSTaggerCrossValidator {
 
+  private static class FoldRecorder extends RecordingEvaluationMonitor<POSSample>
+      implements POSTaggerEvaluationMonitor {
+  }
+
+  private record FoldResult(double wordAccuracy, long wordCount, FoldRecorder recorder) {
+  }
+
   private final String languageCode;
 
   private final TrainingParameters params;
@@ -43,6 +52,8 @@ public class POSTaggerCrossValidator {
   private String factoryClassName;
   /* user can also send a ready to use factory */
   private POSTaggerFactory factory;
+  /* a factory sent by the user is shared by all folds, so they can't run in parallel */
+  private final boolean userFactory;
 
   private final Integer tagdicCutoff;
   private File tagDictionaryFile;
@@ -76,6 +87,7 @@ public class POSTaggerCrossValidator {
     this.tagdicCutoff = tagdicCutoff;
     this.tagDictionaryFile = tagDictionary;
     this.posTagFormat = format;
+    this.userFactory = false;
   }
   /**
    * Initializes a {@link POSTaggerCrossValidator} that builds a ngram dictionary
@@ -133,6 +145,7 @@ public class POSTaggerCrossValidator {
     this.factory = factory;
     this.posTagFormat = format;
     this.tagdicCutoff = null;
+    this.userFactory = true;
   }
 
   /**
@@ -144,56 +157,102 @@ public class POSTaggerCrossValidator {
    * @throws IOException Thrown if IO errors occurred.
    */
   public void evaluate(ObjectStream<POSSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
+
+  /**
+   * Starts the evaluation and trains and tests up to {@code threads} folds at the same time.
+   * The listeners are notified in fold order after all folds are done.
+   * <p>
+   * Note:
+   * If the {@link POSTaggerCrossValidator} was created with a {@link POSTaggerFactory},
+   * the folds are evaluated one after another, because they all share that factory.
+   * Otherwise each fold creates its own factory.
+   *
+   * @param samples The {@link ObjectStream} of {@link POSSample samples} to train and test with.
+   * @param nFolds Number of folds. It must be greater than zero.
+   * @param threads Number of folds which are evaluated in parallel. It must be greater than zero.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void evaluate(ObjectStream<POSSample> samples, int nFolds, int threads) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be greater than 0, but is " + threads);
+    }
 
     CrossValidationPartitioner<POSSample> partitioner = new CrossValidationPartitioner<>(
         samples, nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream = partitioner
-          .next();
+    List<FoldResult> results;
+    if (threads == 1 || userFactory) {
+      results = partitioner.evaluate(1, trainingSampleStream -> {
+        POSEvaluator evaluator = evaluateFold(trainingSampleStream, listeners);
+        return new FoldResult(evaluator.getWordAccuracy(), evaluator.getWordCount(), null);
+      });
+    } else {
+      results = partitioner.evaluate(threads, trainingSampleStream -> {
+        FoldRecorder recorder = new FoldRecorder();
+        // each fold trains with its own factory and parameters
+        POSTaggerCrossValidator fold = new POSTaggerCrossValidator(languageCode,
+            new TrainingParameters(params), tagDictionaryFile, featureGeneratorBytes, resources,
+            tagdicCutoff, factoryClassName, posTagFormat);
+        POSEvaluator evaluator = fold.evaluateFold(trainingSampleStream, recorder);
+        return new FoldResult(evaluator.getWordAccuracy(), evaluator.getWordCount(), recorder);
+      });
+    }
 
-      if (this.tagDictionaryFile != null
-          && this.factory.getTagDictionary() == null) {
-        this.factory.setTagDictionary(this.factory
-            .createTagDictionary(tagDictionaryFile));
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
       }
+      wordAccuracy.add(result.wordAccuracy(), result.wordCount());
+    }
+  }
 
-      TagDictionary dict = null;
-      if (this.tagdicCutoff != null) {
-        dict = this.factory.getTagDictionary();
-        if (dict == null) {
-          dict = this.factory.createEmptyTagDictionary();
-        }
-        if (dict instanceof MutableTagDictionary) {
-          POSTaggerME.populatePOSDictionary(trainingSampleStream, (MutableTagDictionary)dict,
-              this.tagdicCutoff);
-        } else {
-          throw new IllegalArgumentException(
-              "Can't extend a TagDictionary that does not implement MutableTagDictionary.");
-        }
-        trainingSampleStream.reset();
-      }
+  private POSEvaluator evaluateFold(
+      CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream,
+      POSTaggerEvaluationMonitor... monitors) throws IOException {
 
-      if (this.factory == null) {
-        this.factory = POSTaggerFactory.create(this.factoryClassName, null, null);
+    if (this.tagDictionaryFile != null
+        && this.factory.getTagDictionary() == null) {
+      this.factory.setTagDictionary(this.factory
+          .createTagDictionary(tagDictionaryFile));
+    }
+
+    TagDictionary dict = null;
+    if (this.tagdicCutoff != null) {
+      dict = this.factory.getTagDictionary();
+      if (dict == null) {
+        dict = this.factory.createEmptyTagDictionary();
+      }
+      if (dict instanceof MutableTagDictionary) {
+        POSTaggerME.populatePOSDictionary(trainingSampleStream, (MutableTagDictionary)dict,
+            this.tagdicCutoff);
+      } else {
+        throw new IllegalArgumentException(
+            "Can't extend a TagDictionary that does not implement MutableTagDictionary.");
       }
+      trainingSampleStream.reset();
+    }
 
-      factory.init(featureGeneratorBytes, resources, dict);
+    if (this.factory == null) {
+      this.factory = POSTaggerFactory.create(this.factoryClassName, null, null);
+    }
 
-      POSModel model = POSTaggerME.train(languageCode, trainingSampleStream,
-          params, this.factory);
+    factory.init(featureGeneratorBytes, resources, dict);
 
-      POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model, posTagFormat), listeners);
+    POSModel model = POSTaggerME.train(languageCode, trainingSampleStream,
+        params, this.factory);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+    POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model, posTagFormat), monitors);
 
-      wordAccuracy.add(evaluator.getWordAccuracy(), evaluator.getWordCount());
+    evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      if (this.tagdicCutoff != null) {
-        this.factory.setTagDictionary(null);
-      }
+    if (this.tagdicCutoff != null) {
+      this.factory.setTagDictionary(null);
     }
+
+    return evaluator;
   }
 
   /**
@@ -36,6 +36,7 @@ import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.util.BaseToolFactory;
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.Version;
 import opennlp.tools.util.ext.ExtensionLoader;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
@@ -143,6 +144,24 @@ public class POSTaggerFactory extends BaseToolFactory {
    * @throws IllegalStateException Thrown if inconsistencies occurred during creation.
    */
   public AdaptiveFeatureGenerator createFeatureGenerators() {
+    return createFeatureGenerators(StateStrategy.getDefault());
+  }
+
+  /**
+   * Creates the {@link AdaptiveFeatureGenerator} like {@link #createFeatureGenerators()},
+   * but a cache enabled in the descriptor keeps its per-thread state according to
+   * the given {@link StateStrategy}.
+   *
+   * @param stateStrategy The {@link StateStrategy} for the feature cache. Must not be {@code null}.
+   * @return the feature generator or {@code null} if there is no descriptor in the model
+   * @throws IllegalStateException Thrown if inconsistencies occurred during creation.
+   * @throws IllegalArgumentException Thrown if {@code stateStrategy} is {@code null}.
+   */
+  public AdaptiveFeatureGenerator createFeatureGenerators(StateStrategy stateStrategy) {
+
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
 
     if (featureGeneratorBytes == null && artifactProvider != null) {
       featureGeneratorBytes = artifactProvider.getArtifact(
@@ -161,7 +180,7 @@ public class POSTaggerFactory extends BaseToolFactory {
         } else {
           return resources.get(key);
         }
-      });
+      }, stateStrategy);
     } catch (InvalidFormatException e) {
       // It is assumed that the creation of the feature generation does not
       // fail after it succeeded once during model loading.
@@ -288,6 +307,15 @@ public class POSTaggerFactory extends BaseToolFactory {
    * @return The {@link POSContextGenerator} configured with the given {@code cacheSize}.
    */
   public POSContextGenerator getPOSContextGenerator(int cacheSize) {
+    return getPOSContextGenerator(cacheSize, StateStrategy.getDefault());
+  }
+
+  /**
+   * @param cacheSize Must be greater than or equal to {@code 0}.
+   * @param stateStrategy The {@link StateStrategy} which manages the context caches.
+   * @return The {@link POSContextGenerator} configured with the given {@code cacheSize}.
+   */
+  public POSContextGenerator getPOSContextGenerator(int cacheSize, StateStrategy stateStrategy) {
 
     if (artifactProvider != null) {
       Properties manifest = artifactProvider.getArtifact("manifest.properties");
@@ -300,7 +328,8 @@ public class POSTaggerFactory extends BaseToolFactory {
       }
     }
 
-    return new ConfigurablePOSContextGenerator(cacheSize, createFeatureGenerators());
+    return new ConfigurablePOSContextGenerator(cacheSize,
+        createFeatureGenerators(stateStrategy), stateStrategy);
   }
 
   /**
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -35,9 +36,11 @@ import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
+import opennlp.tools.ml.ViterbiSearch;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
@@ -46,8 +49,10 @@ import opennlp.tools.ngram.NGramModel;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.LastResultOwnerOrThreadLocal;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.StringList;
 import opennlp.tools.util.StringUtil;
 import opennlp.tools.util.TrainingParameters;
@@ -167,6 +172,26 @@ public class POSTaggerME implements POSTagger, Probabilistic {
    */
   public POSTaggerME(POSModel model, POSTagFormat format,
       int contextCacheSize) {
+    this(model, format, contextCacheSize, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link POSTaggerME} with the provided {@link POSModel model}, explicit cache
+   * configuration and {@link StateStrategy}.
+   *
+   * @param model  A valid {@link POSModel}.
+   * @param format A valid {@link POSTagFormat}.
+   * @param contextCacheSize size of the context generator cache. Use {@code 0} to disable caching,
+   *     {@code -1} for the default (beam size), or a non-negative value; values less than {@code -1} are
+   *     not allowed.
+   * @param stateStrategy The {@link StateStrategy} which manages the scratch state of the threads
+   *     using this tagger, e.g. {@link StateStrategy#POOLED} for virtual threads.
+   */
+  public POSTaggerME(POSModel model, POSTagFormat format,
+      int contextCacheSize, StateStrategy stateStrategy) {
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
     if (contextCacheSize < -1) {
       throw new IllegalArgumentException("contextCacheSize must be >= -1: "
           + "use -1 for the default (beam-sized) cache, or a non-negative value "
@@ -186,16 +211,22 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     modelPackage = model;
 
     int cacheSize = contextCacheSize >= 0 ? contextCacheSize : beamSize;
-    cg = factory.getPOSContextGenerator(cacheSize);
+    cg = factory.getPOSContextGenerator(cacheSize, stateStrategy);
     tagDictionary = factory.getTagDictionary();
     size = beamSize;
 
     sequenceValidator = factory.getSequenceValidator();
 
-    if (model.getPosSequenceModel() != null) {
-      this.model = model.getPosSequenceModel();
+    SequenceClassificationModel sequenceModel = model.getPosSequenceModel();
+    if (sequenceModel instanceof BeamSearch beamSearch) {
+      this.model = beamSearch.withStateStrategy(stateStrategy);
+    } else if (sequenceModel instanceof ViterbiSearch viterbiSearch) {
+      this.model = viterbiSearch.withStateStrategy(stateStrategy);
+    } else if (sequenceModel != null) {
+      this.model = sequenceModel;
     } else {
-      this.model = new BeamSearch(beamSize, model.getArtifact(POSModel.POS_MODEL_ENTRY_NAME), 0);
+      this.model = new BeamSearch(beamSize, model.getArtifact(POSModel.POS_MODEL_ENTRY_NAME), 0,
+          stateStrategy);
     }
 
     this.posTagFormatMapper = (format == POSTagFormat.CUSTOM) ? new POSTagFormatMapper.NoOp()
@@ -231,6 +262,38 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     return convertTags(t);
   }
 
+  /**
+   * Tags the sentences of a document. The decoding state of the calling thread is reused for
+   * all sentences. Unlike {@link #tag(String[])}, this does not change the sequence which
+   * {@link #probs()} refers to.
+   *
+   * @param sentences The tokens of each sentence.
+   * @return The tags of each sentence, in the order of the {@code sentences}.
+   */
+  public String[][] tag(String[][] sentences) {
+    return tag(sentences, (Executor) null);
+  }
+
+  /**
+   * Tags the sentences of a document, spread over the threads of an {@link Executor}.
+   * Unlike {@link #tag(String[])}, this does not change the sequence which {@link #probs()}
+   * refers to.
+   *
+   * @param sentences The tokens of each sentence.
+   * @param executor The {@link Executor} which tags slices of the {@code sentences}, or
+   *                 {@code null} to tag all of them on the calling thread.
+   * @return The tags of each sentence, in the order of the {@code sentences}.
+   */
+  public String[][] tag(String[][] sentences, Executor executor) {
+    Sequence[] sequences = model.bestSequences(sentences, null, cg, sequenceValidator, executor);
+    String[][] tags = new String[sentences.length][];
+    for (int si = 0; si < tags.length; si++) {
+      tags[si] = sequences[si] == null ? new String[sentences[si].length]
+          : convertTags(sequences[si].getOutcomes());
+    }
+    return tags;
+  }
+
   /**
    * Returns at most the specified {@code numTaggings} for the specified {@code sentence}.
    *
@@ -368,11 +431,13 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     final POSContextGenerator contextGenerator = posFactory.getPOSContextGenerator();
     final TrainerType trainerType = TrainerFactory.getTrainerType(mlParams);
     final Map<String, String> manifestInfoEntries = new HashMap<>();
+    SequenceDecoderFactory.putManifestEntries(mlParams, manifestInfoEntries);
 
     MaxentModel posModel = null;
     SequenceClassificationModel seqPosModel = null;
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> es = new POSSampleEventStream(samples, contextGenerator);
+      ObjectStream<Event> es = ParallelEventStream.create(samples, mlParams,
+          s -> new POSSampleEventStream(s, posFactory.getPOSContextGenerator()));
 
       EventTrainer<TrainingParameters> trainer =
           TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
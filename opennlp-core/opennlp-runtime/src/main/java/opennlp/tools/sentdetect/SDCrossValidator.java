@@ -18,17 +18,26 @@
 package opennlp.tools.sentdetect;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 /**
  * A cross validator for {@link SentenceDetector sentence detectors}.
  */
 public class SDCrossValidator {
 
+  private static class FoldRecorder extends RecordingEvaluationMonitor<SentenceSample>
+      implements SentenceDetectorEvaluationMonitor {
+  }
+
+  private record FoldResult(FMeasure fmeasure, FoldRecorder recorder) {
+  }
+
   private final String languageCode;
 
   private final TrainingParameters params;
@@ -58,27 +67,50 @@ public class SDCrossValidator {
    * @throws IOException Thrown if IO errors occurred during processing.
    */
   public void evaluate(ObjectStream<SentenceSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
+
+  /**
+   * Starts the evaluation and trains and tests up to {@code threads} folds at the same time.
+   * The listeners are notified in fold order after all folds are done.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are evaluated in parallel
+   *
+   * @throws IOException Thrown if IO errors occurred during processing.
+   */
+  public void evaluate(ObjectStream<SentenceSample> samples, int nFolds, int threads)
+      throws IOException {
 
     CrossValidationPartitioner<SentenceSample> partitioner =
         new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<SentenceSample> trainingSampleStream =
-          partitioner.next();
+    List<FoldResult> results = partitioner.evaluate(threads, trainingSampleStream -> {
+      FoldRecorder recorder = threads > 1 ? new FoldRecorder() : null;
 
       SentenceModel model;
 
       model = SentenceDetectorME.train(languageCode, trainingSampleStream,
-          sdFactory, params);
+          sdFactory, threads > 1 ? new TrainingParameters(params) : params);
 
       // do testing
-      SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
-          new SentenceDetectorME(model), listeners);
+      SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(new SentenceDetectorME(model),
+          recorder != null ? new SentenceDetectorEvaluationMonitor[] {recorder} : listeners);
 
       evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+      return new FoldResult(evaluator.getFMeasure(), recorder);
+    });
+
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
+      }
+      fmeasure.mergeInto(result.fmeasure());
     }
   }
 
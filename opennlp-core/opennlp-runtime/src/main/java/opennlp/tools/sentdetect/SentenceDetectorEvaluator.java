@@ -72,6 +72,11 @@ public class SentenceDetectorEvaluator extends Evaluator<SentenceSample> {
     return new SentenceSample(sample.getDocument(), predictions);
   }
 
+  @Override
+  protected void merge(Evaluator<SentenceSample> shard) {
+    fmeasure.mergeInto(((SentenceDetectorEvaluator) shard).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
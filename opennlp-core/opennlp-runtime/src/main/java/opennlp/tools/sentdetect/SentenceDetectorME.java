@@ -41,6 +41,7 @@ import opennlp.tools.sentdetect.lang.Factory;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.OwnerOrPerThreadState;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.StringList;
 import opennlp.tools.util.StringUtil;
@@ -608,8 +609,9 @@ public class SentenceDetectorME implements SentenceDetector, Probabilistic {
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
     // TODO: Fix the EventStream to throw exceptions when training goes wrong
-    ObjectStream<Event> eventStream = new SDEventStream(samples,
-        sdFactory.getSDContextGenerator(), sdFactory.getEndOfSentenceScanner());
+    ObjectStream<Event> eventStream = ParallelEventStream.create(samples, mlParams,
+        s -> new SDEventStream(s, sdFactory.getSDContextGenerator(),
+            sdFactory.getEndOfSentenceScanner()));
 
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
     MaxentModel sentModel = trainer.train(eventStream);
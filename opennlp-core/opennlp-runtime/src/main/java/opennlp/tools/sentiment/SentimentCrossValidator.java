@@ -29,6 +29,7 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 /**
  * Class for performing cross validation on the Sentiment Analysis Parser.
@@ -169,6 +170,16 @@ public class SentimentCrossValidator {
     }
   }
 
+  /**
+   * Records the evaluated samples of a fold which runs in parallel
+   */
+  private static class FoldRecorder extends RecordingEvaluationMonitor<SentimentSample>
+      implements SentimentEvaluationMonitor {
+  }
+
+  private record FoldResult(FMeasure fmeasure, FoldRecorder recorder) {
+  }
+
   private final String languageCode;
   private final TrainingParameters params;
   private final SentimentEvaluationMonitor[] listeners;
@@ -198,29 +209,50 @@ public class SentimentCrossValidator {
    */
   public void evaluate(ObjectStream<SentimentSample> samples, int nFolds)
       throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
+
+  /**
+   * Performs evaluation and trains and tests up to {@code threads} folds at the
+   * same time. The listeners are notified in fold order after all folds are done.
+   *
+   * @param samples
+   *          stream of SentimentSamples
+   * @param nFolds
+   *          the number of folds to be used in cross validation
+   * @param threads
+   *          the number of folds which are evaluated in parallel
+   */
+  public void evaluate(ObjectStream<SentimentSample> samples, int nFolds, int threads)
+      throws IOException {
 
     // Note: The sentiment samples need to be grouped on a document basis.
 
     CrossValidationPartitioner<DocumentSample> partitioner = new CrossValidationPartitioner<>(
         new SentimentToDocumentSampleStream(samples), nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<DocumentSample> trainingSampleStream = partitioner
-          .next();
+    List<FoldResult> results = partitioner.evaluate(threads, trainingSampleStream -> {
+      FoldRecorder recorder = threads > 1 ? new FoldRecorder() : null;
 
       SentimentModel model = SentimentME.train(languageCode,
-          new DocumentToSentimentSampleStream(trainingSampleStream), params,
-          factory);
+          new DocumentToSentimentSampleStream(trainingSampleStream),
+          threads > 1 ? new TrainingParameters(params) : params, factory);
 
       // do testing
-      SentimentEvaluator evaluator = new SentimentEvaluator(
-          new SentimentME(model), listeners);
+      SentimentEvaluator evaluator = new SentimentEvaluator(new SentimentME(model),
+          recorder != null ? new SentimentEvaluationMonitor[] {recorder} : listeners);
 
       evaluator.evaluate(new DocumentToSentimentSampleStream(
           trainingSampleStream.getTestSampleStream()));
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+      return new FoldResult(evaluator.getFMeasure(), recorder);
+    });
+
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
+      }
+      fmeasure.mergeInto(result.fmeasure());
     }
   }
 
@@ -59,6 +59,11 @@ public class SentimentEvaluator extends Evaluator<SentimentSample> {
     return new SentimentSample(prediction, reference.getSentence());
   }
 
+  @Override
+  protected void merge(Evaluator<SentimentSample> shard) {
+    fmeasure.mergeInto(((SentimentEvaluator) shard).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
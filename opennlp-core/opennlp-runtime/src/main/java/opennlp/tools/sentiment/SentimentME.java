@@ -26,6 +26,7 @@ import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -76,7 +77,8 @@ public class SentimentME implements SentimentDetector {
 
     Map<String, String> entries = new HashMap<>();
 
-    ObjectStream<Event> eventStream = new SentimentEventStream(samples, factory.createContextGenerator());
+    ObjectStream<Event> eventStream = ParallelEventStream.create(samples, trainParams,
+        s -> new SentimentEventStream(s, factory.createContextGenerator()));
 
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(trainParams, entries);
     MaxentModel sentimentModel = trainer.train(eventStream);
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.regex.Pattern;
+
+/**
+ * A lookup table for patterns of the form {@code ^[...]+$}, such as the alphanumeric
+ * patterns of the {@link TokenizerFactory}, which decides whether a slice of characters
+ * matches the pattern without a {@link java.util.regex.Matcher}.
+ * <p>
+ * The table holds one entry per character up to the largest character of the class, every
+ * character above it can not be a member of the class.
+ */
+final class CharClassTable {
+
+  private final boolean[] members;
+
+  private CharClassTable(boolean[] members) {
+    this.members = members;
+  }
+
+  /**
+   * Creates the table of a {@link Pattern}.
+   *
+   * @param pattern The {@link Pattern}, may be {@code null}.
+   * @return The {@link CharClassTable}, or {@code null} if the {@code pattern} is not a single
+   *         character class of characters from the Basic Multilingual Plane, in which case the
+   *         {@code pattern} must be matched as usual.
+   */
+  static CharClassTable of(Pattern pattern) {
+    if (pattern == null || pattern.flags() != 0) {
+      return null;
+    }
+    final String regex = pattern.pattern();
+    if (!regex.startsWith("^[") || !regex.endsWith("]+$") || regex.length() < 6) {
+      return null;
+    }
+    final String body = regex.substring(2, regex.length() - 3);
+    if (body.charAt(0) == '^') {
+      return null;
+    }
+    char max = 0;
+    for (int i = 0; i < body.length(); i++) {
+      final char c = body.charAt(i);
+      // escapes, nested classes and intersections are left to the regex engine
+      if (c == '\\' || c == '[' || c == ']' || c == '&' || Character.isSurrogate(c)) {
+        return null;
+      }
+      max = (char) Math.max(max, c);
+    }
+
+    final Pattern charClass = Pattern.compile("[" + body + "]");
+    final boolean[] members = new boolean[max + 1];
+    for (int c = 0; c <= max; c++) {
+      members[c] = charClass.matcher(String.valueOf((char) c)).matches();
+    }
+    return new CharClassTable(members);
+  }
+
+  /**
+   * @param text The characters to check.
+   * @param start The start index of the slice of {@code text}, inclusive.
+   * @param end The end index of the slice of {@code text}, exclusive.
+   * @return {@code true} if the slice is not empty and all of its characters are members of
+   *         the class, which is the result of matching the pattern against the slice.
+   */
+  boolean matches(CharSequence text, int start, int end) {
+    if (start >= end) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      final char c = text.charAt(i);
+      if (c >= members.length || !members[c]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Set;
 
 import opennlp.tools.util.StringUtil;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A default {@link TokenContextGenerator} which produces events for maxent decisions
@@ -108,6 +109,56 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
     return preds;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Subclasses which override {@link #createContext(String, int)} or
+   * {@link #addCharPreds(String, char, List)} get the features of
+   * {@link #getContext(String, int)}, unless they override this method too.
+   */
+  @Override
+  public void createContext(FeatureSink features, CharSequence text, int start, int end,
+                            int index) {
+    if (getClass() != DefaultTokenContextGenerator.class) {
+      TokenContextGenerator.super.createContext(features, text, start, end, index);
+      return;
+    }
+
+    final int i = start + index;
+    features.add("p=", text, start, i);
+    features.add("s=", text, i, end);
+    if (index > 0) {
+      addCharPreds(features, "p1", text.charAt(i - 1));
+      if (index > 1) {
+        addCharPreds(features, "p2", text.charAt(i - 2));
+        features.begin("p21=").append(text.charAt(i - 2)).append(text.charAt(i - 1)).end();
+      }
+      else {
+        features.add("p2=bok");
+      }
+      features.begin("p1f1=").append(text.charAt(i - 1)).append(text.charAt(i)).end();
+    }
+    else {
+      features.add("p1=bok");
+    }
+    addCharPreds(features, "f1", text.charAt(i));
+    if (i + 1 < end) {
+      addCharPreds(features, "f2", text.charAt(i + 1));
+      features.begin("f12=").append(text.charAt(i)).append(text.charAt(i + 1)).end();
+    }
+    else {
+      features.add("f2=bok");
+    }
+    if (text.charAt(start) == '&' && text.charAt(end - 1) == ';') {
+      features.add("cc");//character code
+    }
+
+    if (i == end - 1 && !inducedAbbreviations.isEmpty()
+        && inducedAbbreviations.contains(text.subSequence(start, end).toString())) {
+      features.add("pabb");
+    }
+  }
+
 
   /**
    * Helper function for {@link #createContext} that appends to a given {@code key}
@@ -153,4 +204,37 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
       }
     }
   }
+
+  /**
+   * Adds the same features as {@link #addCharPreds(String, char, List)} to a {@link FeatureSink}.
+   */
+  private static void addCharPreds(FeatureSink features, String key, char c) {
+    features.begin(key).append('=').append(c).end();
+    if (Character.isLetter(c)) {
+      features.begin(key).append("_alpha").end();
+      if (Character.isUpperCase(c)) {
+        features.begin(key).append("_caps").end();
+      }
+    }
+    else if (Character.isDigit(c)) {
+      features.begin(key).append("_num").end();
+    }
+    else if (StringUtil.isWhitespace(c)) {
+      features.begin(key).append("_ws").end();
+    }
+    else {
+      if (c == '.' || c == '?' || c == '!') {
+        features.begin(key).append("_eos").end();
+      }
+      else if (c == '`' || c == '"' || c == '\'') {
+        features.begin(key).append("_quote").end();
+      }
+      else if (c == '[' || c == '{' || c == '(') {
+        features.begin(key).append("_lp").end();
+      }
+      else if (c == ']' || c == '}' || c == ')') {
+        features.begin(key).append("_rp").end();
+      }
+    }
+  }
 }
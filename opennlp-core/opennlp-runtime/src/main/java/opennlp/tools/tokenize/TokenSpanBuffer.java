@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.Arrays;
+
+import opennlp.tools.util.Span;
+
+/**
+ * A reusable buffer of the token spans and probabilities of a text, which is filled by
+ * {@link TokenizerME#tokenizePos(CharSequence, TokenSpanBuffer)} without creating a
+ * {@link Span} per token.
+ * <p>
+ * A {@link TokenSpanBuffer} is not thread safe, it is meant to be reused by one thread.
+ */
+public final class TokenSpanBuffer {
+
+  private int[] starts = new int[32];
+  private int[] ends = new int[32];
+  private double[] probs = new double[32];
+  private int size;
+
+  /**
+   * Adds a token.
+   *
+   * @param start The start offset of the token, inclusive.
+   * @param end The end offset of the token, exclusive.
+   * @param prob The probability of the token.
+   */
+  void add(int start, int end, double prob) {
+    if (size == starts.length) {
+      starts = Arrays.copyOf(starts, size * 2);
+      ends = Arrays.copyOf(ends, size * 2);
+      probs = Arrays.copyOf(probs, size * 2);
+    }
+    starts[size] = start;
+    ends[size] = end;
+    probs[size] = prob;
+    size++;
+  }
+
+  /**
+   * Removes all tokens, the buffers are kept for reuse.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * @return The number of tokens.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param i The index of a token.
+   * @return The start offset of the token, inclusive.
+   */
+  public int getStart(int i) {
+    return starts[i];
+  }
+
+  /**
+   * @param i The index of a token.
+   * @return The end offset of the token, exclusive.
+   */
+  public int getEnd(int i) {
+    return ends[i];
+  }
+
+  /**
+   * @param i The index of a token.
+   * @return The probability of the token.
+   */
+  public double getProb(int i) {
+    return probs[i];
+  }
+
+  /**
+   * @return The tokens as a new {@link Span} array.
+   */
+  public Span[] toSpans() {
+    Span[] spans = new Span[size];
+    for (int i = 0; i < size; i++) {
+      spans[i] = new Span(starts[i], ends[i]);
+    }
+    return spans;
+  }
+
+  /**
+   * @return The probabilities of the tokens as a new array.
+   */
+  public double[] toProbs() {
+    return Arrays.copyOf(probs, size);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toSpans());
+  }
+}
@@ -18,17 +18,26 @@
 package opennlp.tools.tokenize;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.RecordingEvaluationMonitor;
 
 /**
  * A cross validator for {@link Tokenizer tokenizers}.
  */
 public class TokenizerCrossValidator {
 
+  private static class FoldRecorder extends RecordingEvaluationMonitor<TokenSample>
+      implements TokenizerEvaluationMonitor {
+  }
+
+  private record FoldResult(FMeasure fmeasure, FoldRecorder recorder) {
+  }
+
   private final TrainingParameters params;
 
   private final FMeasure fmeasure = new FMeasure();
@@ -58,22 +67,43 @@ public class TokenizerCrossValidator {
    * @throws IOException Thrown if IO errors occurred during evaluation.
    */
   public void evaluate(ObjectStream<TokenSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
+
+  /**
+   * Starts the evaluation and trains and tests up to {@code threads} folds at the same time.
+   * The listeners are notified in fold order after all folds are done.
+   *
+   * @param samples The {@link ObjectStream} of {@link TokenSample samples} to train and test with.
+   * @param nFolds Number of folds. It must be greater than zero.
+   * @param threads Number of folds which are evaluated in parallel. It must be greater than zero.
+   *
+   * @throws IOException Thrown if IO errors occurred during evaluation.
+   */
+  public void evaluate(ObjectStream<TokenSample> samples, int nFolds, int threads) throws IOException {
 
     CrossValidationPartitioner<TokenSample> partitioner =
         new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<TokenSample> trainingSampleStream =
-          partitioner.next();
+    List<FoldResult> results = partitioner.evaluate(threads, trainingSampleStream -> {
+      FoldRecorder recorder = threads > 1 ? new FoldRecorder() : null;
 
       // Maybe throws IOException if temporary file handling fails ...
-      TokenizerModel model = TokenizerME.train(trainingSampleStream, this.factory, params);
+      TokenizerModel model = TokenizerME.train(trainingSampleStream, this.factory,
+          threads > 1 ? new TrainingParameters(params) : params);
 
-      TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), listeners);
+      TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model),
+          recorder != null ? new TokenizerEvaluationMonitor[] {recorder} : listeners);
 
       evaluator.evaluate(trainingSampleStream.getTestSampleStream());
-      fmeasure.mergeInto(evaluator.getFMeasure());
+      return new FoldResult(evaluator.getFMeasure(), recorder);
+    });
+
+    for (FoldResult result : results) {
+      if (result.recorder() != null) {
+        result.recorder().replay(listeners);
+      }
+      fmeasure.mergeInto(result.fmeasure());
     }
   }
 
@@ -59,6 +59,11 @@ public class TokenizerEvaluator extends Evaluator<TokenSample> {
     return new TokenSample(reference.getText(), predictions);
   }
 
+  @Override
+  protected void merge(Evaluator<TokenSample> shard) {
+    fmeasure.mergeInto(((TokenizerEvaluator) shard).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
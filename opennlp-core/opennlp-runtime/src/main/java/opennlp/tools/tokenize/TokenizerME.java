@@ -18,15 +18,13 @@
 package opennlp.tools.tokenize;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
 import opennlp.tools.commons.ThreadSafe;
 import opennlp.tools.dictionary.Dictionary;
-import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
 import opennlp.tools.ml.TrainerFactory;
@@ -36,9 +34,12 @@ import opennlp.tools.models.ModelType;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.OwnerOrPerThreadState;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.StringList;
+import opennlp.tools.util.StringUtil;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * A {@link Tokenizer} for converting raw text into separated tokens. It uses
@@ -95,6 +96,11 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
 
   private final Pattern alphanumeric;
 
+  /*
+   * The lookup table of the alphanumeric pattern, or {@code null} if it has no table.
+   */
+  private final CharClassTable alphanumericTable;
+
   /*
    * The maximum entropy model to use to evaluate contexts.
    */
@@ -111,14 +117,13 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
   private final boolean useAlphaNumericOptimization;
 
   private final OwnerOrPerThreadState<TokenizerState> perThreadState =
-      new OwnerOrPerThreadState<>(TokenizerState::new, s -> {
-        s.newTokens = new ArrayList<>();
-        s.tokProbs = new ArrayList<>();
-      });
+      new OwnerOrPerThreadState<>(TokenizerState::new, s -> s.tokens.clear());
 
   private static final class TokenizerState {
-    private List<Double> tokProbs = new ArrayList<>();
-    private List<Span> newTokens = new ArrayList<>();
+    // the tokens of the last call to tokenizePos(String), for probs()
+    private final TokenSpanBuffer tokens = new TokenSpanBuffer();
+    private final FeatureSink features = new FeatureSink();
+    private double[] outcomeProbs;
   }
 
   /*
@@ -157,6 +162,7 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
     TokenizerFactory factory = model.getFactory();
     this.cg = factory.getContextGenerator();
     this.alphanumeric = factory.getAlphaNumericPattern();
+    this.alphanumericTable = CharClassTable.of(alphanumeric);
     this.useAlphaNumericOptimization = factory.isUseAlphaNumericOptimization();
   }
 
@@ -170,7 +176,7 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
    */
   @Override
   public double[] probs() {
-    return ArrayMath.toDoubleArray(perThreadState.get().tokProbs);
+    return perThreadState.get().tokens.toProbs();
   }
 
   /**
@@ -192,60 +198,110 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
    */
   @Override
   public Span[] tokenizePos(String d) {
-    WhitespaceTokenizer whitespaceTokenizer = WhitespaceTokenizer.INSTANCE;
-    whitespaceTokenizer.setKeepNewLines(keepNewLines);
-    Span[] tokens = whitespaceTokenizer.tokenizePos(d);
-    List<Span> localTokens = new ArrayList<>();
-    List<Double> localProbs = new ArrayList<>(50);
-    for (Span s : tokens) {
-      String tok = d.substring(s.getStart(), s.getEnd());
-      // Can't tokenize single characters
-      if (tok.length() < 2) {
-        localTokens.add(s);
-        localProbs.add(1d);
-      } else if (useAlphaNumericOptimization() && alphanumeric.matcher(tok).matches()) {
-        localTokens.add(s);
-        localProbs.add(1d);
-      } else {
-        int start = s.getStart();
-        int end = s.getEnd();
-        final int origStart = s.getStart();
-        double tokenProb = 1.0;
-        for (int j = origStart + 1; j < end; j++) {
-          double[] probs =
-              model.eval(cg.getContext(tok, j - origStart));
-          String best = model.getBestOutcome(probs);
-          tokenProb *= probs[model.getIndex(best)];
-          if (best.equals(TokenizerME.SPLIT)) {
-            if (isAcceptableAbbreviation(tok)) {
-              localTokens.add(new Span(start, end));
-              localProbs.add(tokenProb);
-              long numberOfDots = tok.codePoints().filter(ch -> ch == '.').count();
-              j = j + (int) numberOfDots; // To compensate for abbreviation dot(s)
-              start = j + 1;
-            } else {
-              localTokens.add(new Span(start, j));
-              localProbs.add(tokenProb);
-              start = j;
-            }
-            tokenProb = 1.0;
-          }
+    // Publish per-thread state for backward-compatible probs() access
+    TokenSpanBuffer tokens = perThreadState.get().tokens;
+    tokenizePos(d, tokens);
+    return tokens.toSpans();
+  }
+
+  /**
+   * Tokenizes a text into a caller-provided {@link TokenSpanBuffer}, which is cleared first.
+   * The tokens are the same as those of {@link #tokenizePos(String)}, but neither the
+   * whitespace separated tokens nor the features of the model are copied into new strings.
+   * <p>
+   * The probabilities of the tokens are kept in the {@code tokens} buffer,
+   * {@link #probs()} is not affected by this method.
+   *
+   * @param d The text to be tokenized.
+   * @param tokens The {@link TokenSpanBuffer} to add the tokens to.
+   */
+  public void tokenizePos(CharSequence d, TokenSpanBuffer tokens) {
+    tokens.clear();
+    TokenizerState state = perThreadState.get();
+
+    // gather the whitespace separated tokens, like the WhitespaceTokenizer
+    int tokStart = -1;
+    final int end = d.length();
+    for (int i = 0; i < end; i++) {
+      final char c = d.charAt(i);
+      if (StringUtil.isWhitespace(c)) {
+        if (tokStart != -1) {
+          tokenize(d, tokStart, i, tokens, state);
+          tokStart = -1;
         }
-        if (start < end) {
-          localTokens.add(new Span(start, end));
-          localProbs.add(tokenProb);
+        if (keepNewLines && (c == '\r' || c == '\n')) {
+          tokens.add(i, i + 1, 1d);
         }
+      } else if (tokStart == -1) {
+        tokStart = i;
       }
     }
+    if (tokStart != -1) {
+      tokenize(d, tokStart, end, tokens, state);
+    }
+  }
 
-    // Publish per-thread state for backward-compatible probs() access
-    TokenizerState state = perThreadState.get();
-    state.newTokens = localTokens;
-    state.tokProbs = localProbs;
+  /**
+   * Splits a whitespace separated token of a text into tokens.
+   */
+  private void tokenize(CharSequence d, int origStart, int end, TokenSpanBuffer tokens,
+                        TokenizerState state) {
+    // Can't tokenize single characters
+    if (end - origStart < 2) {
+      tokens.add(origStart, end, 1d);
+      return;
+    }
+    if (useAlphaNumericOptimization() && isAlphanumeric(d, origStart, end)) {
+      tokens.add(origStart, end, 1d);
+      return;
+    }
 
-    Span[] spans = new Span[localTokens.size()];
-    localTokens.toArray(spans);
-    return spans;
+    if (state.outcomeProbs == null) {
+      state.outcomeProbs = new double[model.getNumOutcomes()];
+    }
+    final FeatureSink features = state.features;
+    int start = origStart;
+    double tokenProb = 1.0;
+    for (int j = origStart + 1; j < end; j++) {
+      features.clear();
+      cg.createContext(features, d, origStart, end, j - origStart);
+      // the buffer is reused, a model may add its scores to it
+      Arrays.fill(state.outcomeProbs, 0);
+      double[] probs = model.evalFeatures(features, state.outcomeProbs);
+      String best = model.getBestOutcome(probs);
+      tokenProb *= probs[model.getIndex(best)];
+      if (best.equals(TokenizerME.SPLIT)) {
+        if (isAcceptableAbbreviation(d.subSequence(origStart, end))) {
+          tokens.add(start, end, tokenProb);
+          j = j + countDots(d, origStart, end); // To compensate for abbreviation dot(s)
+          start = j + 1;
+        } else {
+          tokens.add(start, j, tokenProb);
+          start = j;
+        }
+        tokenProb = 1.0;
+      }
+    }
+    if (start < end) {
+      tokens.add(start, end, tokenProb);
+    }
+  }
+
+  private boolean isAlphanumeric(CharSequence d, int start, int end) {
+    if (alphanumericTable != null) {
+      return alphanumericTable.matches(d, start, end);
+    }
+    return alphanumeric.matcher(d.subSequence(start, end)).matches();
+  }
+
+  private static int countDots(CharSequence d, int start, int end) {
+    int dots = 0;
+    for (int i = start; i < end; i++) {
+      if (d.charAt(i) == '.') {
+        dots++;
+      }
+    }
+    return dots;
   }
 
   /**
@@ -271,9 +327,9 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
-    ObjectStream<Event> eventStream = new TokSpanEventStream(samples,
-        factory.isUseAlphaNumericOptimization(),
-        factory.getAlphaNumericPattern(), factory.getContextGenerator());
+    ObjectStream<Event> eventStream = ParallelEventStream.create(samples, mlParams,
+        s -> new TokSpanEventStream(s, factory.isUseAlphaNumericOptimization(),
+            factory.getAlphaNumericPattern(), factory.getContextGenerator()));
 
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(
         mlParams, manifestInfoEntries);
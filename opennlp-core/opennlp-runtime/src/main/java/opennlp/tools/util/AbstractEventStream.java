@@ -52,6 +52,18 @@ public abstract class AbstractEventStream<T> implements ObjectStream<Event> {
    */
   protected abstract Iterator<Event> createEvents(T sample);
 
+  /**
+   * Indicates if the events of a sample can be created without the samples before it.
+   * A {@link ParallelEventStream} only hands a new batch to a worker at such samples.
+   * Event streams whose context generators keep state across samples override it.
+   *
+   * @param sample A {@link T sample}.
+   * @return {@code true} by default.
+   */
+  protected boolean isIndependent(T sample) {
+    return true;
+  }
+
   @Override
   public final Event read() throws IOException {
 
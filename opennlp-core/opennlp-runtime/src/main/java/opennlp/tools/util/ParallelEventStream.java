@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import opennlp.tools.ml.model.Event;
+
+/**
+ * An {@link ObjectStream} of {@link Event events} which creates the events of its samples
+ * on several threads.
+ * <p>
+ * The samples are read in batches on the calling thread. Each batch is handed to a worker,
+ * which is an {@link AbstractEventStream} with its own context generator, and the events are
+ * returned in the order of the samples, exactly as a single {@link AbstractEventStream} would
+ * return them. A new batch only starts at a sample which is
+ * {@link AbstractEventStream#isIndependent(Object) independent} of the samples before it,
+ * so context generators with adaptive data create the same events.
+ *
+ * @param <T> The generic type representing samples.
+ * @see #create(ObjectStream, TrainingParameters, Function)
+ */
+public class ParallelEventStream<T> implements ObjectStream<Event> {
+
+  /**
+   * The number of threads which create the events, the default is {@code 1}.
+   */
+  public static final String EVENT_THREADS_PARAM = "EventThreads";
+
+  /**
+   * The number of samples which are handed to a worker at once.
+   */
+  private static final int BATCH_SIZE = 256;
+
+  private final ObjectStream<T> samples;
+  private final int threads;
+  private final List<AbstractEventStream<T>> workers;
+
+  private ExecutorService executor;
+  private BlockingQueue<AbstractEventStream<T>> idleWorkers;
+  private final Deque<Future<List<Event>>> batches = new ArrayDeque<>();
+  private Iterator<Event> events = Collections.emptyIterator();
+  private T nextSample;
+  private boolean exhausted;
+
+  /**
+   * Initializes a {@link ParallelEventStream}.
+   *
+   * @param samples The {@link ObjectStream} that provides the {@link T} samples.
+   * @param threads The number of threads. Must be greater than {@code 0}.
+   * @param eventStreams Creates the event stream of a worker. The workers only create events
+   *                     for single samples, they never read the stream they are given.
+   * @throws IllegalArgumentException Thrown if {@code threads} is not positive.
+   */
+  public ParallelEventStream(ObjectStream<T> samples, int threads,
+                             Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be greater than 0, but is " + threads);
+    }
+    this.samples = samples;
+    this.threads = threads;
+
+    ObjectStream<T> unused = () -> {
+      throw new UnsupportedOperationException("Workers do not read samples");
+    };
+    workers = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      workers.add(eventStreams.apply(unused));
+    }
+  }
+
+  /**
+   * Creates the event stream for training with the given {@link TrainingParameters}.
+   * If {@link #EVENT_THREADS_PARAM} is greater than {@code 1}, it is a
+   * {@link ParallelEventStream}, otherwise the event stream created by
+   * {@code eventStreams} for the samples.
+   *
+   * @param samples The {@link ObjectStream} that provides the {@link T} samples.
+   * @param params The {@link TrainingParameters} of the training.
+   * @param eventStreams Creates an event stream over a sample stream, for every call
+   *                     with its own context generator.
+   * @param <T> The generic type representing samples.
+   * @return The {@link ObjectStream} of {@link Event events}.
+   */
+  public static <T> ObjectStream<Event> create(ObjectStream<T> samples, TrainingParameters params,
+      Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams) {
+    int threads = params.getIntParameter(EVENT_THREADS_PARAM, 1);
+    if (threads == 1) {
+      return eventStreams.apply(samples);
+    }
+    return new ParallelEventStream<>(samples, threads, eventStreams);
+  }
+
+  @Override
+  public Event read() throws IOException {
+    while (!events.hasNext()) {
+      if (batches.isEmpty() && exhausted) {
+        shutdown();
+        return null;
+      }
+
+      // keep a few batches per thread in progress
+      while (!exhausted && batches.size() < 2 * threads) {
+        submitBatch();
+      }
+
+      if (!batches.isEmpty()) {
+        events = take(batches.poll()).iterator();
+      }
+    }
+    return events.next();
+  }
+
+  private void submitBatch() throws IOException {
+    List<T> batch = new ArrayList<>(BATCH_SIZE);
+    if (nextSample == null) {
+      nextSample = samples.read();
+    }
+    while (nextSample != null) {
+      batch.add(nextSample);
+      nextSample = samples.read();
+      if (nextSample != null && batch.size() >= BATCH_SIZE && isIndependent(nextSample)) {
+        break;
+      }
+    }
+    if (nextSample == null) {
+      exhausted = true;
+    }
+
+    if (!batch.isEmpty()) {
+      if (executor == null) {
+        idleWorkers = new ArrayBlockingQueue<>(threads, false, workers);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+          Thread thread = new Thread(runnable);
+          thread.setName("opennlp.tools.util.ParallelEventStream");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+      batches.add(executor.submit(() -> createEvents(batch)));
+    }
+  }
+
+  private boolean isIndependent(T sample) {
+    return workers.get(0).isIndependent(sample);
+  }
+
+  private List<Event> createEvents(List<T> batch) throws InterruptedException {
+    AbstractEventStream<T> worker = idleWorkers.take();
+    try {
+      List<Event> batchEvents = new ArrayList<>();
+      for (T sample : batch) {
+        worker.createEvents(sample).forEachRemaining(batchEvents::add);
+      }
+      return batchEvents;
+    } finally {
+      idleWorkers.add(worker);
+    }
+  }
+
+  private List<Event> take(Future<List<Event>> batch) throws IOException {
+    try {
+      return batch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while creating events");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException re) {
+        throw re;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  private void shutdown() throws IOException {
+    if (executor != null) {
+      // running batches are finished, so no worker is used by two batches later on
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while stopping the event threads");
+      }
+      executor = null;
+    }
+    batches.clear();
+  }
+
+  @Override
+  public void reset() throws IOException, UnsupportedOperationException {
+    shutdown();
+    events = Collections.emptyIterator();
+    nextSample = null;
+    exhausted = false;
+    samples.reset();
+  }
+
+  @Override
+  public void close() throws IOException {
+    shutdown();
+    samples.close();
+  }
+}
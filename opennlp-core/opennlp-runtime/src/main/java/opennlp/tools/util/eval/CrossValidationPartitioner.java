@@ -19,8 +19,15 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.ObjectStream;
@@ -38,9 +45,30 @@ import opennlp.tools.util.ObjectStream;
  * one partition and is used first for training and afterwards for testing.
  * The {@link TestSampleStream} can be obtained via the
  * {@link TrainingSampleStream#getTestSampleStream()} method.
+ * <p>
+ * Alternatively, the partitions can be handed to a {@link PartitionEvaluator} via
+ * {@link #evaluate(int, PartitionEvaluator)}, which can process several partitions in parallel.
  */
 public class CrossValidationPartitioner<E> {
 
+  /**
+   * Trains and evaluates on one partition.
+   *
+   * @param <E> The generic type of samples.
+   * @param <R> The generic type of the result of a partition.
+   */
+  @FunctionalInterface
+  public interface PartitionEvaluator<E, R> {
+
+    /**
+     * @param partition The {@link TrainingSampleStream} of the partition, which provides
+     *                  the test samples via {@link TrainingSampleStream#getTestSampleStream()}.
+     * @return The result of the partition.
+     * @throws IOException Thrown if IO errors occurred.
+     */
+    R evaluate(TrainingSampleStream<E> partition) throws IOException;
+  }
+
   /**
    * The {@link TestSampleStream} iterates over all test elements.
    *
@@ -283,6 +311,87 @@ public class CrossValidationPartitioner<E> {
     }
   }
 
+  /**
+   * Evaluates all remaining partitions.
+   * <p>
+   * With one thread the partitions are evaluated one after another on the sample stream,
+   * exactly like iterating with {@link #next()}. With more threads the samples are read
+   * into memory once, and up to {@code threads} partitions are evaluated at the same time,
+   * each on its own streams over these samples. The {@link PartitionEvaluator} must then
+   * be safe to call from several threads.
+   *
+   * @param threads The number of partitions which are evaluated at the same time.
+   *                Must be greater than {@code 0}.
+   * @param evaluator The {@link PartitionEvaluator} which is called for each partition.
+   * @param <R> The generic type of the result of a partition.
+   * @return The results of the partitions in partition order.
+   * @throws IOException Thrown if IO errors occurred, also when the
+   *                     {@link PartitionEvaluator} of any partition threw it.
+   * @throws IllegalArgumentException Thrown if {@code threads} is not positive.
+   */
+  public <R> List<R> evaluate(int threads, PartitionEvaluator<E, R> evaluator) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be greater than 0, but is " + threads);
+    }
+
+    List<R> results = new ArrayList<>();
+
+    if (threads == 1 || numberOfPartitions - testIndex < 2) {
+      while (hasNext()) {
+        results.add(evaluator.evaluate(next()));
+      }
+      return results;
+    }
+
+    if (lastTrainingSampleStream != null)
+      lastTrainingSampleStream.poison();
+
+    sampleStream.reset();
+    List<E> samples = new ArrayList<>();
+    E sample;
+    while ((sample = sampleStream.read()) != null) {
+      samples.add(sample);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(threads, numberOfPartitions - testIndex), runnable -> {
+          Thread thread = new Thread(runnable);
+          thread.setName("opennlp.tools.util.eval.CrossValidationPartitioner.evaluate()");
+          thread.setDaemon(true);
+          return thread;
+        });
+
+    try {
+      List<Future<R>> futures = new ArrayList<>();
+      for (; testIndex < numberOfPartitions; testIndex++) {
+        TrainingSampleStream<E> partition = new TrainingSampleStream<>(
+            new CollectionObjectStream<>(samples), numberOfPartitions, testIndex);
+        futures.add(executor.submit(() -> evaluator.evaluate(partition)));
+      }
+
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while evaluating the partitions");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException ioe) {
+        throw ioe;
+      } else if (cause instanceof RuntimeException re) {
+        throw re;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return results;
+  }
+
   @Override
   public String toString() {
     return "At partition" + (testIndex + 1) +
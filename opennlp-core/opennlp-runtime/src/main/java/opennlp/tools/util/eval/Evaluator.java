@@ -19,9 +19,19 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import opennlp.tools.util.ObjectStream;
 
@@ -32,6 +42,11 @@ import opennlp.tools.util.ObjectStream;
  */
 public abstract class Evaluator<T> {
 
+  /**
+   * The number of samples which are handed to a shard at once.
+   */
+  private static final int SHARD_BATCH_SIZE = 256;
+
   private final List<EvaluationMonitor<T>> listeners;
 
   @SafeVarargs
@@ -74,7 +89,10 @@ public abstract class Evaluator<T> {
    * @param sample A {@link T sample} to be evaluated.
    */
   public void evaluateSample(T sample) {
-    T predicted = processSample(sample);
+    notifyListeners(sample, processSample(sample));
+  }
+
+  private void notifyListeners(T sample, T predicted) {
     if (!listeners.isEmpty()) {
       if (sample.equals(predicted)) {
         for (EvaluationMonitor<T> listener : listeners) {
@@ -104,4 +122,174 @@ public abstract class Evaluator<T> {
       evaluateSample(sample);
     }
   }
+
+  /**
+   * Reads all {@link ObjectStream<T> sample objects} and evaluates them on
+   * {@code threads} threads.
+   * <p>
+   * The samples are handed out in batches to shards, which are evaluators of the same
+   * type created by {@code shardFactory}, each with its own tool instance. A shard is
+   * only used by one thread at a time. Afterwards, the scores of the shards are merged
+   * into this evaluator via {@link #merge(Evaluator)}. The listeners of this evaluator
+   * are notified on the calling thread in the order of the samples, the listeners of the
+   * shards are not used.
+   * <p>
+   * With one thread the samples are evaluated by this evaluator, as by
+   * {@link #evaluate(ObjectStream)}.
+   *
+   * @param samples The {@link ObjectStream<T> stream} of reference
+   *                which shall be evaluated.
+   * @param threads The number of threads. Must be greater than {@code 0}.
+   * @param shardFactory Creates the evaluators of the shards, for example
+   *                     {@code () -> new POSEvaluator(new POSTaggerME(model))}.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   * @throws IllegalArgumentException Thrown if {@code threads} is not positive.
+   * @throws UnsupportedOperationException Thrown if this evaluator can't {@link #merge(Evaluator)},
+   *     before any sample is read.
+   */
+  public void evaluate(ObjectStream<T> samples, int threads,
+                       Supplier<? extends Evaluator<T>> shardFactory) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be greater than 0, but is " + threads);
+    }
+
+    if (threads == 1) {
+      evaluate(samples);
+      return;
+    }
+
+    if (!canMerge()) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " can't merge shards");
+    }
+
+    List<Evaluator<T>> shards = new ArrayList<>(threads);
+    BlockingQueue<Evaluator<T>> idleShards = new ArrayBlockingQueue<>(threads);
+    for (int i = 0; i < threads; i++) {
+      Evaluator<T> shard = shardFactory.get();
+      shards.add(shard);
+      idleShards.add(shard);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable);
+      thread.setName("opennlp.tools.util.eval.Evaluator.evaluate()");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    // The batches in sample order, at most a few per thread are kept in memory
+    Deque<List<T>> batches = new ArrayDeque<>();
+    Deque<Future<List<T>>> predictions = new ArrayDeque<>();
+    try {
+      List<T> batch = new ArrayList<>(SHARD_BATCH_SIZE);
+      T sample;
+      while ((sample = samples.read()) != null) {
+        if (batch.size() >= SHARD_BATCH_SIZE && isIndependent(sample)) {
+          List<T> references = batch;
+          batches.add(references);
+          predictions.add(executor.submit(() -> processBatch(idleShards, references)));
+          batch = new ArrayList<>(SHARD_BATCH_SIZE);
+
+          if (batches.size() > 2 * threads) {
+            notifyListeners(batches.poll(), predictions.poll());
+          }
+        }
+        batch.add(sample);
+      }
+
+      if (!batch.isEmpty()) {
+        List<T> references = batch;
+        batches.add(references);
+        predictions.add(executor.submit(() -> processBatch(idleShards, references)));
+      }
+
+      while (!batches.isEmpty()) {
+        notifyListeners(batches.poll(), predictions.poll());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (Evaluator<T> shard : shards) {
+      merge(shard);
+    }
+  }
+
+  private List<T> processBatch(BlockingQueue<Evaluator<T>> idleShards, List<T> references)
+      throws InterruptedException {
+    Evaluator<T> shard = idleShards.take();
+    try {
+      List<T> predicted = new ArrayList<>(references.size());
+      for (T reference : references) {
+        predicted.add(shard.processSample(reference));
+      }
+      return predicted;
+    } finally {
+      idleShards.add(shard);
+    }
+  }
+
+  private void notifyListeners(List<T> references, Future<List<T>> predictions) throws IOException {
+    List<T> predicted;
+    try {
+      predicted = predictions.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while evaluating the samples");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException re) {
+        throw re;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    }
+
+    for (int i = 0; i < references.size(); i++) {
+      notifyListeners(references.get(i), predicted.get(i));
+    }
+  }
+
+  /**
+   * Indicates if a sample can be evaluated without the samples before it. Sharded
+   * evaluation only starts a new batch at such samples. Evaluators whose tool keeps
+   * state across samples override it.
+   *
+   * @param sample A {@link T sample}.
+   * @return {@code true} by default.
+   */
+  protected boolean isIndependent(T sample) {
+    return true;
+  }
+
+  /**
+   * Indicates if this evaluator can {@link #merge(Evaluator) merge} the scores of shards,
+   * which is checked before a sharded evaluation starts.
+   *
+   * @return {@code true} if a subclass overrides {@link #merge(Evaluator)}.
+   */
+  protected boolean canMerge() {
+    for (Class<?> type = getClass(); type != Evaluator.class; type = type.getSuperclass()) {
+      try {
+        type.getDeclaredMethod("merge", Evaluator.class);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // not overridden on this level
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the scores of a shard to the scores of this evaluator.
+   * Evaluators which support {@link #evaluate(ObjectStream, int, Supplier)} override it.
+   *
+   * @param shard An evaluator of the same type, which evaluated other samples.
+   * @throws UnsupportedOperationException Thrown by default.
+   */
+  protected void merge(Evaluator<T> shard) {
+    throw new UnsupportedOperationException(getClass().getSimpleName() + " can't merge shards");
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.eval;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An {@link EvaluationMonitor} which records the classified samples, so they can be
+ * handed to other monitors later on. Cross validators use it to report the samples
+ * of folds which are evaluated in parallel in fold order.
+ *
+ * @param <T> The generic type of samples.
+ */
+public class RecordingEvaluationMonitor<T> implements EvaluationMonitor<T> {
+
+  private final List<T> references = new ArrayList<>();
+  private final List<T> predictions = new ArrayList<>();
+  private final BitSet correct = new BitSet();
+
+  @Override
+  public void correctlyClassified(T reference, T prediction) {
+    correct.set(references.size());
+    references.add(reference);
+    predictions.add(prediction);
+  }
+
+  @Override
+  public void misclassified(T reference, T prediction) {
+    references.add(reference);
+    predictions.add(prediction);
+  }
+
+  /**
+   * Reports the recorded samples to the {@code listeners} in the order they were recorded.
+   *
+   * @param listeners The {@link EvaluationMonitor listeners} to report to,
+   *                  {@code null} elements are skipped.
+   */
+  @SafeVarargs
+  public final void replay(EvaluationMonitor<T>... listeners) {
+    if (listeners == null) {
+      return;
+    }
+    for (int i = 0; i < references.size(); i++) {
+      for (EvaluationMonitor<T> listener : listeners) {
+        if (listener != null) {
+          if (correct.get(i)) {
+            listener.correctlyClassified(references.get(i), predictions.get(i));
+          } else {
+            listener.misclassified(references.get(i), predictions.get(i));
+          }
+        }
+      }
+    }
+  }
+}
@@ -83,6 +83,29 @@ public class AggregatedFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    for (AdaptiveFeatureGenerator generator : generators) {
+      generator.emitFeatures(features, tokens, index, previousOutcomes);
+    }
+  }
+
+  /**
+   * @return {@code true} if any of the aggregated
+   *         {@link AdaptiveFeatureGenerator feature generators} depends on the previous outcomes.
+   */
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    for (AdaptiveFeatureGenerator generator : generators) {
+      if (generator.dependsOnPreviousOutcomes()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Calls the {@link AdaptiveFeatureGenerator#updateAdaptiveData(String[], String[])}
    * method on all aggregated {@link AdaptiveFeatureGenerator feature generators}.
@@ -42,4 +42,26 @@ public class BigramNameFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add("wc,nc=" + wc + "," + nwc);
     }
   }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+                             String[] previousOutcomes) {
+    String wc = FeatureGeneratorUtil.tokenFeature(tokens[index]);
+    //bi-gram features
+    if (index > 0) {
+      features.begin("pw,w=").append(tokens[index - 1]).append(',').append(tokens[index]).end();
+      String pwc = FeatureGeneratorUtil.tokenFeature(tokens[index - 1]);
+      features.begin("pwc,wc=").append(pwc).append(',').append(wc).end();
+    }
+    if (index + 1 < tokens.length) {
+      features.begin("w,nw=").append(tokens[index]).append(',').append(tokens[index + 1]).end();
+      String nwc = FeatureGeneratorUtil.tokenFeature(tokens[index + 1]);
+      features.begin("wc,nc=").append(wc).append(',').append(nwc).end();
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -63,4 +63,40 @@ public class BrownBigramFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    String wc = brownCluster.lookupToken(tokens[index]);
+    if (wc == null) {
+      return;
+    }
+    if (index > 0) {
+      addBigrams(features, FEATURE_PREV_BROWNCLUSTER_BASE,
+          brownCluster.lookupToken(tokens[index - 1]), wc);
+    }
+
+    if (index + 1 < tokens.length) {
+      addBigrams(features, FEATURE_NEXT_BROWNCLUSTER_BASE,
+          wc, brownCluster.lookupToken(tokens[index + 1]));
+    }
+  }
+
+  private static void addBigrams(FeatureSink features, String prefix, String first, String second) {
+    if (first == null || second == null) {
+      return;
+    }
+    int firstLength;
+    int secondLength;
+    for (int i = 0; (firstLength = BrownTokenClasses.getWordClassLength(first, i)) != -1
+        && (secondLength = BrownTokenClasses.getWordClassLength(second, i)) != -1; i++) {
+      features.begin(prefix).append(first, 0, firstLength).append(',')
+          .append(second, 0, secondLength).end();
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -53,5 +53,22 @@ public class BrownTokenClassFeatureGenerator implements AdaptiveFeatureGenerator
     }
   }
 
-}
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
 
+    String brownClass = brownLexicon.lookupToken(tokens[index]);
+    if (brownClass != null) {
+      String wordShape = FeatureGeneratorUtil.tokenFeature(tokens[index]);
+      int length;
+      for (int i = 0; (length = BrownTokenClasses.getWordClassLength(brownClass, i)) != -1; i++) {
+        features.begin(PREFIX).append(wordShape).append(',').append(brownClass, 0, length).end();
+      }
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
+}
@@ -45,16 +45,29 @@ public class BrownTokenClasses {
     } else {
       String brownClass = brownLexicon.lookupToken(token);
       List<String> pathLengthsList = new ArrayList<>();
-      pathLengthsList.add(brownClass.substring(0, StrictMath.min(brownClass.length(), pathLengths[0])));
-      for (int i = 1; i < pathLengths.length; i++) {
-        if (pathLengths[i - 1] < brownClass.length()) {
-          pathLengthsList.add(brownClass.substring(0,
-              StrictMath.min(brownClass.length(), pathLengths[i])));
-        }
+      int length;
+      for (int i = 0; (length = getWordClassLength(brownClass, i)) != -1; i++) {
+        pathLengthsList.add(brownClass.substring(0, length));
       }
       return pathLengthsList;
     }
   }
 
+  /**
+   * Determines the length of a path of a Brown class without creating a substring.
+   * The i-th element of {@link #getWordClasses(String, BrownCluster)} is the prefix
+   * of {@code brownClass} with this length.
+   *
+   * @param brownClass The Brown class of a token.
+   * @param i The index of the path.
+   * @return The length of the i-th path, or {@code -1} if {@code brownClass} has no such path.
+   */
+  static int getWordClassLength(String brownClass, int i) {
+    if (i >= pathLengths.length || i > 0 && pathLengths[i - 1] >= brownClass.length()) {
+      return -1;
+    }
+    return StrictMath.min(brownClass.length(), pathLengths[i]);
+  }
+
 }
 
@@ -52,4 +52,21 @@ public class BrownTokenFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    String brownClass = brownLexicon.lookupToken(tokens[index]);
+    if (brownClass != null) {
+      int length;
+      for (int i = 0; (length = BrownTokenClasses.getWordClassLength(brownClass, i)) != -1; i++) {
+        features.add(PREFIX, brownClass, 0, length);
+      }
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
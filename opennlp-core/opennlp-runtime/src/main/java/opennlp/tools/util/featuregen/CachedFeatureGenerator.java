@@ -19,23 +19,32 @@
 package opennlp.tools.util.featuregen;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import opennlp.tools.commons.ThreadSafe;
 import opennlp.tools.util.Cache;
+import opennlp.tools.util.ScratchState;
+import opennlp.tools.util.StateStrategy;
 
 /**
  * Caches features of the aggregated {@link AdaptiveFeatureGenerator generators}.
  * <p>
  * The cache is maintained per-thread via {@link ThreadLocal}, making this class safe for
  * concurrent use from multiple threads. Each thread gets its own independent cache that is
- * cleared when a new sentence (token array) is encountered.
+ * cleared when a new sentence (token array) is encountered. With a {@link StateStrategy#POOLED pooled}
+ * or {@link StateStrategy#STRIPED striped} {@link StateStrategy}, a bounded number of caches is
+ * shared between all threads instead.
  * <p>
  * <b>Cache key is reference identity, not content.</b> The "is this still the same sentence?" check
  * uses {@code tokens == state.prevTokens}; passing a freshly allocated {@code String[]} with the same
  * contents is treated as a new sentence and triggers a cache miss + clear. Reuse the same {@code tokens}
  * array across calls when you need the cache to hit.
  * <p>
+ * Features written to a {@link FeatureSink} are cached separately, for all tokens of the sentence,
+ * in a {@link FeatureSink} of the cache which is reused for later sentences. Cache hits then copy
+ * characters only.
+ * <p>
  * <b>Note:</b> In container environments with classloader isolation (e.g. Jakarta EE),
  * {@link ThreadLocal} state may pin the classloader. Ensure instances do not outlive
  * the application's lifecycle, or call {@link ThreadLocal#remove()} on pooled threads.
@@ -54,13 +63,17 @@ public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
   private final AdaptiveFeatureGenerator generator;
   private final boolean cacheEnabled;
 
-  private final ThreadLocal<CacheState> threadState =
-      ThreadLocal.withInitial(() -> new CacheState(new Cache<>(100)));
+  private final ScratchState<CacheState> scratchState;
 
   private static final class CacheState {
     private String[] prevTokens;
     private final Cache<Integer, List<String>> cache;
 
+    private String[] sinkTokens;
+    private final FeatureSink sinkFeatures = new FeatureSink();
+    /* The range of the features of each token in sinkFeatures, from is -1 if not cached. */
+    private int[] sinkRanges = new int[0];
+
     CacheState(Cache<Integer, List<String>> cache) {
       this.cache = cache;
     }
@@ -71,13 +84,26 @@ public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
    */
   @Deprecated
   public CachedFeatureGenerator(AdaptiveFeatureGenerator... generators) {
-    this.generator = new AggregatedFeatureGenerator(generators);
-    this.cacheEnabled = !Boolean.getBoolean(DISABLE_CACHE_PROPERTY);
+    this(new AggregatedFeatureGenerator(generators), StateStrategy.getDefault());
   }
 
   public CachedFeatureGenerator(AdaptiveFeatureGenerator generator) {
+    this(generator, StateStrategy.getDefault());
+  }
+
+  /**
+   * Initializes a {@link CachedFeatureGenerator} with the specified {@link StateStrategy}.
+   *
+   * @param generator The {@link AdaptiveFeatureGenerator} whose features are cached.
+   * @param stateStrategy The {@link StateStrategy} which manages the caches of the threads.
+   */
+  public CachedFeatureGenerator(AdaptiveFeatureGenerator generator, StateStrategy stateStrategy) {
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
     this.generator = generator;
     this.cacheEnabled = !Boolean.getBoolean(DISABLE_CACHE_PROPERTY);
+    this.scratchState = stateStrategy.newState(() -> new CacheState(new Cache<>(100)));
   }
 
   @Override
@@ -87,31 +113,78 @@ public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
     if (!cacheEnabled) {
       generator.createFeatures(features, tokens, index, previousOutcomes);
     } else {
-      CacheState state = threadState.get();
-      List<String> cacheFeatures;
+      CacheState state = scratchState.acquire();
+      try {
+        List<String> cacheFeatures;
+
+        if (tokens == state.prevTokens) {
+          cacheFeatures = state.cache.get(index);
 
-      if (tokens == state.prevTokens) {
-        cacheFeatures = state.cache.get(index);
+          if (cacheFeatures != null) {
+            features.addAll(cacheFeatures);
+            return;
+          }
 
-        if (cacheFeatures != null) {
-          features.addAll(cacheFeatures);
-          return;
+        } else {
+          state.cache.clear();
+          state.prevTokens = tokens;
         }
 
-      } else {
-        state.cache.clear();
-        state.prevTokens = tokens;
+        cacheFeatures = new ArrayList<>();
+
+        generator.createFeatures(cacheFeatures, tokens, index, previousOutcomes);
+
+        state.cache.put(index, cacheFeatures);
+        features.addAll(cacheFeatures);
+      } finally {
+        scratchState.release(state);
       }
+    }
+  }
 
-      cacheFeatures = new ArrayList<>();
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
 
-      generator.createFeatures(cacheFeatures, tokens, index, previousOutcomes);
+    if (!cacheEnabled) {
+      generator.emitFeatures(features, tokens, index, previousOutcomes);
+    } else {
+      CacheState state = scratchState.acquire();
+      try {
+        if (tokens != state.sinkTokens) {
+          state.sinkTokens = tokens;
+          state.sinkFeatures.clear();
+          if (state.sinkRanges.length < 2 * tokens.length) {
+            state.sinkRanges = new int[2 * tokens.length];
+          }
+          Arrays.fill(state.sinkRanges, 0, 2 * tokens.length, -1);
+        }
 
-      state.cache.put(index, cacheFeatures);
-      features.addAll(cacheFeatures);
+        int from = state.sinkRanges[2 * index];
+        if (from == -1) {
+          from = state.sinkFeatures.size();
+          generator.emitFeatures(state.sinkFeatures, tokens, index, previousOutcomes);
+          state.sinkRanges[2 * index] = from;
+          state.sinkRanges[2 * index + 1] = state.sinkFeatures.size();
+        }
+        features.addAll(state.sinkFeatures, from, state.sinkRanges[2 * index + 1]);
+      } finally {
+        scratchState.release(state);
+      }
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The cached features of a token are reused for all previous outcomes, so they only depend
+   * on them if the cache is disabled and the cached generator does.
+   */
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return !cacheEnabled && generator.dependsOnPreviousOutcomes();
+  }
+
   @Override
   public void updateAdaptiveData(String[] tokens, String[] outcomes) {
     generator.updateAdaptiveData(tokens, outcomes);
@@ -82,4 +82,15 @@ public class DictionaryFeatureGenerator implements AdaptiveFeatureGenerator {
     current.createFeatures(features, tokens, index, previousOutcomes);
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+                             String[] previousOutcomes) {
+    final InSpanGenerator current = isg;
+    current.emitFeatures(features, tokens, index, previousOutcomes);
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -38,6 +38,7 @@ import org.w3c.dom.Text;
 import org.xml.sax.SAXException;
 
 import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.XmlUtil;
 import opennlp.tools.util.ext.ExtensionLoader;
 import opennlp.tools.util.model.ArtifactSerializer;
@@ -103,11 +104,37 @@ public class GeneratorFactory {
   public static AdaptiveFeatureGenerator create(InputStream xmlDescriptorIn,
                                                 FeatureGeneratorResourceProvider resourceManager)
       throws IOException {
+    return create(xmlDescriptorIn, resourceManager, StateStrategy.getDefault());
+  }
+
+  /**
+   * Creates an {@link AdaptiveFeatureGenerator} from an provided XML descriptor.
+   * If the descriptor enables caching, the {@link CachedFeatureGenerator} keeps
+   * its per-thread state according to the given {@link StateStrategy}.
+   *
+   * @param xmlDescriptorIn the {@link InputStream} from which the descriptor
+   *                        is read, the stream remains open and must be closed by the caller.
+   * @param resourceManager the resource manager which is used to resolve resources
+   *                        referenced by a key in the descriptor
+   * @param stateStrategy   the {@link StateStrategy} for the feature cache. Must not be {@code null}.
+   * @return created feature generators
+   * @throws IOException if an error occurs during reading from the descriptor
+   *                     {@link InputStream}
+   * @throws IllegalArgumentException if {@code stateStrategy} is {@code null}.
+   */
+  public static AdaptiveFeatureGenerator create(InputStream xmlDescriptorIn,
+                                                FeatureGeneratorResourceProvider resourceManager,
+                                                StateStrategy stateStrategy)
+      throws IOException {
+
+    if (stateStrategy == null) {
+      throw new IllegalArgumentException("stateStrategy must not be null");
+    }
 
     final org.w3c.dom.Document xmlDescriptorDOM = createDOM(xmlDescriptorIn);
     final Element generatorElement = xmlDescriptorDOM.getDocumentElement();
 
-    return createGenerator(generatorElement, resourceManager);
+    return createGenerator(generatorElement, resourceManager, stateStrategy);
   }
 
   /**
@@ -156,11 +183,13 @@ public class GeneratorFactory {
    *
    * @param generatorElement must not be {@code null}
    * @param resourceManager  may be {@code null}
+   * @param stateStrategy    the {@link StateStrategy} for the feature cache, if enabled
    * @return an {@link AdaptiveFeatureGenerator}
    * @throws IllegalArgumentException if the given {@link Element generatorElement} is {@code null}
    */
   private static AdaptiveFeatureGenerator createGenerator(Element generatorElement,
-                                                          FeatureGeneratorResourceProvider resourceManager)
+                                                          FeatureGeneratorResourceProvider resourceManager,
+                                                          StateStrategy stateStrategy)
       throws InvalidFormatException {
 
     if (generatorElement == null) {
@@ -204,7 +233,7 @@ public class GeneratorFactory {
 
       // check cache usage
       if (Boolean.parseBoolean(generatorElement.getAttribute("cache"))) {
-        return new CachedFeatureGenerator(featureGenerator);
+        return new CachedFeatureGenerator(featureGenerator, stateStrategy);
       } else {
         return featureGenerator;
       }
@@ -66,6 +66,25 @@ public class InSpanGenerator implements AdaptiveFeatureGenerator {
   @Override
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] preds) {
+    if (isInSpan(tokens, index)) {
+      // found a span for the current token
+      features.add(prefix + W_DIC);
+      features.add(prefix + W_DIC_IS + tokens[index]);
+
+      // TODO: consider generation start and continuation features
+    }
+  }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] preds) {
+    if (isInSpan(tokens, index)) {
+      features.begin(prefix).append(W_DIC).end();
+      features.begin(prefix).append(W_DIC_IS).append(tokens[index]).end();
+    }
+  }
+
+  private boolean isInSpan(String[] tokens, int index) {
     // cache results for sentence
     CacheState state = threadState.get();
     if (state.currentSentence != tokens) {
@@ -76,14 +95,14 @@ public class InSpanGenerator implements AdaptiveFeatureGenerator {
     // iterate over names and check if a span is contained
     for (Span currentName : state.currentNames) {
       if (currentName.contains(index)) {
-        // found a span for the current token
-        features.add(prefix + W_DIC);
-        features.add(prefix + W_DIC_IS + tokens[index]);
-
-        // TODO: consider generation start and continuation features
-
-        break;
+        return true;
       }
     }
+    return false;
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
   }
 }
@@ -33,4 +33,15 @@ public class OutcomePriorFeatureGenerator implements AdaptiveFeatureGenerator {
                              String[] previousOutcomes) {
     features.add(OUTCOME_PRIOR_FEATURE);
   }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+                             String[] previousOutcomes) {
+    features.add(OUTCOME_PRIOR_FEATURE);
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -60,6 +60,16 @@ public class PrefixFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add(PREFIX + pref);
     }
   }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
+    String lex = tokens[index];
+    int prefixes = StrictMath.min(prefixLength, lex.length());
+    for (int li = 0; li < prefixes; li++) {
+      features.add(PREFIX, lex, 0, li + 1);
+    }
+  }
   
   private String[] getPrefixes(String lex) {
       
@@ -71,4 +81,9 @@ public class PrefixFeatureGenerator implements AdaptiveFeatureGenerator {
     }
     return prefs;
   }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -37,6 +37,11 @@ public class PreviousMapFeatureGenerator implements AdaptiveFeatureGenerator {
     features.add("pd=" + threadState.get().get(tokens[index]));
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index, String[] preds) {
+    features.add("pd=", String.valueOf(threadState.get().get(tokens[index])));
+  }
+
   /**
    * Generates previous decision features for the token based on contents of the previous map.
    * 
@@ -55,4 +60,9 @@ public class PreviousMapFeatureGenerator implements AdaptiveFeatureGenerator {
   public void clearAdaptiveData() {
     threadState.get().clear();
   }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
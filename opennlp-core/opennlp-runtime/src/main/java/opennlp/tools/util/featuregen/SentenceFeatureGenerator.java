@@ -48,4 +48,21 @@ public class SentenceFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    if (isGenerateFirstWordFeature && index == 0) {
+      features.add("S=begin");
+    }
+
+    if (isGenerateLastWordFeature && tokens.length == index + 1) {
+      features.add("S=end");
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -60,6 +60,16 @@ public class SuffixFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add(PREFIX + suff);
     }
   }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index,
+      String[] previousOutcomes) {
+    String lex = tokens[index];
+    int suffixes = StrictMath.min(suffixLength, lex.length());
+    for (int li = 0; li < suffixes; li++) {
+      features.add(PREFIX, lex, lex.length() - li - 1, lex.length());
+    }
+  }
   
   private String[] getSuffixes(String lex) {
       
@@ -72,4 +82,9 @@ public class SuffixFeatureGenerator implements AdaptiveFeatureGenerator {
     return suffs;
   }
   
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
@@ -62,4 +62,20 @@ public class TokenClassFeatureGenerator implements AdaptiveFeatureGenerator {
           "," + wordClass);
     }
   }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index, String[] preds) {
+    String wordClass = FeatureGeneratorUtil.tokenFeature(tokens[index]);
+    features.add(TOKEN_CLASS_PREFIX, wordClass);
+
+    if (generateWordAndClassFeature) {
+      features.begin(TOKEN_AND_CLASS_PREFIX).appendLowerCase(tokens[index])
+          .append(',').append(wordClass).end();
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
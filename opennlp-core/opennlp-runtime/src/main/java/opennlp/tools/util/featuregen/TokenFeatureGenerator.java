@@ -57,4 +57,19 @@ public class TokenFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add(WORD_PREFIX + tokens[index]);
     }
   }
+
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index, String[] preds) {
+    if (lowercase) {
+      features.begin(WORD_PREFIX).appendLowerCase(tokens[index]).end();
+    }
+    else {
+      features.add(WORD_PREFIX, tokens[index]);
+    }
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return false;
+  }
 }
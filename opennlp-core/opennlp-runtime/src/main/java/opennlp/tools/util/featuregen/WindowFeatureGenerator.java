@@ -43,6 +43,10 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
   private final int prevWindowSize;
   private final int nextWindowSize;
 
+  /* The prefixes of the features of the previous and next tokens, by distance - 1. */
+  private final String[] prevPrefixes;
+  private final String[] nextPrefixes;
+
   /**
    * Initializes a {@link WindowFeatureGenerator} with the given parameters.
    *
@@ -54,6 +58,8 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     this.generator = generator;
     this.prevWindowSize = prevWindowSize;
     this.nextWindowSize = nextWindowSize;
+    this.prevPrefixes = windowPrefixes(PREV_PREFIX, prevWindowSize);
+    this.nextPrefixes = windowPrefixes(NEXT_PREFIX, nextWindowSize);
   }
 
   /**
@@ -116,6 +122,43 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  @Override
+  public void emitFeatures(FeatureSink features, String[] tokens, int index, String[] preds) {
+    // current features
+    generator.emitFeatures(features, tokens, index, preds);
+
+    // previous features
+    for (int i = 1; i < prevWindowSize + 1; i++) {
+      if (index - i >= 0) {
+        features.pushPrefix(prevPrefixes[i - 1]);
+        generator.emitFeatures(features, tokens, index - i, preds);
+        features.popPrefix();
+      }
+    }
+
+    // next features
+    for (int i = 1; i < nextWindowSize + 1; i++) {
+      if (i + index < tokens.length) {
+        features.pushPrefix(nextPrefixes[i - 1]);
+        generator.emitFeatures(features, tokens, index + i, preds);
+        features.popPrefix();
+      }
+    }
+  }
+
+  private static String[] windowPrefixes(String prefix, int windowSize) {
+    String[] prefixes = new String[Math.max(0, windowSize)];
+    for (int i = 0; i < prefixes.length; i++) {
+      prefixes[i] = prefix + (i + 1);
+    }
+    return prefixes;
+  }
+
+  @Override
+  public boolean dependsOnPreviousOutcomes() {
+    return generator.dependsOnPreviousOutcomes();
+  }
+
   @Override
   public void updateAdaptiveData(String[] tokens, String[] outcomes) {
     generator.updateAdaptiveData(tokens, outcomes);
@@ -20,25 +20,37 @@ package opennlp.tools.util.model;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.ObjectInputFilter;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -71,6 +83,13 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
   public static final String TRAINING_ITERATIONS_PROPERTY = "Training-Iterations";
   public static final String TRAINING_EVENTHASH_PROPERTY = "Training-Eventhash";
 
+  /**
+   * System property to disable the parallel de-serialization of artifacts when a model
+   * is loaded from a local file. Set to {@code "true"} to load the artifacts one after
+   * another on the calling thread.
+   */
+  public static final String DISABLE_PARALLEL_LOADING_PROPERTY = "opennlp.model.parallelLoading.disabled";
+
   private static final String SERIALIZER_CLASS_NAME_PREFIX = "serializer-class-";
 
   private Map<String, ArtifactSerializer<?>> artifactSerializers = new HashMap<>();
@@ -188,9 +207,7 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
   protected BaseModel(String componentName, File modelFile) throws IOException  {
     this(componentName, true);
 
-    try (InputStream in = new BufferedInputStream(new FileInputStream(modelFile))) {
-      loadModel(in);
-    }
+    loadModel(modelFile);
   }
 
   /**
@@ -205,8 +222,12 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
   protected BaseModel(String componentName, Path modelPath) throws IOException  {
     this(componentName, true);
 
-    try (InputStream in = Files.newInputStream(modelPath)) {
-      loadModel(in);
+    if (modelPath.getFileSystem() == FileSystems.getDefault()) {
+      loadModel(modelPath.toFile());
+    } else {
+      try (InputStream in = Files.newInputStream(modelPath)) {
+        loadModel(in);
+      }
     }
   }
 
@@ -222,8 +243,73 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
   protected BaseModel(String componentName, URL modelURL) throws IOException  {
     this(componentName, true);
 
-    try (InputStream in = new BufferedInputStream(modelURL.openStream())) {
-      loadModel(in);
+    File modelFile = toLocalFile(modelURL);
+    if (modelFile != null) {
+      loadModel(modelFile);
+    } else {
+      try (InputStream in = new BufferedInputStream(modelURL.openStream())) {
+        loadModel(in);
+      }
+    }
+  }
+
+  /**
+   * @return The {@link File} a {@code file:} {@link URL} points to, or {@code null}
+   *         if the {@code url} does not point to a local file.
+   */
+  private static File toLocalFile(URL url) {
+    if (!"file".equalsIgnoreCase(url.getProtocol())) {
+      return null;
+    }
+    try {
+      File file = new File(url.toURI());
+      return file.isFile() ? file : null;
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      // e.g. unescaped characters or an authority component, let the URL handler deal with it
+      return null;
+    }
+  }
+
+  /**
+   * Loads the model package from a local {@link File}.
+   * <p>
+   * In contrast to {@link #loadModel(InputStream)}, the central directory of the
+   * zip package gives random access to its entries: the manifest is read directly,
+   * the package is neither buffered in memory nor scanned twice, and the artifacts
+   * are de-serialized in parallel.
+   */
+  private void loadModel(File modelFile) throws IOException {
+
+    createBaseArtifactSerializers(artifactSerializers);
+
+    try (ZipFile zip = openZipFile(modelFile)) {
+      ZipEntry manifestEntry = zip.getEntry(MANIFEST_ENTRY);
+      if (manifestEntry == null) {
+        throw new InvalidFormatException("Missing the " + MANIFEST_ENTRY + "!");
+      }
+      try (InputStream in = zip.getInputStream(manifestEntry)) {
+        artifactMap.put(MANIFEST_ENTRY, artifactSerializers.get("properties").create(in));
+      }
+
+      initializeFactory();
+
+      loadArtifactSerializers();
+
+      finishLoadingArtifacts(zip);
+
+      checkArtifactMap();
+    }
+  }
+
+  /**
+   * Opens the model package, a file which is not a zip package is reported as
+   * {@link InvalidFormatException} like on the streaming path.
+   */
+  private static ZipFile openZipFile(File modelFile) throws IOException {
+    try {
+      return new ZipFile(modelFile);
+    } catch (ZipException e) {
+      throw new InvalidFormatException("Model package is not a valid zip file: " + modelFile, e);
     }
   }
 
@@ -266,6 +352,11 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
         zip.closeEntry();
       }
 
+      if (isSearchingForManifest) {
+        // e.g. the stream is not a zip package at all
+        throw new InvalidFormatException("Missing the " + MANIFEST_ENTRY + "!");
+      }
+
       initializeFactory();
 
       loadArtifactSerializers();
@@ -332,31 +423,127 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
         // there should be no need to prevent that.
 
         String entryName = entry.getName();
-        String extension = getEntryExtension(entryName);
+        artifactMap.put(entryName, getEntrySerializer(entryName).create(zip));
 
-        ArtifactSerializer<?> factory = artifactSerializers.get(extension);
+        zip.closeEntry();
+      }
 
-        String artifactSerializerClazzName =
-                getManifestProperty(SERIALIZER_CLASS_NAME_PREFIX + entryName);
+      this.artifactMap.putAll(artifactMap);
 
-        if (artifactSerializerClazzName != null) {
-          factory = ExtensionLoader.instantiateExtension(
-                  ArtifactSerializer.class, artifactSerializerClazzName);
-        }
+      finishedLoadingArtifacts = true;
+    }
+  }
 
-        if (factory != null) {
-          artifactMap.put(entryName, factory.create(zip));
-        } else {
-          throw new InvalidFormatException("Unknown artifact format: " + extension);
+  /**
+   * Finishes loading the artifacts now that it knows all serializers. The entries
+   * are read independently of each other, on multiple threads unless
+   * {@link #DISABLE_PARALLEL_LOADING_PROPERTY} is set.
+   */
+  private void finishLoadingArtifacts(ZipFile zip) throws IOException {
+
+    // The manifest was already read, there is no need to read it again
+    List<ZipEntry> entries = new ArrayList<>();
+    List<ArtifactSerializer<?>> serializers = new ArrayList<>();
+    for (ZipEntry entry : zip.stream().toList()) {
+      if (!MANIFEST_ENTRY.equals(entry.getName())) {
+        entries.add(entry);
+        serializers.add(getEntrySerializer(entry.getName()));
+      }
+    }
+
+    Map<String, Object> artifactMap = new HashMap<>();
+
+    if (entries.size() <= 1 || Boolean.getBoolean(DISABLE_PARALLEL_LOADING_PROPERTY)) {
+      for (int i = 0; i < entries.size(); i++) {
+        try (InputStream in = zip.getInputStream(entries.get(i))) {
+          artifactMap.put(entries.get(i).getName(), serializers.get(i).create(in));
+        }
+      }
+    } else {
+      List<Future<?>> artifacts = new ArrayList<>(entries.size());
+      try {
+        for (int i = 0; i < entries.size(); i++) {
+          final ZipEntry entry = entries.get(i);
+          final ArtifactSerializer<?> serializer = serializers.get(i);
+          artifacts.add(ArtifactLoader.EXECUTOR.submit(() -> {
+            try (InputStream in = zip.getInputStream(entry)) {
+              return serializer.create(in);
+            }
+          }));
         }
 
-        zip.closeEntry();
+        for (int i = 0; i < entries.size(); i++) {
+          artifactMap.put(entries.get(i).getName(), artifacts.get(i).get());
+        }
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException ioe) {
+          throw ioe;
+        } else if (cause instanceof RuntimeException re) {
+          throw re;
+        } else if (cause instanceof Error error) {
+          throw error;
+        }
+        throw new IOException(cause);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while loading the model artifacts");
+      } finally {
+        // only has an effect if loading failed, the other artifacts are not needed anymore
+        for (Future<?> artifact : artifacts) {
+          artifact.cancel(true);
+        }
       }
+    }
 
-      this.artifactMap.putAll(artifactMap);
+    this.artifactMap.putAll(artifactMap);
 
-      finishedLoadingArtifacts = true;
+    finishedLoadingArtifacts = true;
+  }
+
+  /**
+   * Holds the threads which de-serialize the artifacts of model packages. The pool is
+   * shared by all loads and created on first use, its threads are daemons and terminate
+   * when they are idle.
+   */
+  private static final class ArtifactLoader {
+
+    // Reading and inflating the entries overlaps with de-serializing them, even on a single core
+    private static final ExecutorService EXECUTOR = createExecutor(
+        Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    private static ExecutorService createExecutor(int threads) {
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+          10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+          Thread.ofPlatform().name("opennlp-model-loader-", 0).daemon().factory());
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+
+  /**
+   * @param entryName The name of a zip entry.
+   * @return The {@link ArtifactSerializer} to de-serialize the entry with.
+   * @throws InvalidFormatException Thrown if no {@link ArtifactSerializer} is registered
+   *                                for the entry.
+   */
+  private ArtifactSerializer<?> getEntrySerializer(String entryName) throws InvalidFormatException {
+    String extension = getEntryExtension(entryName);
+
+    ArtifactSerializer<?> factory = artifactSerializers.get(extension);
+
+    String artifactSerializerClazzName =
+            getManifestProperty(SERIALIZER_CLASS_NAME_PREFIX + entryName);
+
+    if (artifactSerializerClazzName != null) {
+      factory = ExtensionLoader.instantiateExtension(
+              ArtifactSerializer.class, artifactSerializerClazzName);
+    }
+
+    if (factory == null) {
+      throw new InvalidFormatException("Unknown artifact format: " + extension);
     }
+    return factory;
   }
 
   /**
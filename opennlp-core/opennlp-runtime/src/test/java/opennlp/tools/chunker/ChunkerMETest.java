@@ -19,7 +19,11 @@ package opennlp.tools.chunker;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -108,6 +112,36 @@ public class ChunkerMETest {
     Assertions.assertArrayEquals(expect1, preds);
   }
 
+  @Test
+  void testChunkDocument() throws IOException {
+    List<String[]> toks = new ArrayList<>();
+    List<String[]> tags = new ArrayList<>();
+    try (ObjectStream<ChunkSample> samples = new ChunkSampleStream(new PlainTextByLineStream(
+        new ResourceAsStreamFactory(getClass(), "/opennlp/tools/chunker/test.txt"),
+        StandardCharsets.UTF_8))) {
+      ChunkSample sample;
+      while ((sample = samples.read()) != null) {
+        toks.add(sample.getSentence());
+        tags.add(sample.getTags());
+      }
+    }
+    String[][] sentences = toks.toArray(new String[0][]);
+    String[][] posTags = tags.toArray(new String[0][]);
+
+    ChunkerME chunkerME = (ChunkerME) chunker;
+    String[][] expected = new String[sentences.length][];
+    for (int i = 0; i < sentences.length; i++) {
+      expected[i] = chunkerME.chunk(sentences[i], posTags[i]);
+    }
+
+    Assertions.assertArrayEquals(expected, chunkerME.chunk(sentences, posTags));
+    try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+      Assertions.assertArrayEquals(expected, chunkerME.chunk(sentences, posTags, executor));
+    }
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> chunkerME.chunk(sentences, new String[0][]));
+  }
+
   @Test
   void testChunkAsSpan() {
     Span[] preds = chunker.chunkAsSpans(toks1, tags1);
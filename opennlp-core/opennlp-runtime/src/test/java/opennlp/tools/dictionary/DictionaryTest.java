@@ -21,6 +21,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -228,4 +231,81 @@ public class DictionaryTest {
     Assertions.assertFalse(dict.contains(entry2));
   }
 
+  /**
+   * Tests that a frozen {@link Dictionary} has the entries of its source.
+   */
+  @Test
+  void testFreeze() {
+    Dictionary dict = getCaseInsensitive();
+    dict.put(new StringList("1a", "1b"));
+    dict.put(new StringList("2a"));
+    dict.put(new StringList("3a", "3b", "3c"));
+
+    Dictionary frozen = dict.freeze();
+
+    Assertions.assertTrue(frozen.isFrozen());
+    Assertions.assertFalse(dict.isFrozen());
+    Assertions.assertSame(frozen, frozen.freeze());
+    Assertions.assertEquals(dict, frozen);
+    Assertions.assertEquals(frozen, dict);
+    Assertions.assertEquals(dict.hashCode(), frozen.hashCode());
+    Assertions.assertEquals(3, frozen.size());
+    Assertions.assertEquals(1, frozen.getMinTokenCount());
+    Assertions.assertEquals(3, frozen.getMaxTokenCount());
+    Assertions.assertTrue(frozen.contains(new StringList("1A", "1B")));
+    Assertions.assertFalse(frozen.contains(new StringList("1a")));
+    Assertions.assertTrue(frozen.asStringSet().contains("2A"));
+    Assertions.assertEquals(dict.asStringSet().size(), frozen.asStringSet().size());
+
+    Set<StringList> entries = new HashSet<>();
+    frozen.forEach(entries::add);
+    Assertions.assertEquals(3, entries.size());
+    Assertions.assertTrue(entries.contains(new StringList("3a", "3b", "3c")));
+  }
+
+  /**
+   * Tests that a frozen {@link Dictionary} rejects modifications.
+   */
+  @Test
+  void testFrozenDictionaryIsImmutable() {
+    Dictionary dict = getCaseSensitive();
+    dict.put(new StringList("1a", "1b"));
+    Dictionary frozen = dict.freeze();
+
+    Assertions.assertThrows(UnsupportedOperationException.class,
+        () -> frozen.put(new StringList("2a")));
+    Assertions.assertThrows(UnsupportedOperationException.class,
+        () -> frozen.remove(new StringList("1a", "1b")));
+    Iterator<StringList> entries = frozen.iterator();
+    entries.next();
+    Assertions.assertThrows(UnsupportedOperationException.class, entries::remove);
+    Assertions.assertTrue(frozen.contains(new StringList("1a", "1b")));
+  }
+
+  /**
+   * Tests loading a frozen {@link Dictionary} from the XML format and from a {@link TokenTrie}.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  @Test
+  void testLoadFrozen() throws IOException {
+    Dictionary reference = getCaseSensitive();
+    reference.put(new StringList("a1", "a2"));
+    reference.put(new StringList("A1", "a2"));
+    reference.put(new StringList("b1"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    reference.serialize(out);
+    Dictionary frozen = Dictionary.loadFrozen(new ByteArrayInputStream(out.toByteArray()));
+
+    Assertions.assertTrue(frozen.isFrozen());
+    Assertions.assertTrue(frozen.isCaseSensitive());
+    Assertions.assertEquals(reference, frozen);
+
+    out.reset();
+    frozen.getTokenTrie().serialize(out);
+    Dictionary read = new Dictionary(TokenTrie.read(new ByteArrayInputStream(out.toByteArray())));
+    Assertions.assertEquals(reference, read);
+    Assertions.assertFalse(read.contains(new StringList("a1", "A2")));
+  }
 }
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.dictionary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.model.AbstractModelReader;
+import opennlp.tools.namefind.DictionaryNameFinder;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.StringList;
+
+/**
+ * Tests for the {@link TokenTrie} class.
+ */
+public class TokenTrieTest {
+
+  private static TokenTrie createTrie(boolean caseSensitive) {
+    return TokenTrie.create(List.of(
+        new StringList("New", "York"),
+        new StringList("New", "York", "City"),
+        new StringList("Straße"),
+        new StringList("Ärzte", "ohne", "Grenzen")), caseSensitive);
+  }
+
+  @Test
+  void testLongestMatch() {
+    TokenTrie trie = createTrie(true);
+    String[] tokens = {"in", "New", "York", "City", "and", "New", "York", "New"};
+
+    Assertions.assertEquals(0, trie.longestMatch(tokens, 0));
+    Assertions.assertEquals(3, trie.longestMatch(tokens, 1));
+    Assertions.assertEquals(2, trie.longestMatch(tokens, 5));
+    Assertions.assertEquals(0, trie.longestMatch(tokens, 7));
+    Assertions.assertEquals(3, trie.longestMatch(trie.getTokenIds(tokens), 1));
+
+    Assertions.assertEquals(4, trie.size());
+    Assertions.assertEquals(3, trie.getMaxTokenCount());
+    Assertions.assertTrue(trie.contains(new StringList("New", "York")));
+    Assertions.assertFalse(trie.contains(new StringList("New")));
+    Assertions.assertEquals(-1, trie.getTokenId("Boston"));
+  }
+
+  @Test
+  void testCaseSensitivity() {
+    TokenTrie sensitive = createTrie(true);
+    TokenTrie insensitive = createTrie(false);
+    String[] tokens = {"NEW", "york", "STRASSE", "straße", "ärzte", "OHNE", "grenzen"};
+
+    Assertions.assertTrue(sensitive.isCaseSensitive());
+    Assertions.assertEquals(0, sensitive.longestMatch(tokens, 0));
+    Assertions.assertEquals(0, sensitive.longestMatch(tokens, 4));
+
+    Assertions.assertEquals(2, insensitive.longestMatch(tokens, 0));
+    // equalsIgnoreCase does not expand ß, so STRASSE is not an entry
+    Assertions.assertEquals(0, insensitive.longestMatch(tokens, 2));
+    Assertions.assertEquals(1, insensitive.longestMatch(tokens, 3));
+    Assertions.assertEquals(3, insensitive.longestMatch(tokens, 4));
+    Assertions.assertEquals(insensitive.getTokenId("Straße"), insensitive.getTokenId("STRAßE"));
+  }
+
+  @Test
+  void testSerialization() throws IOException {
+    TokenTrie trie = createTrie(false);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    trie.serialize(out);
+    TokenTrie read = TokenTrie.read(new ByteArrayInputStream(out.toByteArray()));
+
+    Assertions.assertFalse(read.isCaseSensitive());
+    Assertions.assertEquals(trie.size(), read.size());
+    Assertions.assertEquals(trie.getMaxTokenCount(), read.getMaxTokenCount());
+    String[] tokens = {"new", "york", "city", "ÄRZTE", "ohne", "grenzen"};
+    Assertions.assertEquals(3, read.longestMatch(tokens, 0));
+    Assertions.assertEquals(3, read.longestMatch(tokens, 3));
+  }
+
+  @Test
+  void testCorruptData() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    createTrie(true).serialize(out);
+    byte[] bytes = out.toByteArray();
+
+    byte[] truncated = new byte[bytes.length - 4];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> TokenTrie.read(new ByteArrayInputStream(truncated)));
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> TokenTrie.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+  }
+
+  @Test
+  void testReadStopsAtEndOfTrie() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    createTrie(true).serialize(out);
+    out.write(new byte[] {42, 43});
+
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    TokenTrie.read(in);
+    Assertions.assertEquals(42, in.read());
+    Assertions.assertEquals(43, in.read());
+  }
+
+  @Test
+  void testOversizedCount() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    createTrie(true).serialize(out);
+    byte[] bytes = out.toByteArray();
+
+    // the number of tokens follows the magic number, the version and the case flag
+    ByteBuffer.wrap(bytes).putInt(9, AbstractModelReader.MAX_ENTRIES + 1);
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> TokenTrie.read(new ByteArrayInputStream(bytes)));
+  }
+
+  @Test
+  void testDictionaryTrieIsRebuiltAfterChanges() {
+    Dictionary dictionary = new Dictionary(false);
+    dictionary.put(new StringList("Max", "Mustermann"));
+    TokenTrie trie = dictionary.getTokenTrie();
+    Assertions.assertSame(trie, dictionary.getTokenTrie());
+
+    dictionary.put(new StringList("Erika"));
+    Assertions.assertNotSame(trie, dictionary.getTokenTrie());
+    Assertions.assertTrue(dictionary.getTokenTrie().contains(new StringList("erika")));
+
+    dictionary.remove(new StringList("Erika"));
+    Assertions.assertFalse(dictionary.getTokenTrie().contains(new StringList("erika")));
+  }
+
+  @Test
+  void testNameFinderWithTrie() {
+    DictionaryNameFinder finder = new DictionaryNameFinder(createTrie(false), "location");
+    Span[] names = finder.find(new String[] {"from", "new", "york", "city", "to", "Straße"});
+
+    Assertions.assertArrayEquals(new Span[] {new Span(1, 4, "location"),
+        new Span(5, 6, "location")}, names);
+  }
+
+  @Test
+  void testIteration() {
+    TokenTrie trie = new TokenTrie.Builder()
+        .add(new StringList("a", "b"))
+        .add(new StringList("A", "B", "c"))
+        .add(new StringList("b"))
+        .build(false);
+
+    Set<StringList> entries = new HashSet<>();
+    trie.forEach(entries::add);
+
+    Assertions.assertEquals(3, trie.size());
+    Assertions.assertEquals(1, trie.getMinTokenCount());
+    Assertions.assertEquals(3, trie.getMaxTokenCount());
+    Assertions.assertEquals(Set.of(new StringList(false, "a", "b"), new StringList(false, "a", "b", "c"),
+        new StringList(false, "b")), entries);
+    Assertions.assertFalse(TokenTrie.create(List.of(), true).iterator().hasNext());
+  }
+}
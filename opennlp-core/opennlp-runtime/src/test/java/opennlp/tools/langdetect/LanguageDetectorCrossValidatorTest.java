@@ -17,6 +17,8 @@
 
 package opennlp.tools.langdetect;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Assertions;
@@ -62,4 +64,39 @@ public class LanguageDetectorCrossValidatorTest {
     Assertions.assertEquals(0.98989898989899, cv.getDocumentAccuracy(), 0.01);
   }
 
+  @Test
+  public void evaluateInParallel() throws Exception {
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 100);
+    params.put(Parameters.CUTOFF_PARAM, 5);
+    params.put("PrintMessages", false);
+
+    List<String> sequentialResults = new ArrayList<>();
+    LanguageDetectorCrossValidator sequential = new LanguageDetectorCrossValidator(params,
+        new LanguageDetectorFactory(), new ResultCollector(sequentialResults));
+    sequential.evaluate(LanguageDetectorMETest.createSampleStream(), 3, 1);
+
+    List<String> parallelResults = new ArrayList<>();
+    LanguageDetectorCrossValidator parallel = new LanguageDetectorCrossValidator(params,
+        new LanguageDetectorFactory(), new ResultCollector(parallelResults));
+    parallel.evaluate(LanguageDetectorMETest.createSampleStream(), 3, 3);
+
+    Assertions.assertEquals(sequential.getDocumentCount(), parallel.getDocumentCount());
+    Assertions.assertEquals(sequential.getDocumentAccuracy(), parallel.getDocumentAccuracy());
+    Assertions.assertEquals(sequentialResults, parallelResults);
+  }
+
+  private record ResultCollector(List<String> results) implements LanguageDetectorEvaluationMonitor {
+
+    @Override
+    public void correctlyClassified(LanguageSample reference, LanguageSample prediction) {
+      results.add("+" + prediction.language().getLang() + " " + reference.context());
+    }
+
+    @Override
+    public void misclassified(LanguageSample reference, LanguageSample prediction) {
+      results.add("-" + prediction.language().getLang() + " " + reference.context());
+    }
+  }
 }
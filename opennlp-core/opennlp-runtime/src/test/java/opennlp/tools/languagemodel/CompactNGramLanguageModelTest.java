@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.languagemodel;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * Tests for {@link CompactNGramLanguageModel}
+ */
+public class CompactNGramLanguageModelTest {
+
+  private static NGramLanguageModel createBigramModel() {
+    NGramLanguageModel model = new NGramLanguageModel(2);
+    model.add("<s>", "I", "am", "Sam", "</s>");
+    model.add("<s>", "Sam", "I", "am", "</s>");
+    model.add("<s>", "I", "do", "not", "like", "green", "eggs", "and", "ham", "</s>");
+    return model;
+  }
+
+  @Test
+  void testSameProbabilitiesAsNGramLanguageModel() throws IOException {
+    NGramLanguageModel model = new NGramLanguageModel(3);
+    List<String[]> sentences = new ArrayList<>();
+    try (InputStream is = getClass().getResourceAsStream("/opennlp/tools/languagemodel/sentences.txt");
+         BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+      for (String line : reader.lines().toList()) {
+        String[] tokens = line.split(" ");
+        sentences.add(tokens);
+        model.add(tokens);
+      }
+    }
+    CompactNGramLanguageModel compact = model.compact();
+
+    Assertions.assertEquals(model.size(), compact.size());
+    for (String[] sentence : sentences) {
+      Assertions.assertEquals(model.calculateProbability(sentence),
+          compact.calculateProbability(sentence));
+      for (int i = 1; i < sentence.length; i++) {
+        String[] ngram = {sentence[i - 1], sentence[i]};
+        Assertions.assertEquals(model.calculateProbability(ngram), compact.calculateProbability(ngram));
+      }
+    }
+    Assertions.assertEquals(model.calculateProbability("unknown", "neural", "network"),
+        compact.calculateProbability("unknown", "neural", "network"));
+    Assertions.assertArrayEquals(new String[] {"models"},
+        compact.predictNextTokens("neural", "network", "language"));
+
+    Assertions.assertThrows(IllegalArgumentException.class, model::calculateProbability);
+    Assertions.assertThrows(IllegalArgumentException.class, compact::calculateProbability);
+  }
+
+  @Test
+  void testBigramProbability() {
+    CompactNGramLanguageModel model = createBigramModel().compact();
+    Assertions.assertEquals(0.666d, model.calculateProbability("<s>", "I"), 0.001);
+    Assertions.assertEquals(0.5d, model.calculateProbability("Sam", "</s>"), 0.001);
+    Assertions.assertEquals(0.333d, model.calculateProbability("I", "do"), 0.001);
+    Assertions.assertEquals(0.333d, model.calculateProbability("I", "am", "Sam"), 0.001);
+    Assertions.assertEquals(3, model.getCount("<s>"));
+    Assertions.assertEquals(2, model.getCount("I", "am"));
+    Assertions.assertEquals(0, model.getCount("am", "I"));
+  }
+
+  @Test
+  void testTopNextTokens() {
+    CompactNGramLanguageModel model = createBigramModel().compact();
+
+    Assertions.assertArrayEquals(new String[] {"am"}, model.predictNextTokens("<s>", "I"));
+    Assertions.assertArrayEquals(new String[] {"am", "do"}, model.topNextTokens(2, "I"));
+    // the continuations of "I" are followed by the unigrams with backed off scores
+    String[] next = model.topNextTokens(4, "I");
+    Assertions.assertEquals(4, next.length);
+    Assertions.assertArrayEquals(new String[] {"am", "do", "<s>", "I"}, next);
+    // an unknown context backs off to the most frequent unigrams
+    Assertions.assertArrayEquals(new String[] {"<s>", "I"}, model.topNextTokens(2, "unknown"));
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> model.topNextTokens(0, "I"));
+    Assertions.assertNull(new NGramLanguageModel().compact().predictNextTokens("I"));
+  }
+
+  @Test
+  void testSerialization() throws IOException {
+    CompactNGramLanguageModel model = createBigramModel().compact();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    model.serialize(out);
+    CompactNGramLanguageModel read =
+        CompactNGramLanguageModel.read(new ByteArrayInputStream(out.toByteArray()));
+
+    Assertions.assertEquals(model.getN(), read.getN());
+    Assertions.assertEquals(model.size(), read.size());
+    Assertions.assertEquals(model.calculateProbability("I", "am", "Sam"),
+        read.calculateProbability("I", "am", "Sam"));
+    Assertions.assertArrayEquals(model.topNextTokens(3, "I"), read.topNextTokens(3, "I"));
+  }
+
+  @Test
+  void testCorruptData() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    createBigramModel().compact().serialize(out);
+    byte[] bytes = out.toByteArray();
+
+    byte[] truncated = new byte[bytes.length - 4];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> CompactNGramLanguageModel.read(new ByteArrayInputStream(truncated)));
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> CompactNGramLanguageModel.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+  }
+}
@@ -20,6 +20,10 @@ package opennlp.tools.lemmatizer;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -89,6 +93,35 @@ public class LemmatizerMETest {
     Assertions.assertArrayEquals(expect, lemmas);
   }
 
+  @Test
+  void testLemmatizeDocument() throws IOException {
+    List<String[]> toks = new ArrayList<>();
+    List<String[]> tags = new ArrayList<>();
+    try (ObjectStream<LemmaSample> samples = new LemmaSampleStream(new PlainTextByLineStream(
+        new MockInputStreamFactory(new File("opennlp/tools/lemmatizer/trial.old.tsv")),
+        StandardCharsets.UTF_8))) {
+      LemmaSample sample;
+      while ((sample = samples.read()) != null) {
+        toks.add(sample.getTokens());
+        tags.add(sample.getTags());
+      }
+    }
+    String[][] sentences = toks.toArray(new String[0][]);
+    String[][] posTags = tags.toArray(new String[0][]);
+
+    String[][] expected = new String[sentences.length][];
+    for (int i = 0; i < sentences.length; i++) {
+      expected[i] = lemmatizer.lemmatize(sentences[i], posTags[i]);
+    }
+
+    Assertions.assertArrayEquals(expected, lemmatizer.lemmatize(sentences, posTags));
+    try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+      Assertions.assertArrayEquals(expected, lemmatizer.lemmatize(sentences, posTags, executor));
+    }
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> lemmatizer.lemmatize(sentences, new String[0][]));
+  }
+
   @Test
   void testInsufficientData() {
 
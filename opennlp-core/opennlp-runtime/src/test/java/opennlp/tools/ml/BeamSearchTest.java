@@ -23,9 +23,11 @@ import java.util.Map;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.ml.model.AdditiveModel;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.BeamSearchContextGenerator;
 import opennlp.tools.util.Sequence;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 public class BeamSearchTest {
 
@@ -112,6 +114,97 @@ public class BeamSearchTest {
     }
   }
 
+  /**
+   * Splits the context into the token as static feature and the previous outcome as
+   * history feature, and counts how often each part is created.
+   */
+  static class SplitFeatureGenerator implements BeamSearchContextGenerator<String> {
+
+    int staticContexts;
+    int historyContexts;
+
+    @Override
+    public String[] getContext(int index, String[] sequence,
+                               String[] priorDecisions, Object[] additionalContext) {
+      return new String[] {sequence[index], "po=" + (index > 0 ? priorDecisions[index - 1] : "")};
+    }
+
+    @Override
+    public boolean hasStaticContext() {
+      return true;
+    }
+
+    @Override
+    public void createStaticContext(FeatureSink features, int index, String[] sequence,
+                                    String[] priorDecisions, Object[] additionalContext) {
+      staticContexts++;
+      features.add(sequence[index]);
+    }
+
+    @Override
+    public void createHistoryContext(FeatureSink features, int index, String[] sequence,
+                                     String[] priorDecisions, Object[] additionalContext) {
+      historyContexts++;
+      features.add("po=", index > 0 ? priorDecisions[index - 1] : "");
+    }
+  }
+
+  /**
+   * Scores an outcome with 2 if it equals a feature, and with 1 if it equals the previous outcome.
+   */
+  static class AdditiveIdentityModel extends IdentityModel implements AdditiveModel {
+
+    private final String[] outcomes;
+
+    AdditiveIdentityModel(String[] outcomes) {
+      super(outcomes);
+      this.outcomes = outcomes;
+    }
+
+    @Override
+    public double[] eval(String[] context) {
+      FeatureSink features = new FeatureSink();
+      features.addAll(context);
+      return normalizeScores(score(features, new double[outcomes.length]));
+    }
+
+    @Override
+    public boolean hasAdditiveScores() {
+      return true;
+    }
+
+    @Override
+    public void addScores(FeatureSink features, double[] scores) {
+      score(features, scores);
+    }
+
+    private double[] score(FeatureSink features, double[] scores) {
+      for (int fi = 0; fi < features.size(); fi++) {
+        for (int oi = 0; oi < outcomes.length; oi++) {
+          if (features.contentEquals(fi, outcomes[oi])) {
+            scores[oi] += 2;
+          } else if (features.contentEquals(fi, "po=" + outcomes[oi])) {
+            scores[oi] += 1;
+          }
+        }
+      }
+      return scores;
+    }
+
+    @Override
+    public double[] normalizeScores(double[] scores) {
+      double sum = 0;
+      for (int oi = 0; oi < scores.length; oi++) {
+        scores[oi] = StrictMath.exp(scores[oi]);
+        sum += scores[oi];
+      }
+      for (int oi = 0; oi < scores.length; oi++) {
+        scores[oi] /= sum;
+      }
+      return scores;
+    }
+  }
+
   /**
    * Tests that beam search does not fail to detect an empty sequence.
    */
@@ -205,4 +298,128 @@ public class BeamSearchTest {
     Assertions.assertNotSame("2", seq.getOutcomes().get(3));
     Assertions.assertEquals("1", seq.getOutcomes().get(4));
   }
+
+  /**
+   * Tests that equal but distinct context arrays are served from the contexts cache.
+   */
+  @Test
+  void testContextCacheHitsOnEqualContents() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    String[] outcomes = new String[] {"1", "2", "3"};
+    MaxentModel model = new IdentityModel(outcomes);
+
+    BeamSearch cached = new BeamSearch(2, model, 16);
+    BeamSearch uncached = new BeamSearch(2, model, 0);
+
+    Sequence expected = uncached.bestSequence(sequence, null, cg,
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+    Sequence actual = cached.bestSequence(sequence, null, cg,
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+
+    Assertions.assertEquals(expected.getOutcomes(), actual.getOutcomes());
+    Assertions.assertArrayEquals(expected.getProbs(), actual.getProbs());
+
+    // Only three distinct contexts exist, everything else must be a hit
+    BeamSearch.CacheStatistics stats = cached.getCacheStatistics();
+    Assertions.assertEquals(3, stats.misses());
+    Assertions.assertEquals(6, stats.hits());
+    Assertions.assertEquals(0, stats.evictions());
+    Assertions.assertEquals(new BeamSearch.CacheStatistics(0, 0, 0), uncached.getCacheStatistics());
+  }
+
+  /**
+   * Tests that contexts written to a {@link opennlp.tools.util.featuregen.FeatureSink}
+   * yield the same sequence and share the contexts cache.
+   */
+  @Test
+  void testFeatureSinkContexts() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+    MaxentModel model = new IdentityModel(new String[] {"1", "2", "3"});
+
+    Sequence expected = new BeamSearch(2, model, 0).bestSequence(sequence, null, cg,
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+
+    System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY, "true");
+    try {
+      for (int cacheSize : new int[] {0, 16}) {
+        BeamSearch beamSearch = new BeamSearch(2, model, cacheSize);
+        Sequence actual = beamSearch.bestSequence(sequence, null, cg,
+            (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+
+        Assertions.assertEquals(expected.getOutcomes(), actual.getOutcomes());
+        Assertions.assertArrayEquals(expected.getProbs(), actual.getProbs());
+        if (cacheSize > 0) {
+          Assertions.assertEquals(new BeamSearch.CacheStatistics(6, 3, 0),
+              beamSearch.getCacheStatistics());
+        }
+      }
+    } finally {
+      System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+    }
+  }
+
+  /**
+   * Tests that split contexts are scored once per position for the static part, and once
+   * per hypothesis for the history part, with the same results as whole contexts.
+   */
+  @Test
+  void testSplitContexts() {
+    String[] sequence = {"1", "2", "2", "3", "1"};
+    MaxentModel model = new AdditiveIdentityModel(new String[] {"1", "2", "3"});
+
+    Sequence[] expected = new BeamSearch(3, model, 0).bestSequences(3, sequence, null,
+        new SplitFeatureGenerator(),
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+
+    System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY, "true");
+    try {
+      SplitFeatureGenerator cg = new SplitFeatureGenerator();
+      BeamSearch beamSearch = new BeamSearch(3, model, 16);
+      Sequence[] actual = beamSearch.bestSequences(3, sequence, null, cg,
+          (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+
+      Assertions.assertEquals(expected.length, actual.length);
+      for (int i = 0; i < expected.length; i++) {
+        Assertions.assertEquals(expected[i].getOutcomes(), actual[i].getOutcomes());
+        Assertions.assertEquals(expected[i].getScore(), actual[i].getScore(), 1e-12);
+      }
+      Assertions.assertEquals(sequence.length, cg.staticContexts);
+      // one hypothesis at the first position, then the full beam
+      Assertions.assertEquals(1 + 3 * (sequence.length - 1), cg.historyContexts);
+      // the contexts cache is bypassed
+      Assertions.assertEquals(new BeamSearch.CacheStatistics(0, 0, 0),
+          beamSearch.getCacheStatistics());
+    } finally {
+      System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+    }
+  }
+
+  /**
+   * Tests that a full contexts cache evicts entries and still yields correct results.
+   */
+  @Test
+  void testContextCacheEviction() {
+    String[] sequence = {"1", "2", "3", "4", "5", "1", "2", "3", "4", "5"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    String[] outcomes = new String[] {"1", "2", "3", "4", "5"};
+    MaxentModel model = new IdentityModel(outcomes);
+
+    BeamSearch bs = new BeamSearch(1, model, 2);
+
+    Sequence seq = bs.bestSequence(sequence, null, cg,
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true);
+
+    Assertions.assertNotNull(seq);
+    for (int i = 0; i < sequence.length; i++) {
+      Assertions.assertEquals(sequence[i], seq.getOutcomes().get(i));
+    }
+
+    BeamSearch.CacheStatistics stats = bs.getCacheStatistics();
+    Assertions.assertEquals(sequence.length, stats.hits() + stats.misses());
+    Assertions.assertTrue(stats.evictions() > 0);
+  }
 }
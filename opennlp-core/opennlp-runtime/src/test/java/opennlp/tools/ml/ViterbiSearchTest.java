@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+public class ViterbiSearchTest {
+
+  private static final String[] OUTCOMES = {"1", "2", "3"};
+
+  private static final SequenceValidator<String> ALL_VALID =
+      (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> true;
+
+  /**
+   * Creates a context of the token and the previous {@code history} outcomes.
+   */
+  static class HistoryFeatureGenerator implements BeamSearchContextGenerator<String> {
+
+    private final int history;
+
+    HistoryFeatureGenerator(int history) {
+      this.history = history;
+    }
+
+    @Override
+    public String[] getContext(int index, String[] sequence,
+                               String[] priorDecisions, Object[] additionalContext) {
+      String[] context = new String[history + 1];
+      context[0] = sequence[index];
+      for (int k = 1; k <= history; k++) {
+        context[k] = "p" + k + "=" + (index >= k ? priorDecisions[index - k] : "");
+      }
+      return context;
+    }
+  }
+
+  /**
+   * Assigns arbitrary but fixed probabilities to the outcomes of each distinct context.
+   */
+  static class HashModel extends BeamSearchTest.IdentityModel {
+
+    HashModel(String[] outcomes) {
+      super(outcomes);
+    }
+
+    @Override
+    public double[] eval(String[] context) {
+      double[] probs = new double[getNumOutcomes()];
+      double sum = 0;
+      for (int oi = 0; oi < probs.length; oi++) {
+        int h = (Arrays.hashCode(context) * 31 + oi) * 0x9E3779B9;
+        probs[oi] = 1 + ((h ^ (h >>> 15)) & 0xFF);
+        sum += probs[oi];
+      }
+      for (int oi = 0; oi < probs.length; oi++) {
+        probs[oi] /= sum;
+      }
+      return probs;
+    }
+  }
+
+  /**
+   * Finds the best sequence by scoring every sequence of outcomes.
+   */
+  private static Sequence exhaustiveSearch(String[] sequence, MaxentModel model,
+                                           BeamSearchContextGenerator<String> cg,
+                                           SequenceValidator<String> validator) {
+    Sequence best = null;
+    int[] indices = new int[sequence.length];
+    while (true) {
+      Sequence candidate = new Sequence();
+      String[] decisions = new String[sequence.length];
+      boolean valid = true;
+      for (int i = 0; i < sequence.length && valid; i++) {
+        String[] prior = Arrays.copyOf(decisions, i);
+        String outcome = OUTCOMES[indices[i]];
+        valid = validator.validSequence(i, sequence, prior, outcome);
+        candidate.add(outcome, model.eval(cg.getContext(i, sequence, prior, null))[indices[i]]);
+        decisions[i] = outcome;
+      }
+      if (valid && (best == null || candidate.getScore() > best.getScore())) {
+        best = candidate;
+      }
+
+      int i = 0;
+      while (i < indices.length && ++indices[i] == OUTCOMES.length) {
+        indices[i++] = 0;
+      }
+      if (i == indices.length) {
+        return best;
+      }
+    }
+  }
+
+  @Test
+  void testBestSequenceZeroLengthInput() {
+    String[] sequence = new String[0];
+    ViterbiSearch viterbi = new ViterbiSearch(new BeamSearchTest.IdentityModel(OUTCOMES));
+
+    Sequence seq = viterbi.bestSequence(sequence, null,
+        new BeamSearchTest.IdentityFeatureGenerator(sequence), ALL_VALID);
+
+    Assertions.assertNotNull(seq);
+    Assertions.assertEquals(0, seq.getSize());
+  }
+
+  @Test
+  void testBestSequence() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    ViterbiSearch viterbi = new ViterbiSearch(new BeamSearchTest.IdentityModel(OUTCOMES));
+
+    Sequence seq = viterbi.bestSequence(sequence, null,
+        new BeamSearchTest.IdentityFeatureGenerator(sequence), ALL_VALID);
+
+    Assertions.assertEquals(List.of(sequence), seq.getOutcomes());
+    for (double prob : seq.getProbs()) {
+      Assertions.assertEquals(0.8d, prob, 0d);
+    }
+    Assertions.assertEquals(5 * StrictMath.log(0.8d), seq.getScore(), 1e-12);
+  }
+
+  @Test
+  void testBestSequenceWithValidator() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    ViterbiSearch viterbi = new ViterbiSearch(new BeamSearchTest.IdentityModel(OUTCOMES));
+
+    Sequence seq = viterbi.bestSequence(sequence, null,
+        new BeamSearchTest.IdentityFeatureGenerator(sequence),
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) ->
+            !"2".equals(outcome));
+
+    Assertions.assertEquals("1", seq.getOutcome(0));
+    Assertions.assertNotEquals("2", seq.getOutcome(1));
+    Assertions.assertEquals("3", seq.getOutcome(2));
+    Assertions.assertNotEquals("2", seq.getOutcome(3));
+    Assertions.assertEquals("1", seq.getOutcome(4));
+
+    Assertions.assertNull(viterbi.bestSequence(sequence, null,
+        new BeamSearchTest.IdentityFeatureGenerator(sequence),
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> i < 3));
+    Assertions.assertEquals(0, viterbi.bestSequences(3, sequence, null,
+        new BeamSearchTest.IdentityFeatureGenerator(sequence),
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) -> false).length);
+  }
+
+  /**
+   * Tests that the search is exact if the contexts depend on at most {@code order} outcomes,
+   * and hence never worse than a greedy beam search.
+   */
+  @Test
+  void testExactSearch() {
+    String[] sequence = {"1", "3", "2", "2", "1", "3"};
+    MaxentModel model = new HashModel(OUTCOMES);
+    SequenceValidator<String> noRepeat =
+        (int i, String[] inputSequence, String[] outcomesSequence, String outcome) ->
+            i == 0 || !outcome.equals(outcomesSequence[i - 1]);
+
+    for (int order = 1; order <= 2; order++) {
+      BeamSearchContextGenerator<String> cg = new HistoryFeatureGenerator(order);
+      ViterbiSearch viterbi = new ViterbiSearch(order, model);
+
+      for (SequenceValidator<String> validator : List.of(ALL_VALID, noRepeat)) {
+        Sequence expected = exhaustiveSearch(sequence, model, cg, validator);
+        Sequence actual = viterbi.bestSequence(sequence, null, cg, validator);
+
+        Assertions.assertEquals(expected.getOutcomes(), actual.getOutcomes());
+        Assertions.assertArrayEquals(expected.getProbs(), actual.getProbs());
+        Assertions.assertEquals(expected.getScore(), actual.getScore(), 1e-12);
+
+        Sequence greedy = new BeamSearch(1, model).bestSequence(sequence, null, cg, validator);
+        Assertions.assertTrue(greedy.getScore() <= actual.getScore() + 1e-12);
+      }
+    }
+  }
+
+  /**
+   * Tests that split contexts are scored once per position for the static part, and once
+   * per search state for the history part.
+   */
+  @Test
+  void testSplitContexts() {
+    String[] sequence = {"1", "2", "2", "3", "1"};
+    MaxentModel model = new BeamSearchTest.AdditiveIdentityModel(OUTCOMES);
+
+    Sequence expected = new ViterbiSearch(model).bestSequence(sequence, null,
+        new BeamSearchTest.SplitFeatureGenerator(), ALL_VALID);
+
+    System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY, "true");
+    try {
+      BeamSearchTest.SplitFeatureGenerator cg = new BeamSearchTest.SplitFeatureGenerator();
+      Sequence actual = new ViterbiSearch(model).bestSequence(sequence, null, cg, ALL_VALID);
+
+      Assertions.assertEquals(expected.getOutcomes(), actual.getOutcomes());
+      Assertions.assertEquals(expected.getScore(), actual.getScore(), 1e-12);
+      Assertions.assertEquals(sequence.length, cg.staticContexts);
+      // the start state at the first position, then one state per outcome
+      Assertions.assertEquals(1 + OUTCOMES.length * (sequence.length - 1), cg.historyContexts);
+    } finally {
+      System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+    }
+  }
+
+  @Test
+  void testBestSequences() {
+    String[][] sequences = {{"1", "2"}, {}, {"3", "3", "1"}};
+    ViterbiSearch viterbi = new ViterbiSearch(new BeamSearchTest.IdentityModel(OUTCOMES));
+    BeamSearchContextGenerator<String> cg = (index, sequence, priorDecisions, additionalContext) ->
+        new String[] {sequence[index]};
+
+    Sequence[] best = viterbi.bestSequences(sequences, null, cg, ALL_VALID);
+
+    Assertions.assertEquals(sequences.length, best.length);
+    for (int i = 0; i < sequences.length; i++) {
+      Assertions.assertEquals(List.of(sequences[i]), best[i].getOutcomes());
+    }
+    Assertions.assertEquals(1, viterbi.bestSequences(3, sequences[0], null, cg, ALL_VALID).length);
+  }
+
+  @Test
+  void testInvalidOrder() {
+    MaxentModel model = new BeamSearchTest.IdentityModel(OUTCOMES);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ViterbiSearch(0, model));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ViterbiSearch(3, model));
+  }
+
+  @Test
+  void testDecoderFactory() {
+    MaxentModel model = new BeamSearchTest.IdentityModel(OUTCOMES);
+    Properties manifest = new Properties();
+    Assertions.assertInstanceOf(BeamSearch.class, SequenceDecoderFactory.create(manifest, 3, model));
+
+    manifest.setProperty(SequenceDecoderFactory.DECODER_PARAMETER, SequenceDecoderFactory.VITERBI);
+    manifest.setProperty(ViterbiSearch.ORDER_PARAMETER, "2");
+    ViterbiSearch viterbi = Assertions.assertInstanceOf(ViterbiSearch.class,
+        SequenceDecoderFactory.create(manifest, 3, model));
+    Assertions.assertEquals(2, viterbi.getOrder());
+
+    manifest.setProperty(SequenceDecoderFactory.DECODER_PARAMETER, "Greedy");
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SequenceDecoderFactory.create(manifest, 3, model));
+  }
+}
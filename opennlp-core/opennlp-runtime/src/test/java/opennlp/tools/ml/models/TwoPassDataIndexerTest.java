@@ -18,11 +18,16 @@
 package opennlp.tools.ml.models;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.SimpleEventStreamBuilder;
@@ -33,6 +38,7 @@ import opennlp.tools.namefind.NameSample;
 import opennlp.tools.namefind.TokenNameFinderFactory;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.Parameters;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
 
@@ -91,4 +97,73 @@ public class TwoPassDataIndexerTest {
     Assertions.assertEquals(5, indexer.getContexts().length);
 
   }
+
+  private static DataIndexer<TrainingParameters> index(ObjectStream<Event> events, String spillFormat,
+                                                       int cutoff, int threads) throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TwoPassDataIndexer.SPILL_FORMAT_PARAM, spillFormat);
+    params.put(Parameters.CUTOFF_PARAM, cutoff);
+    params.put(Parameters.THREADS_PARAM, threads);
+    params.put(AbstractDataIndexer.SORT_PARAM, true);
+    DataIndexer<TrainingParameters> indexer = new TwoPassDataIndexer();
+    indexer.init(params, null);
+    indexer.index(events);
+    return indexer;
+  }
+
+  private static void assertSameIndex(DataIndexer<TrainingParameters> expected,
+                                      DataIndexer<TrainingParameters> actual) {
+    Assertions.assertEquals(expected.getNumEvents(), actual.getNumEvents());
+    Assertions.assertArrayEquals(expected.getContexts(), actual.getContexts());
+    Assertions.assertArrayEquals(expected.getOutcomeList(), actual.getOutcomeList());
+    Assertions.assertArrayEquals(expected.getNumTimesEventsSeen(), actual.getNumTimesEventsSeen());
+    Assertions.assertArrayEquals(expected.getPredLabels(), actual.getPredLabels());
+    Assertions.assertArrayEquals(expected.getOutcomeLabels(), actual.getOutcomeLabels());
+    Assertions.assertArrayEquals(expected.getPredCounts(), actual.getPredCounts());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3})
+  void testCompactSpillFormat(int cutoff) throws IOException {
+    // enough predicates to need several bytes per id, with duplicate events to merge
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      events.add(new Event("o" + (i % 3),
+          new String[] {"f=" + (i % 700), "g=" + (i * 7 % 401), "h=" + (i % 5)}));
+    }
+
+    DataIndexer<TrainingParameters> expected = index(ObjectStreamUtils.createObjectStream(events),
+        TwoPassDataIndexer.SPILL_FORMAT_UTF_VALUE, cutoff, 1);
+
+    assertSameIndex(expected, index(ObjectStreamUtils.createObjectStream(events),
+        TwoPassDataIndexer.SPILL_FORMAT_COMPACT_VALUE, cutoff, 1));
+    // the parallel sort gives the same events
+    assertSameIndex(expected, index(ObjectStreamUtils.createObjectStream(events),
+        TwoPassDataIndexer.SPILL_FORMAT_COMPACT_VALUE, cutoff, 4));
+  }
+
+  @Test
+  void testCompactSpillFormatWithValuesAndDroppedEvents() throws IOException {
+    List<Event> events = List.of(
+        new Event("a", new String[] {"x", "y", "rare"}, new float[] {1f, 2.5f, 3f}),
+        new Event("b", new String[] {"rare2"}),
+        new Event("c", new String[] {"y", "x"}, new float[0]),
+        new Event("a", new String[] {"x", "y", "rare"}, new float[] {1f, 2.5f, 3f}),
+        new Event("b", new String[0]));
+
+    DataIndexer<TrainingParameters> compact = index(ObjectStreamUtils.createObjectStream(events),
+        TwoPassDataIndexer.SPILL_FORMAT_COMPACT_VALUE, 2, 1);
+    assertSameIndex(index(ObjectStreamUtils.createObjectStream(events),
+        TwoPassDataIndexer.SPILL_FORMAT_UTF_VALUE, 2, 1), compact);
+
+    Assertions.assertArrayEquals(new String[] {"rare", "x", "y"}, compact.getPredLabels());
+    Assertions.assertArrayEquals(new String[] {"a", "b", "c"}, compact.getOutcomeLabels());
+    Assertions.assertEquals(3, compact.getNumEvents());
+  }
+
+  @Test
+  void testUnknownSpillFormat() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> index(ObjectStreamUtils.createObjectStream(List.<Event>of()), "XML", 1, 1));
+  }
 }
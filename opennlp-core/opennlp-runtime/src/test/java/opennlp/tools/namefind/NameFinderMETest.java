@@ -19,17 +19,22 @@ package opennlp.tools.namefind;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.util.MockInputStreamFactory;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.Span;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.TrainingParameters;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -120,6 +125,105 @@ public class NameFinderMETest extends AbstractNameFinderTest {
    * Train NamefinderME using AnnotatedSentencesWithTypes.txt with "person"
    * nameType and try the model in a sample text.
    */
+  @Test
+  void testNameFinderWithFeatureSink() throws Exception {
+    ObjectStream<NameSample> sampleStream =
+        new NameSampleDataStream(
+            new PlainTextByLineStream(new MockInputStreamFactory(
+                new File("opennlp/tools/namefind/AnnotatedSentences.txt")), "ISO-8859-1"));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 70);
+    params.put(Parameters.CUTOFF_PARAM, 1);
+
+    TokenNameFinderModel nameFinderModel = NameFinderME.train("eng", null, sampleStream,
+        params, TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec()));
+
+    NameFinderME expected = new NameFinderME(nameFinderModel);
+    final NameFinderME actual;
+    System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY, "true");
+    try {
+      actual = new NameFinderME(nameFinderModel);
+    } finally {
+      System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+    }
+
+    sampleStream.reset();
+    NameSample sample;
+    while ((sample = sampleStream.read()) != null) {
+      if (sample.isClearAdaptiveDataSet()) {
+        expected.clearAdaptiveData();
+        actual.clearAdaptiveData();
+      }
+      String[] sentence = sample.getSentence();
+      assertArrayEquals(expected.find(sentence), actual.find(sentence));
+      // the split contexts are scored in a different order, which may round differently
+      assertArrayEquals(expected.probs(), actual.probs(), 1e-12);
+    }
+  }
+
+  @Test
+  void testNameFinderWithStateStrategy() throws Exception {
+    ObjectStream<NameSample> sampleStream =
+        new NameSampleDataStream(
+            new PlainTextByLineStream(new MockInputStreamFactory(
+                new File("opennlp/tools/namefind/AnnotatedSentences.txt")), "ISO-8859-1"));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 70);
+    params.put(Parameters.CUTOFF_PARAM, 1);
+
+    TokenNameFinderModel nameFinderModel = NameFinderME.train("eng", null, sampleStream,
+        params, TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec()));
+
+    for (StateStrategy strategy : StateStrategy.values()) {
+      NameFinderME expected = new NameFinderME(nameFinderModel);
+      NameFinderME actual = new NameFinderME(nameFinderModel, strategy);
+
+      sampleStream.reset();
+      NameSample sample;
+      while ((sample = sampleStream.read()) != null) {
+        if (sample.isClearAdaptiveDataSet()) {
+          expected.clearAdaptiveData();
+          actual.clearAdaptiveData();
+        }
+        String[] sentence = sample.getSentence();
+        assertArrayEquals(expected.find(sentence), actual.find(sentence), strategy.name());
+      }
+    }
+  }
+
+  @Test
+  void testFindDocument() throws Exception {
+    ObjectStream<NameSample> sampleStream =
+        new NameSampleDataStream(
+            new PlainTextByLineStream(new MockInputStreamFactory(
+                new File("opennlp/tools/namefind/AnnotatedSentences.txt")), "ISO-8859-1"));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 70);
+    params.put(Parameters.CUTOFF_PARAM, 1);
+
+    TokenNameFinderModel nameFinderModel = NameFinderME.train("eng", null, sampleStream,
+        params, TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec()));
+
+    sampleStream.reset();
+    List<String[]> sentences = new ArrayList<>();
+    NameSample sample;
+    while ((sample = sampleStream.read()) != null) {
+      sentences.add(sample.getSentence());
+    }
+    String[][] document = sentences.toArray(new String[0][]);
+
+    NameFinderME sequential = new NameFinderME(nameFinderModel);
+    Span[][] expected = new Span[document.length][];
+    for (int i = 0; i < document.length; i++) {
+      expected[i] = sequential.find(document[i]);
+    }
+
+    assertArrayEquals(expected, new NameFinderME(nameFinderModel).find(document));
+  }
+
   @Test
   void testNameFinderWithTypes() throws Exception {
 
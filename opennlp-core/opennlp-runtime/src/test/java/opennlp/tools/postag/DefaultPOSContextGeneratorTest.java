@@ -34,6 +34,7 @@ import org.junit.jupiter.api.Test;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.StringList;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * We encountered a concurrency issue in the pos tagger module in the class
@@ -125,6 +126,29 @@ public class DefaultPOSContextGeneratorTest {
         + " but actually was \n" + Arrays.toString(actual));
   }
 
+  @Test
+  void splitContext() {
+    final String[] words = Arrays.copyOf(tokens, tokens.length, String[].class);
+    Assertions.assertTrue(defaultPOSContextGenerator.hasStaticContext());
+
+    for (int index = 0; index < words.length; index++) {
+      FeatureSink features = new FeatureSink();
+      defaultPOSContextGenerator.createStaticContext(features, index, words, tags, null);
+      FeatureSink history = new FeatureSink();
+      defaultPOSContextGenerator.createHistoryContext(history, index, words, tags, null);
+      for (String feature : history.toArray()) {
+        Assertions.assertTrue(feature.startsWith("t=") || feature.startsWith("t2="), feature);
+        features.add(feature);
+      }
+
+      final String[] expected = defaultPOSContextGenerator.getContext(index, words, tags, null);
+      final String[] actual = features.toArray();
+      Arrays.sort(expected);
+      Arrays.sort(actual);
+      Assertions.assertArrayEquals(expected, actual, "Split context at: " + index);
+    }
+  }
+
   @Test
   void multithreading() {
     Callable<Void> matching = () -> {
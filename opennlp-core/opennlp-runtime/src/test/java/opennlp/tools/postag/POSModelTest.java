@@ -20,10 +20,18 @@ package opennlp.tools.postag;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.MappedModel;
+import opennlp.tools.ml.model.MappedModelWriter;
 import opennlp.tools.util.model.ModelType;
 
 public class POSModelTest {
@@ -57,4 +65,30 @@ public class POSModelTest {
     }
 
   }
+
+  @Test
+  void testPOSModelSerializationMapped(@TempDir Path tempDir) throws IOException {
+    POSModel posModel = POSTaggerMETest.trainPennFormatPOSModel(ModelType.MAXENT);
+    ByteArrayOutputStream mappedOut = new ByteArrayOutputStream();
+    new MappedModelWriter(posModel.<AbstractModel>getArtifact(POSModel.POS_MODEL_ENTRY_NAME))
+        .write(mappedOut);
+    MappedModel mapped = new MappedModel(ByteBuffer.wrap(mappedOut.toByteArray()));
+
+    POSModel mappedPosModel = new POSModel("eng", mapped, null, new POSTaggerFactory(
+        posModel.getArtifact(POSModel.GENERATOR_DESCRIPTOR_ENTRY_NAME), null, null));
+    Path modelPath = tempDir.resolve("pos-mapped.bin");
+    mappedPosModel.serialize(modelPath);
+
+    final POSModel fromStream;
+    try (InputStream in = Files.newInputStream(modelPath)) {
+      fromStream = new POSModel(in);
+    }
+    String[] sentence = {"The", "driver", "got", "badly", "injured", "by", "the", "accident", "."};
+    String[] expected = new POSTaggerME(posModel).tag(sentence);
+    for (POSModel recreated : new POSModel[] {fromStream, new POSModel(modelPath)}) {
+      Assertions.assertTrue(recreated.isLoadedFromSerialized());
+      Assertions.assertInstanceOf(MappedModel.class, recreated.getArtifact(POSModel.POS_MODEL_ENTRY_NAME));
+      Assertions.assertArrayEquals(expected, new POSTaggerME(recreated).tag(sentence));
+    }
+  }
 }
@@ -20,6 +20,11 @@ package opennlp.tools.postag;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -27,11 +32,19 @@ import org.junit.jupiter.api.Test;
 import opennlp.tools.AbstractModelLoaderTest;
 import opennlp.tools.EnabledWhenCDNAvailable;
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.SequenceDecoderFactory;
+import opennlp.tools.ml.ViterbiSearch;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.StateStrategy;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.model.ModelType;
 
@@ -73,6 +86,89 @@ public class POSTaggerMETest extends AbstractModelLoaderTest {
         POSTagFormat.PENN), sentence, expected);
   }
 
+  /**
+   * Tests that a model trained with the Viterbi decoder uses it, and that it tags
+   * about as accurately as the beam search.
+   */
+  @Test
+  void testPOSTaggerWithViterbiDecoder() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(Parameters.ITERATIONS_PARAM, 100);
+    params.put(Parameters.CUTOFF_PARAM, 5);
+    params.put(SequenceDecoderFactory.DECODER_PARAMETER, SequenceDecoderFactory.VITERBI);
+    params.put(ViterbiSearch.ORDER_PARAMETER, 2);
+
+    POSModel model = POSTaggerME.train("eng", createSampleStream(), params, new POSTaggerFactory());
+    Assertions.assertEquals(SequenceDecoderFactory.VITERBI,
+        model.getManifestProperty(SequenceDecoderFactory.DECODER_PARAMETER));
+    Assertions.assertInstanceOf(ViterbiSearch.class, model.getPosSequenceModel());
+
+    final String[] expected = {"DT", "NN", "VBD", "RB", "VBN", "IN", "DT", "NN", "."};
+    testPOSTagger(new POSTaggerME(model, POSTagFormat.PENN), sentence, expected);
+
+    POSEvaluator viterbi = new POSEvaluator(new POSTaggerME(model, POSTagFormat.PENN));
+    viterbi.evaluate(createSampleStream());
+    POSEvaluator beamSearch = new POSEvaluator(
+        new POSTaggerME(trainPennFormatPOSModel(ModelType.MAXENT), POSTagFormat.PENN));
+    beamSearch.evaluate(createSampleStream());
+    Assertions.assertEquals(beamSearch.getWordAccuracy(), viterbi.getWordAccuracy(), 0.01);
+  }
+
+  /**
+   * Tests that the first and second order Viterbi decoders, with and without scoring the
+   * static features once per position, tag about as accurately as the beam search.
+   */
+  @Test
+  void testSequenceDecoderAccuracy() throws IOException {
+    POSModel model = trainPennFormatPOSModel(ModelType.MAXENT);
+    MaxentModel maxent = model.getArtifact(POSModel.POS_MODEL_ENTRY_NAME);
+    double beamSearch = decoderAccuracy(model,
+        new BeamSearch(POSTaggerME.DEFAULT_BEAM_SIZE, maxent));
+
+    for (String featureSink : new String[] {"false", "true"}) {
+      System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY, featureSink);
+      try {
+        for (int order = 1; order <= 2; order++) {
+          Assertions.assertEquals(beamSearch,
+              decoderAccuracy(model, new ViterbiSearch(order, maxent)), 0.01,
+              "order=" + order + " featureSink=" + featureSink);
+        }
+        Assertions.assertEquals(beamSearch, decoderAccuracy(model,
+            new BeamSearch(POSTaggerME.DEFAULT_BEAM_SIZE, maxent)), 0.01, "featureSink=" + featureSink);
+      } finally {
+        System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+      }
+    }
+  }
+
+  /**
+   * @return The tag accuracy of the {@code decoder} on the training sentences.
+   */
+  private static double decoderAccuracy(POSModel model, SequenceClassificationModel decoder)
+      throws IOException {
+    POSTaggerFactory factory = model.getFactory();
+    POSContextGenerator contextGenerator = factory.getPOSContextGenerator();
+    SequenceValidator<String> validator = factory.getSequenceValidator();
+
+    int correct = 0;
+    int total = 0;
+    try (ObjectStream<POSSample> samples = createSampleStream()) {
+      POSSample sample;
+      while ((sample = samples.read()) != null) {
+        List<String> tags = decoder.bestSequence(sample.getSentence(), null,
+            contextGenerator, validator).getOutcomes();
+        for (int i = 0; i < tags.size(); i++) {
+          if (tags.get(i).equals(sample.getTags()[i])) {
+            correct++;
+          }
+        }
+        total += tags.size();
+      }
+    }
+    return (double) correct / total;
+  }
+
   @Test
   void testPOSTaggerPENNtoUD() throws IOException {
     final String[] expected = {"DET", "NOUN", "VERB", "ADV", "VERB", "ADP", "DET", "NOUN", "PUNCT"};
@@ -89,6 +185,84 @@ public class POSTaggerMETest extends AbstractModelLoaderTest {
         POSTagFormat.CUSTOM), sentence, expected);
   }
 
+  @Test
+  void testPOSTaggerWithSharedStateOnVirtualThreads() throws Exception {
+    final String[] expected = {"DT", "NN", "VBD", "RB", "VBN", "IN", "DT", "NN", "."};
+    POSModel model = trainPennFormatPOSModel(ModelType.MAXENT);
+
+    for (StateStrategy strategy : StateStrategy.values()) {
+      POSTaggerME tagger = new POSTaggerME(model, POSTagFormat.PENN, -1, strategy);
+      List<Future<String[]>> tags = new ArrayList<>();
+      try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int i = 0; i < 50; i++) {
+          tags.add(executor.submit(() -> tagger.tag(sentence)));
+        }
+        for (Future<String[]> tag : tags) {
+          Assertions.assertArrayEquals(expected, tag.get(), strategy.name());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testPOSTaggerDocument() throws IOException {
+    List<String[]> sentences = new ArrayList<>();
+    try (ObjectStream<POSSample> samples = createSampleStream()) {
+      POSSample sample;
+      while ((sample = samples.read()) != null) {
+        sentences.add(sample.getSentence());
+      }
+    }
+    String[][] document = sentences.toArray(new String[0][]);
+
+    POSTaggerME tagger = new POSTaggerME(trainPennFormatPOSModel(ModelType.MAXENT), POSTagFormat.UD);
+    String[][] expected = new String[document.length][];
+    for (int i = 0; i < document.length; i++) {
+      expected[i] = tagger.tag(document[i]);
+    }
+
+    Assertions.assertArrayEquals(expected, tagger.tag(document));
+    try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+      Assertions.assertArrayEquals(expected, tagger.tag(document, executor));
+    }
+    Assertions.assertEquals(0, tagger.tag(new String[0][]).length);
+  }
+
+  @Test
+  void testPOSTaggerWithFeatureSink() throws IOException {
+    for (ModelType type : new ModelType[] {ModelType.MAXENT, ModelType.PERCEPTRON}) {
+      POSModel model = trainPennFormatPOSModel(type);
+      POSTaggerME expected = new POSTaggerME(model);
+      final POSTaggerME actual;
+      System.setProperty(BeamSearch.FEATURE_SINK_PROPERTY, "true");
+      try {
+        actual = new POSTaggerME(model);
+      } finally {
+        System.clearProperty(BeamSearch.FEATURE_SINK_PROPERTY);
+      }
+
+      try (ObjectStream<POSSample> samples = createSampleStream()) {
+        POSSample sample;
+        while ((sample = samples.read()) != null) {
+          Sequence[] expectedSequences = expected.topKSequences(sample.getSentence());
+          Sequence[] actualSequences = actual.topKSequences(sample.getSentence());
+          Assertions.assertEquals(expectedSequences.length, actualSequences.length);
+          for (int i = 0; i < expectedSequences.length; i++) {
+            Assertions.assertEquals(expectedSequences[i].getOutcomes(), actualSequences[i].getOutcomes());
+            Assertions.assertEquals(expectedSequences[i].getScore(), actualSequences[i].getScore(), 1e-9);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testPOSTaggerRejectsNullStateStrategy() throws IOException {
+    POSModel model = trainPennFormatPOSModel(ModelType.MAXENT);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new POSTaggerME(model, POSTagFormat.PENN, -1, null));
+  }
+
   @Test
   void contextCacheSizeRejectsValuesBelowNegativeOne() throws IOException {
     POSModel model = trainPennFormatPOSModel(ModelType.MAXENT);
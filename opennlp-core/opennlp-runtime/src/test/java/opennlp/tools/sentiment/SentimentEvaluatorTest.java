@@ -27,7 +27,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.TrainingParameters;
 
@@ -179,4 +181,57 @@ public class SentimentEvaluatorTest {
     Assertions.assertTrue(evaluator.getFMeasure().getRecallScore() > 0);
     Assertions.assertTrue(evaluator.getFMeasure().getPrecisionScore() > 0);
   }
+
+  @Test
+  void testShardedEvaluation() throws IOException {
+    List<SentimentSample> samples = new ArrayList<>();
+    try (ObjectStream<SentimentSample> sampleStream = new SentimentSampleStream(new PlainTextByLineStream(
+        new ResourceAsStreamFactory(SentimentEvaluatorTest.class, "/opennlp/tools/sentiment/train.txt"),
+        StandardCharsets.UTF_8))) {
+      SentimentSample sample;
+      while ((sample = sampleStream.read()) != null) {
+        samples.add(sample);
+      }
+    }
+    // enough samples for several batches
+    List<SentimentSample> references = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      references.addAll(samples);
+    }
+
+    List<String> sequentialResults = new ArrayList<>();
+    SentimentEvaluator sequential = new SentimentEvaluator(new SentimentME(model),
+        new ResultCollector(sequentialResults));
+    sequential.evaluate(new CollectionObjectStream<>(references));
+
+    List<String> shardedResults = new ArrayList<>();
+    SentimentEvaluator sharded = new SentimentEvaluator(new SentimentME(model),
+        new ResultCollector(shardedResults));
+    sharded.evaluate(new CollectionObjectStream<>(references), 4,
+        () -> new SentimentEvaluator(new SentimentME(model)));
+
+    Assertions.assertEquals(references.size(), shardedResults.size());
+    Assertions.assertEquals(sequentialResults, shardedResults);
+    Assertions.assertEquals(sequential.getFMeasure().getPrecisionScore(),
+        sharded.getFMeasure().getPrecisionScore());
+    Assertions.assertEquals(sequential.getFMeasure().getRecallScore(),
+        sharded.getFMeasure().getRecallScore());
+
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> sharded.evaluate(new CollectionObjectStream<>(references), 0,
+            () -> new SentimentEvaluator(new SentimentME(model))));
+  }
+
+  private record ResultCollector(List<String> results) implements SentimentEvaluationMonitor {
+
+    @Override
+    public void correctlyClassified(SentimentSample reference, SentimentSample prediction) {
+      results.add("+" + prediction.getSentiment() + " " + String.join(" ", reference.getSentence()));
+    }
+
+    @Override
+    public void misclassified(SentimentSample reference, SentimentSample prediction) {
+      results.add("-" + prediction.getSentiment() + " " + String.join(" ", reference.getSentence()));
+    }
+  }
 }
@@ -19,12 +19,14 @@ package opennlp.tools.tokenize;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import opennlp.tools.util.WhitespaceMode;
+import opennlp.tools.util.featuregen.FeatureSink;
 
 /**
  * Tests for the {@link DefaultTokenContextGenerator} class.
@@ -77,4 +79,56 @@ public class DefaultTokenContextGeneratorTest {
     preds = Arrays.asList(cg.getContext("a" + nextLine + "b", 1));
     Assertions.assertFalse(preds.contains("f1_ws"), preds.toString());
   }
+
+  /**
+   * Tests that the features of a token slice in a {@link FeatureSink} are the same,
+   * and in the same order, as those of {@link DefaultTokenContextGenerator#getContext(String, int)}.
+   */
+  @Test
+  void testFeatureSinkContext() {
+    DefaultTokenContextGenerator abbCg = new DefaultTokenContextGenerator(Set.of("Mr.", "etc."));
+    String text = " (Mr. &amp; 1,5 \"etc.\") it's";
+    FeatureSink features = new FeatureSink();
+
+    for (DefaultTokenContextGenerator generator : List.of(cg, abbCg)) {
+      int start = -1;
+      for (int end = 0; end <= text.length(); end++) {
+        if (end < text.length() && text.charAt(end) != ' ') {
+          start = start == -1 ? end : start;
+          continue;
+        }
+        if (start != -1) {
+          String token = text.substring(start, end);
+          for (int index = 0; index < token.length(); index++) {
+            features.clear();
+            generator.createContext(features, new StringBuilder(text), start, end, index);
+            Assertions.assertArrayEquals(generator.getContext(token, index), features.toArray(),
+                token + " at " + index);
+          }
+        }
+        start = -1;
+      }
+    }
+  }
+
+  /**
+   * Tests that subclasses, which may change the features, get the features of
+   * {@link DefaultTokenContextGenerator#getContext(String, int)}.
+   */
+  @Test
+  void testFeatureSinkContextOfSubclass() {
+    DefaultTokenContextGenerator subclass = new DefaultTokenContextGenerator() {
+      @Override
+      protected List<String> createContext(String sentence, int index) {
+        List<String> preds = super.createContext(sentence, index);
+        preds.add("len=" + sentence.length());
+        return preds;
+      }
+    };
+    FeatureSink features = new FeatureSink();
+
+    subclass.createContext(features, "a b-c", 2, 5, 1);
+
+    Assertions.assertArrayEquals(subclass.getContext("b-c", 1), features.toArray());
+  }
 }
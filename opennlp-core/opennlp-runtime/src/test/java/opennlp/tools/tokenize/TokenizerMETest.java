@@ -19,16 +19,22 @@ package opennlp.tools.tokenize;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -138,4 +144,130 @@ public class TokenizerMETest {
         tokenizer.tokenize("a\r\n\r\n b\r\n\r\n c"));
   }
 
+  /**
+   * Tokenizes like {@link TokenizerME#tokenizePos(String)} with the {@link String} features
+   * of the {@link TokenContextGenerator}, for a model without abbreviations.
+   */
+  private static TokenSpanBuffer tokenizeWithStringContexts(TokenizerModel model, String text) {
+    TokenSpanBuffer tokens = new TokenSpanBuffer();
+    TokenContextGenerator cg = model.getFactory().getContextGenerator();
+    Pattern alphanumeric = model.getFactory().getAlphaNumericPattern();
+    for (Span s : WhitespaceTokenizer.INSTANCE.tokenizePos(text)) {
+      String tok = s.getCoveredText(text).toString();
+      if (tok.length() < 2 || alphanumeric.matcher(tok).matches()) {
+        tokens.add(s.getStart(), s.getEnd(), 1d);
+        continue;
+      }
+      int start = s.getStart();
+      double tokenProb = 1.0;
+      for (int j = s.getStart() + 1; j < s.getEnd(); j++) {
+        double[] probs = model.getMaxentModel().eval(cg.getContext(tok, j - s.getStart()));
+        String best = model.getMaxentModel().getBestOutcome(probs);
+        tokenProb *= probs[model.getMaxentModel().getIndex(best)];
+        if (best.equals(TokenizerME.SPLIT)) {
+          tokens.add(start, j, tokenProb);
+          start = j;
+          tokenProb = 1.0;
+        }
+      }
+      if (start < s.getEnd()) {
+        tokens.add(start, s.getEnd(), tokenProb);
+      }
+    }
+    return tokens;
+  }
+
+  @Test
+  void testTokenizeIntoSpanBuffer() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+    TokenizerME tokenizer = new TokenizerME(model);
+    TokenSpanBuffer tokens = new TokenSpanBuffer();
+
+    String[] texts = {"Sounds like it's not properly thought through!",
+        "  The driver, Mr. Smith (45), got badly injured.  ", "", " ", "a", "test,"};
+    for (String text : texts) {
+      TokenSpanBuffer reference = tokenizeWithStringContexts(model, text);
+      Span[] expected = tokenizer.tokenizePos(text);
+      double[] expectedProbs = tokenizer.probs();
+      Assertions.assertArrayEquals(reference.toSpans(), expected, text);
+      Assertions.assertArrayEquals(reference.toProbs(), expectedProbs, text);
+
+      // any CharSequence can be tokenized, the buffer is reused
+      tokenizer.tokenizePos(new StringBuilder(text), tokens);
+
+      Assertions.assertArrayEquals(expected, tokens.toSpans(), text);
+      Assertions.assertArrayEquals(expectedProbs, tokens.toProbs(), text);
+      Assertions.assertEquals(expected.length, tokens.size());
+      for (int i = 0; i < tokens.size(); i++) {
+        Assertions.assertEquals(expected[i].getStart(), tokens.getStart(i));
+        Assertions.assertEquals(expected[i].getEnd(), tokens.getEnd(i));
+        Assertions.assertEquals(expectedProbs[i], tokens.getProb(i));
+      }
+    }
+
+    // probs() keeps the probabilities of the last call to tokenizePos(String)
+    tokenizer.tokenizePos("test,");
+    tokenizer.tokenizePos("Sounds like it's not properly thought through!", tokens);
+    Assertions.assertEquals(2, tokenizer.probs().length);
+  }
+
+  @Test
+  void testTokenProbabilitiesDoNotDependOnPreviousInput() throws IOException {
+    // QN models add their scores into the buffer they are given
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel(QNTrainer.MAXENT_QN_VALUE);
+    String text = "The driver, Mr. Smith (45), got badly injured.";
+
+    TokenizerME tokenizer = new TokenizerME(model);
+    Span[] expected = tokenizer.tokenizePos(text);
+    double[] expectedProbs = tokenizer.probs();
+    Assertions.assertArrayEquals(tokenizeWithStringContexts(model, text).toProbs(), expectedProbs, 1e-12);
+
+    for (String previous : new String[] {"Sounds like it's not properly thought through!", "test,",
+        "(45),", text}) {
+      tokenizer.tokenizePos(previous);
+      Assertions.assertArrayEquals(expected, tokenizer.tokenizePos(text), previous);
+      Assertions.assertArrayEquals(expectedProbs, tokenizer.probs(), previous);
+    }
+  }
+
+  @Test
+  void testTokenizeIntoSpanBufferWithCustomContextGenerator() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+    TokenizerME tokenizer = new TokenizerME(model);
+    // the DummyContextGenerator subclasses the DefaultTokenContextGenerator
+    TokenizerME customTokenizer = new TokenizerME(new TokenizerModel(model.getMaxentModel(),
+        new HashMap<>(), new DummyTokenizerFactory("eng", new Dictionary(), true, null)));
+    TokenSpanBuffer tokens = new TokenSpanBuffer();
+
+    String text = "Sounds like it's not properly thought through!";
+    customTokenizer.tokenizePos(text, tokens);
+
+    Assertions.assertArrayEquals(tokenizer.tokenizePos(text), tokens.toSpans());
+    Assertions.assertArrayEquals(tokenizer.probs(), tokens.toProbs());
+  }
+
+  @Test
+  void testAlphanumericTable() {
+    String[] patterns = {"^[A-Za-z0-9]+$", "^[A-Za-z0-9äöüëèéïĳÄÖÜËÉÈÏĲ]+$",
+        "^[A-Za-z0-9żźćńółęąśŻŹĆĄŚĘŁÓŃ]+$", "^[a-zA-Z0-9àâäèéêëîïôœùûüÿçÀÂÄÈÉÊËÎÏÔŒÙÛÜŸÇ]+$"};
+    String[] tokens = {"abc", "ABC123", "it's", "Zoë", "Ĳssel", "żółw", "Œuvre", "a-b", "a.",
+        "x\u0100", "\uD83D\uDE00", "a\n"};
+
+    for (String regex : patterns) {
+      Pattern pattern = Pattern.compile(regex);
+      CharClassTable table = CharClassTable.of(pattern);
+      Assertions.assertNotNull(table, regex);
+      for (String token : tokens) {
+        String text = " " + token + " ";
+        Assertions.assertEquals(pattern.matcher(token).matches(),
+            table.matches(text, 1, text.length() - 1), regex + " " + token);
+      }
+    }
+
+    for (String regex : Set.of("^[^a-z]+$", "^[\\w]+$", "^[a-z]+$|^[0-9]+$", "[a-z]+",
+        "^[a-z&&[^x]]+$")) {
+      Assertions.assertNull(CharClassTable.of(Pattern.compile(regex)), regex);
+    }
+    Assertions.assertNull(CharClassTable.of(Pattern.compile("^[a-z]+$", Pattern.CASE_INSENSITIVE)));
+  }
 }
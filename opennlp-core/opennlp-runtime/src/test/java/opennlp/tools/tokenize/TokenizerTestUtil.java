@@ -63,6 +63,10 @@ public class TokenizerTestUtil {
   }
 
   static TokenizerModel createMaxentTokenModel() throws IOException {
+    return createMaxentTokenModel(null);
+  }
+
+  static TokenizerModel createMaxentTokenModel(String algorithm) throws IOException {
 
     InputStreamFactory trainDataIn = new ResourceAsStreamFactory(
         TokenizerModel.class, "/opennlp/tools/tokenize/token.train");
@@ -73,6 +77,9 @@ public class TokenizerTestUtil {
     TrainingParameters mlParams = new TrainingParameters();
     mlParams.put(Parameters.ITERATIONS_PARAM, 100);
     mlParams.put(Parameters.CUTOFF_PARAM, 0);
+    if (algorithm != null) {
+      mlParams.put(Parameters.ALGORITHM_PARAM, algorithm);
+    }
 
     return TokenizerME.train(samples, TokenizerFactory.create(null, "eng", null, true, null), mlParams);
   }
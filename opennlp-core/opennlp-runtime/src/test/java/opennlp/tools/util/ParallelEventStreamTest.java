@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.namefind.BioCodec;
+import opennlp.tools.namefind.NameFinderEventStream;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderFactory;
+
+/**
+ * Tests for the {@link ParallelEventStream} class.
+ */
+public class ParallelEventStreamTest {
+
+  private static List<NameSample> readSamples() throws IOException {
+    List<NameSample> samples = new ArrayList<>();
+    try (ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+        new PlainTextByLineStream(new MockInputStreamFactory(
+            new File("opennlp/tools/namefind/AnnotatedSentences.txt")), "ISO-8859-1"))) {
+      NameSample sample;
+      while ((sample = sampleStream.read()) != null) {
+        samples.add(sample);
+      }
+    }
+    // enough samples for several batches
+    List<NameSample> repeated = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      repeated.addAll(samples);
+    }
+    return repeated;
+  }
+
+  private static TokenNameFinderFactory factory;
+
+  @BeforeAll
+  static void createFactory() throws IOException {
+    factory = TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec());
+  }
+
+  private static NameFinderEventStream createEventStream(ObjectStream<NameSample> samples) {
+    return new NameFinderEventStream(samples, null, factory.createContextGenerator(),
+        factory.createSequenceCodec());
+  }
+
+  private static List<String> readEvents(ObjectStream<Event> events) throws IOException {
+    List<String> result = new ArrayList<>();
+    Event event;
+    while ((event = events.read()) != null) {
+      result.add(event.toString());
+    }
+    return result;
+  }
+
+  @Test
+  void testSameEventsAsSequentialStream() throws IOException {
+    List<NameSample> samples = readSamples();
+
+    List<String> expected =
+        readEvents(createEventStream(new CollectionObjectStream<>(samples)));
+
+    try (ObjectStream<Event> parallel = new ParallelEventStream<>(
+        new CollectionObjectStream<>(samples), 3, ParallelEventStreamTest::createEventStream)) {
+      Assertions.assertEquals(expected, readEvents(parallel));
+      Assertions.assertNull(parallel.read());
+
+      parallel.reset();
+      Assertions.assertEquals(expected, readEvents(parallel));
+    }
+  }
+
+  @Test
+  void testCreate() throws IOException {
+    ObjectStream<NameSample> samples = new CollectionObjectStream<>(readSamples());
+
+    TrainingParameters params = new TrainingParameters();
+    Assertions.assertInstanceOf(NameFinderEventStream.class,
+        ParallelEventStream.create(samples, params, ParallelEventStreamTest::createEventStream));
+
+    params.put(ParallelEventStream.EVENT_THREADS_PARAM, 2);
+    Assertions.assertInstanceOf(ParallelEventStream.class,
+        ParallelEventStream.create(samples, params, ParallelEventStreamTest::createEventStream));
+
+    params.put(ParallelEventStream.EVENT_THREADS_PARAM, 0);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> ParallelEventStream.create(samples, params, ParallelEventStreamTest::createEventStream));
+  }
+}
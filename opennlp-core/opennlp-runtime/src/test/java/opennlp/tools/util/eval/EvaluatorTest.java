@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.eval;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Tests for the {@link Evaluator} class.
+ */
+public class EvaluatorTest {
+
+  private static class CountingEvaluator extends Evaluator<String> {
+
+    int samples;
+
+    @Override
+    protected String processSample(String reference) {
+      samples++;
+      return reference;
+    }
+  }
+
+  private static class MergingEvaluator extends CountingEvaluator {
+
+    @Override
+    protected void merge(Evaluator<String> shard) {
+      samples += ((CountingEvaluator) shard).samples;
+    }
+  }
+
+  @Test
+  void testCanMerge() {
+    Assertions.assertFalse(new CountingEvaluator().canMerge());
+    Assertions.assertTrue(new MergingEvaluator().canMerge());
+    Assertions.assertTrue(new MergingEvaluator() { }.canMerge());
+  }
+
+  @Test
+  void testShardedEvaluationFailsBeforeStarting() {
+    ObjectStream<String> samples = () -> Assertions.fail("no sample must be read");
+
+    Assertions.assertThrows(UnsupportedOperationException.class,
+        () -> new CountingEvaluator().evaluate(samples, 2,
+            () -> Assertions.fail("no shard must be created")));
+  }
+
+  @Test
+  void testShardedEvaluation() throws Exception {
+    List<String> references = Collections.nCopies(1000, "sample");
+
+    MergingEvaluator evaluator = new MergingEvaluator();
+    evaluator.evaluate(new CollectionObjectStream<>(references), 4,
+        MergingEvaluator::new);
+    Assertions.assertEquals(references.size(), evaluator.samples);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.StringList;
+
+/**
+ * Tests that the built-in feature generators write the same features to a
+ * {@link FeatureSink} as to a list.
+ */
+public class FeatureSinkGeneratorTest {
+
+  private static final String[][] SENTENCES = {
+      {"he", "went", "with", "you", "in", "town"},
+      {"Mr.", "JOHN", "Smith", "paid", "$", "1,000.50", "on", "12/24/2024", "."},
+      {"𐐀BC", "İstanbul", "x"},
+      {"a"}
+  };
+
+  private static BrownCluster brownCluster;
+
+  @BeforeAll
+  static void loadBrownCluster() throws IOException {
+    brownCluster = new BrownCluster(new ResourceAsStreamFactory(FeatureSinkGeneratorTest.class,
+        "/opennlp/tools/formats/brown-cluster.txt").createInputStream());
+  }
+
+  private static Stream<Arguments> generators() {
+    Dictionary dictionary = new Dictionary();
+    dictionary.put(new StringList("John", "Smith"));
+    dictionary.put(new StringList("town"));
+
+    return Stream.of(
+        Arguments.of(new TokenFeatureGenerator()),
+        Arguments.of(new TokenFeatureGenerator(false)),
+        Arguments.of(new TokenClassFeatureGenerator(true)),
+        Arguments.of(new PrefixFeatureGenerator()),
+        Arguments.of(new SuffixFeatureGenerator(2)),
+        Arguments.of(new BigramNameFeatureGenerator()),
+        Arguments.of(new OutcomePriorFeatureGenerator()),
+        Arguments.of(new PreviousMapFeatureGenerator()),
+        Arguments.of(new SentenceFeatureGenerator(true, true)),
+        Arguments.of(new BrownTokenFeatureGenerator(brownCluster)),
+        Arguments.of(new BrownTokenClassFeatureGenerator(brownCluster)),
+        Arguments.of(new BrownBigramFeatureGenerator(brownCluster)),
+        Arguments.of(new DictionaryFeatureGenerator("dict", dictionary)),
+        Arguments.of(new WindowFeatureGenerator(new TokenFeatureGenerator(), 2, 2)),
+        Arguments.of(new WindowFeatureGenerator(
+            new WindowFeatureGenerator(new TokenClassFeatureGenerator(), 1, 1), 2, 1)),
+        Arguments.of(new CachedFeatureGenerator(new AggregatedFeatureGenerator(
+            new WindowFeatureGenerator(new TokenFeatureGenerator(), 2, 2),
+            new PrefixFeatureGenerator(), new BigramNameFeatureGenerator()))),
+        // a generator without a FeatureSink implementation, which uses the default method
+        Arguments.of(new CharacterNgramFeatureGenerator()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("generators")
+  void testSameFeaturesAsList(AdaptiveFeatureGenerator generator) {
+    FeatureSink sink = new FeatureSink();
+    for (String[] tokens : SENTENCES) {
+      // twice, so cached generators are tested with hits as well
+      for (int pass = 0; pass < 2; pass++) {
+        for (int index = 0; index < tokens.length; index++) {
+          List<String> expected = new ArrayList<>();
+          generator.createFeatures(expected, tokens, index, null);
+
+          sink.clear();
+          generator.emitFeatures(sink, tokens, index, null);
+          Assertions.assertArrayEquals(expected.toArray(new String[0]), sink.toArray());
+          for (int i = 0; i < sink.size(); i++) {
+            Assertions.assertEquals(expected.get(i).hashCode(), sink.getHash(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testPushedPrefixIsAppliedToCachedFeatures() {
+    String[] tokens = SENTENCES[0];
+    AdaptiveFeatureGenerator generator = new CachedFeatureGenerator(new TokenFeatureGenerator());
+    FeatureSink sink = new FeatureSink();
+
+    generator.emitFeatures(sink, tokens, 1, null);
+    sink.pushPrefix("p1");
+    generator.emitFeatures(sink, tokens, 1, null);
+    sink.popPrefix();
+
+    Assertions.assertArrayEquals(new String[] {"w=went", "p1w=went"}, sink.toArray());
+  }
+}
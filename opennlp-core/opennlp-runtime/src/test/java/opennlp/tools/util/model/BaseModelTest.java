@@ -20,13 +20,22 @@ package opennlp.tools.util.model;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InvalidClassException;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import opennlp.tools.chunker.ChunkSample;
 import opennlp.tools.chunker.ChunkSampleStream;
@@ -34,19 +43,29 @@ import opennlp.tools.chunker.ChunkerFactory;
 import opennlp.tools.chunker.ChunkerME;
 import opennlp.tools.chunker.ChunkerModel;
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.TrainingParameters;
 
 /**
- * Tests {@link BaseModel#deserialize(Class, java.io.InputStream)} and the
+ * Tests loading a {@link BaseModel} from its sources, and
+ * {@link BaseModel#deserialize(Class, java.io.InputStream)} with the
  * {@link java.io.ObjectInputFilter} it installs.
  */
 public class BaseModelTest {
 
+  private static final String[] SENTENCE = {"Rockwell", "said", "the", "agreement", "calls", "for",
+      "it", "to", "supply", "200", "additional", "so-called", "shipsets", "for", "the", "planes", "."};
+  private static final String[] TAGS = {"NNP", "VBD", "DT", "NN", "VBZ", "IN", "PRP", "TO", "VB",
+      "CD", "JJ", "JJ", "NNS", "IN", "DT", "NNS", "."};
+
   private static ChunkerModel model;
 
+  @TempDir
+  Path tempDir;
+
   @BeforeAll
   static void trainModel() throws IOException {
     ResourceAsStreamFactory in = new ResourceAsStreamFactory(BaseModelTest.class,
@@ -88,4 +107,84 @@ public class BaseModelTest {
     Assertions.assertThrows(InvalidClassException.class, () ->
         BaseModel.deserialize(ChunkerModel.class, new ByteArrayInputStream(bytesOut.toByteArray())));
   }
+
+  @Test
+  void testLoadFromLocalFile() throws IOException {
+    Path modelPath = writeModel("README.txt", "a model".getBytes(StandardCharsets.UTF_8));
+
+    final ChunkerModel fromStream;
+    try (InputStream in = Files.newInputStream(modelPath)) {
+      fromStream = new ChunkerModel(in);
+    }
+    assertSameModel(fromStream, new ChunkerModel(modelPath.toFile()));
+    assertSameModel(fromStream, new ChunkerModel(modelPath));
+    assertSameModel(fromStream, new ChunkerModel(modelPath.toUri().toURL()));
+
+    System.setProperty(BaseModel.DISABLE_PARALLEL_LOADING_PROPERTY, "true");
+    try {
+      assertSameModel(fromStream, new ChunkerModel(modelPath));
+    } finally {
+      System.clearProperty(BaseModel.DISABLE_PARALLEL_LOADING_PROPERTY);
+    }
+  }
+
+  @Test
+  void testLoadFromLocalFileWithManifestLast() throws IOException {
+    // The manifest of this model package is stored after the chunker model
+    URL modelURL = BaseModelTest.class.getResource("/opennlp/tools/chunker/chunker170default.bin");
+    Assertions.assertNotNull(modelURL);
+
+    ChunkerModel loaded = new ChunkerModel(modelURL);
+    Assertions.assertEquals("en", loaded.getLanguage());
+    Assertions.assertNotNull(loaded.getChunkerSequenceModel());
+  }
+
+  @Test
+  void testLoadFromLocalFileWithUnknownArtifact() throws IOException {
+    Path modelPath = writeModel("data.unknown", new byte[] {1, 2, 3});
+    Assertions.assertThrows(InvalidFormatException.class, () -> new ChunkerModel(modelPath));
+  }
+
+  @Test
+  void testLoadFromLocalFileWhichIsNotAZip() throws IOException {
+    Path modelPath = tempDir.resolve("chunker.bin");
+    Files.writeString(modelPath, "not a model package", StandardCharsets.UTF_8);
+
+    Assertions.assertThrows(InvalidFormatException.class, () -> new ChunkerModel(modelPath));
+    try (InputStream in = Files.newInputStream(modelPath)) {
+      Assertions.assertThrows(InvalidFormatException.class, () -> new ChunkerModel(in));
+    }
+  }
+
+  /**
+   * Writes {@link #model} to a file with an additional entry.
+   */
+  private Path writeModel(String extraEntry, byte[] content) throws IOException {
+    ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+    model.serialize(bytesOut);
+
+    Path modelPath = tempDir.resolve("chunker.bin");
+    try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(bytesOut.toByteArray()));
+         OutputStream out = Files.newOutputStream(modelPath);
+         ZipOutputStream zipOut = new ZipOutputStream(out)) {
+      ZipEntry entry;
+      while ((entry = zipIn.getNextEntry()) != null) {
+        zipOut.putNextEntry(new ZipEntry(entry.getName()));
+        zipIn.transferTo(zipOut);
+        zipOut.closeEntry();
+      }
+      zipOut.putNextEntry(new ZipEntry(extraEntry));
+      zipOut.write(content);
+      zipOut.closeEntry();
+    }
+    return modelPath;
+  }
+
+  private static void assertSameModel(ChunkerModel expected, ChunkerModel actual) {
+    Assertions.assertEquals(expected.getLanguage(), actual.getLanguage());
+    Assertions.assertArrayEquals((byte[]) expected.getArtifact("README.txt"),
+        (byte[]) actual.getArtifact("README.txt"));
+    Assertions.assertArrayEquals(new ChunkerME(expected).chunk(SENTENCE, TAGS),
+        new ChunkerME(actual).chunk(SENTENCE, TAGS));
+  }
 }
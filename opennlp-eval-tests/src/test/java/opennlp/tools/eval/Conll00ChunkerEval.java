@@ -17,6 +17,8 @@
 
 package opennlp.tools.eval;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
@@ -25,6 +27,8 @@ import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import opennlp.tools.HighMemoryUsage;
 import opennlp.tools.chunker.ChunkSample;
@@ -33,6 +37,7 @@ import opennlp.tools.chunker.ChunkerEvaluator;
 import opennlp.tools.chunker.ChunkerFactory;
 import opennlp.tools.chunker.ChunkerME;
 import opennlp.tools.chunker.ChunkerModel;
+import opennlp.tools.ml.model.ParameterPrecision;
 import opennlp.tools.util.MarkableFileInputStreamFactory;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
@@ -48,6 +53,8 @@ import opennlp.tools.util.model.ModelUtil;
  */
 public class Conll00ChunkerEval extends AbstractEvalTest {
 
+  private static final Logger logger = LoggerFactory.getLogger(Conll00ChunkerEval.class);
+
   private static File TEST_DATA_FILE;
   private static File TRAIN_DATA_FILE;
 
@@ -61,15 +68,19 @@ public class Conll00ChunkerEval extends AbstractEvalTest {
     return ChunkerME.train("eng", samples, params, new ChunkerFactory());
   }
 
-  private static void eval(ChunkerModel model, File testData,
-                           double expectedFMeasure) throws IOException {
+  private static double evalFMeasure(ChunkerModel model, File testData) throws IOException {
 
     ObjectStream<ChunkSample> samples = new ChunkSampleStream(
         new PlainTextByLineStream(new MarkableFileInputStreamFactory(testData), StandardCharsets.UTF_8));
 
     ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model));
-    evaluator.evaluate(samples);
-    Assertions.assertEquals(expectedFMeasure, evaluator.getFMeasure().getFMeasure(), 0.0001);
+    evaluator.evaluate(samples, 4, () -> new ChunkerEvaluator(new ChunkerME(model)));
+    return evaluator.getFMeasure().getFMeasure();
+  }
+
+  private static void eval(ChunkerModel model, File testData,
+                           double expectedFMeasure) throws IOException {
+    Assertions.assertEquals(expectedFMeasure, evalFMeasure(model, testData), 0.0001);
   }
 
   @BeforeAll
@@ -114,4 +125,36 @@ public class Conll00ChunkerEval extends AbstractEvalTest {
 
     eval(maxentModel, TEST_DATA_FILE, 0.9302599230947028d);
   }
+
+  /**
+   * Reports the size and the F-measure of the GIS model for each {@link ParameterPrecision}
+   * it is serialized with.
+   */
+  @Test
+  void evalEnglishMaxentGisParameterPrecision() throws IOException {
+    ChunkerModel maxentModel = train(TRAIN_DATA_FILE, ModelUtil.createDefaultTrainingParameters());
+
+    int previousSize = Integer.MAX_VALUE;
+    for (ParameterPrecision precision : ParameterPrecision.values()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      System.setProperty(ParameterPrecision.PRECISION_PROPERTY, precision.name());
+      try {
+        maxentModel.serialize(out);
+      } finally {
+        System.clearProperty(ParameterPrecision.PRECISION_PROPERTY);
+      }
+
+      double fMeasure = evalFMeasure(
+          new ChunkerModel(new ByteArrayInputStream(out.toByteArray())), TEST_DATA_FILE);
+      logger.info("{} parameters: {} bytes, F-measure {}", precision, out.size(), fMeasure);
+
+      Assertions.assertTrue(out.size() < previousSize);
+      previousSize = out.size();
+      if (precision == ParameterPrecision.DOUBLE) {
+        Assertions.assertEquals(0.9239687473746113d, fMeasure, ACCURACY_DELTA);
+      } else {
+        Assertions.assertEquals(0.9239687473746113d, fMeasure, 0.01);
+      }
+    }
+  }
 }
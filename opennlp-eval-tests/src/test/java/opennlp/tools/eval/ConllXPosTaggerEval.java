@@ -75,7 +75,7 @@ public class ConllXPosTaggerEval extends AbstractEvalTest {
         new MarkableFileInputStreamFactory(testData), StandardCharsets.UTF_8);
 
     POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model, POSTagFormat.PENN));
-    evaluator.evaluate(samples);
+    evaluator.evaluate(samples, 4, () -> new POSEvaluator(new POSTaggerME(model, POSTagFormat.PENN)));
 
     Assertions.assertEquals(expectedAccuracy, evaluator.getWordAccuracy(), 0.0001);
   }
@@ -66,7 +66,8 @@ public class UniversalDependency20Eval extends AbstractEvalTest {
     LemmatizerEvaluator evaluator = new LemmatizerEvaluator(new LemmatizerME(model));
 
     evaluator.evaluate(new ConlluLemmaSampleStream(new ConlluStream(
-        new MarkableFileInputStreamFactory(evalFile)), tagset));
+        new MarkableFileInputStreamFactory(evalFile)), tagset), 4,
+        () -> new LemmatizerEvaluator(new LemmatizerME(model)));
 
     return evaluator.getWordAccuracy();
   }
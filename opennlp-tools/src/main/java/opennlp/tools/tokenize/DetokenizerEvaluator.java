@@ -71,6 +71,11 @@ public class DetokenizerEvaluator extends Evaluator<TokenSample> {
     return new TokenSample(tokensstring, reference.getTokenSpans());
   }
 
+  @Override
+  protected void merge(Evaluator<TokenSample> shard) {
+    fmeasure.mergeInto(((DetokenizerEvaluator) shard).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
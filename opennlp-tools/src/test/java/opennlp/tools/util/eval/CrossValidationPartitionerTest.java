@@ -18,6 +18,7 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -202,6 +203,54 @@ public class CrossValidationPartitionerTest {
     }
   }
 
+  private static String readAll(ObjectStream<String> stream) throws IOException {
+    StringBuilder result = new StringBuilder();
+    String sample;
+    while ((sample = stream.read()) != null) {
+      result.append(sample).append(' ');
+    }
+    return result.toString().trim();
+  }
+
+  @Test
+  void testParallelEvaluate() throws IOException {
+    List<String> data = new ArrayList<>();
+    for (int i = 1; i <= 23; i++) {
+      data.add(String.format("%02d", i));
+    }
+
+    List<String> expected = new ArrayList<>();
+    CrossValidationPartitioner<String> sequential = new CrossValidationPartitioner<>(data, 5);
+    while (sequential.hasNext()) {
+      TrainingSampleStream<String> partition = sequential.next();
+      String training = readAll(partition);
+      expected.add(training + " | " + readAll(partition.getTestSampleStream()));
+    }
+
+    for (int threads = 1; threads <= 6; threads++) {
+      CrossValidationPartitioner<String> partitioner = new CrossValidationPartitioner<>(data, 5);
+      List<String> results = partitioner.evaluate(threads, partition -> {
+        String training = readAll(partition);
+        return training + " | " + readAll(partition.getTestSampleStream());
+      });
+
+      Assertions.assertEquals(expected, results);
+      Assertions.assertFalse(partitioner.hasNext());
+    }
+  }
+
+  @Test
+  void testParallelEvaluateFailure() {
+    CrossValidationPartitioner<String> partitioner =
+        new CrossValidationPartitioner<>(List.of("01", "02", "03"), 3);
+
+    Assertions.assertThrows(IOException.class, () -> partitioner.evaluate(2, partition -> {
+      throw new IOException("fold failed");
+    }));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new CrossValidationPartitioner<>(List.of("01"), 2).evaluate(0, partition -> null));
+  }
+
   @Test
   void testToString() {
     Collection<String> emptyCollection = Collections.emptySet();
@@ -53,4 +53,18 @@ public class MeanTest {
     c.toString();
   }
 
+  @Test
+  public void testMergeInto() {
+    Mean a = new Mean();
+    a.add(1);
+    a.add(0);
+
+    Mean b = new Mean();
+    b.add(1, 2);
+
+    a.mergeInto(b);
+    Assertions.assertEquals(4, a.count());
+    Assertions.assertEquals(0.75d, a.mean(), 0.00001d);
+    Assertions.assertEquals(2, b.count());
+  }
 }